@@ -0,0 +1,51 @@
+package br.com.andre.benchmark;
+
+import br.com.andre.bsp.BSPNode;
+import br.com.andre.bsp.BSPTreeBuilder;
+import br.com.andre.collision.CollisionObject;
+import br.com.andre.graphic.OBJLoader;
+import br.com.andre.graphic.PolygonGraphic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BSPTreeBuilder#buildBSPTree(List)} sobre os polígonos de mapas gerados.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BSPTreeBuilderBenchmark {
+    @Param({"8", "32", "64"})
+    public int cells;
+
+    private List<PolygonGraphic> polygons;
+
+    @Setup
+    public void setup() {
+        polygons = new ArrayList<>();
+        List<CollisionObject> collisionObjects = new ArrayList<>();
+        OBJLoader.loadOBJ(MapFiles.generate(cells), polygons, new HashMap<>(), collisionObjects);
+    }
+
+    @Benchmark
+    public BSPNode buildBSPTree() {
+        return BSPTreeBuilder.buildBSPTree(polygons);
+    }
+}
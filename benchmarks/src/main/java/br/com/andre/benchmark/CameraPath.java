@@ -0,0 +1,115 @@
+package br.com.andre.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caminho fechado de câmera: uma spline Catmull-Rom uniforme que passa por todos os pontos de
+ * controle e volta ao primeiro.
+ */
+final class CameraPath {
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+
+    CameraPath(List<double[]> points) {
+        if (points.size() < 2) {
+            throw new IllegalArgumentException("O caminho precisa de ao menos dois pontos.");
+        }
+        int n = points.size();
+        xs = new double[n];
+        ys = new double[n];
+        zs = new double[n];
+        for (int i = 0; i < n; i++) {
+            double[] point = points.get(i);
+            xs[i] = point[0];
+            ys[i] = point[1];
+            zs[i] = point[2];
+        }
+    }
+
+    /**
+     * Lê um caminho gravado: um ponto {@code x y z} por linha; linhas vazias e iniciadas por
+     * {@code #} são ignoradas.
+     *
+     * @param file O arquivo do caminho.
+     * @return O caminho.
+     * @throws IOException Se a leitura falhar.
+     */
+    static CameraPath load(Path file) throws IOException {
+        List<double[]> points = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("Ponto inválido no caminho: " + line);
+            }
+            points.add(new double[]{Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Double.parseDouble(parts[2])});
+        }
+        return new CameraPath(points);
+    }
+
+    /**
+     * Cria um caminho em elipse dentro de uma área, com a altura oscilando levemente, para mapas
+     * sem caminho gravado.
+     *
+     * @param minX   O limite mínimo em X.
+     * @param maxX   O limite máximo em X.
+     * @param minZ   O limite mínimo em Z.
+     * @param maxZ   O limite máximo em Z.
+     * @param height A altura média da câmera.
+     * @return O caminho.
+     */
+    static CameraPath orbit(double minX, double maxX, double minZ, double maxZ, double height) {
+        int count = 16;
+        double centerX = (minX + maxX) * 0.5, centerZ = (minZ + maxZ) * 0.5;
+        double radiusX = (maxX - minX) * 0.35, radiusZ = (maxZ - minZ) * 0.35;
+        List<double[]> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double angle = 2 * Math.PI * i / count;
+            // Alterna entre perto e longe do centro para variar a profundidade da cena
+            double scale = i % 2 == 0 ? 1.0 : 0.6;
+            points.add(new double[]{
+                    centerX + Math.cos(angle) * radiusX * scale,
+                    height + (i % 4 == 1 ? height * 0.5 : 0),
+                    centerZ + Math.sin(angle) * radiusZ * scale});
+        }
+        return new CameraPath(points);
+    }
+
+    /**
+     * Amostra o caminho.
+     *
+     * @param t        A posição no caminho, de 0 a 1 (uma volta completa).
+     * @param position Recebe a posição (x, y, z).
+     * @param tangent  Recebe a tangente (x, y, z), não normalizada.
+     */
+    void sample(double t, double[] position, double[] tangent) {
+        int n = xs.length;
+        double s = (t - Math.floor(t)) * n;
+        int i = Math.min((int) s, n - 1);
+        double u = s - i;
+        int i0 = (i - 1 + n) % n, i1 = i, i2 = (i + 1) % n, i3 = (i + 2) % n;
+        position[0] = catmullRom(xs[i0], xs[i1], xs[i2], xs[i3], u);
+        position[1] = catmullRom(ys[i0], ys[i1], ys[i2], ys[i3], u);
+        position[2] = catmullRom(zs[i0], zs[i1], zs[i2], zs[i3], u);
+        tangent[0] = catmullRomDerivative(xs[i0], xs[i1], xs[i2], xs[i3], u);
+        tangent[1] = catmullRomDerivative(ys[i0], ys[i1], ys[i2], ys[i3], u);
+        tangent[2] = catmullRomDerivative(zs[i0], zs[i1], zs[i2], zs[i3], u);
+    }
+
+    private static double catmullRom(double p0, double p1, double p2, double p3, double u) {
+        return 0.5 * (2 * p1 + (p2 - p0) * u + (2 * p0 - 5 * p1 + 4 * p2 - p3) * u * u
+                + (3 * p1 - p0 - 3 * p2 + p3) * u * u * u);
+    }
+
+    private static double catmullRomDerivative(double p0, double p1, double p2, double p3, double u) {
+        return 0.5 * ((p2 - p0) + 2 * (2 * p0 - 5 * p1 + 4 * p2 - p3) * u + 3 * (3 * p1 - p0 - 3 * p2 + p3) * u * u);
+    }
+}
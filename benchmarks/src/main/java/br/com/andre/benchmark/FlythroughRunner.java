@@ -0,0 +1,250 @@
+package br.com.andre.benchmark;
+
+import br.com.andre.engine.InputHandler;
+import br.com.andre.engine.Player;
+import br.com.andre.engine.Renderer;
+import br.com.andre.engine.World;
+import br.com.andre.graphic.PolygonGraphic;
+import br.com.andre.graphic.Vector3;
+import br.com.andre.graphic.transform.VertexTransformers;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Voo de câmera roteirizado e sem janela: carrega um {@link World}, move a câmera ao longo de um
+ * {@link CameraPath} (sem {@code InputHandler} nem {@code Robot}), renderiza cada frame em uma
+ * imagem fora da tela e grava um relatório JSON com os percentis do tempo de frame, o tempo de
+ * cada etapa do {@link Renderer} e a sobreposição dos frames com pausas de GC.
+ * <p>
+ * Ao contrário da média de FPS, os percentis altos e o máximo mostram os engasgos. A câmera
+ * avança uma fração fixa do caminho por frame, então duas execuções renderizam as mesmas cenas.
+ * <p>
+ * Uso: {@code java -Djava.awt.headless=true -cp benchmarks.jar br.com.andre.benchmark.FlythroughRunner
+ * [--map arquivo.obj | --cells N] [--path caminho.txt] [--frames N] [--warmup N] [--width W]
+ * [--height H] [--eye ALTURA] [--out relatorio.json]}
+ */
+public final class FlythroughRunner {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private FlythroughRunner() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path mapFile = null;
+        Path pathFile = null;
+        Path outFile = null;
+        int cells = 32;
+        int frames = 3000;
+        int warmup = 500;
+        int width = 800;
+        int height = 600;
+        double eye = 1.0;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--map" -> mapFile = Path.of(args[i + 1]);
+                case "--cells" -> cells = Integer.parseInt(args[i + 1]);
+                case "--path" -> pathFile = Path.of(args[i + 1]);
+                case "--frames" -> frames = Integer.parseInt(args[i + 1]);
+                case "--warmup" -> warmup = Integer.parseInt(args[i + 1]);
+                case "--width" -> width = Integer.parseInt(args[i + 1]);
+                case "--height" -> height = Integer.parseInt(args[i + 1]);
+                case "--eye" -> eye = Double.parseDouble(args[i + 1]);
+                case "--out" -> outFile = Path.of(args[i + 1]);
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+        if (frames < 1 || warmup < 0) {
+            throw new IllegalArgumentException("O número de frames deve ser positivo.");
+        }
+
+        if (mapFile == null) {
+            mapFile = MapFiles.generate(cells);
+        }
+        World world = new World(mapFile);
+        CameraPath path = pathFile != null ? CameraPath.load(pathFile) : orbitAround(world.getPolygonGraphics(), eye);
+
+        Player player = new Player(new Vector3(0, eye, 0), new InputHandler());
+        Renderer renderer = new Renderer(world, player);
+        renderer.setScreenSize(width, height);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+
+        // Aquecimento pelo mesmo caminho, para o JIT compilar o renderizador antes da medição
+        double[] position = new double[3];
+        double[] tangent = new double[3];
+        for (int frame = 0; frame < warmup; frame++) {
+            placeCamera(player, path, (double) frame / warmup, position, tangent);
+            renderer.render(graphics);
+        }
+
+        long[] frameStart = new long[frames];
+        long[] frameNanos = new long[frames];
+        long[] collectNanos = new long[frames];
+        long[] transformNanos = new long[frames];
+        long[] rasterNanos = new long[frames];
+        long visibleTotal = 0;
+        int visibleMax = 0;
+
+        List<long[]> pauses;
+        try (GcPauseRecorder gcRecorder = new GcPauseRecorder()) {
+            for (int frame = 0; frame < frames; frame++) {
+                long start = System.nanoTime();
+                placeCamera(player, path, (double) frame / frames, position, tangent);
+                renderer.render(graphics);
+                long end = System.nanoTime();
+
+                frameStart[frame] = start;
+                frameNanos[frame] = end - start;
+                collectNanos[frame] = renderer.getCollectNanos();
+                transformNanos[frame] = renderer.getTransformNanos();
+                rasterNanos[frame] = renderer.getRasterNanos();
+                visibleTotal += renderer.getVisiblePolygonCount();
+                visibleMax = Math.max(visibleMax, renderer.getVisiblePolygonCount());
+            }
+            // As notificações de GC chegam em outra thread, com atraso
+            Thread.sleep(200);
+            pauses = gcRecorder.getPauses();
+        }
+        graphics.dispose();
+
+        // Sobreposição de cada frame com as pausas de GC
+        boolean[] overlapsGc = new boolean[frames];
+        long pauseTotal = 0, pauseMax = 0;
+        for (long[] pause : pauses) {
+            pauseTotal += pause[1] - pause[0];
+            pauseMax = Math.max(pauseMax, pause[1] - pause[0]);
+        }
+        int overlapping = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            long start = frameStart[frame], end = start + frameNanos[frame];
+            for (long[] pause : pauses) {
+                if (pause[0] <= end && start <= pause[1]) {
+                    overlapsGc[frame] = true;
+                    overlapping++;
+                    break;
+                }
+            }
+        }
+        long[] sortedFrames = frameNanos.clone();
+        Arrays.sort(sortedFrames);
+        long p99 = percentile(sortedFrames, 99);
+        int slowFrames = 0, slowOverlapping = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            if (frameNanos[frame] >= p99) {
+                slowFrames++;
+                if (overlapsGc[frame]) {
+                    slowOverlapping++;
+                }
+            }
+        }
+
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\n");
+        json.append("  \"map\": \"").append(escape(mapFile.toString())).append("\",\n");
+        json.append("  \"polygons\": ").append(world.getPolygonGraphics().size()).append(",\n");
+        json.append("  \"width\": ").append(width).append(",\n");
+        json.append("  \"height\": ").append(height).append(",\n");
+        json.append("  \"frames\": ").append(frames).append(",\n");
+        json.append("  \"warmupFrames\": ").append(warmup).append(",\n");
+        json.append("  \"simd\": ").append(VertexTransformers.isSimdEnabled()).append(",\n");
+        json.append("  \"javaVersion\": \"").append(escape(System.getProperty("java.version"))).append("\",\n");
+        json.append("  \"frameTimeMs\": ");
+        appendStats(json, sortedFrames);
+        json.append(",\n  \"stagesMs\": {\n    \"collect\": ");
+        appendStats(json, sort(collectNanos));
+        json.append(",\n    \"transform\": ");
+        appendStats(json, sort(transformNanos));
+        json.append(",\n    \"raster\": ");
+        appendStats(json, sort(rasterNanos));
+        json.append("\n  },\n");
+        json.append("  \"visiblePolygons\": {\"mean\": ").append(format((double) visibleTotal / frames))
+                .append(", \"max\": ").append(visibleMax).append("},\n");
+        json.append("  \"gc\": {\"pauses\": ").append(pauses.size())
+                .append(", \"pauseTotalMs\": ").append(format(pauseTotal / NANOS_PER_MILLI))
+                .append(", \"pauseMaxMs\": ").append(format(pauseMax / NANOS_PER_MILLI))
+                .append(", \"framesOverlapping\": ").append(overlapping)
+                .append(", \"slowFrames\": ").append(slowFrames)
+                .append(", \"slowFramesOverlapping\": ").append(slowOverlapping).append("}\n");
+        json.append("}\n");
+
+        if (outFile != null) {
+            Files.writeString(outFile, json, StandardCharsets.UTF_8);
+            System.out.printf(Locale.ROOT, "%d frames: p50 %.3f ms, p99 %.3f ms, máx %.3f ms -> %s%n", frames,
+                    percentile(sortedFrames, 50) / NANOS_PER_MILLI, p99 / NANOS_PER_MILLI,
+                    sortedFrames[frames - 1] / NANOS_PER_MILLI, outFile);
+        } else {
+            System.out.print(json);
+        }
+    }
+
+    private static CameraPath orbitAround(List<PolygonGraphic> polygons, double eye) {
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, minZ = Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+        for (PolygonGraphic polygon : polygons) {
+            for (Vector3 vertex : polygon.getVertices()) {
+                minX = Math.min(minX, vertex.getX());
+                maxX = Math.max(maxX, vertex.getX());
+                minZ = Math.min(minZ, vertex.getZ());
+                maxZ = Math.max(maxZ, vertex.getZ());
+            }
+        }
+        if (minX > maxX) {
+            throw new IllegalArgumentException("O mapa não tem polígonos.");
+        }
+        return CameraPath.orbit(minX, maxX, minZ, maxZ, eye);
+    }
+
+    /**
+     * Posiciona o jogador no caminho, olhando na direção da tangente.
+     */
+    private static void placeCamera(Player player, CameraPath path, double t, double[] position, double[] tangent) {
+        path.sample(t, position, tangent);
+        player.getRigidBody().setPosition(new Vector3(position[0], position[1], position[2]));
+        player.getRigidBody().storePreviousState();
+        double yaw = Math.toDegrees(Math.atan2(tangent[2], tangent[0]));
+        double pitch = Math.toDegrees(Math.atan2(tangent[1], Math.hypot(tangent[0], tangent[2])));
+        player.setOrientation(yaw, pitch);
+    }
+
+    /**
+     * Percentil pelo método do posto mais próximo, sobre valores já ordenados.
+     */
+    private static long percentile(long[] sorted, double percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static long[] sort(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static void appendStats(StringBuilder json, long[] sorted) {
+        long total = 0;
+        for (long value : sorted) {
+            total += value;
+        }
+        json.append("{\"min\": ").append(format(sorted[0] / NANOS_PER_MILLI))
+                .append(", \"mean\": ").append(format(total / NANOS_PER_MILLI / sorted.length))
+                .append(", \"p50\": ").append(format(percentile(sorted, 50) / NANOS_PER_MILLI))
+                .append(", \"p95\": ").append(format(percentile(sorted, 95) / NANOS_PER_MILLI))
+                .append(", \"p99\": ").append(format(percentile(sorted, 99) / NANOS_PER_MILLI))
+                .append(", \"max\": ").append(format(sorted[sorted.length - 1] / NANOS_PER_MILLI)).append('}');
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
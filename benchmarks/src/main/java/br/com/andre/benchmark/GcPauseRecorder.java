@@ -0,0 +1,82 @@
+package br.com.andre.benchmark;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra as pausas de GC a partir das notificações dos coletores, com início e fim no mesmo
+ * relógio de {@link System#nanoTime()}, para cruzá-las com os tempos de frame.
+ * <p>
+ * A JVM informa o início e a duração das pausas em milissegundos, então a sobreposição tem essa
+ * resolução. Ciclos concorrentes (como os do ZGC ou a marcação do G1) não param a aplicação e
+ * são ignorados.
+ */
+final class GcPauseRecorder implements NotificationListener, AutoCloseable {
+    private final long jvmStartNanos;
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final List<long[]> pauses = new ArrayList<>();
+
+    GcPauseRecorder() {
+        jvmStartNanos = System.nanoTime() - ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(this, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        if (isConcurrent(info)) {
+            return;
+        }
+        GcInfo gcInfo = info.getGcInfo();
+        long start = jvmStartNanos + gcInfo.getStartTime() * 1_000_000L;
+        long end = start + gcInfo.getDuration() * 1_000_000L;
+        synchronized (pauses) {
+            pauses.add(new long[]{start, end});
+        }
+    }
+
+    private static boolean isConcurrent(GarbageCollectionNotificationInfo info) {
+        String name = info.getGcName();
+        String action = info.getGcAction();
+        return name.contains("Cycles") || name.contains("Concurrent") || action.contains("concurrent");
+    }
+
+    /**
+     * @return As pausas registradas até agora, como pares {início, fim} em nanossegundos.
+     */
+    List<long[]> getPauses() {
+        synchronized (pauses) {
+            return new ArrayList<>(pauses);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException e) {
+                // Já removido
+            }
+        }
+        emitters.clear();
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.andre.benchmark;
+
+import br.com.andre.tools.MazeGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Gera os mapas OBJ dos benchmarks com o {@link MazeGenerator}: um labirinto de
+ * {@code cells x cells} células com semente fixa.
+ */
+final class MapFiles {
+    private static final long SEED = 42;
+
+    private MapFiles() {
+    }
+
+    /**
+     * Escreve o mapa e o seu arquivo MTL em um diretório temporário.
+     *
+     * @param cells O número de células em cada eixo.
+     * @return O arquivo OBJ gerado.
+     */
+    static Path generate(int cells) {
+        try {
+            Path directory = Files.createTempDirectory("java3dview-bench-");
+            Path obj = directory.resolve("map-" + cells + ".obj");
+            new MazeGenerator(cells, cells, SEED).generate(obj);
+            return obj;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
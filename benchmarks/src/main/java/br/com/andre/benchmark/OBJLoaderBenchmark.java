@@ -0,0 +1,54 @@
+package br.com.andre.benchmark;
+
+import br.com.andre.collision.CollisionObject;
+import br.com.andre.graphic.Material;
+import br.com.andre.graphic.OBJLoader;
+import br.com.andre.graphic.PolygonGraphic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OBJLoader#loadOBJ(Path, List, Map, List)} sobre mapas gerados de tamanho crescente.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OBJLoaderBenchmark {
+    @Param({"8", "32", "64"})
+    public int cells;
+
+    private Path map;
+
+    @Setup
+    public void setup() {
+        map = MapFiles.generate(cells);
+    }
+
+    @Benchmark
+    public List<PolygonGraphic> loadOBJ() {
+        List<PolygonGraphic> polygons = new ArrayList<>();
+        Map<String, Material> materials = new HashMap<>();
+        List<CollisionObject> collisionObjects = new ArrayList<>();
+        OBJLoader.loadOBJ(map, polygons, materials, collisionObjects);
+        return polygons;
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.andre.benchmark;
+
+import br.com.andre.collision.collider_object.AABBCollider;
+import br.com.andre.collision.collider_object.SphereCollider;
+import br.com.andre.graphic.Vector3;
+import br.com.andre.physic.PhysicsEngine;
+import br.com.andre.physic.RigidBody;
+import br.com.andre.physic.StaticBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PhysicsEngine#update(double)} com N esferas empilhadas em camadas sobre um piso. Os corpos
+ * não podem adormecer, para que cada passo meça a integração, a broadphase, a narrowphase e o
+ * solver com os contatos em regime, e não uma cena parada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PhysicsEngineBenchmark {
+    private static final double TIME_STEP = 1.0 / 60.0;
+    private static final int SETTLE_STEPS = 120;
+
+    @Param({"100", "1000", "5000"})
+    public int bodies;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private PhysicsEngine engine;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        engine = new PhysicsEngine();
+        engine.setThreadCount(threads);
+        int side = (int) Math.ceil(Math.sqrt(bodies / 4.0));
+        double extent = side * 1.1 + 2;
+        engine.addBody(new StaticBody(new AABBCollider(new Vector3(-2, -1, -2), new Vector3(extent, 0, extent))));
+
+        Random random = new Random(1);
+        for (int i = 0; i < bodies; i++) {
+            int layer = i / (side * side);
+            int cell = i % (side * side);
+            Vector3 position = new Vector3((cell % side) * 1.1 + random.nextDouble() * 0.05,
+                    0.5 + layer * 1.05, (cell / side) * 1.1 + random.nextDouble() * 0.05);
+            RigidBody body = new RigidBody(engine.getBodyStore(), position, 1, new SphereCollider(position, 0.5));
+            body.setSleepAllowed(false);
+            engine.addBody(body);
+        }
+        for (int i = 0; i < SETTLE_STEPS; i++) {
+            engine.update(TIME_STEP);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public PhysicsEngine update() {
+        engine.update(TIME_STEP);
+        return engine;
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.andre.benchmark;
+
+import br.com.andre.engine.InputHandler;
+import br.com.andre.engine.Player;
+import br.com.andre.engine.Renderer;
+import br.com.andre.engine.World;
+import br.com.andre.graphic.Vector3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Renderer#render} sem janela, desenhando em uma imagem fora da tela. A câmera fica no
+ * centro do mapa olhando ao longo dele; {@code simd} escolhe a transformação de vértices.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class RendererBenchmark {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+
+    @Param({"8", "32"})
+    public int cells;
+
+    @Param({"true", "false"})
+    public boolean simd;
+
+    private Renderer renderer;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setup() {
+        // Lida pelo VertexTransformers quando o Renderer é criado
+        System.setProperty("java3dview.simd", Boolean.toString(simd));
+        World world = new World(MapFiles.generate(cells));
+        double center = cells;
+        Player player = new Player(new Vector3(center, 1, center), new InputHandler());
+        renderer = new Renderer(world, player);
+        renderer.setScreenSize(WIDTH, HEIGHT);
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage render() {
+        renderer.render(graphics);
+        return image;
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.andre.benchmark;
+
+import br.com.andre.graphic.Vector3;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações de {@link Vector3}. Cada operação devolve um vetor novo, então a taxa de alocação
+ * (perfilador de GC) é tão relevante quanto o tempo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Vector3Benchmark {
+    private Vector3 a;
+    private Vector3 b;
+
+    @Setup
+    public void setup() {
+        a = new Vector3(1.5, -2.25, 3.125);
+        b = new Vector3(-0.5, 4.0, 0.75);
+    }
+
+    @Benchmark
+    public Vector3 add() {
+        return a.add(b);
+    }
+
+    @Benchmark
+    public Vector3 subtract() {
+        return a.subtract(b);
+    }
+
+    @Benchmark
+    public Vector3 cross() {
+        return a.cross(b);
+    }
+
+    @Benchmark
+    public double dot() {
+        return a.dot(b);
+    }
+
+    @Benchmark
+    public Vector3 normalize() {
+        return a.normalize();
+    }
+
+    /**
+     * Expressão típica do renderizador: normal de um triângulo a partir de três vértices.
+     */
+    @Benchmark
+    public Vector3 triangleNormal() {
+        return b.subtract(a).cross(a.add(b).subtract(a)).normalize();
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.andre.benchmark;
+
+import br.com.andre.graphic.Vector3;
+import br.com.andre.graphic.transform.VertexBuffer;
+import br.com.andre.graphic.transform.VertexTransformer;
+import br.com.andre.graphic.transform.VertexTransformers;
+import br.com.andre.graphic.transform.ViewTransform;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Só a transformação de vértices do renderizador, sem descarte nem desenho, que dominam o tempo de
+ * {@link RendererBenchmark}. {@code simd} escolhe a implementação; os vértices ficam espalhados em
+ * volta da câmera, parte atrás dela e parte fora da tela, para exercitar todos os outcodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class VertexTransformBenchmark {
+    @Param({"8000"})
+    public int vertices;
+
+    @Param({"true", "false"})
+    public boolean simd;
+
+    private VertexTransformer transformer;
+    private VertexBuffer buffer;
+    private ViewTransform transform;
+
+    @Setup
+    public void setup() {
+        System.setProperty("java3dview.simd", Boolean.toString(simd));
+        transformer = VertexTransformers.create();
+        if (simd != VertexTransformers.isSimdEnabled()) {
+            throw new IllegalStateException("A versão SIMD não está disponível nesta JVM.");
+        }
+
+        Random random = new Random(42);
+        buffer = new VertexBuffer(vertices);
+        buffer.beginPolygon();
+        for (int i = 0; i < vertices; i++) {
+            buffer.addVertex(random.nextDouble() * 40 - 20, random.nextDouble() * 4, random.nextDouble() * 40 - 20);
+        }
+        transform = new ViewTransform();
+        transform.set(new Vector3(0, 1, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0), new Vector3(0, 0, 1),
+                70, 800, 600, 0.1);
+    }
+
+    @Benchmark
+    public VertexBuffer transform() {
+        transformer.transform(buffer, transform);
+        return buffer;
+    }
+}
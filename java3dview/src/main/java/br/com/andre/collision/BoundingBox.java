@@ -0,0 +1,73 @@
+package br.com.andre.collision;
+
+import br.com.andre.graphic.Vector3;
+
+/**
+ * Caixa delimitadora alinhada aos eixos, mutável, usada pelas estruturas de broadphase.
+ * <p>
+ * Diferente do {@link br.com.andre.collision.collider_object.AABBCollider}, guarda os limites
+ * em campos primitivos para que possa ser reaproveitada a cada passo sem alocações.
+ */
+public class BoundingBox {
+    private double minX, minY, minZ;
+    private double maxX, maxY, maxZ;
+
+    public BoundingBox() {
+    }
+
+    public BoundingBox(Vector3 min, Vector3 max) {
+        set(min, max);
+    }
+
+    public void set(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    public void set(Vector3 min, Vector3 max) {
+        set(min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ());
+    }
+
+    public void set(BoundingBox other) {
+        set(other.minX, other.minY, other.minZ, other.maxX, other.maxY, other.maxZ);
+    }
+
+    /**
+     * Verifica se esta caixa se sobrepõe a outra (limites tocando contam como sobreposição).
+     *
+     * @param other A outra caixa.
+     * @return true se as caixas se sobrepõem.
+     */
+    public boolean overlaps(BoundingBox other) {
+        return minX <= other.maxX && maxX >= other.minX
+                && minY <= other.maxY && maxY >= other.minY
+                && minZ <= other.maxZ && maxZ >= other.minZ;
+    }
+
+    public double getMin(int axis) {
+        return axis == 0 ? minX : axis == 1 ? minY : minZ;
+    }
+
+    public double getMax(int axis) {
+        return axis == 0 ? maxX : axis == 1 ? maxY : maxZ;
+    }
+
+    public double getMinX() { return minX; }
+    public double getMinY() { return minY; }
+    public double getMinZ() { return minZ; }
+    public double getMaxX() { return maxX; }
+    public double getMaxY() { return maxY; }
+    public double getMaxZ() { return maxZ; }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{" +
+                "min=(" + minX + ", " + minY + ", " + minZ + ")" +
+                ", max=(" + maxX + ", " + maxY + ", " + maxZ + ")" +
+                '}';
+    }
+}
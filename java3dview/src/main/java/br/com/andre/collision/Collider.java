@@ -13,6 +13,18 @@ public interface Collider {
      */
     void updatePosition(Vector3 position);
 
+    /**
+     * Atualiza a posição do colisor a partir de coordenadas primitivas.
+     * Colisores atualizados a cada passo devem sobrescrever este método para evitar alocações.
+     *
+     * @param x A nova posição no eixo X.
+     * @param y A nova posição no eixo Y.
+     * @param z A nova posição no eixo Z.
+     */
+    default void updatePosition(double x, double y, double z) {
+        updatePosition(new Vector3(x, y, z));
+    }
+
     /**
      * Obtém a posição atual do colisor.
      *
@@ -20,6 +32,15 @@ public interface Collider {
      */
     Vector3 getPosition();
 
+    /**
+     * Obtém o tipo da forma, que escolhe o teste de pares na narrowphase.
+     *
+     * @return O tipo da forma; colisores externos usam {@link ShapeType#CUSTOM}.
+     */
+    default ShapeType getShapeType() {
+        return ShapeType.CUSTOM;
+    }
+
     /**
      * Verifica a colisão com outro colisor.
      *
@@ -27,4 +48,95 @@ public interface Collider {
      * @return Informações sobre a colisão.
      */
     CollisionInfo checkCollision(Collider other);
-}
\ No newline at end of file
+
+    /**
+     * Verifica a colisão com outro colisor, gravando os contatos em uma variedade reutilizável.
+     * A normal gravada aponta de {@code other} para este colisor.
+     * <p>
+     * A implementação padrão converte o resultado de {@link #checkCollision(Collider)} em um único
+     * ponto; colisores usados na simulação devem sobrescrevê-la para não alocar.
+     *
+     * @param other O outro colisor.
+     * @param out   A variedade que recebe os contatos; é esvaziada antes do teste.
+     * @return true se houver colisão.
+     */
+    default boolean collide(Collider other, ContactManifold out) {
+        out.clear();
+        CollisionInfo info = checkCollision(other);
+        if (!info.hasCollision()) {
+            return false;
+        }
+        Vector3 normal = info.getCollisionNormal();
+        Vector3 position = getPosition();
+        out.setNormal(normal.getX(), normal.getY(), normal.getZ());
+        out.addPoint(position.getX(), position.getY(), position.getZ(), info.getPenetrationDepth().length(), 0);
+        return true;
+    }
+
+    /**
+     * Calcula a caixa delimitadora do colisor, usada pela broadphase.
+     *
+     * @param out A caixa que recebe os limites do colisor.
+     */
+    void computeBounds(BoundingBox out);
+
+    /**
+     * Lança um raio {@code origem + direção * t} contra o colisor. Raios que começam dentro do
+     * colisor não o atingem.
+     *
+     * @param ox          A origem no eixo X.
+     * @param oy          A origem no eixo Y.
+     * @param oz          A origem no eixo Z.
+     * @param dx          A direção (não normalizada) no eixo X.
+     * @param dy          A direção no eixo Y.
+     * @param dz          A direção no eixo Z.
+     * @param maxFraction O maior t aceito.
+     * @param out         Recebe t e a normal da superfície atingida, voltada para a origem.
+     * @return true se o raio atingir o colisor; colisores sem suporte a raios retornam false.
+     */
+    default boolean raycast(double ox, double oy, double oz, double dx, double dy, double dz,
+                            double maxFraction, SweepHit out) {
+        return false;
+    }
+
+    /**
+     * Varre uma esfera contra o colisor. Uma esfera que já toca o colisor no início não o atinge.
+     *
+     * @param startX O centro inicial da esfera no eixo X.
+     * @param startY O centro inicial no eixo Y.
+     * @param startZ O centro inicial no eixo Z.
+     * @param radius O raio da esfera.
+     * @param dx     O deslocamento no eixo X.
+     * @param dy     O deslocamento no eixo Y.
+     * @param dz     O deslocamento no eixo Z.
+     * @param out    Recebe a fração do deslocamento e a normal, que aponta do colisor para a esfera.
+     * @return true se a esfera atingir o colisor durante o deslocamento.
+     */
+    default boolean sweepSphere(double startX, double startY, double startZ, double radius,
+                                double dx, double dy, double dz, SweepHit out) {
+        return false;
+    }
+
+    /**
+     * Verifica se o colisor toca uma esfera.
+     *
+     * @param cx     O centro da esfera no eixo X.
+     * @param cy     O centro no eixo Y.
+     * @param cz     O centro no eixo Z.
+     * @param radius O raio da esfera.
+     * @return true se houver sobreposição.
+     */
+    default boolean overlapsSphere(double cx, double cy, double cz, double radius) {
+        return false;
+    }
+
+    /**
+     * Verifica se o colisor toca uma caixa alinhada aos eixos.
+     *
+     * @param box A caixa.
+     * @return true se houver sobreposição.
+     */
+    default boolean overlapsBox(BoundingBox box) {
+        return false;
+    }
+}
@@ -6,6 +6,11 @@ import br.com.andre.graphic.Vector3;
  * Contém informações sobre uma colisão detectada.
  */
 public class CollisionInfo {
+    /**
+     * Instância compartilhada para a ausência de colisão, evitando uma alocação por teste.
+     */
+    public static final CollisionInfo NO_COLLISION = new CollisionInfo(false, null, null);
+
     private boolean hasCollision;
     private Vector3 collisionNormal;
     private Vector3 penetrationDepth;
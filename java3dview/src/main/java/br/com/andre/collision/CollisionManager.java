@@ -1,33 +1,123 @@
 package br.com.andre.collision;
 
+import br.com.andre.collision.broadphase.Broadphase;
+import br.com.andre.collision.broadphase.SweepAndPrune;
+import br.com.andre.physic.ContactSolver;
 import br.com.andre.physic.PhysicsBody;
 import br.com.andre.physic.RigidBody;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 public class CollisionManager {
+    private static final double DEFAULT_TIME_STEP = 1.0 / 60.0;
+
+    private final Broadphase broadphase = new SweepAndPrune();
+    private final Set<PhysicsBody> registeredBodies = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final ContactSolver solver = new ContactSolver();
+    private final List<ContactManifold> manifolds = new ArrayList<>();
+    private final List<PhysicsBody> bodiesA = new ArrayList<>();
+    private final List<PhysicsBody> bodiesB = new ArrayList<>();
+    private int manifoldCount;
+
+    // Eventos de contato despachados em lote depois da resolução
+    private final ContactCache contactCache = new ContactCache();
+    private final ContactEventBuffer contactEvents = new ContactEventBuffer();
+    private final ContactCache.EndListener endCollector = (bodyA, bodyB, manifold) ->
+            contactEvents.add(ContactEvent.Type.END, bodyA, bodyB, manifold, false);
+
+    /**
+     * Detecta e resolve as colisões assumindo um passo de 60 Hz.
+     *
+     * @param bodies Os corpos a testar.
+     */
     public void handleCollisions(List<PhysicsBody> bodies) {
-        for (int i = 0; i < bodies.size(); i++) {
-            PhysicsBody bodyA = bodies.get(i);
-            Collider colliderA = ((RigidBody) bodyA).getCollider();
+        handleCollisions(bodies, DEFAULT_TIME_STEP);
+    }
+
+    /**
+     * Detecta e resolve as colisões entre os corpos.
+     *
+     * @param bodies    Os corpos a testar.
+     * @param deltaTime O passo da simulação (em segundos).
+     */
+    public void handleCollisions(List<PhysicsBody> bodies, double deltaTime) {
+        syncBodies(bodies);
+
+        manifoldCount = 0;
+        contactCache.beginStep();
+        broadphase.update();
+        broadphase.findPairs((bodyA, bodyB) -> {
+            if (bodyA instanceof RigidBody && bodyB instanceof RigidBody && PhysicsBody.shouldCollide(bodyA, bodyB)) {
+                ContactManifold manifold = acquireManifold();
+                if (bodyA.getCollider().collide(bodyB.getCollider(), manifold)) {
+                    bodiesA.set(manifoldCount, bodyA);
+                    bodiesB.set(manifoldCount, bodyB);
+                    manifoldCount++;
+                    resolveCollision((RigidBody) bodyA, (RigidBody) bodyB, manifold);
+                }
+            }
+        });
+        solver.solve(deltaTime);
+
+        for (int i = 0; i < manifoldCount; i++) {
+            contactCache.store(bodiesA.get(i), bodiesB.get(i), manifolds.get(i));
+            bodiesA.set(i, null);
+            bodiesB.set(i, null);
+        }
+        contactCache.endStep(endCollector);
+        contactEvents.dispatch(Collections.emptyList(), Collections.emptyList());
+    }
 
-            for (int j = i + 1; j < bodies.size(); j++) {
-                PhysicsBody bodyB = bodies.get(j);
-                Collider colliderB = ((RigidBody) bodyB).getCollider();
+    public ContactSolver getSolver() {
+        return solver;
+    }
 
-                CollisionInfo collisionInfo = colliderA.checkCollision(colliderB);
+    private ContactManifold acquireManifold() {
+        if (manifoldCount == manifolds.size()) {
+            manifolds.add(new ContactManifold());
+            bodiesA.add(null);
+            bodiesB.add(null);
+        }
+        return manifolds.get(manifoldCount);
+    }
 
-                if (collisionInfo.hasCollision()) {
-                    resolveCollision((RigidBody) bodyA, (RigidBody) bodyB, collisionInfo);
+    /**
+     * Mantém a broadphase sincronizada com a lista recebida, preservando a ordenação
+     * incremental dos corpos que continuam presentes entre chamadas.
+     */
+    private void syncBodies(List<PhysicsBody> bodies) {
+        if (registeredBodies.size() != bodies.size() || !registeredBodies.containsAll(bodies)) {
+            Set<PhysicsBody> current = Collections.newSetFromMap(new IdentityHashMap<>());
+            current.addAll(bodies);
+            for (Iterator<PhysicsBody> it = registeredBodies.iterator(); it.hasNext(); ) {
+                PhysicsBody body = it.next();
+                if (!current.contains(body)) {
+                    broadphase.remove(body);
+                    it.remove();
+                }
+            }
+            for (PhysicsBody body : bodies) {
+                if (registeredBodies.add(body)) {
+                    broadphase.add(body);
                 }
             }
         }
     }
 
-    private void resolveCollision(RigidBody bodyA, RigidBody bodyB, CollisionInfo collisionInfo) {
-        // Implementar resolução de colisão:
-        // - Separar os objetos com base na profundidade de penetração
-        // - Ajustar velocidades com base nas normas de conservação de momento
-        // - Notificar os objetos sobre a colisão (se necessário)
+    private void resolveCollision(RigidBody bodyA, RigidBody bodyB, ContactManifold manifold) {
+        // As notificações são adiadas até o fim da resolução
+        boolean persisted = contactCache.update(bodyA, bodyB, manifold);
+        contactEvents.add(persisted ? ContactEvent.Type.PERSIST : ContactEvent.Type.BEGIN, bodyA, bodyB, manifold, false);
+
+        // A separação e as velocidades são resolvidas em conjunto pelo solver ao final da detecção;
+        // sensores apenas notificam
+        if (!bodyA.isSensor() && !bodyB.isSensor()) {
+            solver.addContact(bodyA, bodyB, manifold);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package br.com.andre.collision;
+
+import br.com.andre.physic.PhysicsBody;
+import br.com.andre.util.LongIntHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Cache persistente de variedades de contato entre passos, indexado pelo par de corpos.
+ * <p>
+ * A cada passo, {@link #update} casa os pontos da nova variedade com os do passo anterior pelo
+ * identificador de feição e copia os impulsos acumulados, permitindo que o solver comece do
+ * resultado anterior. Pares que não foram tocados no passo são descartados por {@link #endStep},
+ * que reporta o fim do contato; pares em que nenhum corpo está acordado são mantidos, pois não
+ * foram testados, e não geram eventos enquanto dormem.
+ */
+public class ContactCache {
+    /**
+     * Recebe os pares cujo contato terminou no passo.
+     */
+    public interface EndListener {
+        /**
+         * @param bodyA    O primeiro corpo do par.
+         * @param bodyB    O segundo corpo do par.
+         * @param manifold A última variedade registrada do par, com a normal apontando de B para A.
+         */
+        void onEnd(PhysicsBody bodyA, PhysicsBody bodyB, ContactManifold manifold);
+    }
+
+    private final LongIntHashMap slotByPair = new LongIntHashMap(64);
+    private ContactManifold[] manifolds = new ContactManifold[64];
+    private long[] pairKeys = new long[64];
+    private PhysicsBody[] bodiesA = new PhysicsBody[64];
+    private PhysicsBody[] bodiesB = new PhysicsBody[64];
+    private int[] touchedStep = new int[64];
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int slotCount;
+    private int step;
+
+    /**
+     * Combina os identificadores dos corpos em uma chave independente da ordem.
+     */
+    public static long pairKey(PhysicsBody bodyA, PhysicsBody bodyB) {
+        long a = bodyA.getId();
+        long b = bodyB.getId();
+        return a < b ? (a << 32) | b : (b << 32) | a;
+    }
+
+    /**
+     * Inicia um novo passo.
+     */
+    public void beginStep() {
+        step++;
+    }
+
+    /**
+     * Transfere os impulsos do passo anterior para a nova variedade e marca o par como em contato.
+     *
+     * @param bodyA    O primeiro corpo do par.
+     * @param bodyB    O segundo corpo do par.
+     * @param manifold A variedade recém-calculada; recebe os impulsos do passo anterior.
+     * @return true se o par já estava em contato no passo anterior.
+     */
+    public boolean update(PhysicsBody bodyA, PhysicsBody bodyB, ContactManifold manifold) {
+        long key = pairKey(bodyA, bodyB);
+        int slot = slotByPair.get(key, -1);
+        boolean persisted = slot >= 0;
+        if (persisted) {
+            ContactManifold cached = manifolds[slot];
+            for (int i = 0; i < manifold.getPointCount(); i++) {
+                for (int j = 0; j < cached.getPointCount(); j++) {
+                    if (cached.getFeatureId(j) == manifold.getFeatureId(i)) {
+                        manifold.setNormalImpulse(i, cached.getNormalImpulse(j));
+                        manifold.setTangentImpulse1(i, cached.getTangentImpulse1(j));
+                        manifold.setTangentImpulse2(i, cached.getTangentImpulse2(j));
+                        break;
+                    }
+                }
+            }
+        } else {
+            slot = allocateSlot();
+            pairKeys[slot] = key;
+            slotByPair.put(key, slot);
+        }
+        bodiesA[slot] = bodyA;
+        bodiesB[slot] = bodyB;
+        touchedStep[slot] = step;
+        return persisted;
+    }
+
+    /**
+     * Copia o estado do GJK guardado para o par, ou o invalida se o par não está em contato.
+     * Apenas lê o cache, e pode ser chamado em paralelo durante a narrowphase.
+     *
+     * @param bodyA O primeiro corpo do par.
+     * @param bodyB O segundo corpo do par.
+     * @param out   Recebe o estado guardado.
+     */
+    public void loadSimplexCache(PhysicsBody bodyA, PhysicsBody bodyB, SimplexCache out) {
+        int slot = slotByPair.get(pairKey(bodyA, bodyB), -1);
+        if (slot >= 0) {
+            out.set(manifolds[slot].getSimplexCache());
+        } else {
+            out.invalidate();
+        }
+    }
+
+    /**
+     * Guarda os impulsos resolvidos no passo para o warm starting do próximo.
+     *
+     * @param bodyA    O primeiro corpo do par.
+     * @param bodyB    O segundo corpo do par.
+     * @param manifold A variedade com os impulsos finais do passo.
+     */
+    public void store(PhysicsBody bodyA, PhysicsBody bodyB, ContactManifold manifold) {
+        int slot = slotByPair.get(pairKey(bodyA, bodyB), -1);
+        if (slot >= 0) {
+            manifolds[slot].set(manifold);
+        }
+    }
+
+    /**
+     * Descarta os pares que não estiveram em contato no passo.
+     *
+     * @param listener Recebe cada par descartado, antes do descarte.
+     */
+    public void endStep(EndListener listener) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (touchedStep[slot] != 0 && touchedStep[slot] != step) {
+                if (isResting(bodiesA[slot]) && isResting(bodiesB[slot])) {
+                    continue; // O par dorme e não foi testado, o contato continua
+                }
+                listener.onEnd(bodiesA[slot], bodiesB[slot], manifolds[slot]);
+                slotByPair.remove(pairKeys[slot]);
+                touchedStep[slot] = 0;
+                bodiesA[slot] = null;
+                bodiesB[slot] = null;
+                manifolds[slot].clear();
+                if (freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+                }
+                freeSlots[freeCount++] = slot;
+            }
+        }
+    }
+
+    /**
+     * @return O número de pares em contato no cache.
+     */
+    public int size() {
+        return slotByPair.size();
+    }
+
+    private static boolean isResting(PhysicsBody body) {
+        return body.isStatic() || !body.isAwake();
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == manifolds.length) {
+            int capacity = slotCount * 2;
+            manifolds = Arrays.copyOf(manifolds, capacity);
+            pairKeys = Arrays.copyOf(pairKeys, capacity);
+            bodiesA = Arrays.copyOf(bodiesA, capacity);
+            bodiesB = Arrays.copyOf(bodiesB, capacity);
+            touchedStep = Arrays.copyOf(touchedStep, capacity);
+        }
+        manifolds[slotCount] = new ContactManifold();
+        return slotCount++;
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.andre.collision;
+
+import br.com.andre.graphic.Vector3;
+import br.com.andre.physic.PhysicsBody;
+
+/**
+ * Evento de contato entregue aos {@link ContactListener}s depois do passo da simulação.
+ * <p>
+ * A mesma instância é reutilizada para todos os eventos de um despacho; listeners que precisem
+ * guardar os dados devem copiá-los.
+ */
+public class ContactEvent {
+    /**
+     * Tipo de transição do contato entre dois passos.
+     */
+    public enum Type {
+        /** Os corpos começaram a se tocar neste passo. */
+        BEGIN,
+        /** Os corpos já se tocavam no passo anterior e continuam se tocando. */
+        PERSIST,
+        /** Os corpos deixaram de se tocar neste passo. */
+        END
+    }
+
+    private Type type;
+    private PhysicsBody body;
+    private PhysicsBody otherBody;
+    private double normalX, normalY, normalZ;
+    private double depth;
+
+    /**
+     * Preenche o evento do ponto de vista de {@code body}.
+     *
+     * @param type      O tipo do evento.
+     * @param body      O corpo que recebe o evento.
+     * @param otherBody O outro corpo do contato.
+     * @param normalX   A normal no eixo X, apontando do outro corpo para {@code body}.
+     * @param normalY   A normal no eixo Y.
+     * @param normalZ   A normal no eixo Z.
+     * @param depth     A maior profundidade de penetração do contato.
+     */
+    public void set(Type type, PhysicsBody body, PhysicsBody otherBody,
+                    double normalX, double normalY, double normalZ, double depth) {
+        this.type = type;
+        this.body = body;
+        this.otherBody = otherBody;
+        this.normalX = normalX;
+        this.normalY = normalY;
+        this.normalZ = normalZ;
+        this.depth = depth;
+    }
+
+    /**
+     * Converte o evento para a representação usada pelos {@link CollisionListener}s.
+     *
+     * @return As informações da colisão.
+     */
+    public CollisionInfo toCollisionInfo() {
+        Vector3 normal = getNormal();
+        return new CollisionInfo(true, normal, normal.multiply(depth));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public PhysicsBody getBody() {
+        return body;
+    }
+
+    public PhysicsBody getOtherBody() {
+        return otherBody;
+    }
+
+    public Vector3 getNormal() {
+        return new Vector3(normalX, normalY, normalZ);
+    }
+
+    public double getNormalX() {
+        return normalX;
+    }
+
+    public double getNormalY() {
+        return normalY;
+    }
+
+    public double getNormalZ() {
+        return normalZ;
+    }
+
+    public double getDepth() {
+        return depth;
+    }
+}
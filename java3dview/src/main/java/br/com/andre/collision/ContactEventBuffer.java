@@ -0,0 +1,96 @@
+package br.com.andre.collision;
+
+import br.com.andre.physic.PhysicsBody;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Eventos de contato de um passo, guardados em arrays e despachados juntos depois do passo,
+ * para que os listeners não rodem no meio da detecção e da resolução.
+ */
+public class ContactEventBuffer {
+    private static final ContactEvent.Type[] TYPES = ContactEvent.Type.values();
+
+    private byte[] types = new byte[16];
+    private PhysicsBody[] bodiesA = new PhysicsBody[16];
+    private PhysicsBody[] bodiesB = new PhysicsBody[16];
+    private double[] normalX = new double[16];
+    private double[] normalY = new double[16];
+    private double[] normalZ = new double[16];
+    private double[] depth = new double[16];
+    private int size;
+
+    private final ContactEvent event = new ContactEvent();
+
+    /**
+     * Registra um evento se algum dos corpos ou dos listeners globais vai recebê-lo.
+     *
+     * @param type               O tipo do evento.
+     * @param bodyA              O primeiro corpo do par.
+     * @param bodyB              O segundo corpo do par.
+     * @param manifold           Os contatos do par, com a normal apontando de B para A.
+     * @param hasGlobalListeners true se há listeners globais, que recebem todos os eventos.
+     */
+    public void add(ContactEvent.Type type, PhysicsBody bodyA, PhysicsBody bodyB, ContactManifold manifold, boolean hasGlobalListeners) {
+        if (!hasGlobalListeners && !bodyA.hasCollisionListeners() && !bodyB.hasCollisionListeners()) {
+            return;
+        }
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            bodiesA = Arrays.copyOf(bodiesA, capacity);
+            bodiesB = Arrays.copyOf(bodiesB, capacity);
+            normalX = Arrays.copyOf(normalX, capacity);
+            normalY = Arrays.copyOf(normalY, capacity);
+            normalZ = Arrays.copyOf(normalZ, capacity);
+            depth = Arrays.copyOf(depth, capacity);
+        }
+        types[size] = (byte) type.ordinal();
+        bodiesA[size] = bodyA;
+        bodiesB[size] = bodyB;
+        normalX[size] = manifold.getNormalX();
+        normalY[size] = manifold.getNormalY();
+        normalZ[size] = manifold.getNormalZ();
+        depth[size] = manifold.getMaxDepth();
+        size++;
+    }
+
+    /**
+     * Entrega os eventos na ordem em que foram registrados e esvazia o buffer. Cada corpo recebe o
+     * evento com a normal apontando para si; os listeners globais recebem o evento do ponto de vista de A.
+     *
+     * @param globalListeners Os listeners globais.
+     * @param globalTypes     Os tipos assinados por cada listener global, na mesma ordem.
+     */
+    public void dispatch(List<ContactListener> globalListeners, List<Set<ContactEvent.Type>> globalTypes) {
+        for (int i = 0; i < size; i++) {
+            ContactEvent.Type type = TYPES[types[i]];
+            PhysicsBody a = bodiesA[i], b = bodiesB[i];
+            if (a.hasCollisionListeners()) {
+                event.set(type, a, b, normalX[i], normalY[i], normalZ[i], depth[i]);
+                a.notifyContact(event);
+            }
+            if (b.hasCollisionListeners()) {
+                event.set(type, b, a, -normalX[i], -normalY[i], -normalZ[i], depth[i]);
+                b.notifyContact(event);
+            }
+            if (!globalListeners.isEmpty()) {
+                event.set(type, a, b, normalX[i], normalY[i], normalZ[i], depth[i]);
+                for (int l = 0; l < globalListeners.size(); l++) {
+                    if (globalTypes.get(l).contains(type)) {
+                        globalListeners.get(l).onContact(event);
+                    }
+                }
+            }
+        }
+        Arrays.fill(bodiesA, 0, size, null);
+        Arrays.fill(bodiesB, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+}
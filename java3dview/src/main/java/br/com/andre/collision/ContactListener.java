@@ -0,0 +1,13 @@
+package br.com.andre.collision;
+
+/**
+ * Interface para ouvir eventos de contato despachados em lote após cada passo da física.
+ */
+public interface ContactListener {
+    /**
+     * Método chamado para cada evento de contato dos tipos assinados.
+     *
+     * @param event O evento; a instância é reutilizada e não deve ser guardada.
+     */
+    void onContact(ContactEvent event);
+}
@@ -0,0 +1,141 @@
+package br.com.andre.collision;
+
+import br.com.andre.graphic.Vector3;
+
+/**
+ * Variedade de contato reutilizável preenchida pela narrowphase.
+ * <p>
+ * Guarda uma normal única e até {@link #MAX_POINTS} pontos de contato em campos primitivos, para
+ * que a narrowphase não aloque objetos. A normal aponta do corpo B para o corpo A: somar
+ * {@code normal * profundidade} à posição de A separa os corpos. Cada ponto carrega um
+ * identificador de feição e os impulsos acumulados pelo solver, que são reaproveitados no passo
+ * seguinte (warm starting) através do {@link ContactCache}, junto com o {@link SimplexCache} do GJK.
+ */
+public class ContactManifold {
+    public static final int MAX_POINTS = 4;
+
+    private double normalX, normalY, normalZ;
+    private int pointCount;
+    private final double[] pointX = new double[MAX_POINTS];
+    private final double[] pointY = new double[MAX_POINTS];
+    private final double[] pointZ = new double[MAX_POINTS];
+    private final double[] depth = new double[MAX_POINTS];
+    private final int[] featureId = new int[MAX_POINTS];
+    private final double[] normalImpulse = new double[MAX_POINTS];
+    private final double[] tangentImpulse1 = new double[MAX_POINTS];
+    private final double[] tangentImpulse2 = new double[MAX_POINTS];
+    private final SimplexCache simplexCache = new SimplexCache();
+
+    /**
+     * Esvazia a variedade. O {@link SimplexCache} é mantido, pois é a entrada do próximo teste.
+     */
+    public void clear() {
+        pointCount = 0;
+    }
+
+    public void setNormal(double x, double y, double z) {
+        normalX = x;
+        normalY = y;
+        normalZ = z;
+    }
+
+    /**
+     * Adiciona um ponto de contato; pontos além de {@link #MAX_POINTS} são ignorados.
+     *
+     * @param x         A posição do ponto no eixo X.
+     * @param y         A posição do ponto no eixo Y.
+     * @param z         A posição do ponto no eixo Z.
+     * @param penetration A profundidade de penetração no ponto.
+     * @param feature   O identificador da feição geradora, estável entre passos.
+     */
+    public void addPoint(double x, double y, double z, double penetration, int feature) {
+        if (pointCount == MAX_POINTS) {
+            return;
+        }
+        int i = pointCount++;
+        pointX[i] = x;
+        pointY[i] = y;
+        pointZ[i] = z;
+        depth[i] = penetration;
+        featureId[i] = feature;
+        normalImpulse[i] = 0;
+        tangentImpulse1[i] = 0;
+        tangentImpulse2[i] = 0;
+    }
+
+    /**
+     * Inverte a normal, trocando os papéis dos corpos A e B.
+     */
+    public void flip() {
+        normalX = -normalX;
+        normalY = -normalY;
+        normalZ = -normalZ;
+    }
+
+    /**
+     * Copia todo o conteúdo de outra variedade, incluindo os impulsos acumulados.
+     *
+     * @param other A variedade de origem.
+     */
+    public void set(ContactManifold other) {
+        normalX = other.normalX;
+        normalY = other.normalY;
+        normalZ = other.normalZ;
+        pointCount = other.pointCount;
+        for (int i = 0; i < pointCount; i++) {
+            pointX[i] = other.pointX[i];
+            pointY[i] = other.pointY[i];
+            pointZ[i] = other.pointZ[i];
+            depth[i] = other.depth[i];
+            featureId[i] = other.featureId[i];
+            normalImpulse[i] = other.normalImpulse[i];
+            tangentImpulse1[i] = other.tangentImpulse1[i];
+            tangentImpulse2[i] = other.tangentImpulse2[i];
+        }
+        simplexCache.set(other.simplexCache);
+    }
+
+    /**
+     * @return A maior profundidade de penetração entre os pontos.
+     */
+    public double getMaxDepth() {
+        double max = 0;
+        for (int i = 0; i < pointCount; i++) {
+            max = Math.max(max, depth[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Converte a variedade para a representação usada pelos {@link CollisionListener}s.
+     *
+     * @param sign 1 para manter a normal, -1 para invertê-la.
+     * @return As informações da colisão.
+     */
+    public CollisionInfo toCollisionInfo(double sign) {
+        if (pointCount == 0) {
+            return CollisionInfo.NO_COLLISION;
+        }
+        Vector3 normal = new Vector3(normalX * sign, normalY * sign, normalZ * sign);
+        return new CollisionInfo(true, normal, normal.multiply(getMaxDepth()));
+    }
+
+    public boolean hasContacts() { return pointCount > 0; }
+    public int getPointCount() { return pointCount; }
+    public double getNormalX() { return normalX; }
+    public double getNormalY() { return normalY; }
+    public double getNormalZ() { return normalZ; }
+    public double getPointX(int i) { return pointX[i]; }
+    public double getPointY(int i) { return pointY[i]; }
+    public double getPointZ(int i) { return pointZ[i]; }
+    public double getDepth(int i) { return depth[i]; }
+    public int getFeatureId(int i) { return featureId[i]; }
+    public double getNormalImpulse(int i) { return normalImpulse[i]; }
+    public double getTangentImpulse1(int i) { return tangentImpulse1[i]; }
+    public double getTangentImpulse2(int i) { return tangentImpulse2[i]; }
+    public SimplexCache getSimplexCache() { return simplexCache; }
+
+    public void setNormalImpulse(int i, double impulse) { normalImpulse[i] = impulse; }
+    public void setTangentImpulse1(int i, double impulse) { tangentImpulse1[i] = impulse; }
+    public void setTangentImpulse2(int i, double impulse) { tangentImpulse2[i] = impulse; }
+}
@@ -0,0 +1,25 @@
+package br.com.andre.collision;
+
+/**
+ * Forma convexa descrita por uma função de suporte, testada pela narrowphase genérica (GJK/EPA).
+ * <p>
+ * A forma é o seu núcleo expandido por uma margem esférica: uma esfera é um ponto com margem igual
+ * ao raio e uma cápsula é um segmento com margem. O GJK mede a distância entre os núcleos, o que é
+ * exato para formas arredondadas; o EPA só é usado quando os núcleos se interpenetram.
+ */
+public interface ConvexShape {
+    /**
+     * Obtém o ponto do núcleo mais distante em uma direção.
+     *
+     * @param dx  A direção no eixo X (não precisa ser normalizada).
+     * @param dy  A direção no eixo Y.
+     * @param dz  A direção no eixo Z.
+     * @param out Recebe o ponto de suporte (x, y, z).
+     */
+    void supportCore(double dx, double dy, double dz, double[] out);
+
+    /**
+     * @return O raio da margem esférica em volta do núcleo, ou 0 para formas sem margem.
+     */
+    double getMargin();
+}
@@ -0,0 +1,18 @@
+package br.com.andre.collision;
+
+/**
+ * Tipo de forma de um {@link Collider}, usado como índice da tabela de despacho de pares da
+ * narrowphase.
+ */
+public enum ShapeType {
+    SPHERE,
+    AABB,
+    POLYGON,
+    CAPSULE,
+    OBB,
+    CONVEX_HULL,
+    /**
+     * Colisores externos, sem teste registrado; colidem por GJK se forem {@link ConvexShape}s.
+     */
+    CUSTOM
+}
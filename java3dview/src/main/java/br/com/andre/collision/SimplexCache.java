@@ -0,0 +1,50 @@
+package br.com.andre.collision;
+
+/**
+ * Estado do GJK guardado entre passos para um par de formas.
+ * <p>
+ * Guarda a direção de busca do último simplex (o eixo de separação, de B para A). Como os corpos
+ * quase não se movem entre passos, o GJK começa por essa direção e costuma convergir em uma ou duas
+ * iterações. Vive na {@link ContactManifold} do par e persiste com ela no {@link ContactCache}.
+ */
+public class SimplexCache {
+    private double axisX, axisY, axisZ;
+    private boolean valid;
+
+    public void set(double x, double y, double z) {
+        axisX = x;
+        axisY = y;
+        axisZ = z;
+        valid = true;
+    }
+
+    public void set(SimplexCache other) {
+        axisX = other.axisX;
+        axisY = other.axisY;
+        axisZ = other.axisZ;
+        valid = other.valid;
+    }
+
+    /**
+     * Descarta o estado guardado; o próximo GJK começa por uma direção arbitrária.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public double getAxisX() {
+        return axisX;
+    }
+
+    public double getAxisY() {
+        return axisY;
+    }
+
+    public double getAxisZ() {
+        return axisZ;
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.andre.collision;
+
+/**
+ * Resultado reutilizável de um teste de varredura: o instante do impacto, como fração do
+ * deslocamento, e a normal da superfície atingida.
+ */
+public class SweepHit {
+    private double time;
+    private double normalX, normalY, normalZ;
+
+    // Ponto auxiliar dos testes, para que não aloquem
+    final double[] scratch = new double[3];
+
+    public void set(double time, double normalX, double normalY, double normalZ) {
+        this.time = time;
+        this.normalX = normalX;
+        this.normalY = normalY;
+        this.normalZ = normalZ;
+    }
+
+    /**
+     * @return A fração (0 a 1) do deslocamento em que ocorre o impacto.
+     */
+    public double getTime() {
+        return time;
+    }
+
+    public double getNormalX() {
+        return normalX;
+    }
+
+    public double getNormalY() {
+        return normalY;
+    }
+
+    public double getNormalZ() {
+        return normalZ;
+    }
+}
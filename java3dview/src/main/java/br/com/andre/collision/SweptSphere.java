@@ -0,0 +1,332 @@
+package br.com.andre.collision;
+
+/**
+ * Testes de tempo de impacto de uma esfera em movimento linear contra caixas e polígonos.
+ * <p>
+ * Varrer uma esfera contra uma forma equivale a lançar um raio do centro contra a forma expandida
+ * pelo raio (a soma de Minkowski). Essa soma é a união de placas (as faces deslocadas pelo raio),
+ * cilindros (as arestas) e esferas (os vértices); o impacto é o menor instante entre os raios
+ * contra cada parte, calculado de forma analítica.
+ * <p>
+ * Formas que a esfera já toca na posição inicial são ignoradas; esses contatos ficam com a
+ * detecção discreta.
+ */
+public final class SweptSphere {
+    private static final double EPSILON = 1e-12;
+
+    private SweptSphere() {
+    }
+
+    /**
+     * Varre uma esfera contra uma caixa alinhada aos eixos.
+     *
+     * @param startX O centro inicial no eixo X.
+     * @param startY O centro inicial no eixo Y.
+     * @param startZ O centro inicial no eixo Z.
+     * @param dx     O deslocamento no eixo X.
+     * @param dy     O deslocamento no eixo Y.
+     * @param dz     O deslocamento no eixo Z.
+     * @param radius O raio da esfera.
+     * @param box    Os limites da caixa.
+     * @param out    Recebe o instante e a normal do impacto, que aponta da caixa para a esfera.
+     * @return true se a esfera atingir a caixa durante o deslocamento.
+     */
+    public static boolean sweepAABB(double startX, double startY, double startZ,
+                                    double dx, double dy, double dz, double radius,
+                                    BoundingBox box, SweepHit out) {
+        double minX = box.getMinX(), minY = box.getMinY(), minZ = box.getMinZ();
+        double maxX = box.getMaxX(), maxY = box.getMaxY(), maxZ = box.getMaxZ();
+
+        // Rejeição rápida pela caixa expandida pelo raio em todos os eixos, que contém a soma
+        if (rayBox(startX, startY, startZ, dx, dy, dz,
+                minX - radius, minY - radius, minZ - radius, maxX + radius, maxY + radius, maxZ + radius) > 1) {
+            return false;
+        }
+        if (distanceSquaredToBox(startX, startY, startZ, box) <= radius * radius) {
+            return false;
+        }
+
+        // Faces: a caixa expandida em um eixo só
+        double t = rayBox(startX, startY, startZ, dx, dy, dz, minX - radius, minY, minZ, maxX + radius, maxY, maxZ);
+        t = Math.min(t, rayBox(startX, startY, startZ, dx, dy, dz, minX, minY - radius, minZ, maxX, maxY + radius, maxZ));
+        t = Math.min(t, rayBox(startX, startY, startZ, dx, dy, dz, minX, minY, minZ - radius, maxX, maxY, maxZ + radius));
+
+        // Arestas e vértices
+        for (int corner = 0; corner < 8; corner++) {
+            double cx = (corner & 1) == 0 ? minX : maxX;
+            double cy = (corner & 2) == 0 ? minY : maxY;
+            double cz = (corner & 4) == 0 ? minZ : maxZ;
+            t = Math.min(t, raySphere(startX, startY, startZ, dx, dy, dz, cx, cy, cz, radius));
+            // Cada aresta é gerada uma vez, a partir do vértice com a coordenada mínima no seu eixo
+            if ((corner & 1) == 0) {
+                t = Math.min(t, rayCylinder(startX, startY, startZ, dx, dy, dz, cx, cy, cz, maxX, cy, cz, radius));
+            }
+            if ((corner & 2) == 0) {
+                t = Math.min(t, rayCylinder(startX, startY, startZ, dx, dy, dz, cx, cy, cz, cx, maxY, cz, radius));
+            }
+            if ((corner & 4) == 0) {
+                t = Math.min(t, rayCylinder(startX, startY, startZ, dx, dy, dz, cx, cy, cz, cx, cy, maxZ, radius));
+            }
+        }
+        if (t > 1) {
+            return false;
+        }
+
+        double x = startX + dx * t, y = startY + dy * t, z = startZ + dz * t;
+        setHit(out, t,
+                x - clamp(x, minX, maxX), y - clamp(y, minY, maxY), z - clamp(z, minZ, maxZ),
+                -dx, -dy, -dz);
+        return true;
+    }
+
+    /**
+     * Varre uma esfera contra um polígono convexo e plano.
+     *
+     * @param startX  O centro inicial no eixo X.
+     * @param startY  O centro inicial no eixo Y.
+     * @param startZ  O centro inicial no eixo Z.
+     * @param dx      O deslocamento no eixo X.
+     * @param dy      O deslocamento no eixo Y.
+     * @param dz      O deslocamento no eixo Z.
+     * @param radius  O raio da esfera.
+     * @param xs      As coordenadas X dos vértices, em ordem.
+     * @param ys      As coordenadas Y dos vértices.
+     * @param zs      As coordenadas Z dos vértices.
+     * @param count   O número de vértices.
+     * @param normalX A normal unitária do plano do polígono, no eixo X.
+     * @param normalY A normal no eixo Y.
+     * @param normalZ A normal no eixo Z.
+     * @param out     Recebe o instante e a normal do impacto, que aponta do polígono para a esfera.
+     * @return true se a esfera atingir o polígono durante o deslocamento.
+     */
+    public static boolean sweepPolygon(double startX, double startY, double startZ,
+                                       double dx, double dy, double dz, double radius,
+                                       double[] xs, double[] ys, double[] zs, int count,
+                                       double normalX, double normalY, double normalZ, SweepHit out) {
+        double[] closest = out.scratch;
+        double startDistance = (startX - xs[0]) * normalX + (startY - ys[0]) * normalY + (startZ - zs[0]) * normalZ;
+        double approach = dx * normalX + dy * normalY + dz * normalZ;
+        double endDistance = startDistance + approach;
+        if ((startDistance > radius && endDistance > radius) || (startDistance < -radius && endDistance < -radius)) {
+            return false; // Não chega a menos de um raio do plano
+        }
+        if (closestPointOnPolygon(startX, startY, startZ, xs, ys, zs, count, normalX, normalY, normalZ, closest) <= radius * radius) {
+            return false;
+        }
+
+        // Face: o plano deslocado pelo raio para o lado de onde a esfera vem
+        double t = Double.MAX_VALUE;
+        if (Math.abs(approach) > EPSILON && Math.abs(startDistance) >= radius) {
+            double side = Math.signum(startDistance);
+            double planeT = (startDistance - side * radius) / -approach;
+            if (planeT >= 0 && planeT <= 1) {
+                double px = startX + dx * planeT - normalX * side * radius;
+                double py = startY + dy * planeT - normalY * side * radius;
+                double pz = startZ + dz * planeT - normalZ * side * radius;
+                if (isInsidePolygon(px, py, pz, xs, ys, zs, count, normalX, normalY, normalZ)) {
+                    t = planeT;
+                }
+            }
+        }
+
+        // Arestas e vértices
+        for (int i = 0; i < count; i++) {
+            int j = i + 1 == count ? 0 : i + 1;
+            t = Math.min(t, raySphere(startX, startY, startZ, dx, dy, dz, xs[i], ys[i], zs[i], radius));
+            t = Math.min(t, rayCylinder(startX, startY, startZ, dx, dy, dz, xs[i], ys[i], zs[i], xs[j], ys[j], zs[j], radius));
+        }
+        if (t > 1) {
+            return false;
+        }
+
+        double x = startX + dx * t, y = startY + dy * t, z = startZ + dz * t;
+        closestPointOnPolygon(x, y, z, xs, ys, zs, count, normalX, normalY, normalZ, closest);
+        setHit(out, t, x - closest[0], y - closest[1], z - closest[2], -dx, -dy, -dz);
+        return true;
+    }
+
+    /**
+     * Calcula o ponto de um polígono convexo e plano mais próximo de p.
+     *
+     * @param px  O ponto no eixo X.
+     * @param py  O ponto no eixo Y.
+     * @param pz  O ponto no eixo Z.
+     * @param xs  As coordenadas X dos vértices, em ordem.
+     * @param ys  As coordenadas Y dos vértices.
+     * @param zs  As coordenadas Z dos vértices.
+     * @param count O número de vértices.
+     * @param nx  A normal unitária do polígono no eixo X.
+     * @param ny  A normal no eixo Y.
+     * @param nz  A normal no eixo Z.
+     * @param out Recebe o ponto mais próximo; pode ser null quando só a distância interessa.
+     * @return O quadrado da distância até o ponto encontrado.
+     */
+    public static double closestPointOnPolygon(double px, double py, double pz,
+                                        double[] xs, double[] ys, double[] zs, int count,
+                                        double nx, double ny, double nz, double[] out) {
+        // Projeção no plano; se cair dentro de todas as arestas, é o ponto mais próximo
+        double distance = (px - xs[0]) * nx + (py - ys[0]) * ny + (pz - zs[0]) * nz;
+        double qx = px - nx * distance, qy = py - ny * distance, qz = pz - nz * distance;
+        boolean inside = isInsidePolygon(qx, qy, qz, xs, ys, zs, count, nx, ny, nz);
+        if (inside) {
+            if (out != null) {
+                out[0] = qx;
+                out[1] = qy;
+                out[2] = qz;
+            }
+            return distance * distance;
+        }
+
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int j = i + 1 == count ? 0 : i + 1;
+            double ex = xs[j] - xs[i], ey = ys[j] - ys[i], ez = zs[j] - zs[i];
+            double edgeLengthSquared = ex * ex + ey * ey + ez * ez;
+            double s = edgeLengthSquared > 0
+                    ? clamp(((px - xs[i]) * ex + (py - ys[i]) * ey + (pz - zs[i]) * ez) / edgeLengthSquared, 0, 1)
+                    : 0;
+            double cx = xs[i] + ex * s, cy = ys[i] + ey * s, cz = zs[i] + ez * s;
+            double ddx = px - cx, ddy = py - cy, ddz = pz - cz;
+            double d2 = ddx * ddx + ddy * ddy + ddz * ddz;
+            if (d2 < best) {
+                best = d2;
+                if (out != null) {
+                    out[0] = cx;
+                    out[1] = cy;
+                    out[2] = cz;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Verifica se um ponto do plano do polígono está dentro de todas as arestas.
+     *
+     * @return true se o ponto estiver dentro do polígono.
+     */
+    public static boolean isInsidePolygon(double qx, double qy, double qz,
+                                           double[] xs, double[] ys, double[] zs, int count,
+                                           double nx, double ny, double nz) {
+        for (int i = 0; i < count; i++) {
+            int j = i + 1 == count ? 0 : i + 1;
+            double ex = xs[j] - xs[i], ey = ys[j] - ys[i], ez = zs[j] - zs[i];
+            double wx = qx - xs[i], wy = qy - ys[i], wz = qz - zs[i];
+            // (e x w) . n negativo indica que o ponto está fora da aresta
+            if ((ey * wz - ez * wy) * nx + (ez * wx - ex * wz) * ny + (ex * wy - ey * wx) * nz < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Instante de entrada do raio s + d*t na caixa, ou {@link Double#MAX_VALUE} se não entrar com t >= 0.
+     * Um raio que começa dentro da caixa entra em t = 0.
+     */
+    public static double rayBox(double sx, double sy, double sz, double dx, double dy, double dz,
+                                 double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        double tEnter = 0, tExit = Double.MAX_VALUE;
+        for (int axis = 0; axis < 3; axis++) {
+            double s = axis == 0 ? sx : axis == 1 ? sy : sz;
+            double d = axis == 0 ? dx : axis == 1 ? dy : dz;
+            double lo = axis == 0 ? minX : axis == 1 ? minY : minZ;
+            double hi = axis == 0 ? maxX : axis == 1 ? maxY : maxZ;
+            if (Math.abs(d) < EPSILON) {
+                if (s < lo || s > hi) {
+                    return Double.MAX_VALUE;
+                }
+                continue;
+            }
+            double t0 = (lo - s) / d;
+            double t1 = (hi - s) / d;
+            if (t0 > t1) {
+                double swap = t0;
+                t0 = t1;
+                t1 = swap;
+            }
+            tEnter = Math.max(tEnter, t0);
+            tExit = Math.min(tExit, t1);
+            if (tEnter > tExit) {
+                return Double.MAX_VALUE;
+            }
+        }
+        return tEnter;
+    }
+
+    /**
+     * Primeiro instante t >= 0 em que o raio toca a esfera, ou {@link Double#MAX_VALUE}.
+     * Um raio que começa dentro da esfera só a toca ao sair, e isso não é reportado.
+     */
+    public static double raySphere(double sx, double sy, double sz, double dx, double dy, double dz,
+                                    double cx, double cy, double cz, double radius) {
+        double mx = sx - cx, my = sy - cy, mz = sz - cz;
+        double a = dx * dx + dy * dy + dz * dz;
+        double b = mx * dx + my * dy + mz * dz;
+        double c = mx * mx + my * my + mz * mz - radius * radius;
+        double discriminant = b * b - a * c;
+        if (a < EPSILON || discriminant < 0) {
+            return Double.MAX_VALUE;
+        }
+        double t = (-b - Math.sqrt(discriminant)) / a;
+        return t >= 0 ? t : Double.MAX_VALUE;
+    }
+
+    /**
+     * Primeiro instante t >= 0 em que o raio toca a lateral do cilindro em torno do segmento ab,
+     * ou {@link Double#MAX_VALUE}. As tampas ficam a cargo das esferas dos vértices.
+     */
+    private static double rayCylinder(double sx, double sy, double sz, double dx, double dy, double dz,
+                                      double ax, double ay, double az, double bx, double by, double bz, double radius) {
+        double ex = bx - ax, ey = by - ay, ez = bz - az;
+        double mx = sx - ax, my = sy - ay, mz = sz - az;
+        double md = mx * ex + my * ey + mz * ez;
+        double nd = dx * ex + dy * ey + dz * ez;
+        double dd = ex * ex + ey * ey + ez * ez;
+        double nn = dx * dx + dy * dy + dz * dz;
+        double mn = mx * dx + my * dy + mz * dz;
+        double a = dd * nn - nd * nd;
+        if (Math.abs(a) < EPSILON) {
+            return Double.MAX_VALUE; // Paralelo ao eixo: só pode tocar as tampas
+        }
+        double k = mx * mx + my * my + mz * mz - radius * radius;
+        double c = dd * k - md * md;
+        double b = dd * mn - nd * md;
+        double discriminant = b * b - a * c;
+        if (discriminant < 0) {
+            return Double.MAX_VALUE;
+        }
+        double t = (-b - Math.sqrt(discriminant)) / a;
+        if (t < 0) {
+            return Double.MAX_VALUE;
+        }
+        double along = md + t * nd;
+        return along >= 0 && along <= dd ? t : Double.MAX_VALUE;
+    }
+
+    private static double distanceSquaredToBox(double x, double y, double z, BoundingBox box) {
+        double cx = x - clamp(x, box.getMinX(), box.getMaxX());
+        double cy = y - clamp(y, box.getMinY(), box.getMaxY());
+        double cz = z - clamp(z, box.getMinZ(), box.getMaxZ());
+        return cx * cx + cy * cy + cz * cz;
+    }
+
+    /**
+     * Grava o impacto, normalizando a normal; sem direção definida, usa o oposto do deslocamento.
+     */
+    private static void setHit(SweepHit out, double t, double nx, double ny, double nz,
+                               double fallbackX, double fallbackY, double fallbackZ) {
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (length < 1e-12) {
+            nx = fallbackX;
+            ny = fallbackY;
+            nz = fallbackZ;
+            length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        }
+        out.set(t, nx / length, ny / length, nz / length);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(value, max));
+    }
+}
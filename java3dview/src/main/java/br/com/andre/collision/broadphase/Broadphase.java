@@ -0,0 +1,36 @@
+package br.com.andre.collision.broadphase;
+
+import br.com.andre.physic.PhysicsBody;
+
+/**
+ * Fase ampla da detecção de colisões: descarta rapidamente os pares de corpos cujas caixas
+ * delimitadoras não se sobrepõem, para que apenas os pares candidatos cheguem ao
+ * {@link br.com.andre.collision.Collider#checkCollision} (narrowphase).
+ */
+public interface Broadphase {
+    /**
+     * Registra um corpo na broadphase.
+     *
+     * @param body O corpo a ser adicionado.
+     */
+    void add(PhysicsBody body);
+
+    /**
+     * Remove um corpo da broadphase.
+     *
+     * @param body O corpo a ser removido.
+     */
+    void remove(PhysicsBody body);
+
+    /**
+     * Atualiza os limites dos corpos após a integração do passo.
+     */
+    void update();
+
+    /**
+     * Emite os pares candidatos. Pares entre dois corpos estáticos nunca são emitidos.
+     *
+     * @param callback O receptor dos pares.
+     */
+    void findPairs(PairCallback callback);
+}
@@ -0,0 +1,596 @@
+package br.com.andre.collision.broadphase;
+
+import br.com.andre.collision.BoundingBox;
+
+import java.util.Arrays;
+
+/**
+ * Árvore dinâmica de caixas delimitadoras (BVH) para corpos em movimento.
+ * <p>
+ * Cada proxy é guardado com uma caixa "gorda" (expandida por uma margem e pelo deslocamento previsto),
+ * de forma que o corpo só precisa ser reinserido quando sai dela. A inserção escolhe o irmão pelo custo
+ * de área de superfície e a árvore é mantida balanceada por rotações. Os nós ficam em arrays primitivos
+ * reaproveitados através de uma lista livre.
+ *
+ * @param <T> O tipo do dado associado a cada proxy.
+ */
+public class DynamicAABBTree<T> {
+    private static final int NULL_NODE = -1;
+    private static final double DEFAULT_MARGIN = 0.1;
+    private static final double DISPLACEMENT_MULTIPLIER = 4.0;
+
+    private final double margin;
+
+    private double[] minX, minY, minZ, maxX, maxY, maxZ;
+    private int[] parent, child1, child2, height;
+    private Object[] userData;
+
+    private int root = NULL_NODE;
+    private int nodeCount;
+    private int nodeCapacity;
+    private int freeList;
+
+    // Pilha de travessia por thread, para que consultas concorrentes (sem modificações) sejam seguras
+    private final ThreadLocal<int[]> stack = ThreadLocal.withInitial(() -> new int[64]);
+
+    public DynamicAABBTree() {
+        this(DEFAULT_MARGIN);
+    }
+
+    /**
+     * @param margin A margem usada para expandir as caixas dos proxies.
+     */
+    public DynamicAABBTree(double margin) {
+        this.margin = margin;
+        nodeCapacity = 16;
+        allocate(nodeCapacity);
+        buildFreeList(0);
+    }
+
+    /**
+     * Cria um proxy para a caixa informada.
+     *
+     * @param bounds   A caixa justa do objeto.
+     * @param userData O dado associado ao proxy.
+     * @return O identificador do proxy.
+     */
+    public int createProxy(BoundingBox bounds, T userData) {
+        int proxyId = allocateNode();
+        minX[proxyId] = bounds.getMinX() - margin;
+        minY[proxyId] = bounds.getMinY() - margin;
+        minZ[proxyId] = bounds.getMinZ() - margin;
+        maxX[proxyId] = bounds.getMaxX() + margin;
+        maxY[proxyId] = bounds.getMaxY() + margin;
+        maxZ[proxyId] = bounds.getMaxZ() + margin;
+        this.userData[proxyId] = userData;
+        height[proxyId] = 0;
+
+        insertLeaf(proxyId);
+        return proxyId;
+    }
+
+    /**
+     * Remove um proxy da árvore.
+     *
+     * @param proxyId O identificador do proxy.
+     */
+    public void destroyProxy(int proxyId) {
+        removeLeaf(proxyId);
+        freeNode(proxyId);
+    }
+
+    /**
+     * Atualiza a caixa de um proxy. A árvore só é alterada se a caixa justa sair da caixa expandida.
+     *
+     * @param proxyId O identificador do proxy.
+     * @param bounds  A nova caixa justa.
+     * @param dx      Deslocamento previsto no eixo X, usado para estender a caixa expandida.
+     * @param dy      Deslocamento previsto no eixo Y.
+     * @param dz      Deslocamento previsto no eixo Z.
+     * @return true se o proxy foi reinserido.
+     */
+    public boolean moveProxy(int proxyId, BoundingBox bounds, double dx, double dy, double dz) {
+        if (minX[proxyId] <= bounds.getMinX() && minY[proxyId] <= bounds.getMinY() && minZ[proxyId] <= bounds.getMinZ()
+                && maxX[proxyId] >= bounds.getMaxX() && maxY[proxyId] >= bounds.getMaxY() && maxZ[proxyId] >= bounds.getMaxZ()) {
+            return false;
+        }
+
+        removeLeaf(proxyId);
+
+        double nMinX = bounds.getMinX() - margin, nMaxX = bounds.getMaxX() + margin;
+        double nMinY = bounds.getMinY() - margin, nMaxY = bounds.getMaxY() + margin;
+        double nMinZ = bounds.getMinZ() - margin, nMaxZ = bounds.getMaxZ() + margin;
+
+        // Estende a caixa na direção do movimento para reduzir reinserções nos próximos passos
+        dx *= DISPLACEMENT_MULTIPLIER;
+        dy *= DISPLACEMENT_MULTIPLIER;
+        dz *= DISPLACEMENT_MULTIPLIER;
+        if (dx < 0) nMinX += dx; else nMaxX += dx;
+        if (dy < 0) nMinY += dy; else nMaxY += dy;
+        if (dz < 0) nMinZ += dz; else nMaxZ += dz;
+
+        minX[proxyId] = nMinX;
+        minY[proxyId] = nMinY;
+        minZ[proxyId] = nMinZ;
+        maxX[proxyId] = nMaxX;
+        maxY[proxyId] = nMaxY;
+        maxZ[proxyId] = nMaxZ;
+
+        insertLeaf(proxyId);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getUserData(int proxyId) {
+        return (T) userData[proxyId];
+    }
+
+    /**
+     * Copia a caixa expandida de um proxy.
+     *
+     * @param proxyId O identificador do proxy.
+     * @param out     A caixa que recebe os limites.
+     */
+    public void getFatBounds(int proxyId, BoundingBox out) {
+        out.set(minX[proxyId], minY[proxyId], minZ[proxyId], maxX[proxyId], maxY[proxyId], maxZ[proxyId]);
+    }
+
+    /**
+     * Visita os proxies cujas caixas expandidas se sobrepõem à caixa consultada.
+     *
+     * @param bounds   A caixa consultada.
+     * @param callback O receptor dos proxies.
+     */
+    public void query(BoundingBox bounds, TreeQueryCallback callback) {
+        query(bounds.getMinX(), bounds.getMinY(), bounds.getMinZ(),
+                bounds.getMaxX(), bounds.getMaxY(), bounds.getMaxZ(), callback);
+    }
+
+    /**
+     * Visita os proxies cujas caixas expandidas se sobrepõem aos limites informados.
+     */
+    public void query(double qMinX, double qMinY, double qMinZ, double qMaxX, double qMaxY, double qMaxZ,
+                      TreeQueryCallback callback) {
+        int top = 0;
+        int[] stack = acquireStack();
+        stack[top++] = root;
+
+        while (top > 0) {
+            int node = stack[--top];
+            if (node == NULL_NODE) {
+                continue;
+            }
+            if (minX[node] > qMaxX || maxX[node] < qMinX
+                    || minY[node] > qMaxY || maxY[node] < qMinY
+                    || minZ[node] > qMaxZ || maxZ[node] < qMinZ) {
+                continue;
+            }
+            if (isLeaf(node)) {
+                if (!callback.onProxy(node)) {
+                    break;
+                }
+            } else {
+                stack = ensureStack(stack, top + 2);
+                stack[top++] = child1[node];
+                stack[top++] = child2[node];
+            }
+        }
+        releaseStack(stack);
+    }
+
+    /**
+     * Visita os proxies cujas caixas expandidas intersectam a esfera informada.
+     *
+     * @param cx       Centro da esfera no eixo X.
+     * @param cy       Centro da esfera no eixo Y.
+     * @param cz       Centro da esfera no eixo Z.
+     * @param radius   Raio da esfera.
+     * @param callback O receptor dos proxies.
+     */
+    public void querySphere(double cx, double cy, double cz, double radius, TreeQueryCallback callback) {
+        double radiusSquared = radius * radius;
+        int top = 0;
+        int[] stack = acquireStack();
+        stack[top++] = root;
+
+        while (top > 0) {
+            int node = stack[--top];
+            if (node == NULL_NODE) {
+                continue;
+            }
+            double ex = Math.max(minX[node] - cx, Math.max(0, cx - maxX[node]));
+            double ey = Math.max(minY[node] - cy, Math.max(0, cy - maxY[node]));
+            double ez = Math.max(minZ[node] - cz, Math.max(0, cz - maxZ[node]));
+            if (ex * ex + ey * ey + ez * ez > radiusSquared) {
+                continue;
+            }
+            if (isLeaf(node)) {
+                if (!callback.onProxy(node)) {
+                    break;
+                }
+            } else {
+                stack = ensureStack(stack, top + 2);
+                stack[top++] = child1[node];
+                stack[top++] = child2[node];
+            }
+        }
+        releaseStack(stack);
+    }
+
+    /**
+     * Lança um raio de {@code origin} até {@code origin + direction * maxFraction}, visitando os proxies
+     * cujas caixas expandidas são atravessadas. O callback pode encurtar o raio para descartar
+     * subárvores mais distantes que o acerto mais próximo encontrado.
+     *
+     * @param ox          Origem do raio no eixo X.
+     * @param oy          Origem do raio no eixo Y.
+     * @param oz          Origem do raio no eixo Z.
+     * @param dx          Direção (não normalizada) do raio no eixo X.
+     * @param dy          Direção do raio no eixo Y.
+     * @param dz          Direção do raio no eixo Z.
+     * @param maxFraction A fração máxima inicial.
+     * @param callback    O receptor dos proxies.
+     */
+    public void raycast(double ox, double oy, double oz, double dx, double dy, double dz,
+                        double maxFraction, TreeRayCastCallback callback) {
+        raycast(ox, oy, oz, dx, dy, dz, 0, maxFraction, callback);
+    }
+
+    /**
+     * Lança um raio com espessura: visita os proxies cujas caixas expandidas pelo raio informado são
+     * atravessadas, o que cobre todas as caixas que uma esfera varrida pode tocar.
+     *
+     * @param ox          Origem do raio no eixo X.
+     * @param oy          Origem do raio no eixo Y.
+     * @param oz          Origem do raio no eixo Z.
+     * @param dx          Direção (não normalizada) do raio no eixo X.
+     * @param dy          Direção do raio no eixo Y.
+     * @param dz          Direção do raio no eixo Z.
+     * @param radius      O raio da esfera varrida.
+     * @param maxFraction A fração máxima inicial.
+     * @param callback    O receptor dos proxies.
+     */
+    public void raycast(double ox, double oy, double oz, double dx, double dy, double dz,
+                        double radius, double maxFraction, TreeRayCastCallback callback) {
+        double invX = 1.0 / dx;
+        double invY = 1.0 / dy;
+        double invZ = 1.0 / dz;
+
+        int top = 0;
+        int[] stack = acquireStack();
+        stack[top++] = root;
+
+        while (top > 0) {
+            int node = stack[--top];
+            if (node == NULL_NODE) {
+                continue;
+            }
+            if (!rayIntersectsNode(node, ox, oy, oz, invX, invY, invZ, radius, maxFraction)) {
+                continue;
+            }
+            if (isLeaf(node)) {
+                double value = callback.onProxy(node, maxFraction);
+                if (value == 0) {
+                    break;
+                }
+                if (value > 0 && value < maxFraction) {
+                    maxFraction = value;
+                }
+            } else {
+                stack = ensureStack(stack, top + 2);
+                stack[top++] = child1[node];
+                stack[top++] = child2[node];
+            }
+        }
+        releaseStack(stack);
+    }
+
+    /**
+     * @return A altura da árvore (0 para uma árvore com uma única folha).
+     */
+    public int getHeight() {
+        return root == NULL_NODE ? 0 : height[root];
+    }
+
+    public int getProxyCount() {
+        return (nodeCount + 1) / 2;
+    }
+
+    private boolean rayIntersectsNode(int node, double ox, double oy, double oz,
+                                      double invX, double invY, double invZ, double radius, double maxFraction) {
+        // Teste de lajes (slab test) contra a caixa expandida do nó
+        double t1 = (minX[node] - radius - ox) * invX, t2 = (maxX[node] + radius - ox) * invX;
+        double tMin = Math.min(t1, t2), tMax = Math.max(t1, t2);
+        t1 = (minY[node] - radius - oy) * invY;
+        t2 = (maxY[node] + radius - oy) * invY;
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+        t1 = (minZ[node] - radius - oz) * invZ;
+        t2 = (maxZ[node] + radius - oz) * invZ;
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+
+        // NaN (raio paralelo sobre uma face) é tratado como acerto para não perder proxies
+        if (Double.isNaN(tMin) || Double.isNaN(tMax)) {
+            return true;
+        }
+        return tMax >= Math.max(tMin, 0) && tMin <= maxFraction;
+    }
+
+    private boolean isLeaf(int node) {
+        return child1[node] == NULL_NODE;
+    }
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL_NODE) {
+            root = leaf;
+            parent[root] = NULL_NODE;
+            return;
+        }
+
+        // Escolhe o melhor irmão pelo custo de área de superfície
+        double lMinX = minX[leaf], lMinY = minY[leaf], lMinZ = minZ[leaf];
+        double lMaxX = maxX[leaf], lMaxY = maxY[leaf], lMaxZ = maxZ[leaf];
+        int index = root;
+        while (!isLeaf(index)) {
+            int c1 = child1[index];
+            int c2 = child2[index];
+
+            double area = surfaceArea(index);
+            double combinedArea = combinedSurfaceArea(index, lMinX, lMinY, lMinZ, lMaxX, lMaxY, lMaxZ);
+
+            double cost = 2.0 * combinedArea;
+            double inheritanceCost = 2.0 * (combinedArea - area);
+
+            double cost1 = childCost(c1, inheritanceCost, lMinX, lMinY, lMinZ, lMaxX, lMaxY, lMaxZ);
+            double cost2 = childCost(c2, inheritanceCost, lMinX, lMinY, lMinZ, lMaxX, lMaxY, lMaxZ);
+
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? c1 : c2;
+        }
+
+        int sibling = index;
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        userData[newParent] = null;
+        setUnion(newParent, leaf, sibling);
+        height[newParent] = height[sibling] + 1;
+
+        if (oldParent != NULL_NODE) {
+            if (child1[oldParent] == sibling) {
+                child1[oldParent] = newParent;
+            } else {
+                child2[oldParent] = newParent;
+            }
+        } else {
+            root = newParent;
+        }
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+
+        refit(parent[leaf]);
+    }
+
+    private double childCost(int child, double inheritanceCost,
+                             double lMinX, double lMinY, double lMinZ, double lMaxX, double lMaxY, double lMaxZ) {
+        double combined = combinedSurfaceArea(child, lMinX, lMinY, lMinZ, lMaxX, lMaxY, lMaxZ);
+        if (isLeaf(child)) {
+            return combined + inheritanceCost;
+        }
+        return combined - surfaceArea(child) + inheritanceCost;
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL_NODE;
+            return;
+        }
+
+        int leafParent = parent[leaf];
+        int grandParent = parent[leafParent];
+        int sibling = child1[leafParent] == leaf ? child2[leafParent] : child1[leafParent];
+
+        if (grandParent != NULL_NODE) {
+            if (child1[grandParent] == leafParent) {
+                child1[grandParent] = sibling;
+            } else {
+                child2[grandParent] = sibling;
+            }
+            parent[sibling] = grandParent;
+            freeNode(leafParent);
+            refit(grandParent);
+        } else {
+            root = sibling;
+            parent[sibling] = NULL_NODE;
+            freeNode(leafParent);
+        }
+    }
+
+    /**
+     * Sobe até a raiz rebalanceando e recalculando caixas e alturas.
+     */
+    private void refit(int index) {
+        while (index != NULL_NODE) {
+            index = balance(index);
+
+            int c1 = child1[index];
+            int c2 = child2[index];
+            height[index] = 1 + Math.max(height[c1], height[c2]);
+            setUnion(index, c1, c2);
+
+            index = parent[index];
+        }
+    }
+
+    /**
+     * Executa uma rotação à esquerda ou à direita se o nó {@code a} estiver desbalanceado.
+     *
+     * @return A nova raiz da subárvore.
+     */
+    private int balance(int a) {
+        if (isLeaf(a) || height[a] < 2) {
+            return a;
+        }
+
+        int b = child1[a];
+        int c = child2[a];
+        int balance = height[c] - height[b];
+
+        if (balance > 1) {
+            return rotate(a, c, b, true);
+        }
+        if (balance < -1) {
+            return rotate(a, b, c, false);
+        }
+        return a;
+    }
+
+    /**
+     * Promove {@code up} para o lugar de {@code a}; {@code other} é o filho que permanece em {@code a}.
+     */
+    private int rotate(int a, int up, int other, boolean upIsChild2) {
+        int f = child1[up];
+        int g = child2[up];
+
+        child1[up] = a;
+        parent[up] = parent[a];
+        parent[a] = up;
+
+        if (parent[up] != NULL_NODE) {
+            if (child1[parent[up]] == a) {
+                child1[parent[up]] = up;
+            } else {
+                child2[parent[up]] = up;
+            }
+        } else {
+            root = up;
+        }
+
+        // O neto mais alto sobe junto; o mais baixo desce para o lugar de 'up' em 'a'
+        int higher = height[f] > height[g] ? f : g;
+        int lower = higher == f ? g : f;
+
+        child2[up] = higher;
+        if (upIsChild2) {
+            child2[a] = lower;
+        } else {
+            child1[a] = lower;
+        }
+        parent[lower] = a;
+
+        setUnion(a, other, lower);
+        setUnion(up, a, higher);
+        height[a] = 1 + Math.max(height[other], height[lower]);
+        height[up] = 1 + Math.max(height[a], height[higher]);
+
+        return up;
+    }
+
+    private void setUnion(int target, int a, int b) {
+        minX[target] = Math.min(minX[a], minX[b]);
+        minY[target] = Math.min(minY[a], minY[b]);
+        minZ[target] = Math.min(minZ[a], minZ[b]);
+        maxX[target] = Math.max(maxX[a], maxX[b]);
+        maxY[target] = Math.max(maxY[a], maxY[b]);
+        maxZ[target] = Math.max(maxZ[a], maxZ[b]);
+    }
+
+    private double surfaceArea(int node) {
+        double wx = maxX[node] - minX[node];
+        double wy = maxY[node] - minY[node];
+        double wz = maxZ[node] - minZ[node];
+        return 2.0 * (wx * wy + wy * wz + wz * wx);
+    }
+
+    private double combinedSurfaceArea(int node, double lMinX, double lMinY, double lMinZ,
+                                       double lMaxX, double lMaxY, double lMaxZ) {
+        double wx = Math.max(maxX[node], lMaxX) - Math.min(minX[node], lMinX);
+        double wy = Math.max(maxY[node], lMaxY) - Math.min(minY[node], lMinY);
+        double wz = Math.max(maxZ[node], lMaxZ) - Math.min(minZ[node], lMinZ);
+        return 2.0 * (wx * wy + wy * wz + wz * wx);
+    }
+
+    private int allocateNode() {
+        if (freeList == NULL_NODE) {
+            int oldCapacity = nodeCapacity;
+            nodeCapacity *= 2;
+            minX = Arrays.copyOf(minX, nodeCapacity);
+            minY = Arrays.copyOf(minY, nodeCapacity);
+            minZ = Arrays.copyOf(minZ, nodeCapacity);
+            maxX = Arrays.copyOf(maxX, nodeCapacity);
+            maxY = Arrays.copyOf(maxY, nodeCapacity);
+            maxZ = Arrays.copyOf(maxZ, nodeCapacity);
+            parent = Arrays.copyOf(parent, nodeCapacity);
+            child1 = Arrays.copyOf(child1, nodeCapacity);
+            child2 = Arrays.copyOf(child2, nodeCapacity);
+            height = Arrays.copyOf(height, nodeCapacity);
+            userData = Arrays.copyOf(userData, nodeCapacity);
+            buildFreeList(oldCapacity);
+        }
+
+        int node = freeList;
+        freeList = parent[node];
+        parent[node] = NULL_NODE;
+        child1[node] = NULL_NODE;
+        child2[node] = NULL_NODE;
+        height[node] = 0;
+        userData[node] = null;
+        nodeCount++;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        parent[node] = freeList;
+        height[node] = -1;
+        userData[node] = null;
+        freeList = node;
+        nodeCount--;
+    }
+
+    private void buildFreeList(int from) {
+        for (int i = from; i < nodeCapacity - 1; i++) {
+            parent[i] = i + 1;
+            height[i] = -1;
+        }
+        parent[nodeCapacity - 1] = NULL_NODE;
+        height[nodeCapacity - 1] = -1;
+        freeList = from;
+    }
+
+    private void allocate(int capacity) {
+        minX = new double[capacity];
+        minY = new double[capacity];
+        minZ = new double[capacity];
+        maxX = new double[capacity];
+        maxY = new double[capacity];
+        maxZ = new double[capacity];
+        parent = new int[capacity];
+        child1 = new int[capacity];
+        child2 = new int[capacity];
+        height = new int[capacity];
+        userData = new Object[capacity];
+    }
+
+    // Consultas aninhadas (um callback que consulta a árvore) recebem uma pilha própria
+    private int[] acquireStack() {
+        int[] acquired = stack.get();
+        if (acquired == null) {
+            return new int[64];
+        }
+        stack.set(null);
+        return acquired;
+    }
+
+    private void releaseStack(int[] released) {
+        stack.set(released);
+    }
+
+    private static int[] ensureStack(int[] stack, int size) {
+        return stack.length >= size ? stack : Arrays.copyOf(stack, stack.length * 2);
+    }
+}
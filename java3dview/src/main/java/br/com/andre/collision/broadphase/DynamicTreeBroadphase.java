@@ -0,0 +1,167 @@
+package br.com.andre.collision.broadphase;
+
+import br.com.andre.collision.BoundingBox;
+import br.com.andre.physic.PhysicsBody;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Broadphase baseada em uma {@link DynamicAABBTree}.
+ * <p>
+ * Os corpos só são reinseridos na árvore quando saem de suas caixas expandidas. Além de emitir os
+ * pares candidatos, expõe consultas avulsas (sobreposição de caixa, esfera e raio) sobre os corpos
+ * registrados.
+ */
+public class DynamicTreeBroadphase implements Broadphase {
+    private final DynamicAABBTree<PhysicsBody> tree;
+    private final Map<PhysicsBody, Integer> proxyByBody = new IdentityHashMap<>();
+    private final List<PhysicsBody> bodies = new ArrayList<>();
+    private int[] proxies = new int[16];
+    // Caixas justas indexadas pelo proxy, para filtrar os candidatos das caixas expandidas
+    private BoundingBox[] tightBounds = new BoundingBox[16];
+
+    // Estado reutilizado entre as consultas para não alocar a cada passo
+    private final BoundingBox bounds = new BoundingBox();
+    private final BoundingBox fatBounds = new BoundingBox();
+    private double[] lastCenters = new double[48];
+    private int queryProxy;
+    private PairCallback pairCallback;
+    private final TreeQueryCallback pairQuery = this::onPairCandidate;
+
+    public DynamicTreeBroadphase() {
+        this(new DynamicAABBTree<>());
+    }
+
+    public DynamicTreeBroadphase(DynamicAABBTree<PhysicsBody> tree) {
+        this.tree = tree;
+    }
+
+    @Override
+    public void add(PhysicsBody body) {
+        if (proxyByBody.containsKey(body)) {
+            return;
+        }
+        body.getCollider().computeBounds(bounds);
+        int proxy = tree.createProxy(bounds, body);
+        proxyByBody.put(body, proxy);
+        if (tightBounds.length <= proxy) {
+            tightBounds = Arrays.copyOf(tightBounds, Math.max(proxy + 1, tightBounds.length * 2));
+        }
+        if (tightBounds[proxy] == null) {
+            tightBounds[proxy] = new BoundingBox();
+        }
+        tightBounds[proxy].set(bounds);
+
+        int index = bodies.size();
+        bodies.add(body);
+        if (proxies.length == index) {
+            proxies = Arrays.copyOf(proxies, index * 2);
+            lastCenters = Arrays.copyOf(lastCenters, index * 6);
+        }
+        proxies[index] = proxy;
+        storeCenter(index);
+    }
+
+    @Override
+    public void remove(PhysicsBody body) {
+        Integer proxy = proxyByBody.remove(body);
+        if (proxy == null) {
+            return;
+        }
+        tree.destroyProxy(proxy);
+
+        int index = bodies.indexOf(body);
+        int last = bodies.size() - 1;
+        bodies.set(index, bodies.get(last));
+        bodies.remove(last);
+        proxies[index] = proxies[last];
+        System.arraycopy(lastCenters, last * 3, lastCenters, index * 3, 3);
+    }
+
+    @Override
+    public void update() {
+        for (int i = 0; i < bodies.size(); i++) {
+            PhysicsBody body = bodies.get(i);
+            if (body.isStatic()) {
+                continue;
+            }
+            body.getCollider().computeBounds(bounds);
+
+            // O deslocamento desde o último passo prevê para onde a caixa expandida deve crescer
+            double cx = (bounds.getMinX() + bounds.getMaxX()) * 0.5;
+            double cy = (bounds.getMinY() + bounds.getMaxY()) * 0.5;
+            double cz = (bounds.getMinZ() + bounds.getMaxZ()) * 0.5;
+            double dx = cx - lastCenters[i * 3];
+            double dy = cy - lastCenters[i * 3 + 1];
+            double dz = cz - lastCenters[i * 3 + 2];
+            lastCenters[i * 3] = cx;
+            lastCenters[i * 3 + 1] = cy;
+            lastCenters[i * 3 + 2] = cz;
+
+            tightBounds[proxies[i]].set(bounds);
+            tree.moveProxy(proxies[i], bounds, dx, dy, dz);
+        }
+    }
+
+    @Override
+    public void findPairs(PairCallback callback) {
+        pairCallback = callback;
+        for (int i = 0; i < bodies.size(); i++) {
+            queryProxy = proxies[i];
+            tree.getFatBounds(queryProxy, fatBounds);
+            tree.query(fatBounds, pairQuery);
+        }
+        pairCallback = null;
+    }
+
+    /**
+     * Visita os corpos cujas caixas se sobrepõem à caixa informada.
+     *
+     * @param query   A caixa consultada.
+     * @param visitor O receptor dos corpos.
+     */
+    public void queryOverlap(BoundingBox query, Consumer<PhysicsBody> visitor) {
+        tree.query(query, proxy -> {
+            visitor.accept(tree.getUserData(proxy));
+            return true;
+        });
+    }
+
+    /**
+     * Visita os corpos cujas caixas intersectam a esfera informada.
+     */
+    public void querySphere(double cx, double cy, double cz, double radius, Consumer<PhysicsBody> visitor) {
+        tree.querySphere(cx, cy, cz, radius, proxy -> {
+            visitor.accept(tree.getUserData(proxy));
+            return true;
+        });
+    }
+
+    public DynamicAABBTree<PhysicsBody> getTree() {
+        return tree;
+    }
+
+    private boolean onPairCandidate(int otherProxy) {
+        // Cada par é emitido uma única vez, a partir do proxy de menor identificador
+        if (otherProxy <= queryProxy || !tightBounds[queryProxy].overlaps(tightBounds[otherProxy])) {
+            return true;
+        }
+        PhysicsBody bodyA = tree.getUserData(queryProxy);
+        PhysicsBody bodyB = tree.getUserData(otherProxy);
+        if (!bodyA.isStatic() || !bodyB.isStatic()) {
+            pairCallback.onPair(bodyA, bodyB);
+        }
+        return true;
+    }
+
+    private void storeCenter(int index) {
+        lastCenters[index * 3] = (bounds.getMinX() + bounds.getMaxX()) * 0.5;
+        lastCenters[index * 3 + 1] = (bounds.getMinY() + bounds.getMaxY()) * 0.5;
+        lastCenters[index * 3 + 2] = (bounds.getMinZ() + bounds.getMaxZ()) * 0.5;
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.andre.collision.broadphase;
+
+import br.com.andre.physic.PhysicsBody;
+
+/**
+ * Recebe os pares candidatos emitidos por uma {@link Broadphase}.
+ */
+@FunctionalInterface
+public interface PairCallback {
+    /**
+     * Chamado para cada par cujas caixas delimitadoras se sobrepõem.
+     *
+     * @param bodyA O primeiro corpo do par.
+     * @param bodyB O segundo corpo do par.
+     */
+    void onPair(PhysicsBody bodyA, PhysicsBody bodyB);
+}
@@ -0,0 +1,259 @@
+package br.com.andre.collision.broadphase;
+
+import br.com.andre.collision.BoundingBox;
+import br.com.andre.physic.PhysicsBody;
+import br.com.andre.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Grade uniforme de hash espacial para os colisores estáticos do mundo.
+ * <p>
+ * Cada corpo estático é inserido em todas as células que sua caixa delimitadora cobre. As células
+ * são indexadas pelas coordenadas inteiras empacotadas em um {@code long}, em um mapa primitivo sem
+ * boxing. Corpos dinâmicos consultam apenas as células que seus limites sobrepõem. Corpos que
+ * cobririam células demais (como um piso inteiro) ficam em uma lista à parte, testada em toda consulta.
+ */
+public class SpatialHashGrid {
+    private static final int MAX_CELLS_PER_BODY = 512;
+    private static final int COORDINATE_BITS = 21;
+    private static final long COORDINATE_MASK = (1L << COORDINATE_BITS) - 1;
+
+    private final double cellSize;
+    private final double inverseCellSize;
+
+    private final List<PhysicsBody> bodies = new ArrayList<>();
+    private final List<BoundingBox> bounds = new ArrayList<>();
+    // Índice de cada corpo, pelo identificador do corpo, e pilha de índices livres
+    private final LongIntHashMap indexByBody = new LongIntHashMap(64);
+    private int[] freeIndices = new int[8];
+    private int freeCount;
+    private int[] oversized = new int[8];
+    private int oversizedCount;
+
+    private final LongIntHashMap cellIndexByKey = new LongIntHashMap(256);
+    private int[][] cellItems = new int[64][];
+    private int[] cellCounts = new int[64];
+    private int cellCount;
+
+    // Carimbo por corpo para não visitar duas vezes um corpo presente em várias células
+    private int[] visitStamp = new int[64];
+    private int currentStamp;
+
+    public SpatialHashGrid(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("O tamanho da célula deve ser positivo.");
+        }
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1.0 / cellSize;
+    }
+
+    /**
+     * Insere um corpo estático na grade.
+     *
+     * @param body O corpo a ser inserido.
+     */
+    public void add(PhysicsBody body) {
+        if (indexByBody.containsKey(body.getId())) {
+            return;
+        }
+
+        int index;
+        if (freeCount == 0) {
+            index = bodies.size();
+            bodies.add(body);
+            bounds.add(new BoundingBox());
+        } else {
+            index = freeIndices[--freeCount];
+            bodies.set(index, body);
+        }
+        indexByBody.put(body.getId(), index);
+        if (visitStamp.length <= index) {
+            visitStamp = Arrays.copyOf(visitStamp, Math.max(index + 1, visitStamp.length * 2));
+        }
+
+        BoundingBox box = bounds.get(index);
+        body.getCollider().computeBounds(box);
+
+        if (countCells(box) > MAX_CELLS_PER_BODY) {
+            if (oversizedCount == oversized.length) {
+                oversized = Arrays.copyOf(oversized, oversizedCount * 2);
+            }
+            oversized[oversizedCount++] = index;
+            return;
+        }
+
+        int minX = cellCoordinate(box.getMinX()), maxX = cellCoordinate(box.getMaxX());
+        int minY = cellCoordinate(box.getMinY()), maxY = cellCoordinate(box.getMaxY());
+        int minZ = cellCoordinate(box.getMinZ()), maxZ = cellCoordinate(box.getMaxZ());
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    addToCell(cellFor(packKey(x, y, z)), index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove um corpo estático da grade.
+     *
+     * @param body O corpo a ser removido.
+     */
+    public void remove(PhysicsBody body) {
+        int index = indexByBody.get(body.getId(), -1);
+        if (index < 0) {
+            return;
+        }
+        indexByBody.remove(body.getId());
+
+        for (int i = 0; i < oversizedCount; i++) {
+            if (oversized[i] == index) {
+                System.arraycopy(oversized, i + 1, oversized, i, oversizedCount - i - 1);
+                oversizedCount--;
+                break;
+            }
+        }
+
+        BoundingBox box = bounds.get(index);
+        int minX = cellCoordinate(box.getMinX()), maxX = cellCoordinate(box.getMaxX());
+        int minY = cellCoordinate(box.getMinY()), maxY = cellCoordinate(box.getMaxY());
+        int minZ = cellCoordinate(box.getMinZ()), maxZ = cellCoordinate(box.getMaxZ());
+        if (countCells(box) <= MAX_CELLS_PER_BODY) {
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        int cell = cellIndexByKey.get(packKey(x, y, z), -1);
+                        if (cell >= 0) {
+                            removeFromCell(cell, index);
+                        }
+                    }
+                }
+            }
+        }
+
+        bodies.set(index, null);
+        if (freeCount == freeIndices.length) {
+            freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+        }
+        freeIndices[freeCount++] = index;
+    }
+
+    /**
+     * Visita cada corpo estático cuja caixa se sobrepõe à caixa consultada, uma única vez.
+     *
+     * @param query   A caixa consultada.
+     * @param visitor O receptor dos corpos encontrados.
+     */
+    public void query(BoundingBox query, Consumer<PhysicsBody> visitor) {
+        int stamp = nextStamp();
+
+        for (int i = 0; i < oversizedCount; i++) {
+            visit(oversized[i], query, stamp, visitor);
+        }
+
+        if (cellCount == 0) {
+            return;
+        }
+
+        int minX = cellCoordinate(query.getMinX()), maxX = cellCoordinate(query.getMaxX());
+        int minY = cellCoordinate(query.getMinY()), maxY = cellCoordinate(query.getMaxY());
+        int minZ = cellCoordinate(query.getMinZ()), maxZ = cellCoordinate(query.getMaxZ());
+        for (int x = minX; x <= maxX; x++) {
+            for (int y = minY; y <= maxY; y++) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    int cell = cellIndexByKey.get(packKey(x, y, z), -1);
+                    if (cell < 0) {
+                        continue;
+                    }
+                    int[] items = cellItems[cell];
+                    for (int i = 0, n = cellCounts[cell]; i < n; i++) {
+                        visit(items[i], query, stamp, visitor);
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return indexByBody.size();
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    private void visit(int index, BoundingBox query, int stamp, Consumer<PhysicsBody> visitor) {
+        if (visitStamp[index] == stamp) {
+            return;
+        }
+        visitStamp[index] = stamp;
+        if (bounds.get(index).overlaps(query)) {
+            visitor.accept(bodies.get(index));
+        }
+    }
+
+    private int nextStamp() {
+        if (++currentStamp == Integer.MAX_VALUE) {
+            Arrays.fill(visitStamp, 0);
+            currentStamp = 1;
+        }
+        return currentStamp;
+    }
+
+    private int cellFor(long key) {
+        int cell = cellIndexByKey.get(key, -1);
+        if (cell < 0) {
+            if (cellCount == cellItems.length) {
+                cellItems = Arrays.copyOf(cellItems, cellCount * 2);
+                cellCounts = Arrays.copyOf(cellCounts, cellCount * 2);
+            }
+            cell = cellCount++;
+            cellItems[cell] = new int[4];
+            cellIndexByKey.put(key, cell);
+        }
+        return cell;
+    }
+
+    private void addToCell(int cell, int index) {
+        int[] items = cellItems[cell];
+        if (cellCounts[cell] == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            cellItems[cell] = items;
+        }
+        items[cellCounts[cell]++] = index;
+    }
+
+    private void removeFromCell(int cell, int index) {
+        int[] items = cellItems[cell];
+        int count = cellCounts[cell];
+        for (int i = 0; i < count; i++) {
+            if (items[i] == index) {
+                // Mantém a ordem de inserção para que as consultas sejam determinísticas
+                System.arraycopy(items, i + 1, items, i, count - i - 1);
+                cellCounts[cell] = count - 1;
+                return;
+            }
+        }
+    }
+
+    private long countCells(BoundingBox box) {
+        long x = (long) cellCoordinate(box.getMaxX()) - cellCoordinate(box.getMinX()) + 1;
+        long y = (long) cellCoordinate(box.getMaxY()) - cellCoordinate(box.getMinY()) + 1;
+        long z = (long) cellCoordinate(box.getMaxZ()) - cellCoordinate(box.getMinZ()) + 1;
+        return x * y * z;
+    }
+
+    private int cellCoordinate(double value) {
+        return (int) Math.floor(value * inverseCellSize);
+    }
+
+    private static long packKey(int x, int y, int z) {
+        return ((x & COORDINATE_MASK) << (2 * COORDINATE_BITS))
+                | ((y & COORDINATE_MASK) << COORDINATE_BITS)
+                | (z & COORDINATE_MASK);
+    }
+}
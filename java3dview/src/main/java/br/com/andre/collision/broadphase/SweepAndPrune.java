@@ -0,0 +1,262 @@
+package br.com.andre.collision.broadphase;
+
+import br.com.andre.collision.BoundingBox;
+import br.com.andre.physic.PhysicsBody;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broadphase "sweep and prune" incremental.
+ * <p>
+ * Mantém, para cada eixo, a lista de extremos (mínimo e máximo) dos intervalos dos corpos ordenada.
+ * Como os corpos se movem pouco entre um passo e outro, a lista continua quase ordenada e é
+ * reordenada por inserção em tempo praticamente linear. A varredura é feita no eixo de maior
+ * dispersão e os outros dois eixos são testados apenas para os intervalos ativos.
+ */
+public class SweepAndPrune implements Broadphase {
+    private static final int AXES = 3;
+
+    private final List<Proxy> proxies = new ArrayList<>();
+    private final Map<PhysicsBody, Proxy> proxyByBody = new IdentityHashMap<>();
+    private final List<Proxy> freeProxies = new ArrayList<>();
+
+    // Extremos por eixo: índice do proxy << 1 | 1 se for o máximo do intervalo
+    private final int[][] endpoints = new int[AXES][];
+    private final double[][] values = new double[AXES][];
+    private int endpointCount;
+
+    private int sweepAxis;
+    private final double[] centerSum = new double[AXES];
+    private final double[] centerSumSquared = new double[AXES];
+
+    // Intervalos abertos durante a varredura, separados para nunca testar estático contra estático
+    private int[] activeDynamic = new int[16];
+    private int activeDynamicCount;
+    private int[] activeStatic = new int[16];
+    private int activeStaticCount;
+    private int[] activeSlot = new int[16];
+
+    public SweepAndPrune() {
+        for (int axis = 0; axis < AXES; axis++) {
+            endpoints[axis] = new int[32];
+            values[axis] = new double[32];
+        }
+    }
+
+    @Override
+    public void add(PhysicsBody body) {
+        if (proxyByBody.containsKey(body)) {
+            return;
+        }
+
+        Proxy proxy;
+        if (freeProxies.isEmpty()) {
+            proxy = new Proxy(proxies.size());
+            proxies.add(proxy);
+        } else {
+            proxy = freeProxies.remove(freeProxies.size() - 1);
+        }
+        proxy.body = body;
+        proxy.isStatic = body.isStatic();
+        body.getCollider().computeBounds(proxy.bounds);
+        proxyByBody.put(body, proxy);
+
+        ensureEndpointCapacity(endpointCount + 2);
+        for (int axis = 0; axis < AXES; axis++) {
+            endpoints[axis][endpointCount] = proxy.index << 1;
+            values[axis][endpointCount] = proxy.bounds.getMin(axis);
+            endpoints[axis][endpointCount + 1] = proxy.index << 1 | 1;
+            values[axis][endpointCount + 1] = proxy.bounds.getMax(axis);
+        }
+        endpointCount += 2;
+
+        // Os novos extremos são posicionados pela ordenação por inserção
+        for (int axis = 0; axis < AXES; axis++) {
+            insertionSort(axis);
+        }
+    }
+
+    @Override
+    public void remove(PhysicsBody body) {
+        Proxy proxy = proxyByBody.remove(body);
+        if (proxy == null) {
+            return;
+        }
+
+        for (int axis = 0; axis < AXES; axis++) {
+            int[] axisEndpoints = endpoints[axis];
+            double[] axisValues = values[axis];
+            int write = 0;
+            for (int read = 0; read < endpointCount; read++) {
+                if (axisEndpoints[read] >> 1 != proxy.index) {
+                    axisEndpoints[write] = axisEndpoints[read];
+                    axisValues[write] = axisValues[read];
+                    write++;
+                }
+            }
+        }
+        endpointCount -= 2;
+
+        proxy.body = null;
+        freeProxies.add(proxy);
+    }
+
+    @Override
+    public void update() {
+        double[] sum = centerSum;
+        double[] sumSquared = centerSumSquared;
+        Arrays.fill(sum, 0);
+        Arrays.fill(sumSquared, 0);
+        int count = 0;
+
+        for (Proxy proxy : proxies) {
+            if (proxy.body == null) {
+                continue;
+            }
+            if (!proxy.isStatic) {
+                proxy.body.getCollider().computeBounds(proxy.bounds);
+            }
+            for (int axis = 0; axis < AXES; axis++) {
+                double center = (proxy.bounds.getMin(axis) + proxy.bounds.getMax(axis)) * 0.5;
+                sum[axis] += center;
+                sumSquared[axis] += center * center;
+            }
+            count++;
+        }
+
+        for (int axis = 0; axis < AXES; axis++) {
+            int[] axisEndpoints = endpoints[axis];
+            double[] axisValues = values[axis];
+            for (int i = 0; i < endpointCount; i++) {
+                Proxy proxy = proxies.get(axisEndpoints[i] >> 1);
+                axisValues[i] = (axisEndpoints[i] & 1) == 0 ? proxy.bounds.getMin(axis) : proxy.bounds.getMax(axis);
+            }
+            insertionSort(axis);
+        }
+
+        // Varre o eixo em que os centros estão mais espalhados, o que minimiza os intervalos ativos
+        if (count > 0) {
+            double bestVariance = -1;
+            for (int axis = 0; axis < AXES; axis++) {
+                double mean = sum[axis] / count;
+                double variance = sumSquared[axis] / count - mean * mean;
+                if (variance > bestVariance) {
+                    bestVariance = variance;
+                    sweepAxis = axis;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void findPairs(PairCallback callback) {
+        int[] axisEndpoints = endpoints[sweepAxis];
+        activeDynamicCount = 0;
+        activeStaticCount = 0;
+        if (activeSlot.length < proxies.size()) {
+            activeSlot = new int[proxies.size() * 2];
+        }
+
+        for (int i = 0; i < endpointCount; i++) {
+            int endpoint = axisEndpoints[i];
+            int index = endpoint >> 1;
+            Proxy proxy = proxies.get(index);
+
+            if ((endpoint & 1) == 1) {
+                removeActive(proxy);
+                continue;
+            }
+
+            for (int a = 0; a < activeDynamicCount; a++) {
+                Proxy other = proxies.get(activeDynamic[a]);
+                if (proxy.bounds.overlaps(other.bounds)) {
+                    callback.onPair(other.body, proxy.body);
+                }
+            }
+            if (!proxy.isStatic) {
+                for (int a = 0; a < activeStaticCount; a++) {
+                    Proxy other = proxies.get(activeStatic[a]);
+                    if (proxy.bounds.overlaps(other.bounds)) {
+                        callback.onPair(other.body, proxy.body);
+                    }
+                }
+            }
+
+            addActive(proxy);
+        }
+    }
+
+    private void addActive(Proxy proxy) {
+        if (proxy.isStatic) {
+            if (activeStaticCount == activeStatic.length) {
+                activeStatic = Arrays.copyOf(activeStatic, activeStaticCount * 2);
+            }
+            activeSlot[proxy.index] = activeStaticCount;
+            activeStatic[activeStaticCount++] = proxy.index;
+        } else {
+            if (activeDynamicCount == activeDynamic.length) {
+                activeDynamic = Arrays.copyOf(activeDynamic, activeDynamicCount * 2);
+            }
+            activeSlot[proxy.index] = activeDynamicCount;
+            activeDynamic[activeDynamicCount++] = proxy.index;
+        }
+    }
+
+    private void removeActive(Proxy proxy) {
+        int slot = activeSlot[proxy.index];
+        if (proxy.isStatic) {
+            int last = activeStatic[--activeStaticCount];
+            activeStatic[slot] = last;
+            activeSlot[last] = slot;
+        } else {
+            int last = activeDynamic[--activeDynamicCount];
+            activeDynamic[slot] = last;
+            activeSlot[last] = slot;
+        }
+    }
+
+    private void insertionSort(int axis) {
+        int[] axisEndpoints = endpoints[axis];
+        double[] axisValues = values[axis];
+        for (int i = 1; i < endpointCount; i++) {
+            int endpoint = axisEndpoints[i];
+            double value = axisValues[i];
+            int j = i - 1;
+            // Em empate, o mínimo vem antes do máximo para que intervalos que se tocam sejam pareados
+            while (j >= 0 && (axisValues[j] > value
+                    || (axisValues[j] == value && (axisEndpoints[j] & 1) == 1 && (endpoint & 1) == 0))) {
+                axisEndpoints[j + 1] = axisEndpoints[j];
+                axisValues[j + 1] = axisValues[j];
+                j--;
+            }
+            axisEndpoints[j + 1] = endpoint;
+            axisValues[j + 1] = value;
+        }
+    }
+
+    private void ensureEndpointCapacity(int capacity) {
+        if (endpoints[0].length >= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, endpoints[0].length * 2);
+        for (int axis = 0; axis < AXES; axis++) {
+            endpoints[axis] = Arrays.copyOf(endpoints[axis], newCapacity);
+            values[axis] = Arrays.copyOf(values[axis], newCapacity);
+        }
+    }
+
+    private static class Proxy {
+        private final int index;
+        private final BoundingBox bounds = new BoundingBox();
+        private PhysicsBody body;
+        private boolean isStatic;
+
+        private Proxy(int index) {
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.andre.collision.broadphase;
+
+/**
+ * Recebe os proxies encontrados por uma consulta na {@link DynamicAABBTree}.
+ */
+@FunctionalInterface
+public interface TreeQueryCallback {
+    /**
+     * Chamado para cada proxy cuja caixa expandida satisfaz a consulta.
+     *
+     * @param proxyId O identificador do proxy.
+     * @return true para continuar a consulta, false para interrompê-la.
+     */
+    boolean onProxy(int proxyId);
+}
@@ -0,0 +1,17 @@
+package br.com.andre.collision.broadphase;
+
+/**
+ * Recebe os proxies atravessados por um raio lançado na {@link DynamicAABBTree}.
+ */
+@FunctionalInterface
+public interface TreeRayCastCallback {
+    /**
+     * Chamado para cada proxy cuja caixa expandida é atravessada pelo raio.
+     *
+     * @param proxyId     O identificador do proxy.
+     * @param maxFraction A fração máxima atual do raio (0 a 1).
+     * @return A nova fração máxima: 0 interrompe o lançamento, um valor menor encurta o raio
+     * e {@code maxFraction} mantém o raio inalterado.
+     */
+    double onProxy(int proxyId, double maxFraction);
+}
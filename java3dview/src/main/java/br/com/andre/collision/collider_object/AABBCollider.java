@@ -1,19 +1,27 @@
 package br.com.andre.collision.collider_object;
 
+import br.com.andre.collision.BoundingBox;
 import br.com.andre.collision.Collider;
 import br.com.andre.collision.CollisionInfo;
+import br.com.andre.collision.ContactManifold;
+import br.com.andre.collision.ConvexShape;
+import br.com.andre.collision.ShapeType;
+import br.com.andre.collision.SweepHit;
+import br.com.andre.collision.SweptSphere;
 import br.com.andre.graphic.Vector3;
 
 /**
  * Colisor de caixa alinhada aos eixos (AABB).
  */
-public class AABBCollider implements Collider {
+public class AABBCollider implements Collider, ConvexShape {
     private Vector3 min;
     private Vector3 max;
+    private final BoundingBox bounds = new BoundingBox();
 
     public AABBCollider(Vector3 min, Vector3 max) {
         this.min = min;
         this.max = max;
+        bounds.set(min, max);
     }
 
     @Override
@@ -22,6 +30,7 @@ public class AABBCollider implements Collider {
         Vector3 size = max.subtract(min);
         min = position;
         max = position.add(size);
+        bounds.set(min, max);
     }
 
     @Override
@@ -31,57 +40,159 @@ public class AABBCollider implements Collider {
 
     @Override
     public CollisionInfo checkCollision(Collider other) {
-        if (other instanceof SphereCollider) {
-            return other.checkCollision(this);
-        } else if (other instanceof AABBCollider) {
-            return checkCollisionWithAABB((AABBCollider) other);
-        }
-        return new CollisionInfo(false, null, null);
+        ContactManifold manifold = new ContactManifold();
+        return collide(other, manifold) ? manifold.toCollisionInfo(1) : CollisionInfo.NO_COLLISION;
     }
 
-    private CollisionInfo checkCollisionWithAABB(AABBCollider other) {
-        if (this.max.getX() < other.min.getX() || this.min.getX() > other.max.getX()) {
-            return new CollisionInfo(false, null, null);
-        }
-        if (this.max.getY() < other.min.getY() || this.min.getY() > other.max.getY()) {
-            return new CollisionInfo(false, null, null);
-        }
-        if (this.max.getZ() < other.min.getZ() || this.min.getZ() > other.max.getZ()) {
-            return new CollisionInfo(false, null, null);
-        }
+    @Override
+    public boolean collide(Collider other, ContactManifold out) {
+        return CollisionDispatcher.collide(this, other, out);
+    }
 
+    @Override
+    public ShapeType getShapeType() {
+        return ShapeType.AABB;
+    }
+
+    @Override
+    public void supportCore(double dx, double dy, double dz, double[] out) {
+        out[0] = dx >= 0 ? max.getX() : min.getX();
+        out[1] = dy >= 0 ? max.getY() : min.getY();
+        out[2] = dz >= 0 ? max.getZ() : min.getZ();
+    }
+
+    @Override
+    public double getMargin() {
+        return 0;
+    }
+
+    @Override
+    public void computeBounds(BoundingBox out) {
+        out.set(min, max);
+    }
+
+    /**
+     * Testa contra outra caixa. O eixo de menor sobreposição define a normal e os quatro cantos do
+     * retângulo de sobreposição nesse eixo formam os pontos de contato, o que dá suporte estável a
+     * caixas apoiadas umas sobre as outras.
+     */
+    boolean collideWithAABB(AABBCollider other, ContactManifold out) {
         double overlapX = Math.min(this.max.getX(), other.max.getX()) - Math.max(this.min.getX(), other.min.getX());
         double overlapY = Math.min(this.max.getY(), other.max.getY()) - Math.max(this.min.getY(), other.min.getY());
         double overlapZ = Math.min(this.max.getZ(), other.max.getZ()) - Math.max(this.min.getZ(), other.min.getZ());
+        if (overlapX < 0 || overlapY < 0 || overlapZ < 0) {
+            return false;
+        }
 
+        int axis = 0;
         double minOverlap = overlapX;
-        Vector3 collisionNormal = new Vector3(1, 0, 0);
         if (overlapY < minOverlap) {
             minOverlap = overlapY;
-            collisionNormal = new Vector3(0, 1, 0);
+            axis = 1;
         }
         if (overlapZ < minOverlap) {
             minOverlap = overlapZ;
-            collisionNormal = new Vector3(0, 0, 1);
+            axis = 2;
         }
 
-        Vector3 centerThis = this.getPosition();
-        Vector3 centerOther = other.getPosition();
-        Vector3 direction = centerThis.subtract(centerOther);
+        double direction = (this.getMin(axis) + this.getMax(axis)) - (other.getMin(axis) + other.getMax(axis));
+        double sign = direction < 0 ? -1 : 1;
+        out.setNormal(axis == 0 ? sign : 0, axis == 1 ? sign : 0, axis == 2 ? sign : 0);
+
+        // Plano de contato no meio da sobreposição ao longo da normal
+        double plane = (Math.max(this.getMin(axis), other.getMin(axis)) + Math.min(this.getMax(axis), other.getMax(axis))) * 0.5;
+        int u = (axis + 1) % 3;
+        int v = (axis + 2) % 3;
+        double uMin = Math.max(this.getMin(u), other.getMin(u));
+        double uMax = Math.min(this.getMax(u), other.getMax(u));
+        double vMin = Math.max(this.getMin(v), other.getMin(v));
+        double vMax = Math.min(this.getMax(v), other.getMax(v));
+
+        int featureBase = (axis * 2 + (sign < 0 ? 1 : 0)) * ContactManifold.MAX_POINTS;
+        for (int corner = 0; corner < 4; corner++) {
+            double cu = (corner & 1) == 0 ? uMin : uMax;
+            double cv = (corner & 2) == 0 ? vMin : vMax;
+            out.addPoint(
+                    axis == 0 ? plane : (u == 0 ? cu : cv),
+                    axis == 1 ? plane : (u == 1 ? cu : cv),
+                    axis == 2 ? plane : (u == 2 ? cu : cv),
+                    minOverlap, featureBase + corner);
+        }
+        return true;
+    }
 
-        if (direction.dot(collisionNormal) < 0) {
-            collisionNormal = collisionNormal.multiply(-1);
+    @Override
+    public boolean raycast(double ox, double oy, double oz, double dx, double dy, double dz,
+                           double maxFraction, SweepHit out) {
+        double t = SweptSphere.rayBox(ox, oy, oz, dx, dy, dz,
+                min.getX(), min.getY(), min.getZ(), max.getX(), max.getY(), max.getZ());
+        if (t == 0 || t > maxFraction) {
+            return false; // Começa dentro da caixa ou não a atinge a tempo
         }
+        // A face atingida é a mais próxima do ponto de entrada
+        double px = ox + dx * t, py = oy + dy * t, pz = oz + dz * t;
+        int axis = 0;
+        double sign = -1;
+        double best = Double.MAX_VALUE;
+        for (int a = 0; a < 3; a++) {
+            double p = a == 0 ? px : a == 1 ? py : pz;
+            double toMin = Math.abs(p - getMin(a));
+            double toMax = Math.abs(p - getMax(a));
+            if (toMin < best) {
+                best = toMin;
+                axis = a;
+                sign = -1;
+            }
+            if (toMax < best) {
+                best = toMax;
+                axis = a;
+                sign = 1;
+            }
+        }
+        out.set(t, axis == 0 ? sign : 0, axis == 1 ? sign : 0, axis == 2 ? sign : 0);
+        return true;
+    }
+
+    @Override
+    public boolean sweepSphere(double startX, double startY, double startZ, double radius,
+                               double dx, double dy, double dz, SweepHit out) {
+        return SweptSphere.sweepAABB(startX, startY, startZ, dx, dy, dz, radius, bounds, out);
+    }
+
+    @Override
+    public boolean overlapsSphere(double cx, double cy, double cz, double radius) {
+        double dx = cx - clampX(cx), dy = cy - clampY(cy), dz = cz - clampZ(cz);
+        return dx * dx + dy * dy + dz * dz <= radius * radius;
+    }
 
-        Vector3 penetrationDepth = collisionNormal.multiply(minOverlap);
+    @Override
+    public boolean overlapsBox(BoundingBox box) {
+        return min.getX() <= box.getMaxX() && max.getX() >= box.getMinX()
+                && min.getY() <= box.getMaxY() && max.getY() >= box.getMinY()
+                && min.getZ() <= box.getMaxZ() && max.getZ() >= box.getMinZ();
+    }
+
+    private double getMin(int axis) {
+        return axis == 0 ? min.getX() : axis == 1 ? min.getY() : min.getZ();
+    }
+
+    private double getMax(int axis) {
+        return axis == 0 ? max.getX() : axis == 1 ? max.getY() : max.getZ();
+    }
+
+    double clampX(double x) {
+        return Math.max(min.getX(), Math.min(x, max.getX()));
+    }
+
+    double clampY(double y) {
+        return Math.max(min.getY(), Math.min(y, max.getY()));
+    }
 
-        return new CollisionInfo(true, collisionNormal, penetrationDepth);
+    double clampZ(double z) {
+        return Math.max(min.getZ(), Math.min(z, max.getZ()));
     }
 
     public Vector3 getClosestPoint(Vector3 point) {
-        double x = Math.max(min.getX(), Math.min(point.getX(), max.getX()));
-        double y = Math.max(min.getY(), Math.min(point.getY(), max.getY()));
-        double z = Math.max(min.getZ(), Math.min(point.getZ(), max.getZ()));
-        return new Vector3(x, y, z);
+        return new Vector3(clampX(point.getX()), clampY(point.getY()), clampZ(point.getZ()));
     }
-}
\ No newline at end of file
+}
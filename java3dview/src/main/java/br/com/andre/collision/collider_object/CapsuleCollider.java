@@ -0,0 +1,80 @@
+package br.com.andre.collision.collider_object;
+
+import br.com.andre.collision.ShapeType;
+import br.com.andre.graphic.Vector3;
+
+/**
+ * Colisor de cápsula: um segmento expandido por um raio. O segmento é o núcleo do GJK e o raio a
+ * margem, o que torna exata a distância contra esferas e outras cápsulas.
+ */
+public class CapsuleCollider extends ConvexCollider {
+    private double startX, startY, startZ;
+    private double endX, endY, endZ;
+    private final double radius;
+
+    /**
+     * @param start  O centro da semiesfera inicial.
+     * @param end    O centro da semiesfera final.
+     * @param radius O raio da cápsula.
+     */
+    public CapsuleCollider(Vector3 start, Vector3 end, double radius) {
+        if (radius <= 0) {
+            throw new IllegalArgumentException("O raio da cápsula deve ser positivo.");
+        }
+        this.startX = start.getX();
+        this.startY = start.getY();
+        this.startZ = start.getZ();
+        this.endX = end.getX();
+        this.endY = end.getY();
+        this.endZ = end.getZ();
+        this.radius = radius;
+    }
+
+    @Override
+    public void updatePosition(Vector3 position) {
+        updatePosition(position.getX(), position.getY(), position.getZ());
+    }
+
+    /**
+     * Move a cápsula para que o meio do segmento fique na posição indicada.
+     */
+    @Override
+    public void updatePosition(double x, double y, double z) {
+        double dx = x - (startX + endX) * 0.5;
+        double dy = y - (startY + endY) * 0.5;
+        double dz = z - (startZ + endZ) * 0.5;
+        startX += dx;
+        startY += dy;
+        startZ += dz;
+        endX += dx;
+        endY += dy;
+        endZ += dz;
+    }
+
+    @Override
+    public Vector3 getPosition() {
+        return new Vector3((startX + endX) * 0.5, (startY + endY) * 0.5, (startZ + endZ) * 0.5);
+    }
+
+    @Override
+    public ShapeType getShapeType() {
+        return ShapeType.CAPSULE;
+    }
+
+    @Override
+    public void supportCore(double dx, double dy, double dz, double[] out) {
+        boolean useEnd = (endX - startX) * dx + (endY - startY) * dy + (endZ - startZ) * dz > 0;
+        out[0] = useEnd ? endX : startX;
+        out[1] = useEnd ? endY : startY;
+        out[2] = useEnd ? endZ : startZ;
+    }
+
+    @Override
+    public double getMargin() {
+        return radius;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+}
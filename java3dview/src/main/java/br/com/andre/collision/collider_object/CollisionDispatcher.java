@@ -0,0 +1,99 @@
+package br.com.andre.collision.collider_object;
+
+import br.com.andre.collision.Collider;
+import br.com.andre.collision.ContactManifold;
+import br.com.andre.collision.ConvexShape;
+import br.com.andre.collision.ShapeType;
+import br.com.andre.collision.narrowphase.Gjk;
+
+/**
+ * Tabela de despacho duplo da narrowphase, indexada pelo {@link ShapeType} dos dois colisores.
+ * <p>
+ * Pares com teste analítico (esfera, caixa e polígono contra esfera) usam funções dedicadas; todos
+ * os demais pares de formas convexas caem no GJK/EPA, de modo que uma forma nova só precisa da sua
+ * função de suporte. Os testes registrados para (A, B) são espelhados para (B, A) invertendo a
+ * normal. Registros devem ser feitos antes de a simulação começar.
+ */
+public final class CollisionDispatcher {
+    /**
+     * Teste de colisão de um par de formas.
+     */
+    @FunctionalInterface
+    public interface PairTest {
+        /**
+         * @param a   O colisor A.
+         * @param b   O colisor B.
+         * @param out A variedade, já esvaziada; a normal gravada aponta de B para A.
+         * @return true se houver colisão.
+         */
+        boolean collide(Collider a, Collider b, ContactManifold out);
+    }
+
+    private static final int TYPE_COUNT = ShapeType.values().length;
+    private static final PairTest[][] TESTS = new PairTest[TYPE_COUNT][TYPE_COUNT];
+
+    private static final PairTest CONVEX = (a, b, out) ->
+            Gjk.get().collide((ConvexShape) a, (ConvexShape) b, out.getSimplexCache(), out);
+
+    static {
+        for (int i = 0; i < TYPE_COUNT; i++) {
+            for (int j = 0; j < TYPE_COUNT; j++) {
+                if (i != ShapeType.CUSTOM.ordinal() && j != ShapeType.CUSTOM.ordinal()) {
+                    TESTS[i][j] = CONVEX;
+                }
+            }
+        }
+        register(ShapeType.SPHERE, ShapeType.SPHERE,
+                (a, b, out) -> ((SphereCollider) a).collideWithSphere((SphereCollider) b, out));
+        register(ShapeType.SPHERE, ShapeType.AABB,
+                (a, b, out) -> ((SphereCollider) a).collideWithAABB((AABBCollider) b, out));
+        register(ShapeType.AABB, ShapeType.AABB,
+                (a, b, out) -> ((AABBCollider) a).collideWithAABB((AABBCollider) b, out));
+        register(ShapeType.SPHERE, ShapeType.POLYGON,
+                (a, b, out) -> ((PolygonCollider) b).collideWithSphere((SphereCollider) a, out));
+    }
+
+    private CollisionDispatcher() {
+    }
+
+    /**
+     * Registra o teste de um par de tipos, e o espelho para o par invertido.
+     *
+     * @param typeA O tipo do colisor A.
+     * @param typeB O tipo do colisor B.
+     * @param test  O teste, que grava a normal de B para A.
+     */
+    public static void register(ShapeType typeA, ShapeType typeB, PairTest test) {
+        TESTS[typeA.ordinal()][typeB.ordinal()] = test;
+        if (typeA != typeB) {
+            TESTS[typeB.ordinal()][typeA.ordinal()] = (a, b, out) -> {
+                if (test.collide(b, a, out)) {
+                    out.flip();
+                    return true;
+                }
+                return false;
+            };
+        }
+    }
+
+    /**
+     * Testa dois colisores pelo teste registrado para os seus tipos. Colisores
+     * {@link ShapeType#CUSTOM} sem teste registrado usam o GJK se ambos forem {@link ConvexShape}s.
+     *
+     * @param a   O colisor A.
+     * @param b   O colisor B.
+     * @param out A variedade que recebe os contatos; é esvaziada antes do teste.
+     * @return true se houver colisão.
+     */
+    public static boolean collide(Collider a, Collider b, ContactManifold out) {
+        out.clear();
+        PairTest test = TESTS[a.getShapeType().ordinal()][b.getShapeType().ordinal()];
+        if (test == null) {
+            if (!(a instanceof ConvexShape) || !(b instanceof ConvexShape)) {
+                return false;
+            }
+            test = CONVEX;
+        }
+        return test.collide(a, b, out);
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.andre.collision.collider_object;
+
+import br.com.andre.collision.BoundingBox;
+import br.com.andre.collision.Collider;
+import br.com.andre.collision.CollisionInfo;
+import br.com.andre.collision.ContactManifold;
+import br.com.andre.collision.ConvexShape;
+import br.com.andre.collision.SweepHit;
+import br.com.andre.collision.narrowphase.Gjk;
+
+/**
+ * Base dos colisores convexos descritos apenas pela função de suporte. Colisões, limites, raios,
+ * varreduras e sobreposições vêm do {@link Gjk}; as subclasses definem o núcleo e a margem.
+ */
+public abstract class ConvexCollider implements Collider, ConvexShape {
+    // Ponto de suporte auxiliar do cálculo dos limites
+    private final double[] boundsSupport = new double[3];
+
+    @Override
+    public CollisionInfo checkCollision(Collider other) {
+        ContactManifold manifold = new ContactManifold();
+        return collide(other, manifold) ? manifold.toCollisionInfo(1) : CollisionInfo.NO_COLLISION;
+    }
+
+    @Override
+    public boolean collide(Collider other, ContactManifold out) {
+        return CollisionDispatcher.collide(this, other, out);
+    }
+
+    /**
+     * Calcula os limites pelos suportes nas seis direções dos eixos, somados à margem.
+     */
+    @Override
+    public void computeBounds(BoundingBox out) {
+        double margin = getMargin();
+        supportCore(1, 0, 0, boundsSupport);
+        double maxX = boundsSupport[0] + margin;
+        supportCore(-1, 0, 0, boundsSupport);
+        double minX = boundsSupport[0] - margin;
+        supportCore(0, 1, 0, boundsSupport);
+        double maxY = boundsSupport[1] + margin;
+        supportCore(0, -1, 0, boundsSupport);
+        double minY = boundsSupport[1] - margin;
+        supportCore(0, 0, 1, boundsSupport);
+        double maxZ = boundsSupport[2] + margin;
+        supportCore(0, 0, -1, boundsSupport);
+        double minZ = boundsSupport[2] - margin;
+        out.set(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    @Override
+    public boolean raycast(double ox, double oy, double oz, double dx, double dy, double dz,
+                           double maxFraction, SweepHit out) {
+        return Gjk.get().raycast(this, 0, ox, oy, oz, dx, dy, dz, maxFraction, out);
+    }
+
+    @Override
+    public boolean sweepSphere(double startX, double startY, double startZ, double radius,
+                               double dx, double dy, double dz, SweepHit out) {
+        return Gjk.get().raycast(this, radius, startX, startY, startZ, dx, dy, dz, 1, out);
+    }
+
+    @Override
+    public boolean overlapsSphere(double cx, double cy, double cz, double radius) {
+        return Gjk.get().overlapsSphere(this, cx, cy, cz, radius);
+    }
+
+    @Override
+    public boolean overlapsBox(BoundingBox box) {
+        return Gjk.get().overlapsBox(this, box);
+    }
+}
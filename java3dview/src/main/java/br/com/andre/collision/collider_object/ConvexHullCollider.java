@@ -0,0 +1,128 @@
+package br.com.andre.collision.collider_object;
+
+import br.com.andre.collision.ShapeType;
+import br.com.andre.graphic.PolygonGraphic;
+import br.com.andre.graphic.Vector3;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Colisor de envoltória convexa de um conjunto de pontos. O suporte é o ponto de maior projeção,
+ * então não é preciso construir as faces da envoltória: pontos internos apenas não são escolhidos.
+ */
+public class ConvexHullCollider extends ConvexCollider {
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final int count;
+    private double centerX, centerY, centerZ;
+
+    public ConvexHullCollider(List<Vector3> points) {
+        if (points.isEmpty()) {
+            throw new IllegalArgumentException("Uma envoltória convexa precisa de ao menos um ponto.");
+        }
+        count = points.size();
+        xs = new double[count];
+        ys = new double[count];
+        zs = new double[count];
+        for (int i = 0; i < count; i++) {
+            Vector3 point = points.get(i);
+            xs[i] = point.getX();
+            ys[i] = point.getY();
+            zs[i] = point.getZ();
+            centerX += xs[i];
+            centerY += ys[i];
+            centerZ += zs[i];
+        }
+        centerX /= count;
+        centerY /= count;
+        centerZ /= count;
+    }
+
+    /**
+     * Cria a envoltória dos vértices dos polígonos de um grupo de um modelo OBJ.
+     *
+     * @param polygons  Os polígonos carregados pelo {@link br.com.andre.graphic.OBJLoader}.
+     * @param groupName O nome do grupo ({@code g} no arquivo OBJ).
+     * @return O colisor do grupo.
+     */
+    public static ConvexHullCollider fromGroup(List<PolygonGraphic> polygons, String groupName) {
+        // O OBJLoader compartilha a instância de cada vértice entre as faces que o usam
+        Set<Vector3> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Vector3> points = new ArrayList<>();
+        for (PolygonGraphic polygon : polygons) {
+            if (!groupName.equals(polygon.getGroupName())) {
+                continue;
+            }
+            for (Vector3 vertex : polygon.getVertices()) {
+                if (seen.add(vertex)) {
+                    points.add(vertex);
+                }
+            }
+        }
+        if (points.isEmpty()) {
+            throw new IllegalArgumentException("Grupo sem vértices: " + groupName);
+        }
+        return new ConvexHullCollider(points);
+    }
+
+    @Override
+    public void updatePosition(Vector3 position) {
+        updatePosition(position.getX(), position.getY(), position.getZ());
+    }
+
+    /**
+     * Desloca os pontos para que o centroide fique na posição indicada.
+     */
+    @Override
+    public void updatePosition(double x, double y, double z) {
+        double dx = x - centerX, dy = y - centerY, dz = z - centerZ;
+        for (int i = 0; i < count; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+            zs[i] += dz;
+        }
+        centerX = x;
+        centerY = y;
+        centerZ = z;
+    }
+
+    @Override
+    public Vector3 getPosition() {
+        return new Vector3(centerX, centerY, centerZ);
+    }
+
+    @Override
+    public ShapeType getShapeType() {
+        return ShapeType.CONVEX_HULL;
+    }
+
+    @Override
+    public void supportCore(double dx, double dy, double dz, double[] out) {
+        int best = 0;
+        double bestDot = xs[0] * dx + ys[0] * dy + zs[0] * dz;
+        for (int i = 1; i < count; i++) {
+            double dot = xs[i] * dx + ys[i] * dy + zs[i] * dz;
+            if (dot > bestDot) {
+                bestDot = dot;
+                best = i;
+            }
+        }
+        out[0] = xs[best];
+        out[1] = ys[best];
+        out[2] = zs[best];
+    }
+
+    @Override
+    public double getMargin() {
+        return 0;
+    }
+
+    public int getPointCount() {
+        return count;
+    }
+}
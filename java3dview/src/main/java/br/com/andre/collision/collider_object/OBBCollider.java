@@ -0,0 +1,99 @@
+package br.com.andre.collision.collider_object;
+
+import br.com.andre.collision.ShapeType;
+import br.com.andre.graphic.Vector3;
+
+/**
+ * Colisor de caixa orientada (OBB): um centro, três eixos ortonormais e as meias-extensões ao
+ * longo de cada eixo. Permite adereços girados, que a {@link AABBCollider} não representa.
+ */
+public class OBBCollider extends ConvexCollider {
+    private double centerX, centerY, centerZ;
+    private final double halfX, halfY, halfZ;
+    // Eixos locais em coordenadas do mundo, em linhas: eixo X, eixo Y, eixo Z
+    private final double[] axes = new double[9];
+
+    /**
+     * Cria a caixa a partir de dois eixos; o terceiro é o produto vetorial dos dois. Os eixos são
+     * ortonormalizados.
+     *
+     * @param center      O centro da caixa.
+     * @param halfExtents As meias-extensões ao longo dos eixos locais X, Y e Z.
+     * @param axisX       O eixo local X.
+     * @param axisY       O eixo local Y (aproximadamente perpendicular a X).
+     */
+    public OBBCollider(Vector3 center, Vector3 halfExtents, Vector3 axisX, Vector3 axisY) {
+        if (halfExtents.getX() < 0 || halfExtents.getY() < 0 || halfExtents.getZ() < 0) {
+            throw new IllegalArgumentException("As meias-extensões da caixa não podem ser negativas.");
+        }
+        Vector3 x = axisX.normalize();
+        Vector3 z = x.cross(axisY).normalize();
+        Vector3 y = z.cross(x);
+        if (z.lengthSquared() == 0) {
+            throw new IllegalArgumentException("Os eixos da caixa não podem ser paralelos.");
+        }
+        axes[0] = x.getX();
+        axes[1] = x.getY();
+        axes[2] = x.getZ();
+        axes[3] = y.getX();
+        axes[4] = y.getY();
+        axes[5] = y.getZ();
+        axes[6] = z.getX();
+        axes[7] = z.getY();
+        axes[8] = z.getZ();
+        this.centerX = center.getX();
+        this.centerY = center.getY();
+        this.centerZ = center.getZ();
+        this.halfX = halfExtents.getX();
+        this.halfY = halfExtents.getY();
+        this.halfZ = halfExtents.getZ();
+    }
+
+    /**
+     * Cria a caixa girada em torno do eixo Y, o caso comum de adereços no chão.
+     *
+     * @param center      O centro da caixa.
+     * @param halfExtents As meias-extensões.
+     * @param yaw         O ângulo em torno do eixo Y, em radianos.
+     */
+    public OBBCollider(Vector3 center, Vector3 halfExtents, double yaw) {
+        this(center, halfExtents, new Vector3(StrictMath.cos(yaw), 0, -StrictMath.sin(yaw)), new Vector3(0, 1, 0));
+    }
+
+    @Override
+    public void updatePosition(Vector3 position) {
+        updatePosition(position.getX(), position.getY(), position.getZ());
+    }
+
+    @Override
+    public void updatePosition(double x, double y, double z) {
+        centerX = x;
+        centerY = y;
+        centerZ = z;
+    }
+
+    @Override
+    public Vector3 getPosition() {
+        return new Vector3(centerX, centerY, centerZ);
+    }
+
+    @Override
+    public ShapeType getShapeType() {
+        return ShapeType.OBB;
+    }
+
+    @Override
+    public void supportCore(double dx, double dy, double dz, double[] out) {
+        double sx = axes[0] * dx + axes[1] * dy + axes[2] * dz >= 0 ? halfX : -halfX;
+        double sy = axes[3] * dx + axes[4] * dy + axes[5] * dz >= 0 ? halfY : -halfY;
+        double sz = axes[6] * dx + axes[7] * dy + axes[8] * dz >= 0 ? halfZ : -halfZ;
+        out[0] = centerX + axes[0] * sx + axes[3] * sy + axes[6] * sz;
+        out[1] = centerY + axes[1] * sx + axes[4] * sy + axes[7] * sz;
+        out[2] = centerZ + axes[2] * sx + axes[5] * sy + axes[8] * sz;
+    }
+
+    @Override
+    public double getMargin() {
+        return 0;
+    }
+}
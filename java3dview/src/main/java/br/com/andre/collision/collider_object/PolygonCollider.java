@@ -0,0 +1,250 @@
+package br.com.andre.collision.collider_object;
+
+import br.com.andre.collision.BoundingBox;
+import br.com.andre.collision.Collider;
+import br.com.andre.collision.CollisionInfo;
+import br.com.andre.collision.ContactManifold;
+import br.com.andre.collision.ConvexShape;
+import br.com.andre.collision.ShapeType;
+import br.com.andre.collision.SweepHit;
+import br.com.andre.collision.SweptSphere;
+import br.com.andre.graphic.Vector3;
+
+import java.util.List;
+
+/**
+ * Colisor de polígono convexo e plano, para geometria estática fina como paredes de um mapa.
+ * Colide com esferas por um teste analítico e com as demais formas convexas pelo GJK. A colisão e as
+ * consultas (raios, varreduras e sobreposições) podem rodar em paralelo.
+ */
+public class PolygonCollider implements Collider, ConvexShape {
+    // Ponto auxiliar do teste com esferas, um por thread
+    private static final ThreadLocal<double[]> CLOSEST = ThreadLocal.withInitial(() -> new double[3]);
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final int count;
+    private double normalX, normalY, normalZ;
+
+    public PolygonCollider(List<Vector3> vertices) {
+        if (vertices.size() < 3) {
+            throw new IllegalArgumentException("Um polígono precisa de ao menos 3 vértices.");
+        }
+        count = vertices.size();
+        xs = new double[count];
+        ys = new double[count];
+        zs = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = vertices.get(i).getX();
+            ys[i] = vertices.get(i).getY();
+            zs[i] = vertices.get(i).getZ();
+        }
+        Vector3 normal = vertices.get(1).subtract(vertices.get(0))
+                .cross(vertices.get(2).subtract(vertices.get(0))).normalize();
+        normalX = normal.getX();
+        normalY = normal.getY();
+        normalZ = normal.getZ();
+    }
+
+    @Override
+    public void updatePosition(Vector3 position) {
+        // Desloca o polígono para que o centro fique na nova posição
+        Vector3 center = getPosition();
+        double dx = position.getX() - center.getX();
+        double dy = position.getY() - center.getY();
+        double dz = position.getZ() - center.getZ();
+        for (int i = 0; i < count; i++) {
+            xs[i] += dx;
+            ys[i] += dy;
+            zs[i] += dz;
+        }
+    }
+
+    @Override
+    public Vector3 getPosition() {
+        double x = 0, y = 0, z = 0;
+        for (int i = 0; i < count; i++) {
+            x += xs[i];
+            y += ys[i];
+            z += zs[i];
+        }
+        return new Vector3(x / count, y / count, z / count);
+    }
+
+    @Override
+    public CollisionInfo checkCollision(Collider other) {
+        ContactManifold manifold = new ContactManifold();
+        return collide(other, manifold) ? manifold.toCollisionInfo(1) : CollisionInfo.NO_COLLISION;
+    }
+
+    @Override
+    public boolean collide(Collider other, ContactManifold out) {
+        return CollisionDispatcher.collide(this, other, out);
+    }
+
+    @Override
+    public ShapeType getShapeType() {
+        return ShapeType.POLYGON;
+    }
+
+    @Override
+    public void supportCore(double dx, double dy, double dz, double[] out) {
+        int best = 0;
+        double bestDot = xs[0] * dx + ys[0] * dy + zs[0] * dz;
+        for (int i = 1; i < count; i++) {
+            double dot = xs[i] * dx + ys[i] * dy + zs[i] * dz;
+            if (dot > bestDot) {
+                bestDot = dot;
+                best = i;
+            }
+        }
+        out[0] = xs[best];
+        out[1] = ys[best];
+        out[2] = zs[best];
+    }
+
+    @Override
+    public double getMargin() {
+        return 0;
+    }
+
+    /**
+     * Testa o polígono contra uma esfera; a normal aponta do polígono para a esfera.
+     */
+    boolean collideWithSphere(SphereCollider sphere, ContactManifold out) {
+        double cx = sphere.getCenterX(), cy = sphere.getCenterY(), cz = sphere.getCenterZ();
+        double radius = sphere.getRadius();
+        double[] closest = CLOSEST.get();
+        double distanceSquared = SweptSphere.closestPointOnPolygon(cx, cy, cz, xs, ys, zs, count,
+                normalX, normalY, normalZ, closest);
+        if (distanceSquared > radius * radius) {
+            return false;
+        }
+
+        double distance = Math.sqrt(distanceSquared);
+        if (distance > 0) {
+            out.setNormal((cx - closest[0]) / distance, (cy - closest[1]) / distance, (cz - closest[2]) / distance);
+        } else {
+            out.setNormal(normalX, normalY, normalZ);
+        }
+        out.addPoint(closest[0], closest[1], closest[2], radius - distance, 0);
+        return true;
+    }
+
+    /**
+     * Varre uma esfera contra o polígono.
+     *
+     * @param startX O centro inicial da esfera no eixo X.
+     * @param startY O centro inicial no eixo Y.
+     * @param startZ O centro inicial no eixo Z.
+     * @param radius O raio da esfera.
+     * @param dx     O deslocamento no eixo X.
+     * @param dy     O deslocamento no eixo Y.
+     * @param dz     O deslocamento no eixo Z.
+     * @param out    Recebe o impacto.
+     * @return true se a esfera atingir o polígono durante o deslocamento.
+     */
+    @Override
+    public boolean sweepSphere(double startX, double startY, double startZ, double radius,
+                               double dx, double dy, double dz, SweepHit out) {
+        return SweptSphere.sweepPolygon(startX, startY, startZ, dx, dy, dz, radius,
+                xs, ys, zs, count, normalX, normalY, normalZ, out);
+    }
+
+    @Override
+    public boolean raycast(double ox, double oy, double oz, double dx, double dy, double dz,
+                           double maxFraction, SweepHit out) {
+        double denominator = dx * normalX + dy * normalY + dz * normalZ;
+        if (Math.abs(denominator) < 1e-12) {
+            return false; // Paralelo ao plano
+        }
+        double t = ((xs[0] - ox) * normalX + (ys[0] - oy) * normalY + (zs[0] - oz) * normalZ) / denominator;
+        if (t < 0 || t > maxFraction) {
+            return false;
+        }
+        double px = ox + dx * t, py = oy + dy * t, pz = oz + dz * t;
+        if (!SweptSphere.isInsidePolygon(px, py, pz, xs, ys, zs, count, normalX, normalY, normalZ)) {
+            return false; // O ponto do plano está fora do polígono
+        }
+        // A normal reportada fica voltada para a origem do raio
+        double side = denominator < 0 ? 1 : -1;
+        out.set(t, normalX * side, normalY * side, normalZ * side);
+        return true;
+    }
+
+    @Override
+    public boolean overlapsSphere(double cx, double cy, double cz, double radius) {
+        return SweptSphere.closestPointOnPolygon(cx, cy, cz, xs, ys, zs, count,
+                normalX, normalY, normalZ, null) <= radius * radius;
+    }
+
+    /**
+     * Testa a sobreposição com uma caixa pelo teorema do eixo separador: os eixos da caixa, a normal
+     * do polígono e os produtos vetoriais entre as arestas e os eixos da caixa.
+     */
+    @Override
+    public boolean overlapsBox(BoundingBox box) {
+        double cx = (box.getMinX() + box.getMaxX()) * 0.5;
+        double cy = (box.getMinY() + box.getMaxY()) * 0.5;
+        double cz = (box.getMinZ() + box.getMaxZ()) * 0.5;
+        double hx = (box.getMaxX() - box.getMinX()) * 0.5;
+        double hy = (box.getMaxY() - box.getMinY()) * 0.5;
+        double hz = (box.getMaxZ() - box.getMinZ()) * 0.5;
+
+        // Eixos da caixa
+        for (int axis = 0; axis < 3; axis++) {
+            if (isSeparated(axis == 0 ? 1 : 0, axis == 1 ? 1 : 0, axis == 2 ? 1 : 0, cx, cy, cz, hx, hy, hz)) {
+                return false;
+            }
+        }
+        if (isSeparated(normalX, normalY, normalZ, cx, cy, cz, hx, hy, hz)) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            int j = i + 1 == count ? 0 : i + 1;
+            double ex = xs[j] - xs[i], ey = ys[j] - ys[i], ez = zs[j] - zs[i];
+            // e x (1,0,0), e x (0,1,0) e e x (0,0,1)
+            if (isSeparated(0, ez, -ey, cx, cy, cz, hx, hy, hz)
+                    || isSeparated(-ez, 0, ex, cx, cy, cz, hx, hy, hz)
+                    || isSeparated(ey, -ex, 0, cx, cy, cz, hx, hy, hz)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isSeparated(double ax, double ay, double az,
+                                double cx, double cy, double cz, double hx, double hy, double hz) {
+        if (ax * ax + ay * ay + az * az < 1e-18) {
+            return false; // Eixo degenerado
+        }
+        double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            double projection = (xs[i] - cx) * ax + (ys[i] - cy) * ay + (zs[i] - cz) * az;
+            min = Math.min(min, projection);
+            max = Math.max(max, projection);
+        }
+        double boxRadius = hx * Math.abs(ax) + hy * Math.abs(ay) + hz * Math.abs(az);
+        return min > boxRadius || max < -boxRadius;
+    }
+
+    @Override
+    public void computeBounds(BoundingBox out) {
+        double minX = xs[0], minY = ys[0], minZ = zs[0];
+        double maxX = minX, maxY = minY, maxZ = minZ;
+        for (int i = 1; i < count; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            minZ = Math.min(minZ, zs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+            maxZ = Math.max(maxZ, zs[i]);
+        }
+        out.set(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    public Vector3 getNormal() {
+        return new Vector3(normalX, normalY, normalZ);
+    }
+}
@@ -1,73 +1,192 @@
 package br.com.andre.collision.collider_object;
 
+import br.com.andre.collision.BoundingBox;
 import br.com.andre.collision.Collider;
 import br.com.andre.collision.CollisionInfo;
+import br.com.andre.collision.ContactManifold;
+import br.com.andre.collision.ConvexShape;
+import br.com.andre.collision.ShapeType;
+import br.com.andre.collision.SweepHit;
+import br.com.andre.collision.SweptSphere;
 import br.com.andre.graphic.Vector3;
 
 /**
- * Colisor de esfera para detecção de colisões.
+ * Colisor de esfera para detecção de colisões. Para o GJK, é um ponto com margem igual ao raio.
  */
-public class SphereCollider implements Collider {
-    private Vector3 position;
+public class SphereCollider implements Collider, ConvexShape {
+    // Centro em campos primitivos: o colisor é atualizado a cada passo pelo BodyStore
+    private double centerX, centerY, centerZ;
     private double radius;
 
     public SphereCollider(Vector3 position, double radius) {
-        this.position = position;
+        updatePosition(position);
         this.radius = radius;
     }
 
     @Override
     public void updatePosition(Vector3 position) {
-        this.position = position;
+        updatePosition(position.getX(), position.getY(), position.getZ());
+    }
+
+    @Override
+    public void updatePosition(double x, double y, double z) {
+        this.centerX = x;
+        this.centerY = y;
+        this.centerZ = z;
     }
 
     @Override
     public Vector3 getPosition() {
-        return position;
+        return new Vector3(centerX, centerY, centerZ);
     }
 
     @Override
     public CollisionInfo checkCollision(Collider other) {
-        if (other instanceof SphereCollider) {
-            return checkCollisionWithSphere((SphereCollider) other);
-        } else if (other instanceof AABBCollider) {
-            return checkCollisionWithAABB((AABBCollider) other);
+        ContactManifold manifold = new ContactManifold();
+        return collide(other, manifold) ? manifold.toCollisionInfo(1) : CollisionInfo.NO_COLLISION;
+    }
+
+    @Override
+    public boolean collide(Collider other, ContactManifold out) {
+        return CollisionDispatcher.collide(this, other, out);
+    }
+
+    @Override
+    public ShapeType getShapeType() {
+        return ShapeType.SPHERE;
+    }
+
+    @Override
+    public void supportCore(double dx, double dy, double dz, double[] out) {
+        out[0] = centerX;
+        out[1] = centerY;
+        out[2] = centerZ;
+    }
+
+    @Override
+    public double getMargin() {
+        return radius;
+    }
+
+    @Override
+    public void computeBounds(BoundingBox out) {
+        out.set(centerX - radius, centerY - radius, centerZ - radius,
+                centerX + radius, centerY + radius, centerZ + radius);
+    }
+
+    @Override
+    public boolean raycast(double ox, double oy, double oz, double dx, double dy, double dz,
+                           double maxFraction, SweepHit out) {
+        double t = SweptSphere.raySphere(ox, oy, oz, dx, dy, dz, centerX, centerY, centerZ, radius);
+        if (t > maxFraction) {
+            return false;
         }
-        // Implementar outros tipos de colisores se necessário
-        return new CollisionInfo(false, null, null);
+        out.set(t, (ox + dx * t - centerX) / radius, (oy + dy * t - centerY) / radius, (oz + dz * t - centerZ) / radius);
+        return true;
     }
 
-    private CollisionInfo checkCollisionWithSphere(SphereCollider other) {
-        Vector3 delta = this.position.subtract(other.position);
-        double distanceSquared = delta.lengthSquared();
+    @Override
+    public boolean sweepSphere(double startX, double startY, double startZ, double radius,
+                               double dx, double dy, double dz, SweepHit out) {
+        double radiusSum = this.radius + radius;
+        double sx = startX - centerX, sy = startY - centerY, sz = startZ - centerZ;
+        if (sx * sx + sy * sy + sz * sz <= radiusSum * radiusSum) {
+            return false;
+        }
+        double t = SweptSphere.raySphere(startX, startY, startZ, dx, dy, dz, centerX, centerY, centerZ, radiusSum);
+        if (t > 1) {
+            return false;
+        }
+        out.set(t, (sx + dx * t) / radiusSum, (sy + dy * t) / radiusSum, (sz + dz * t) / radiusSum);
+        return true;
+    }
+
+    @Override
+    public boolean overlapsSphere(double cx, double cy, double cz, double radius) {
+        double dx = centerX - cx, dy = centerY - cy, dz = centerZ - cz;
+        double radiusSum = this.radius + radius;
+        return dx * dx + dy * dy + dz * dz <= radiusSum * radiusSum;
+    }
+
+    @Override
+    public boolean overlapsBox(BoundingBox box) {
+        double dx = centerX - Math.max(box.getMinX(), Math.min(centerX, box.getMaxX()));
+        double dy = centerY - Math.max(box.getMinY(), Math.min(centerY, box.getMaxY()));
+        double dz = centerZ - Math.max(box.getMinZ(), Math.min(centerZ, box.getMaxZ()));
+        return dx * dx + dy * dy + dz * dz <= radius * radius;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    public double getCenterX() {
+        return centerX;
+    }
+
+    public double getCenterY() {
+        return centerY;
+    }
+
+    public double getCenterZ() {
+        return centerZ;
+    }
+
+    /**
+     * Testa contra outra esfera; a normal aponta da outra esfera para esta.
+     */
+    boolean collideWithSphere(SphereCollider other, ContactManifold out) {
+        double dx = centerX - other.centerX;
+        double dy = centerY - other.centerY;
+        double dz = centerZ - other.centerZ;
+        double distanceSquared = dx * dx + dy * dy + dz * dz;
         double radiusSum = this.radius + other.radius;
 
         if (distanceSquared > radiusSum * radiusSum) {
-            return new CollisionInfo(false, null, null);
+            return false;
         }
 
         double distance = Math.sqrt(distanceSquared);
-        Vector3 normal = distance > 0 ? delta.divide(distance) : new Vector3(1, 0, 0);
+        double nx = 1, ny = 0, nz = 0;
+        if (distance > 0) {
+            nx = dx / distance;
+            ny = dy / distance;
+            nz = dz / distance;
+        }
         double penetration = radiusSum - distance;
-        Vector3 penetrationDepth = normal.multiply(penetration);
 
-        return new CollisionInfo(true, normal, penetrationDepth);
+        // Ponto de contato no meio da região de sobreposição
+        double offset = this.radius - penetration * 0.5;
+        out.setNormal(nx, ny, nz);
+        out.addPoint(centerX - nx * offset, centerY - ny * offset, centerZ - nz * offset, penetration, 0);
+        return true;
     }
 
-    private CollisionInfo checkCollisionWithAABB(AABBCollider aabb) {
-        Vector3 closestPoint = aabb.getClosestPoint(this.position);
-        Vector3 delta = this.position.subtract(closestPoint);
-        double distanceSquared = delta.lengthSquared();
+    /**
+     * Testa a esfera contra uma caixa; a normal aponta da caixa para a esfera.
+     */
+    boolean collideWithAABB(AABBCollider aabb, ContactManifold out) {
+        double closestX = aabb.clampX(centerX);
+        double closestY = aabb.clampY(centerY);
+        double closestZ = aabb.clampZ(centerZ);
+        double dx = centerX - closestX;
+        double dy = centerY - closestY;
+        double dz = centerZ - closestZ;
+        double distanceSquared = dx * dx + dy * dy + dz * dz;
 
         if (distanceSquared > this.radius * this.radius) {
-            return new CollisionInfo(false, null, null);
+            return false;
         }
 
         double distance = Math.sqrt(distanceSquared);
-        Vector3 normal = distance > 0 ? delta.divide(distance) : new Vector3(1, 0, 0);
-        double penetration = this.radius - distance;
-        Vector3 penetrationDepth = normal.multiply(penetration);
-
-        return new CollisionInfo(true, normal, penetrationDepth);
+        double nx = 1, ny = 0, nz = 0;
+        if (distance > 0) {
+            nx = dx / distance;
+            ny = dy / distance;
+            nz = dz / distance;
+        }
+        out.setNormal(nx, ny, nz);
+        out.addPoint(closestX, closestY, closestZ, this.radius - distance, 0);
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,308 @@
+package br.com.andre.collision.narrowphase;
+
+import br.com.andre.collision.ConvexShape;
+
+/**
+ * Expanding Polytope Algorithm: a partir de um simplex do GJK que contém a origem, expande um
+ * politopo dentro da diferença de Minkowski A - B até encontrar a face mais próxima da origem, que
+ * dá a normal e a profundidade de penetração.
+ * <p>
+ * Os vértices e as faces ficam em arrays de tamanho fixo; faces removidas são trocadas pela
+ * última. Instâncias pertencem a um {@link Gjk} e compartilham sua thread.
+ */
+final class Epa {
+    private static final int MAX_VERTICES = 64;
+    private static final int MAX_FACES = 128;
+    private static final int MAX_ITERATIONS = 48;
+    private static final double TOLERANCE = 1e-7;
+    private static final double DEGENERATE_EPSILON = 1e-12;
+
+    private final Gjk gjk;
+
+    private final double[] wx = new double[MAX_VERTICES], wy = new double[MAX_VERTICES], wz = new double[MAX_VERTICES];
+    private final double[] ax = new double[MAX_VERTICES], ay = new double[MAX_VERTICES], az = new double[MAX_VERTICES];
+    private final double[] bx = new double[MAX_VERTICES], by = new double[MAX_VERTICES], bz = new double[MAX_VERTICES];
+    private int vertexCount;
+
+    private final int[] faceA = new int[MAX_FACES], faceB = new int[MAX_FACES], faceC = new int[MAX_FACES];
+    private final double[] faceNormalX = new double[MAX_FACES], faceNormalY = new double[MAX_FACES], faceNormalZ = new double[MAX_FACES];
+    private final double[] faceDistance = new double[MAX_FACES];
+    private int faceCount;
+
+    // Arestas do horizonte ao remover as faces visíveis de um novo vértice
+    private final int[] edgeFrom = new int[MAX_FACES * 3], edgeTo = new int[MAX_FACES * 3];
+    private int edgeCount;
+
+    private final double[] supportA = new double[3];
+    private final double[] supportB = new double[3];
+
+    // Resultado: normal de saída da face mais próxima (de A para B), profundidade e pontos de contato
+    double normalX, normalY, normalZ;
+    double depth;
+    double pointAX, pointAY, pointAZ;
+    double pointBX, pointBY, pointBZ;
+
+    Epa(Gjk gjk) {
+        this.gjk = gjk;
+    }
+
+    /**
+     * Resolve a penetração a partir do simplex atual do {@link Gjk}, calculado com margens.
+     *
+     * @return false se o politopo inicial for degenerado (formas apenas se tocando).
+     */
+    boolean solve(ConvexShape a, ConvexShape b) {
+        vertexCount = gjk.count;
+        for (int i = 0; i < vertexCount; i++) {
+            wx[i] = gjk.wx[i];
+            wy[i] = gjk.wy[i];
+            wz[i] = gjk.wz[i];
+            ax[i] = gjk.ax[i];
+            ay[i] = gjk.ay[i];
+            az[i] = gjk.az[i];
+            bx[i] = gjk.bx[i];
+            by[i] = gjk.by[i];
+            bz[i] = gjk.bz[i];
+        }
+        if (!expandToTetrahedron(a, b)) {
+            return false;
+        }
+
+        // Orienta o tetraedro para que as normais das faces apontem para fora
+        double e1x = wx[1] - wx[0], e1y = wy[1] - wy[0], e1z = wz[1] - wz[0];
+        double e2x = wx[2] - wx[0], e2y = wy[2] - wy[0], e2z = wz[2] - wz[0];
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        if (nx * (wx[3] - wx[0]) + ny * (wy[3] - wy[0]) + nz * (wz[3] - wz[0]) > 0) {
+            swapVertices(1, 2);
+        }
+        faceCount = 0;
+        addFace(0, 1, 2);
+        addFace(0, 3, 1);
+        addFace(0, 2, 3);
+        addFace(1, 3, 2);
+
+        int closest = 0;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            closest = 0;
+            for (int f = 1; f < faceCount; f++) {
+                if (faceDistance[f] < faceDistance[closest]) {
+                    closest = f;
+                }
+            }
+            double fnx = faceNormalX[closest], fny = faceNormalY[closest], fnz = faceNormalZ[closest];
+            if (vertexCount == MAX_VERTICES) {
+                break;
+            }
+            int v = vertexCount;
+            addSupport(a, b, fnx, fny, fnz, v);
+            double supportDistance = fnx * wx[v] + fny * wy[v] + fnz * wz[v];
+            if (supportDistance - faceDistance[closest] <= TOLERANCE * Math.max(1, faceDistance[closest])) {
+                break; // A face já está na fronteira da diferença
+            }
+            vertexCount++;
+
+            edgeCount = 0;
+            for (int f = faceCount - 1; f >= 0; f--) {
+                int fa = faceA[f];
+                if (faceNormalX[f] * (wx[v] - wx[fa]) + faceNormalY[f] * (wy[v] - wy[fa])
+                        + faceNormalZ[f] * (wz[v] - wz[fa]) > 0) {
+                    addEdge(faceA[f], faceB[f]);
+                    addEdge(faceB[f], faceC[f]);
+                    addEdge(faceC[f], faceA[f]);
+                    removeFace(f);
+                }
+            }
+            if (faceCount + edgeCount > MAX_FACES) {
+                return false;
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                addFace(edgeFrom[e], edgeTo[e], v);
+            }
+            if (faceCount == 0) {
+                return false;
+            }
+        }
+        if (faceDistance[closest] == Double.MAX_VALUE) {
+            return false;
+        }
+        computeResult(closest);
+        return true;
+    }
+
+    /**
+     * Completa um simplex de 1 a 3 vértices até um tetraedro não degenerado, buscando suportes em
+     * direções perpendiculares ao simplex atual.
+     */
+    private boolean expandToTetrahedron(ConvexShape a, ConvexShape b) {
+        if (vertexCount == 1) {
+            for (int axis = 0; axis < 6 && vertexCount == 1; axis++) {
+                double sign = axis < 3 ? 1 : -1;
+                addSupport(a, b, axis % 3 == 0 ? sign : 0, axis % 3 == 1 ? sign : 0, axis % 3 == 2 ? sign : 0, 1);
+                double dx = wx[1] - wx[0], dy = wy[1] - wy[0], dz = wz[1] - wz[0];
+                if (dx * dx + dy * dy + dz * dz > DEGENERATE_EPSILON) {
+                    vertexCount = 2;
+                }
+            }
+            if (vertexCount == 1) {
+                return false;
+            }
+        }
+        if (vertexCount == 2) {
+            double dx = wx[1] - wx[0], dy = wy[1] - wy[0], dz = wz[1] - wz[0];
+            // Eixo menos alinhado ao segmento, para um perpendicular estável
+            double absX = Math.abs(dx), absY = Math.abs(dy), absZ = Math.abs(dz);
+            double px = 0, py = 0, pz = 0;
+            if (absX <= absY && absX <= absZ) {
+                px = 1;
+            } else if (absY <= absZ) {
+                py = 1;
+            } else {
+                pz = 1;
+            }
+            double e1x = dy * pz - dz * py, e1y = dz * px - dx * pz, e1z = dx * py - dy * px;
+            double e2x = dy * e1z - dz * e1y, e2y = dz * e1x - dx * e1z, e2z = dx * e1y - dy * e1x;
+            for (int attempt = 0; attempt < 4 && vertexCount == 2; attempt++) {
+                double sign = (attempt & 1) == 0 ? 1 : -1;
+                if (attempt < 2) {
+                    addSupport(a, b, e1x * sign, e1y * sign, e1z * sign, 2);
+                } else {
+                    addSupport(a, b, e2x * sign, e2y * sign, e2z * sign, 2);
+                }
+                double fx = wx[2] - wx[0], fy = wy[2] - wy[0], fz = wz[2] - wz[0];
+                double cx = dy * fz - dz * fy, cy = dz * fx - dx * fz, cz = dx * fy - dy * fx;
+                if (cx * cx + cy * cy + cz * cz > DEGENERATE_EPSILON) {
+                    vertexCount = 3;
+                }
+            }
+            if (vertexCount == 2) {
+                return false;
+            }
+        }
+        if (vertexCount == 3) {
+            double e1x = wx[1] - wx[0], e1y = wy[1] - wy[0], e1z = wz[1] - wz[0];
+            double e2x = wx[2] - wx[0], e2y = wy[2] - wy[0], e2z = wz[2] - wz[0];
+            double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+            for (int attempt = 0; attempt < 2 && vertexCount == 3; attempt++) {
+                double sign = attempt == 0 ? 1 : -1;
+                addSupport(a, b, nx * sign, ny * sign, nz * sign, 3);
+                double height = nx * (wx[3] - wx[0]) + ny * (wy[3] - wy[0]) + nz * (wz[3] - wz[0]);
+                if (Math.abs(height) > DEGENERATE_EPSILON) {
+                    vertexCount = 4;
+                }
+            }
+            return vertexCount == 4;
+        }
+        return true;
+    }
+
+    private void addSupport(ConvexShape a, ConvexShape b, double dx, double dy, double dz, int i) {
+        Gjk.support(a, dx, dy, dz, a.getMargin(), supportA);
+        Gjk.support(b, -dx, -dy, -dz, b.getMargin(), supportB);
+        ax[i] = supportA[0];
+        ay[i] = supportA[1];
+        az[i] = supportA[2];
+        bx[i] = supportB[0];
+        by[i] = supportB[1];
+        bz[i] = supportB[2];
+        wx[i] = supportA[0] - supportB[0];
+        wy[i] = supportA[1] - supportB[1];
+        wz[i] = supportA[2] - supportB[2];
+    }
+
+    private void swapVertices(int i, int j) {
+        double t;
+        t = wx[i]; wx[i] = wx[j]; wx[j] = t;
+        t = wy[i]; wy[i] = wy[j]; wy[j] = t;
+        t = wz[i]; wz[i] = wz[j]; wz[j] = t;
+        t = ax[i]; ax[i] = ax[j]; ax[j] = t;
+        t = ay[i]; ay[i] = ay[j]; ay[j] = t;
+        t = az[i]; az[i] = az[j]; az[j] = t;
+        t = bx[i]; bx[i] = bx[j]; bx[j] = t;
+        t = by[i]; by[i] = by[j]; by[j] = t;
+        t = bz[i]; bz[i] = bz[j]; bz[j] = t;
+    }
+
+    /**
+     * Adiciona a face (i, j, k), em sentido anti-horário visto de fora. Faces degeneradas recebem
+     * distância infinita e nunca são escolhidas.
+     */
+    private void addFace(int i, int j, int k) {
+        int f = faceCount++;
+        faceA[f] = i;
+        faceB[f] = j;
+        faceC[f] = k;
+        double e1x = wx[j] - wx[i], e1y = wy[j] - wy[i], e1z = wz[j] - wz[i];
+        double e2x = wx[k] - wx[i], e2y = wy[k] - wy[i], e2z = wz[k] - wz[i];
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (length < DEGENERATE_EPSILON) {
+            faceNormalX[f] = faceNormalY[f] = faceNormalZ[f] = 0;
+            faceDistance[f] = Double.MAX_VALUE;
+            return;
+        }
+        faceNormalX[f] = nx / length;
+        faceNormalY[f] = ny / length;
+        faceNormalZ[f] = nz / length;
+        faceDistance[f] = faceNormalX[f] * wx[i] + faceNormalY[f] * wy[i] + faceNormalZ[f] * wz[i];
+    }
+
+    private void removeFace(int f) {
+        int last = --faceCount;
+        faceA[f] = faceA[last];
+        faceB[f] = faceB[last];
+        faceC[f] = faceC[last];
+        faceNormalX[f] = faceNormalX[last];
+        faceNormalY[f] = faceNormalY[last];
+        faceNormalZ[f] = faceNormalZ[last];
+        faceDistance[f] = faceDistance[last];
+    }
+
+    /**
+     * Registra uma aresta de face removida; se a aresta oposta já foi registrada, as duas são
+     * internas à região removida e se cancelam.
+     */
+    private void addEdge(int from, int to) {
+        for (int e = 0; e < edgeCount; e++) {
+            if (edgeFrom[e] == to && edgeTo[e] == from) {
+                edgeCount--;
+                edgeFrom[e] = edgeFrom[edgeCount];
+                edgeTo[e] = edgeTo[edgeCount];
+                return;
+            }
+        }
+        edgeFrom[edgeCount] = from;
+        edgeTo[edgeCount] = to;
+        edgeCount++;
+    }
+
+    /**
+     * Projeta a origem na face mais próxima e interpola os pontos de suporte pelas coordenadas
+     * baricêntricas da projeção.
+     */
+    private void computeResult(int f) {
+        normalX = faceNormalX[f];
+        normalY = faceNormalY[f];
+        normalZ = faceNormalZ[f];
+        depth = Math.max(0, faceDistance[f]);
+        int i = faceA[f], j = faceB[f], k = faceC[f];
+        double px = normalX * depth, py = normalY * depth, pz = normalZ * depth;
+        double v0x = wx[j] - wx[i], v0y = wy[j] - wy[i], v0z = wz[j] - wz[i];
+        double v1x = wx[k] - wx[i], v1y = wy[k] - wy[i], v1z = wz[k] - wz[i];
+        double v2x = px - wx[i], v2y = py - wy[i], v2z = pz - wz[i];
+        double d00 = v0x * v0x + v0y * v0y + v0z * v0z;
+        double d01 = v0x * v1x + v0y * v1y + v0z * v1z;
+        double d11 = v1x * v1x + v1y * v1y + v1z * v1z;
+        double d20 = v2x * v0x + v2y * v0y + v2z * v0z;
+        double d21 = v2x * v1x + v2y * v1y + v2z * v1z;
+        double denominator = d00 * d11 - d01 * d01;
+        double lj = denominator != 0 ? (d11 * d20 - d01 * d21) / denominator : 0;
+        double lk = denominator != 0 ? (d00 * d21 - d01 * d20) / denominator : 0;
+        double li = 1 - lj - lk;
+        pointAX = li * ax[i] + lj * ax[j] + lk * ax[k];
+        pointAY = li * ay[i] + lj * ay[j] + lk * ay[k];
+        pointAZ = li * az[i] + lj * az[j] + lk * az[k];
+        pointBX = li * bx[i] + lj * bx[j] + lk * bx[k];
+        pointBY = li * by[i] + lj * by[j] + lk * by[k];
+        pointBZ = li * bz[i] + lj * bz[j] + lk * bz[k];
+    }
+}
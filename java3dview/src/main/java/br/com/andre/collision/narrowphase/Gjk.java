@@ -0,0 +1,554 @@
+package br.com.andre.collision.narrowphase;
+
+import br.com.andre.collision.BoundingBox;
+import br.com.andre.collision.ContactManifold;
+import br.com.andre.collision.ConvexShape;
+import br.com.andre.collision.SimplexCache;
+import br.com.andre.collision.SweepHit;
+
+/**
+ * Narrowphase genérica para {@link ConvexShape}s: GJK para distância e interseção, EPA para a
+ * penetração e o lançamento de raios de van den Bergen (GJK-raycast).
+ * <p>
+ * O GJK trabalha sobre a diferença de Minkowski A - B e mantém um simplex de até 4 vértices, com o
+ * ponto de suporte de cada forma guardado ao lado do vértice para recuperar os pontos mais
+ * próximos pelas coordenadas baricêntricas. As instâncias guardam estado de trabalho e não são
+ * seguras entre threads: use {@link #get()}, que devolve a instância da thread atual.
+ */
+public final class Gjk {
+    private static final int MAX_ITERATIONS = 64;
+    private static final double RELATIVE_TOLERANCE = 1e-10;
+    private static final double OVERLAP_TOLERANCE_SQUARED = 1e-18;
+    private static final double RAY_TOLERANCE_SQUARED = 1e-12;
+    // Distância entre núcleos abaixo da qual a normal não é confiável e o EPA assume
+    private static final double CORE_EPSILON = 1e-9;
+
+    private static final ThreadLocal<Gjk> WORKSPACE = ThreadLocal.withInitial(Gjk::new);
+
+    // Simplex: vértice da diferença (w) e pontos de suporte de A (a) e de B (b)
+    final double[] wx = new double[4], wy = new double[4], wz = new double[4];
+    final double[] ax = new double[4], ay = new double[4], az = new double[4];
+    final double[] bx = new double[4], by = new double[4], bz = new double[4];
+    private final double[] lambda = new double[4];
+    int count;
+    private double vx, vy, vz;
+
+    // Resultado do teste de um triângulo do simplex
+    private final double[] triangleLambda = new double[4];
+    private int triangleMask;
+    private double triangleDistanceSquared;
+
+    private final double[] supportA = new double[3];
+    private final double[] supportB = new double[3];
+    private final Epa epa = new Epa(this);
+    private final PointShape pointShape = new PointShape();
+    private final BoxShape boxShape = new BoxShape();
+
+    /**
+     * @return A instância de trabalho da thread atual.
+     */
+    public static Gjk get() {
+        return WORKSPACE.get();
+    }
+
+    /**
+     * Testa duas formas e grava o contato. A normal aponta de B para A.
+     * <p>
+     * Se os núcleos estão separados, o contato vem direto da distância do GJK, com um ponto no meio
+     * das superfícies; se os núcleos se interpenetram, o EPA calcula a menor translação de
+     * separação das formas completas.
+     *
+     * @param a     A forma A.
+     * @param b     A forma B.
+     * @param cache O eixo de separação do passo anterior; recebe o eixo deste teste.
+     * @param out   A variedade que recebe o contato.
+     * @return true se as formas se tocam.
+     */
+    public boolean collide(ConvexShape a, ConvexShape b, SimplexCache cache, ContactManifold out) {
+        double dirX = 1, dirY = 0, dirZ = 0;
+        if (cache.isValid()) {
+            dirX = cache.getAxisX();
+            dirY = cache.getAxisY();
+            dirZ = cache.getAxisZ();
+        }
+        double marginSum = a.getMargin() + b.getMargin();
+        boolean coresOverlap = run(a, b, dirX, dirY, dirZ, false);
+        if (!coresOverlap) {
+            double distance = Math.sqrt(vx * vx + vy * vy + vz * vz);
+            if (distance > marginSum) {
+                cache.set(vx / distance, vy / distance, vz / distance);
+                return false;
+            }
+            if (distance > CORE_EPSILON) {
+                double nx = vx / distance, ny = vy / distance, nz = vz / distance;
+                cache.set(nx, ny, nz);
+                double pointAX = 0, pointAY = 0, pointAZ = 0, pointBX = 0, pointBY = 0, pointBZ = 0;
+                for (int i = 0; i < count; i++) {
+                    pointAX += lambda[i] * ax[i];
+                    pointAY += lambda[i] * ay[i];
+                    pointAZ += lambda[i] * az[i];
+                    pointBX += lambda[i] * bx[i];
+                    pointBY += lambda[i] * by[i];
+                    pointBZ += lambda[i] * bz[i];
+                }
+                // Ponto no meio das superfícies: núcleos recuados pelas margens
+                double offset = (b.getMargin() - a.getMargin()) * 0.5;
+                out.setNormal(nx, ny, nz);
+                out.addPoint((pointAX + pointBX) * 0.5 + nx * offset,
+                        (pointAY + pointBY) * 0.5 + ny * offset,
+                        (pointAZ + pointBZ) * 0.5 + nz * offset,
+                        marginSum - distance, 0);
+                return true;
+            }
+        }
+
+        // Núcleos em contato: o EPA precisa de um simplex das formas completas contendo a origem
+        // (sem margens, o simplex do primeiro GJK já serve)
+        boolean enclosed = coresOverlap && marginSum == 0 || run(a, b, dirX, dirY, dirZ, true);
+        if (enclosed) {
+            if (epa.solve(a, b)) {
+                cache.set(-epa.normalX, -epa.normalY, -epa.normalZ);
+                out.setNormal(-epa.normalX, -epa.normalY, -epa.normalZ);
+                out.addPoint((epa.pointAX + epa.pointBX) * 0.5, (epa.pointAY + epa.pointBY) * 0.5,
+                        (epa.pointAZ + epa.pointBZ) * 0.5, epa.depth, 0);
+                return true;
+            }
+        }
+        // Caso degenerado (formas apenas se tocando): contato raso pelo último eixo conhecido
+        if (!cache.isValid()) {
+            cache.set(0, 1, 0);
+        }
+        out.setNormal(cache.getAxisX(), cache.getAxisY(), cache.getAxisZ());
+        a.supportCore(-cache.getAxisX(), -cache.getAxisY(), -cache.getAxisZ(), supportA);
+        out.addPoint(supportA[0], supportA[1], supportA[2], 0, 0);
+        return true;
+    }
+
+    /**
+     * Calcula a distância entre os núcleos de duas formas.
+     *
+     * @return A distância, ou 0 se os núcleos se interpenetram.
+     */
+    public double distance(ConvexShape a, ConvexShape b) {
+        return run(a, b, 1, 0, 0, false) ? 0 : Math.sqrt(vx * vx + vy * vy + vz * vz);
+    }
+
+    /**
+     * Verifica se uma forma toca uma esfera.
+     */
+    public boolean overlapsSphere(ConvexShape shape, double cx, double cy, double cz, double radius) {
+        pointShape.set(cx, cy, cz, radius);
+        return distance(shape, pointShape) <= shape.getMargin() + radius;
+    }
+
+    /**
+     * Verifica se uma forma toca uma caixa alinhada aos eixos.
+     */
+    public boolean overlapsBox(ConvexShape shape, BoundingBox box) {
+        boxShape.box = box;
+        boolean overlaps = distance(shape, boxShape) <= shape.getMargin();
+        boxShape.box = null;
+        return overlaps;
+    }
+
+    /**
+     * Lança um raio {@code origem + r * t} contra a forma expandida por {@code inflate}, pelo
+     * algoritmo de van den Bergen: o raio avança até o plano de suporte sempre que ele separa o
+     * ponto atual da forma, até o ponto tocar a forma. Com {@code inflate} igual ao raio de uma
+     * esfera, o resultado é a varredura da esfera.
+     *
+     * @param shape       A forma.
+     * @param inflate     O raio extra somado à margem da forma.
+     * @param ox          A origem no eixo X.
+     * @param oy          A origem no eixo Y.
+     * @param oz          A origem no eixo Z.
+     * @param rx          A direção (não normalizada) no eixo X.
+     * @param ry          A direção no eixo Y.
+     * @param rz          A direção no eixo Z.
+     * @param maxFraction O maior t aceito.
+     * @param out         Recebe t e a normal, que aponta da forma para o raio.
+     * @return true se o raio atinge a forma; raios que começam dentro dela não a atingem.
+     */
+    public boolean raycast(ConvexShape shape, double inflate, double ox, double oy, double oz,
+                           double rx, double ry, double rz, double maxFraction, SweepHit out) {
+        double radius = shape.getMargin() + inflate;
+        double t = 0;
+        double x = ox, y = oy, z = oz;
+        double nx = 0, ny = 0, nz = 0;
+
+        support(shape, 1, 0, 0, radius, supportA);
+        vx = x - supportA[0];
+        vy = y - supportA[1];
+        vz = z - supportA[2];
+        count = 0;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double vv = vx * vx + vy * vy + vz * vz;
+            if (vv <= RAY_TOLERANCE_SQUARED) {
+                break;
+            }
+            support(shape, vx, vy, vz, radius, supportA);
+            double vw = vx * (x - supportA[0]) + vy * (y - supportA[1]) + vz * (z - supportA[2]);
+            boolean advanced = false;
+            if (vw > 0) {
+                double vr = vx * rx + vy * ry + vz * rz;
+                if (vr >= 0) {
+                    return false; // O raio se afasta do plano de suporte
+                }
+                t -= vw / vr;
+                if (t > maxFraction) {
+                    return false;
+                }
+                x = ox + rx * t;
+                y = oy + ry * t;
+                z = oz + rz * t;
+                nx = vx;
+                ny = vy;
+                nz = vz;
+                advanced = true;
+            }
+            boolean duplicate = false;
+            for (int i = 0; i < count; i++) {
+                if (ax[i] == supportA[0] && ay[i] == supportA[1] && az[i] == supportA[2]) {
+                    duplicate = true;
+                    break;
+                }
+            }
+            if (duplicate && !advanced) {
+                break; // Sem progresso: convergiu dentro da precisão
+            }
+            if (!duplicate) {
+                if (count == 4) {
+                    break;
+                }
+                ax[count] = supportA[0];
+                ay[count] = supportA[1];
+                az[count] = supportA[2];
+                count++;
+            }
+            for (int i = 0; i < count; i++) {
+                wx[i] = x - ax[i];
+                wy[i] = y - ay[i];
+                wz[i] = z - az[i];
+            }
+            if (!closestPoint()) {
+                vx = vy = vz = 0; // O ponto atual está dentro da forma
+            }
+        }
+        if (t == 0) {
+            return false; // Começa dentro da forma
+        }
+        double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+        if (length == 0) {
+            return false;
+        }
+        out.set(t, nx / length, ny / length, nz / length);
+        return true;
+    }
+
+    /**
+     * Ponto de suporte de uma forma com margem, na direção indicada.
+     */
+    static void support(ConvexShape shape, double dx, double dy, double dz, double margin, double[] out) {
+        shape.supportCore(dx, dy, dz, out);
+        if (margin > 0) {
+            double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            if (length > 0) {
+                double scale = margin / length;
+                out[0] += dx * scale;
+                out[1] += dy * scale;
+                out[2] += dz * scale;
+            }
+        }
+    }
+
+    /**
+     * Grava no vértice {@code i} do simplex o suporte de A - B na direção {@code d}.
+     */
+    private void supportDifference(ConvexShape a, ConvexShape b, double dx, double dy, double dz,
+                                   boolean withMargin, int i) {
+        support(a, dx, dy, dz, withMargin ? a.getMargin() : 0, supportA);
+        support(b, -dx, -dy, -dz, withMargin ? b.getMargin() : 0, supportB);
+        ax[i] = supportA[0];
+        ay[i] = supportA[1];
+        az[i] = supportA[2];
+        bx[i] = supportB[0];
+        by[i] = supportB[1];
+        bz[i] = supportB[2];
+        wx[i] = supportA[0] - supportB[0];
+        wy[i] = supportA[1] - supportB[1];
+        wz[i] = supportA[2] - supportB[2];
+    }
+
+    /**
+     * Executa o GJK sobre A - B a partir de uma direção inicial (de B para A).
+     *
+     * @return true se a origem está dentro da diferença (formas se interpenetram); caso contrário,
+     * v é o ponto da diferença mais próximo da origem.
+     */
+    private boolean run(ConvexShape a, ConvexShape b, double dirX, double dirY, double dirZ, boolean withMargin) {
+        supportDifference(a, b, -dirX, -dirY, -dirZ, withMargin, 0);
+        count = 1;
+        lambda[0] = 1;
+        vx = wx[0];
+        vy = wy[0];
+        vz = wz[0];
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            double vv = vx * vx + vy * vy + vz * vz;
+            if (vv <= OVERLAP_TOLERANCE_SQUARED) {
+                return true;
+            }
+            supportDifference(a, b, -vx, -vy, -vz, withMargin, count);
+            double vw = vx * wx[count] + vy * wy[count] + vz * wz[count];
+            if (vv - vw <= RELATIVE_TOLERANCE * vv) {
+                return false; // O novo vértice não aproxima v da origem
+            }
+            for (int i = 0; i < count; i++) {
+                if (wx[i] == wx[count] && wy[i] == wy[count] && wz[i] == wz[count]) {
+                    return false;
+                }
+            }
+            count++;
+            if (!closestPoint()) {
+                return true;
+            }
+            if (vx * vx + vy * vy + vz * vz >= vv) {
+                return false; // Sem progresso numérico
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Encontra o ponto do simplex mais próximo da origem, reduzindo o simplex aos vértices que o
+     * suportam.
+     *
+     * @return false se o simplex é um tetraedro que contém a origem.
+     */
+    private boolean closestPoint() {
+        switch (count) {
+            case 1:
+                lambda[0] = 1;
+                break;
+            case 2:
+                closestOnSegment();
+                break;
+            case 3:
+                closestOnTriangle(0, 1, 2);
+                reduce(triangleMask, triangleLambda);
+                break;
+            default:
+                if (!closestOnTetrahedron()) {
+                    return false;
+                }
+                break;
+        }
+        vx = vy = vz = 0;
+        for (int i = 0; i < count; i++) {
+            vx += lambda[i] * wx[i];
+            vy += lambda[i] * wy[i];
+            vz += lambda[i] * wz[i];
+        }
+        return true;
+    }
+
+    private void closestOnSegment() {
+        double ex = wx[1] - wx[0], ey = wy[1] - wy[0], ez = wz[1] - wz[0];
+        double lengthSquared = ex * ex + ey * ey + ez * ez;
+        double t = lengthSquared > 0 ? -(wx[0] * ex + wy[0] * ey + wz[0] * ez) / lengthSquared : 0;
+        triangleLambda[0] = 1 - t;
+        triangleLambda[1] = t;
+        if (t <= 0) {
+            triangleLambda[0] = 1;
+            reduce(1, triangleLambda);
+        } else if (t >= 1) {
+            triangleLambda[1] = 1;
+            reduce(2, triangleLambda);
+        } else {
+            reduce(3, triangleLambda);
+        }
+    }
+
+    /**
+     * Ponto do triângulo (i, j, k) mais próximo da origem, pelas regiões de Voronoi (Ericson).
+     * O resultado fica em {@link #triangleMask}, {@link #triangleLambda} e
+     * {@link #triangleDistanceSquared}.
+     */
+    private void closestOnTriangle(int i, int j, int k) {
+        double abx = wx[j] - wx[i], aby = wy[j] - wy[i], abz = wz[j] - wz[i];
+        double acx = wx[k] - wx[i], acy = wy[k] - wy[i], acz = wz[k] - wz[i];
+        triangleLambda[0] = triangleLambda[1] = triangleLambda[2] = triangleLambda[3] = 0;
+
+        double d1 = -(abx * wx[i] + aby * wy[i] + abz * wz[i]);
+        double d2 = -(acx * wx[i] + acy * wy[i] + acz * wz[i]);
+        if (d1 <= 0 && d2 <= 0) {
+            setTriangleResult(i, 1, j, 0, k, 0);
+            return;
+        }
+        double d3 = -(abx * wx[j] + aby * wy[j] + abz * wz[j]);
+        double d4 = -(acx * wx[j] + acy * wy[j] + acz * wz[j]);
+        if (d3 >= 0 && d4 <= d3) {
+            setTriangleResult(i, 0, j, 1, k, 0);
+            return;
+        }
+        double vc = d1 * d4 - d3 * d2;
+        if (vc <= 0 && d1 >= 0 && d3 <= 0) {
+            double v = d1 / (d1 - d3);
+            setTriangleResult(i, 1 - v, j, v, k, 0);
+            return;
+        }
+        double d5 = -(abx * wx[k] + aby * wy[k] + abz * wz[k]);
+        double d6 = -(acx * wx[k] + acy * wy[k] + acz * wz[k]);
+        if (d6 >= 0 && d5 <= d6) {
+            setTriangleResult(i, 0, j, 0, k, 1);
+            return;
+        }
+        double vb = d5 * d2 - d1 * d6;
+        if (vb <= 0 && d2 >= 0 && d6 <= 0) {
+            double w = d2 / (d2 - d6);
+            setTriangleResult(i, 1 - w, j, 0, k, w);
+            return;
+        }
+        double va = d3 * d6 - d5 * d4;
+        if (va <= 0 && (d4 - d3) >= 0 && (d5 - d6) >= 0) {
+            double w = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+            setTriangleResult(i, 0, j, 1 - w, k, w);
+            return;
+        }
+        double denominator = 1 / (va + vb + vc);
+        double v = vb * denominator;
+        double w = vc * denominator;
+        setTriangleResult(i, 1 - v - w, j, v, k, w);
+    }
+
+    private void setTriangleResult(int i, double li, int j, double lj, int k, double lk) {
+        triangleMask = 0;
+        if (li > 0) {
+            triangleMask |= 1 << i;
+        }
+        if (lj > 0) {
+            triangleMask |= 1 << j;
+        }
+        if (lk > 0) {
+            triangleMask |= 1 << k;
+        }
+        triangleLambda[i] = li;
+        triangleLambda[j] = lj;
+        triangleLambda[k] = lk;
+        double px = li * wx[i] + lj * wx[j] + lk * wx[k];
+        double py = li * wy[i] + lj * wy[j] + lk * wy[k];
+        double pz = li * wz[i] + lj * wz[j] + lk * wz[k];
+        triangleDistanceSquared = px * px + py * py + pz * pz;
+    }
+
+    /**
+     * Testa as faces do tetraedro que separam a origem do vértice oposto e fica com a mais próxima.
+     *
+     * @return false se nenhuma face separa, isto é, a origem está dentro do tetraedro.
+     */
+    private boolean closestOnTetrahedron() {
+        double bestDistance = Double.MAX_VALUE;
+        int bestMask = 0;
+        double l0 = 0, l1 = 0, l2 = 0, l3 = 0;
+        for (int face = 0; face < 4; face++) {
+            // Face oposta ao vértice "face"
+            int i = face == 0 ? 1 : 0;
+            int j = face <= 1 ? 2 : 1;
+            int k = face <= 2 ? 3 : 2;
+            double abx = wx[j] - wx[i], aby = wy[j] - wy[i], abz = wz[j] - wz[i];
+            double acx = wx[k] - wx[i], acy = wy[k] - wy[i], acz = wz[k] - wz[i];
+            double nx = aby * acz - abz * acy, ny = abz * acx - abx * acz, nz = abx * acy - aby * acx;
+            double originSide = -(nx * wx[i] + ny * wy[i] + nz * wz[i]);
+            double oppositeSide = nx * (wx[face] - wx[i]) + ny * (wy[face] - wy[i]) + nz * (wz[face] - wz[i]);
+            if (originSide * oppositeSide > 0) {
+                continue; // A origem está do mesmo lado que o vértice oposto
+            }
+            closestOnTriangle(i, j, k);
+            if (triangleDistanceSquared < bestDistance) {
+                bestDistance = triangleDistanceSquared;
+                bestMask = triangleMask;
+                l0 = triangleLambda[0];
+                l1 = triangleLambda[1];
+                l2 = triangleLambda[2];
+                l3 = triangleLambda[3];
+            }
+        }
+        if (bestMask == 0) {
+            return false;
+        }
+        triangleLambda[0] = l0;
+        triangleLambda[1] = l1;
+        triangleLambda[2] = l2;
+        triangleLambda[3] = l3;
+        reduce(bestMask, triangleLambda);
+        return true;
+    }
+
+    /**
+     * Mantém apenas os vértices marcados, compactando o simplex.
+     */
+    private void reduce(int mask, double[] weights) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if ((mask & (1 << i)) == 0) {
+                continue;
+            }
+            wx[kept] = wx[i];
+            wy[kept] = wy[i];
+            wz[kept] = wz[i];
+            ax[kept] = ax[i];
+            ay[kept] = ay[i];
+            az[kept] = az[i];
+            bx[kept] = bx[i];
+            by[kept] = by[i];
+            bz[kept] = bz[i];
+            lambda[kept] = weights[i];
+            kept++;
+        }
+        count = kept;
+    }
+
+    /**
+     * Ponto com margem, usado para testar esferas.
+     */
+    private static final class PointShape implements ConvexShape {
+        private double x, y, z, radius;
+
+        void set(double x, double y, double z, double radius) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.radius = radius;
+        }
+
+        @Override
+        public void supportCore(double dx, double dy, double dz, double[] out) {
+            out[0] = x;
+            out[1] = y;
+            out[2] = z;
+        }
+
+        @Override
+        public double getMargin() {
+            return radius;
+        }
+    }
+
+    /**
+     * Caixa alinhada aos eixos, usada para testar {@link BoundingBox}es.
+     */
+    private static final class BoxShape implements ConvexShape {
+        private BoundingBox box;
+
+        @Override
+        public void supportCore(double dx, double dy, double dz, double[] out) {
+            out[0] = dx >= 0 ? box.getMaxX() : box.getMinX();
+            out[1] = dy >= 0 ? box.getMaxY() : box.getMinY();
+            out[2] = dz >= 0 ? box.getMaxZ() : box.getMinZ();
+        }
+
+        @Override
+        public double getMargin() {
+            return 0;
+        }
+    }
+}
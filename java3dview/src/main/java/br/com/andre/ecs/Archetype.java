@@ -0,0 +1,169 @@
+package br.com.andre.ecs;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tabela das entidades que têm exatamente o mesmo conjunto de componentes.
+ * <p>
+ * Cada linha é uma entidade. Os campos de cada componente ficam em arrays primitivos contíguos:
+ * o campo {@code f} da linha {@code row} de um componente com {@code n} campos {@code double} está
+ * em {@code getDoubles(componente)[row * n + f]}. Os sistemas percorrem as linhas {@code 0} a
+ * {@link #size()} diretamente nesses arrays. Os arrays são trocados quando a tabela cresce, então
+ * devem ser obtidos de novo depois de criar entidades.
+ */
+public final class Archetype {
+    private final long mask;
+    private final ComponentType[] components;
+    private final List<ComponentType> readOnlyComponents;
+
+    // Indexados pelo id do componente; null quando o arquétipo não tem o componente
+    private final double[][] doubleColumns = new double[ComponentType.MAX_TYPES][];
+    private final int[][] intColumns = new int[ComponentType.MAX_TYPES][];
+    private int[] entities;
+    private int size;
+
+    Archetype(long mask, ComponentType[] components) {
+        this.mask = mask;
+        this.components = components;
+        this.readOnlyComponents = Collections.unmodifiableList(Arrays.asList(components));
+        allocate(16);
+    }
+
+    private void allocate(int capacity) {
+        entities = entities == null ? new int[capacity] : Arrays.copyOf(entities, capacity);
+        for (ComponentType component : components) {
+            int id = component.getId();
+            if (component.getDoubleFields() > 0) {
+                double[] column = doubleColumns[id];
+                int length = capacity * component.getDoubleFields();
+                doubleColumns[id] = column == null ? new double[length] : Arrays.copyOf(column, length);
+            }
+            if (component.getIntFields() > 0) {
+                int[] column = intColumns[id];
+                int length = capacity * component.getIntFields();
+                intColumns[id] = column == null ? new int[length] : Arrays.copyOf(column, length);
+            }
+        }
+    }
+
+    /**
+     * @return Os campos {@code double} do componente para todas as linhas.
+     */
+    public double[] getDoubles(ComponentType component) {
+        double[] column = doubleColumns[component.getId()];
+        if (column == null || !has(component)) {
+            throw new IllegalArgumentException("O arquétipo não tem campos double do componente '" + component + "'.");
+        }
+        return column;
+    }
+
+    /**
+     * @return Os campos {@code int} do componente para todas as linhas.
+     */
+    public int[] getInts(ComponentType component) {
+        int[] column = intColumns[component.getId()];
+        if (column == null || !has(component)) {
+            throw new IllegalArgumentException("O arquétipo não tem campos int do componente '" + component + "'.");
+        }
+        return column;
+    }
+
+    public boolean has(ComponentType component) {
+        return (mask & component.bit()) != 0;
+    }
+
+    /**
+     * @return A máscara com um bit por componente (o bit de índice {@link ComponentType#getId()}).
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    public List<ComponentType> getComponents() {
+        return readOnlyComponents;
+    }
+
+    /**
+     * @return O número de entidades (linhas) na tabela.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return O identificador da entidade na linha.
+     */
+    public int getEntity(int row) {
+        return entities[row];
+    }
+
+    /**
+     * Acrescenta uma linha com todos os campos zerados.
+     *
+     * @return O índice da linha.
+     */
+    int addRow(int entity) {
+        if (size == entities.length) {
+            allocate(size * 2);
+        }
+        entities[size] = entity;
+        return size++;
+    }
+
+    /**
+     * Remove uma linha movendo a última para o seu lugar, e zera a linha que ficou livre.
+     *
+     * @return A entidade movida para {@code row}, ou -1 se a linha removida era a última.
+     */
+    int removeRow(int row) {
+        int last = --size;
+        int moved = -1;
+        if (row != last) {
+            moved = entities[last];
+            entities[row] = moved;
+        }
+        for (ComponentType component : components) {
+            int id = component.getId();
+            int doubleFields = component.getDoubleFields();
+            if (doubleFields > 0) {
+                double[] column = doubleColumns[id];
+                System.arraycopy(column, last * doubleFields, column, row * doubleFields, doubleFields);
+                Arrays.fill(column, last * doubleFields, (last + 1) * doubleFields, 0);
+            }
+            int intFields = component.getIntFields();
+            if (intFields > 0) {
+                int[] column = intColumns[id];
+                System.arraycopy(column, last * intFields, column, row * intFields, intFields);
+                Arrays.fill(column, last * intFields, (last + 1) * intFields, 0);
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Copia para uma linha de outro arquétipo os campos dos componentes que os dois têm.
+     */
+    void copyRow(int row, Archetype target, int targetRow) {
+        for (ComponentType component : components) {
+            if (!target.has(component)) {
+                continue;
+            }
+            int id = component.getId();
+            int doubleFields = component.getDoubleFields();
+            if (doubleFields > 0) {
+                System.arraycopy(doubleColumns[id], row * doubleFields, target.doubleColumns[id], targetRow * doubleFields, doubleFields);
+            }
+            int intFields = component.getIntFields();
+            if (intFields > 0) {
+                System.arraycopy(intColumns[id], row * intFields, target.intColumns[id], targetRow * intFields, intFields);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return readOnlyComponents.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.andre.ecs;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Um tipo de componente: um número fixo de campos {@code double} e {@code int} por entidade.
+ * <p>
+ * Os valores não ficam em objetos: cada {@link Archetype} guarda os campos de todas as suas
+ * entidades em arrays primitivos contíguos, com {@link #getDoubleFields()} posições por entidade
+ * no array de doubles e {@link #getIntFields()} no de ints. Um componente sem campos serve de marca.
+ */
+public final class ComponentType {
+    /** Número máximo de tipos de componente; cada arquétipo é identificado por uma máscara de 64 bits. */
+    public static final int MAX_TYPES = 64;
+
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private final int id;
+    private final String name;
+    private final int doubleFields;
+    private final int intFields;
+
+    /**
+     * @param name         O nome do componente, para diagnóstico.
+     * @param doubleFields O número de campos {@code double}.
+     * @param intFields    O número de campos {@code int}.
+     */
+    public ComponentType(String name, int doubleFields, int intFields) {
+        if (doubleFields < 0 || intFields < 0) {
+            throw new IllegalArgumentException("O número de campos do componente não pode ser negativo.");
+        }
+        int id = nextId.getAndIncrement();
+        if (id >= MAX_TYPES) {
+            throw new IllegalStateException("Limite de " + MAX_TYPES + " tipos de componente atingido.");
+        }
+        this.id = id;
+        this.name = name;
+        this.doubleFields = doubleFields;
+        this.intFields = intFields;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    long bit() {
+        return 1L << id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDoubleFields() {
+        return doubleFields;
+    }
+
+    public int getIntFields() {
+        return intFields;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.andre.ecs;
+
+/**
+ * Os componentes usados pelos sistemas do motor e os índices de seus campos.
+ */
+public final class Components {
+    /** Posição no mundo: x, y, z. */
+    public static final ComponentType POSITION = new ComponentType("posição", 3, 0);
+
+    /** Velocidade (m/s): x, y, z. */
+    public static final ComponentType VELOCITY = new ComponentType("velocidade", 3, 0);
+
+    /** Corpo esférico que colide com a geometria estática, movido pelo {@link PhysicsSystem}. */
+    public static final ComponentType BODY = new ComponentType("corpo", 3, 0);
+    public static final int BODY_RADIUS = 0;
+    /** Fração da velocidade normal devolvida em uma colisão (0 a 1). */
+    public static final int BODY_RESTITUTION = 1;
+    /** Fração da velocidade tangencial perdida em uma colisão (0 a 1). */
+    public static final int BODY_FRICTION = 2;
+
+    /** Sprite voltado para a câmera, desenhado pelo {@link RenderSystem}: meia-largura e cor da paleta. */
+    public static final ComponentType SPRITE = new ComponentType("sprite", 1, 1);
+    public static final int SPRITE_SIZE = 0;
+    public static final int SPRITE_COLOR = 0;
+
+    /** Tempo de vida restante (em segundos); a entidade é removida pelo {@link LifetimeSystem} ao chegar a zero. */
+    public static final ComponentType LIFETIME = new ComponentType("tempo de vida", 1, 0);
+
+    private Components() {
+    }
+}
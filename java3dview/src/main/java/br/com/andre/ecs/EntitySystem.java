@@ -0,0 +1,12 @@
+package br.com.andre.ecs;
+
+/**
+ * Um sistema que processa, a cada passo, as entidades de uma ou mais {@link Query consultas}.
+ */
+@FunctionalInterface
+public interface EntitySystem {
+    /**
+     * @param deltaTime A duração do passo (em segundos).
+     */
+    void update(double deltaTime);
+}
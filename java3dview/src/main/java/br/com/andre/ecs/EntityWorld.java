@@ -0,0 +1,289 @@
+package br.com.andre.ecs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Armazena as entidades em tabelas por arquétipo ({@link Archetype}) e executa os sistemas.
+ * <p>
+ * Uma entidade é só um identificador: os 22 bits baixos são o índice e os de cima uma geração,
+ * incrementada quando o índice é reaproveitado, para que identificadores antigos deixem de valer.
+ * Adicionar ou remover um componente move a linha da entidade para a tabela do novo conjunto de
+ * componentes. Durante a iteração de uma {@link Query}, entidades devem ser removidas com
+ * {@link #destroyLater(int)}; a remoção acontece em {@link #flush()}, ao fim de {@link #update(double)}.
+ */
+public class EntityWorld {
+    private static final int INDEX_BITS = 22;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (31 - INDEX_BITS)) - 1;
+
+    /** Número máximo de entidades vivas ao mesmo tempo. */
+    public static final int MAX_ENTITIES = 1 << INDEX_BITS;
+
+    private final Map<Long, Archetype> archetypesByMask = new HashMap<>();
+    private final List<Archetype> archetypes = new ArrayList<>();
+    private final List<Archetype> readOnlyArchetypes = Collections.unmodifiableList(archetypes);
+    private final List<Query> queries = new ArrayList<>();
+    private final List<EntitySystem> systems = new ArrayList<>();
+    private final ComponentType[] typesById = new ComponentType[ComponentType.MAX_TYPES];
+
+    // Por índice de entidade: tabela, linha e geração atual
+    private Archetype[] locations = new Archetype[64];
+    private int[] rows = new int[64];
+    private int[] generations = new int[64];
+    private int[] freeIndices = new int[64];
+    private int freeCount;
+    private int nextIndex;
+    private int liveCount;
+
+    private int[] pendingDestroy = new int[16];
+    private int pendingCount;
+
+    /**
+     * Cria uma entidade com os componentes indicados, com todos os campos zerados.
+     *
+     * @return O identificador da entidade.
+     */
+    public int create(ComponentType... components) {
+        Archetype archetype = archetypeFor(maskOf(components));
+        int index;
+        if (freeCount > 0) {
+            index = freeIndices[--freeCount];
+        } else {
+            if (nextIndex == MAX_ENTITIES) {
+                throw new IllegalStateException("Limite de " + MAX_ENTITIES + " entidades atingido.");
+            }
+            index = nextIndex++;
+            if (index == locations.length) {
+                int capacity = Math.min(locations.length * 2, MAX_ENTITIES);
+                locations = Arrays.copyOf(locations, capacity);
+                rows = Arrays.copyOf(rows, capacity);
+                generations = Arrays.copyOf(generations, capacity);
+            }
+        }
+        int entity = index | (generations[index] << INDEX_BITS);
+        locations[index] = archetype;
+        rows[index] = archetype.addRow(entity);
+        liveCount++;
+        return entity;
+    }
+
+    /**
+     * Remove a entidade imediatamente. Não deve ser chamado enquanto uma consulta é percorrida.
+     */
+    public void destroy(int entity) {
+        int index = indexOf(entity);
+        Archetype archetype = locations[index];
+        int moved = archetype.removeRow(rows[index]);
+        if (moved >= 0) {
+            rows[moved & INDEX_MASK] = rows[index];
+        }
+        locations[index] = null;
+        generations[index] = (generations[index] + 1) & GENERATION_MASK;
+        if (freeCount == freeIndices.length) {
+            freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+        }
+        freeIndices[freeCount++] = index;
+        liveCount--;
+    }
+
+    /**
+     * Agenda a remoção da entidade para o próximo {@link #flush()}.
+     */
+    public void destroyLater(int entity) {
+        if (pendingCount == pendingDestroy.length) {
+            pendingDestroy = Arrays.copyOf(pendingDestroy, pendingCount * 2);
+        }
+        pendingDestroy[pendingCount++] = entity;
+    }
+
+    /**
+     * Remove as entidades agendadas por {@link #destroyLater(int)}.
+     */
+    public void flush() {
+        for (int i = 0; i < pendingCount; i++) {
+            if (isAlive(pendingDestroy[i])) {
+                destroy(pendingDestroy[i]);
+            }
+        }
+        pendingCount = 0;
+    }
+
+    public boolean isAlive(int entity) {
+        int index = entity & INDEX_MASK;
+        return entity >= 0 && index < nextIndex && locations[index] != null
+                && generations[index] == entity >>> INDEX_BITS;
+    }
+
+    public boolean has(int entity, ComponentType component) {
+        return locations[indexOf(entity)].has(component);
+    }
+
+    /**
+     * Adiciona um componente, com os campos zerados, movendo a entidade para outro arquétipo. Não
+     * faz nada se a entidade já o tiver.
+     */
+    public void add(int entity, ComponentType component) {
+        int index = indexOf(entity);
+        Archetype archetype = locations[index];
+        if (!archetype.has(component)) {
+            move(index, archetype.getMask() | maskOf(component));
+        }
+    }
+
+    /**
+     * Remove um componente, movendo a entidade para outro arquétipo. Não faz nada se a entidade
+     * não o tiver.
+     */
+    public void remove(int entity, ComponentType component) {
+        int index = indexOf(entity);
+        Archetype archetype = locations[index];
+        if (archetype.has(component)) {
+            move(index, archetype.getMask() & ~component.bit());
+        }
+    }
+
+    private void move(int index, long mask) {
+        Archetype source = locations[index];
+        Archetype target = archetypeFor(mask);
+        int row = rows[index];
+        int targetRow = target.addRow(source.getEntity(row));
+        source.copyRow(row, target, targetRow);
+        int moved = source.removeRow(row);
+        if (moved >= 0) {
+            rows[moved & INDEX_MASK] = row;
+        }
+        locations[index] = target;
+        rows[index] = targetRow;
+    }
+
+    /**
+     * Define os campos {@code double} de um componente da entidade, a partir do primeiro.
+     */
+    public void set(int entity, ComponentType component, double... values) {
+        int index = indexOf(entity);
+        if (values.length > component.getDoubleFields()) {
+            throw new IllegalArgumentException("O componente '" + component + "' tem " + component.getDoubleFields() + " campos double.");
+        }
+        System.arraycopy(values, 0, locations[index].getDoubles(component), rows[index] * component.getDoubleFields(), values.length);
+    }
+
+    public double getDouble(int entity, ComponentType component, int field) {
+        int index = indexOf(entity);
+        checkField(component, field, component.getDoubleFields());
+        return locations[index].getDoubles(component)[rows[index] * component.getDoubleFields() + field];
+    }
+
+    public void setInt(int entity, ComponentType component, int field, int value) {
+        int index = indexOf(entity);
+        checkField(component, field, component.getIntFields());
+        locations[index].getInts(component)[rows[index] * component.getIntFields() + field] = value;
+    }
+
+    public int getInt(int entity, ComponentType component, int field) {
+        int index = indexOf(entity);
+        checkField(component, field, component.getIntFields());
+        return locations[index].getInts(component)[rows[index] * component.getIntFields() + field];
+    }
+
+    private static void checkField(ComponentType component, int field, int fields) {
+        if (field < 0 || field >= fields) {
+            throw new IllegalArgumentException("Campo " + field + " inválido para o componente '" + component + "'.");
+        }
+    }
+
+    /**
+     * @return O arquétipo em que a entidade está agora.
+     */
+    public Archetype getArchetype(int entity) {
+        return locations[indexOf(entity)];
+    }
+
+    /**
+     * @return A linha da entidade no seu arquétipo; muda quando outras entidades são removidas.
+     */
+    public int getRow(int entity) {
+        return rows[indexOf(entity)];
+    }
+
+    /**
+     * Cria uma consulta pelos arquétipos que têm todos os componentes indicados. A consulta
+     * acompanha os arquétipos criados depois, então deve ser criada uma vez e reaproveitada.
+     */
+    public Query query(ComponentType... required) {
+        Query query = new Query(maskOf(required));
+        for (Archetype archetype : archetypes) {
+            query.offer(archetype);
+        }
+        queries.add(query);
+        return query;
+    }
+
+    /**
+     * Adiciona um sistema, executado por {@link #update(double)} na ordem de inclusão.
+     */
+    public void addSystem(EntitySystem system) {
+        systems.add(system);
+    }
+
+    /**
+     * Executa todos os sistemas e depois remove as entidades agendadas.
+     *
+     * @param deltaTime A duração do passo (em segundos).
+     */
+    public void update(double deltaTime) {
+        for (int i = 0; i < systems.size(); i++) {
+            systems.get(i).update(deltaTime);
+        }
+        flush();
+    }
+
+    /**
+     * @return O número de entidades vivas.
+     */
+    public int size() {
+        return liveCount;
+    }
+
+    public List<Archetype> getArchetypes() {
+        return readOnlyArchetypes;
+    }
+
+    private int indexOf(int entity) {
+        if (!isAlive(entity)) {
+            throw new IllegalArgumentException("A entidade " + entity + " não existe.");
+        }
+        return entity & INDEX_MASK;
+    }
+
+    private long maskOf(ComponentType... components) {
+        long mask = 0;
+        for (ComponentType component : components) {
+            typesById[component.getId()] = component;
+            mask |= component.bit();
+        }
+        return mask;
+    }
+
+    private Archetype archetypeFor(long mask) {
+        Archetype archetype = archetypesByMask.get(mask);
+        if (archetype == null) {
+            ComponentType[] components = new ComponentType[Long.bitCount(mask)];
+            int count = 0;
+            for (long bits = mask; bits != 0; bits &= bits - 1) {
+                components[count++] = typesById[Long.numberOfTrailingZeros(bits)];
+            }
+            archetype = new Archetype(mask, components);
+            archetypesByMask.put(mask, archetype);
+            archetypes.add(archetype);
+            for (Query query : queries) {
+                query.offer(archetype);
+            }
+        }
+        return archetype;
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.andre.ecs;
+
+import static br.com.andre.ecs.Components.LIFETIME;
+
+/**
+ * Desconta o tempo de vida das entidades e remove as que chegaram a zero, ao fim do passo.
+ */
+public class LifetimeSystem implements EntitySystem {
+    private final EntityWorld world;
+    private final Query query;
+
+    public LifetimeSystem(EntityWorld world) {
+        this.world = world;
+        this.query = world.query(LIFETIME);
+    }
+
+    @Override
+    public void update(double deltaTime) {
+        for (Archetype archetype : query.getArchetypes()) {
+            double[] lifetime = archetype.getDoubles(LIFETIME);
+            for (int row = 0, size = archetype.size(); row < size; row++) {
+                lifetime[row] -= deltaTime;
+                if (lifetime[row] <= 0) {
+                    world.destroyLater(archetype.getEntity(row));
+                }
+            }
+        }
+    }
+}
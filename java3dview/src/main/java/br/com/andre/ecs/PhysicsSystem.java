@@ -0,0 +1,164 @@
+package br.com.andre.ecs;
+
+import br.com.andre.graphic.Vector3;
+import br.com.andre.job.JobSystem;
+import br.com.andre.physic.PhysicsBody;
+import br.com.andre.physic.QueryService;
+import br.com.andre.physic.RaycastBatch;
+
+import static br.com.andre.ecs.Components.BODY;
+import static br.com.andre.ecs.Components.BODY_FRICTION;
+import static br.com.andre.ecs.Components.BODY_RADIUS;
+import static br.com.andre.ecs.Components.BODY_RESTITUTION;
+import static br.com.andre.ecs.Components.POSITION;
+import static br.com.andre.ecs.Components.VELOCITY;
+
+/**
+ * Move as entidades com posição, velocidade e corpo sob a gravidade, colidindo com o mundo.
+ * <p>
+ * Pensado para milhares de objetos leves (detritos, partículas, projéteis): cada entidade lança um
+ * raio ao longo do seu deslocamento no passo, todos resolvidos em um único
+ * {@link RaycastBatch lote}, e ao atingir algo para a um raio de distância e quica conforme a
+ * restituição e o atrito. As entidades não colidem entre si. A resposta às colisões é dividida em
+ * blocos no {@link JobSystem}; cada bloco só escreve nas próprias linhas, então o resultado não
+ * depende do número de threads.
+ */
+public class PhysicsSystem implements EntitySystem {
+    private static final int CHUNK_SIZE = 256;
+    private static final int BODY_FIELDS = BODY.getDoubleFields();
+
+    private final Query query;
+    private final QueryService queryService;
+    private final JobSystem jobSystem;
+    private final RaycastBatch batch = new RaycastBatch();
+    private final double gravityX, gravityY, gravityZ;
+    private int collisionMask = PhysicsBody.ALL_CATEGORIES;
+
+    // Raio lançado por cada entidade no passo atual, na ordem da consulta; -1 se ficou parada
+    private int[] rays = new int[256];
+
+    /**
+     * @param world        O mundo das entidades.
+     * @param queryService As consultas espaciais do motor de física, contra as quais as entidades colidem.
+     * @param gravity      A aceleração da gravidade.
+     * @param jobSystem    O sistema de tarefas da resposta às colisões.
+     */
+    public PhysicsSystem(EntityWorld world, QueryService queryService, Vector3 gravity, JobSystem jobSystem) {
+        this.query = world.query(POSITION, VELOCITY, BODY);
+        this.queryService = queryService;
+        this.jobSystem = jobSystem;
+        this.gravityX = gravity.getX();
+        this.gravityY = gravity.getY();
+        this.gravityZ = gravity.getZ();
+    }
+
+    /**
+     * Define as categorias de corpos com que as entidades colidem.
+     *
+     * @param collisionMask A máscara de categorias.
+     */
+    public void setCollisionMask(int collisionMask) {
+        this.collisionMask = collisionMask;
+    }
+
+    @Override
+    public void update(double deltaTime) {
+        int count = query.count();
+        if (count == 0) {
+            return;
+        }
+        if (rays.length < count) {
+            rays = new int[Math.max(count, rays.length * 2)];
+        }
+
+        // Aplica a gravidade e lança um raio por entidade ao longo do deslocamento do passo
+        batch.clear();
+        int offset = 0;
+        for (Archetype archetype : query.getArchetypes()) {
+            int size = archetype.size();
+            double[] position = archetype.getDoubles(POSITION);
+            double[] velocity = archetype.getDoubles(VELOCITY);
+            double[] body = archetype.getDoubles(BODY);
+            for (int row = 0; row < size; row++) {
+                int i = row * 3;
+                velocity[i] += gravityX * deltaTime;
+                velocity[i + 1] += gravityY * deltaTime;
+                velocity[i + 2] += gravityZ * deltaTime;
+                double dx = velocity[i] * deltaTime;
+                double dy = velocity[i + 1] * deltaTime;
+                double dz = velocity[i + 2] * deltaTime;
+                double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                if (length == 0) {
+                    rays[offset + row] = -1;
+                    continue;
+                }
+                rays[offset + row] = batch.add(position[i], position[i + 1], position[i + 2], dx, dy, dz,
+                        length + body[row * BODY_FIELDS + BODY_RADIUS], collisionMask);
+            }
+            offset += size;
+        }
+        if (batch.size() > 0) {
+            queryService.raycast(batch);
+        }
+
+        // Move cada entidade até o impacto (ou o deslocamento inteiro) e reflete a velocidade
+        offset = 0;
+        for (Archetype archetype : query.getArchetypes()) {
+            int size = archetype.size();
+            int base = offset;
+            jobSystem.parallelFor(size, CHUNK_SIZE, (chunk, from, to) -> resolve(archetype, base, from, to, deltaTime));
+            offset += size;
+        }
+    }
+
+    private void resolve(Archetype archetype, int base, int from, int to, double deltaTime) {
+        double[] position = archetype.getDoubles(POSITION);
+        double[] velocity = archetype.getDoubles(VELOCITY);
+        double[] body = archetype.getDoubles(BODY);
+        for (int row = from; row < to; row++) {
+            int ray = rays[base + row];
+            if (ray < 0) {
+                continue;
+            }
+            int i = row * 3;
+            double dx = velocity[i] * deltaTime;
+            double dy = velocity[i + 1] * deltaTime;
+            double dz = velocity[i + 2] * deltaTime;
+            if (!batch.hasHit(ray)) {
+                position[i] += dx;
+                position[i + 1] += dy;
+                position[i + 2] += dz;
+                continue;
+            }
+
+            // Para a um raio de distância da superfície atingida
+            int j = row * BODY_FIELDS;
+            double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            double travel = Math.max(0, batch.getDistance(ray) - body[j + BODY_RADIUS]) / length;
+            position[i] += dx * travel;
+            position[i + 1] += dy * travel;
+            position[i + 2] += dz * travel;
+
+            // A normal de um polígono pode apontar para qualquer lado; usa a oposta ao movimento
+            double nx = batch.getNormalX(ray);
+            double ny = batch.getNormalY(ray);
+            double nz = batch.getNormalZ(ray);
+            if (nx * dx + ny * dy + nz * dz > 0) {
+                nx = -nx;
+                ny = -ny;
+                nz = -nz;
+            }
+            double normalSpeed = velocity[i] * nx + velocity[i + 1] * ny + velocity[i + 2] * nz;
+            if (normalSpeed < 0) {
+                double restitution = body[j + BODY_RESTITUTION];
+                double keep = 1 - body[j + BODY_FRICTION];
+                double tx = velocity[i] - normalSpeed * nx;
+                double ty = velocity[i + 1] - normalSpeed * ny;
+                double tz = velocity[i + 2] - normalSpeed * nz;
+                velocity[i] = tx * keep - normalSpeed * restitution * nx;
+                velocity[i + 1] = ty * keep - normalSpeed * restitution * ny;
+                velocity[i + 2] = tz * keep - normalSpeed * restitution * nz;
+            }
+        }
+    }
+}
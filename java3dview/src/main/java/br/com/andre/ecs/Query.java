@@ -0,0 +1,66 @@
+package br.com.andre.ecs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Consulta pelos arquétipos que têm um conjunto de componentes.
+ * <p>
+ * A lista de arquétipos é mantida pelo {@link EntityWorld} à medida que novos arquétipos surgem,
+ * então percorrer a consulta não testa entidade por entidade nem aloca.
+ */
+public final class Query {
+    private final long mask;
+    private final List<Archetype> archetypes = new ArrayList<>();
+    private final List<Archetype> readOnlyArchetypes = Collections.unmodifiableList(archetypes);
+
+    Query(long mask) {
+        this.mask = mask;
+    }
+
+    void offer(Archetype archetype) {
+        if (matches(archetype)) {
+            archetypes.add(archetype);
+        }
+    }
+
+    /**
+     * @return true se o arquétipo tem todos os componentes da consulta.
+     */
+    public boolean matches(Archetype archetype) {
+        return (archetype.getMask() & mask) == mask;
+    }
+
+    /**
+     * Executa a ação para cada arquétipo com ao menos uma entidade. A ação não deve criar nem
+     * remover entidades; use {@link EntityWorld#destroyLater(int)}.
+     */
+    public void forEach(Consumer<Archetype> action) {
+        for (int i = 0; i < archetypes.size(); i++) {
+            Archetype archetype = archetypes.get(i);
+            if (archetype.size() > 0) {
+                action.accept(archetype);
+            }
+        }
+    }
+
+    /**
+     * @return Os arquétipos que satisfazem a consulta, inclusive os vazios, na ordem de criação.
+     */
+    public List<Archetype> getArchetypes() {
+        return readOnlyArchetypes;
+    }
+
+    /**
+     * @return O número de entidades que satisfazem a consulta.
+     */
+    public int count() {
+        int count = 0;
+        for (int i = 0; i < archetypes.size(); i++) {
+            count += archetypes.get(i).size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.andre.ecs;
+
+import br.com.andre.graphic.SpriteBuffer;
+
+import static br.com.andre.ecs.Components.POSITION;
+import static br.com.andre.ecs.Components.SPRITE;
+import static br.com.andre.ecs.Components.SPRITE_COLOR;
+import static br.com.andre.ecs.Components.SPRITE_SIZE;
+
+/**
+ * Copia as entidades com posição e sprite para um {@link SpriteBuffer}, que o renderizador desenha.
+ * <p>
+ * Roda uma vez por frame, depois da simulação, e não a cada passo fixo: o {@code deltaTime} é
+ * ignorado.
+ */
+public class RenderSystem implements EntitySystem {
+    private static final int SPRITE_DOUBLES = SPRITE.getDoubleFields();
+    private static final int SPRITE_INTS = SPRITE.getIntFields();
+
+    private final Query query;
+    private final SpriteBuffer sprites;
+
+    public RenderSystem(EntityWorld world, SpriteBuffer sprites) {
+        this.query = world.query(POSITION, SPRITE);
+        this.sprites = sprites;
+    }
+
+    @Override
+    public void update(double deltaTime) {
+        sprites.clear();
+        for (Archetype archetype : query.getArchetypes()) {
+            double[] position = archetype.getDoubles(POSITION);
+            double[] size = archetype.getDoubles(SPRITE);
+            int[] color = archetype.getInts(SPRITE);
+            for (int row = 0, count = archetype.size(); row < count; row++) {
+                int i = row * 3;
+                sprites.add(position[i], position[i + 1], position[i + 2],
+                        size[row * SPRITE_DOUBLES + SPRITE_SIZE], color[row * SPRITE_INTS + SPRITE_COLOR]);
+            }
+        }
+    }
+
+    public SpriteBuffer getSprites() {
+        return sprites;
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.andre.engine;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Acumulador de passo fixo que desacopla a simulação da taxa de renderização.
+ * <p>
+ * O tempo real de cada frame é acumulado e consumido em passos de duração fixa. Quando o frame
+ * demora mais do que {@code maxCatchUpSteps} passos, o excedente é descartado para que a simulação
+ * não entre em espiral tentando recuperar o atraso. A fração que sobra no acumulador é exposta
+ * como {@link #getAlpha()} para interpolar o estado renderizado entre os dois últimos passos.
+ */
+public class FixedTimestep {
+    private double stepTime;
+    private int maxCatchUpSteps;
+    private double accumulator;
+    private double alpha;
+    private long droppedSteps;
+
+    /**
+     * @param tickRate        A frequência da simulação, em passos por segundo.
+     * @param maxCatchUpSteps O número máximo de passos executados em um único frame.
+     */
+    public FixedTimestep(double tickRate, int maxCatchUpSteps) {
+        setTickRate(tickRate);
+        setMaxCatchUpSteps(maxCatchUpSteps);
+    }
+
+    /**
+     * Acumula o tempo do frame e executa quantos passos fixos couberem nele.
+     *
+     * @param frameTime O tempo real decorrido desde o último frame (em segundos).
+     * @param step      O passo da simulação, que recebe a duração fixa do passo.
+     * @return O número de passos executados.
+     */
+    public int advance(double frameTime, DoubleConsumer step) {
+        accumulator += Math.max(0, frameTime);
+
+        int steps = 0;
+        while (accumulator >= stepTime && steps < maxCatchUpSteps) {
+            step.accept(stepTime);
+            accumulator -= stepTime;
+            steps++;
+        }
+
+        if (accumulator >= stepTime) {
+            // Sob carga a simulação desacelera em vez de acumular atraso indefinidamente
+            long dropped = (long) (accumulator / stepTime);
+            droppedSteps += dropped;
+            accumulator -= dropped * stepTime;
+        }
+
+        alpha = accumulator / stepTime;
+        return steps;
+    }
+
+    /**
+     * @return A fração (0 a 1) do próximo passo já decorrida, usada na interpolação.
+     */
+    public double getAlpha() {
+        return alpha;
+    }
+
+    public double getStepTime() {
+        return stepTime;
+    }
+
+    public double getTickRate() {
+        return 1.0 / stepTime;
+    }
+
+    public void setTickRate(double tickRate) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("A frequência da simulação deve ser positiva.");
+        }
+        this.stepTime = 1.0 / tickRate;
+    }
+
+    public int getMaxCatchUpSteps() {
+        return maxCatchUpSteps;
+    }
+
+    public void setMaxCatchUpSteps(int maxCatchUpSteps) {
+        if (maxCatchUpSteps < 1) {
+            throw new IllegalArgumentException("O número máximo de passos por frame deve ser ao menos 1.");
+        }
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    /**
+     * @return O total de passos descartados por excederem o limite de recuperação.
+     */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+}
@@ -1,31 +1,72 @@
 package br.com.andre.engine;
 
+import br.com.andre.ecs.Components;
+import br.com.andre.ecs.EntityWorld;
+import br.com.andre.ecs.RenderSystem;
+import br.com.andre.graphic.PolygonGraphic;
+import br.com.andre.graphic.SpriteBuffer;
 import br.com.andre.graphic.Vector3;
-import br.com.andre.physic.PhysicsBody;
-import br.com.andre.physic.PhysicsEngine;
+import br.com.andre.job.Job;
+import br.com.andre.job.JobGraph;
+import br.com.andre.job.JobSystem;
+import br.com.andre.metrics.FrameEvent;
+import br.com.andre.metrics.FrameMetrics;
+import br.com.andre.metrics.HistogramSnapshot;
+import br.com.andre.metrics.MetricsServer;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.image.BufferedImage;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
 
 /**
  * Classe principal do jogo que gerencia a renderização, atualização e entrada do usuário.
+ * <p>
+ * Os frames rodam em uma thread própria ({@link GameLoop}), fora da thread de eventos do Swing:
+ * cada frame é um grafo de tarefas ({@link JobGraph}) que atualiza a simulação e, em paralelo,
+ * renderiza em um buffer de fundo e o desenha diretamente no painel. O ritmo vem de {@code -Djava3dview.pacing=capped|vsync|uncapped} (padrão {@code capped})
+ * e {@code -Djava3dview.fps=<taxa>} (padrão 60). Com {@code -Djava3dview.entities=<quantidade>}, o
+ * mapa recebe essa quantidade de esferas que quicam pelo labirinto, como carga de entidades.
  */
 public class Game extends JPanel implements MouseMotionListener {
+    private static final double TICK_RATE = 60.0;
+    private static final int MAX_CATCH_UP_STEPS = 5;
+    private static final double MAX_FRAME_TIME = 0.25;
+    private static final String MAP = "maps/maze.obj";
+    private static final String RECORD_PROPERTY = "java3dview.record";
+    private static final String PACING_PROPERTY = "java3dview.pacing";
+    private static final String FPS_PROPERTY = "java3dview.fps";
+    private static final String ENTITIES_PROPERTY = "java3dview.entities";
+    private static final Font OVERLAY_FONT = new Font("Arial", Font.BOLD, 14);
+
     private Renderer renderer;
     private Player player;
     private World world;
-    private PhysicsEngine physicsEngine;
+    private Simulation simulation;
     private InputHandler inputHandler;
     private int centerX, centerY;
     private Robot robot;
+    private FixedTimestep fixedTimestep;
+    private GameLoop gameLoop;
+    private MetricsServer metricsServer;
+    private final JobSystem jobSystem = JobSystem.shared();
+    private JobGraph frameGraph;
+    private RenderSystem renderSystem;
+
+    // O loop renderiza no buffer de fundo e troca com o da frente, que é o desenhado na tela
+    private final Object bufferLock = new Object();
+    private BufferedImage backBuffer;
+    private BufferedImage frontBuffer;
 
-    // Variáveis para FPS Counter
-    private int frameCount = 0;
-    private int currentFPS = 0;
-    private long lastTime = System.currentTimeMillis();
+    // Métricas do loop; o texto na tela mostra o último segundo
+    private final FrameMetrics metrics = new FrameMetrics();
+    private long lastFrameTime = System.nanoTime();
+    private HistogramSnapshot displayedFrames = metrics.getHistogram(FrameMetrics.Stage.FRAME).snapshot();
+    private long displayTime = System.nanoTime();
+    private volatile String frameStatus = "FPS: 0";
 
     public Game() {
         this.setPreferredSize(new Dimension(800, 600));
@@ -37,29 +78,40 @@ public class Game extends JPanel implements MouseMotionListener {
         this.addMouseMotionListener(this);
         this.setFocusable(true);
 
-        // Inicializa o mundo e carrega objetos de colisão
-        world = new World("maps/maze.obj");
+        // Inicializa o mundo, o jogador e a física
+        world = new World(MAP);
+        simulation = new Simulation(world, new Vector3(9, 5.0, -9), inputHandler);
+        player = simulation.getPlayer();
 
-        // Inicializa o jogador, passando o inputHandler
-        Vector3 playerStartPosition = new Vector3(9, 5.0, -9);
-        player = new Player(playerStartPosition, inputHandler);
+        // Simulação em passo fixo, independente da taxa de renderização
+        fixedTimestep = new FixedTimestep(TICK_RATE, MAX_CATCH_UP_STEPS);
+        simulation.setMetrics(metrics);
+        inputHandler.setMetrics(metrics);
 
-        // Inicializa o motor de física
-        physicsEngine = new PhysicsEngine();
-        physicsEngine.addBody(player.getRigidBody());
+        // Endpoint opcional de métricas no formato do Prometheus (-Djava3dview.metrics.port=porta)
+        metricsServer = MetricsServer.startIfEnabled(metrics);
 
-        // Adiciona corpos estáticos ao motor de física
-        List<PhysicsBody> staticBodies = world.getStaticPhysicsBodies();
-        for (PhysicsBody body : staticBodies) {
-            physicsEngine.addBody(body);
+        // Gravação opcional da entrada (-Djava3dview.record=arquivo), reproduzível com o ReplayRunner
+        String recordFile = System.getProperty(RECORD_PROPERTY);
+        if (recordFile != null && !recordFile.isEmpty()) {
+            try {
+                simulation.startRecording(Path.of(recordFile), MAP, fixedTimestep.getStepTime());
+                Runtime.getRuntime().addShutdownHook(new Thread(simulation::stopRecording));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
         }
 
         // Inicializa o renderizador
         renderer = new Renderer(world, player);
         renderer.setScreenSize(800, 600);
 
-        Timer timer = new Timer(16, e -> update());
-        timer.start();
+        // As entidades com sprite são copiadas para o renderizador uma vez por frame
+        renderSystem = new RenderSystem(simulation.getEntities(), new SpriteBuffer());
+        renderer.setSprites(renderSystem.getSprites());
+        spawnEntities(Integer.getInteger(ENTITIES_PROPERTY, 0));
+        captureView();
+        frameGraph = buildFrameGraph();
 
         // Inicializa centerX e centerY após o componente ser exibido
         this.addHierarchyListener(e -> {
@@ -83,41 +135,147 @@ public class Game extends JPanel implements MouseMotionListener {
             public void componentResized(ComponentEvent e) {
                 centerX = getWidth() / 2;
                 centerY = getHeight() / 2;
-                renderer.setScreenSize(getWidth(), getHeight());
                 recenterMouse();
             }
         });
+
+        // Inicia o loop do jogo em sua própria thread
+        GameLoop.Pacing pacing = GameLoop.Pacing.valueOf(System.getProperty(PACING_PROPERTY, "capped").toUpperCase());
+        double targetRate = Double.parseDouble(System.getProperty(FPS_PROPERTY, "60"));
+        gameLoop = new GameLoop(this::frame, pacing, targetRate);
+        gameLoop.start();
+    }
+
+    /**
+     * Monta o grafo de tarefas de um frame. A renderização usa a câmera e os sprites capturados no
+     * fim do frame anterior, então o descarte, a transformação e o desenho rodam em paralelo com a
+     * simulação (e com os blocos paralelos da física, no mesmo pool); a nova captura só acontece
+     * quando os dois lados terminam. Em troca, a tela mostra o estado com um frame de atraso.
+     */
+    private JobGraph buildFrameGraph() {
+        JobGraph graph = new JobGraph();
+        Job simulate = graph.add("simulação", this::update);
+        Job cull = graph.add("descarte", renderer::cull);
+        Job transform = graph.add("transformação", renderer::transform, cull);
+        Job raster = graph.add("rasterização", this::rasterize, transform);
+        graph.add("apresentação", this::present, raster);
+        graph.add("câmera", this::captureView, simulate, raster);
+        return graph;
+    }
+
+    /**
+     * Um frame completo, executado pela thread do {@link GameLoop}: executa o grafo do frame no
+     * sistema de tarefas e espera seu término.
+     */
+    private void frame() {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            update();
+            captureView();
+            return;
+        }
+
+        if (backBuffer == null || backBuffer.getWidth() != width || backBuffer.getHeight() != height) {
+            backBuffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            renderer.setScreenSize(width, height);
+        }
+        jobSystem.run(frameGraph);
+    }
+
+    /**
+     * Copia para o renderizador o estado que o próximo frame desenha: a câmera e os sprites.
+     */
+    private void captureView() {
+        renderer.captureCamera();
+        renderSystem.update(0);
+    }
+
+    /**
+     * Cria esferas coloridas em posições aleatórias acima do ponto mais alto do mapa, lançadas na
+     * horizontal.
+     *
+     * @param count A quantidade de esferas.
+     */
+    private void spawnEntities(int count) {
+        if (count <= 0) {
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+        double minZ = Double.POSITIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (PolygonGraphic polygon : world.getPolygonGraphics()) {
+            for (Vector3 vertex : polygon.getVertices()) {
+                minX = Math.min(minX, vertex.getX());
+                maxX = Math.max(maxX, vertex.getX());
+                minZ = Math.min(minZ, vertex.getZ());
+                maxZ = Math.max(maxZ, vertex.getZ());
+                maxY = Math.max(maxY, vertex.getY());
+            }
+        }
+
+        SpriteBuffer sprites = renderSystem.getSprites();
+        int[] colors = {sprites.addColor(Color.ORANGE), sprites.addColor(Color.CYAN),
+                sprites.addColor(Color.MAGENTA), sprites.addColor(Color.YELLOW)};
+        EntityWorld entities = simulation.getEntities();
+        Random random = new Random(1);
+        for (int i = 0; i < count; i++) {
+            double size = 0.1 + random.nextDouble() * 0.15;
+            int entity = entities.create(Components.POSITION, Components.VELOCITY, Components.BODY, Components.SPRITE);
+            entities.set(entity, Components.POSITION, minX + random.nextDouble() * (maxX - minX),
+                    maxY + 1 + random.nextDouble() * 3, minZ + random.nextDouble() * (maxZ - minZ));
+            entities.set(entity, Components.VELOCITY, random.nextGaussian() * 3, 0, random.nextGaussian() * 3);
+            entities.set(entity, Components.BODY, size, 0.6, 0.1);
+            entities.set(entity, Components.SPRITE, size);
+            entities.setInt(entity, Components.SPRITE, Components.SPRITE_COLOR, colors[random.nextInt(colors.length)]);
+        }
     }
 
     /**
      * Atualiza o estado do jogo a cada frame.
      */
     private void update() {
-        double deltaTime = 0.016; // Aproximadamente 60 FPS
+        FrameEvent event = new FrameEvent();
+        event.begin();
 
-        // Atualiza jogador
-        player.update(deltaTime);
+        // Mede o tempo real do frame; pausas longas (ex.: arrastar a janela) são limitadas
+        long frameStart = System.nanoTime();
+        long frameInterval = frameStart - lastFrameTime;
+        lastFrameTime = frameStart;
+        metrics.record(FrameMetrics.Stage.FRAME, frameInterval);
+        double frameTime = Math.min(frameInterval / 1_000_000_000.0, MAX_FRAME_TIME);
 
-        // Atualiza física
-        physicsEngine.update(deltaTime);
+        int steps = fixedTimestep.advance(frameTime, simulation::step);
+        renderer.setInterpolationAlpha(fixedTimestep.getAlpha());
+        metrics.record(FrameMetrics.Stage.UPDATE, System.nanoTime() - frameStart);
 
-        // Atualiza FPS
-        updateFPS();
+        updateFrameStatus(frameStart);
 
-        repaint();
+        event.setFrameInterval(frameInterval);
+        event.setSteps(steps);
+        event.commit();
     }
 
     /**
-     * Atualiza o contador de FPS.
+     * Atualiza, uma vez por segundo, o texto com o FPS e o percentil 99 do tempo de frame.
      */
-    private void updateFPS() {
-        frameCount++;
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastTime >= 1000) {
-            currentFPS = frameCount;
-            frameCount = 0;
-            lastTime = currentTime;
+    private void updateFrameStatus(long now) {
+        if (now - displayTime < 1_000_000_000L) {
+            return;
         }
+        HistogramSnapshot frames = metrics.getHistogram(FrameMetrics.Stage.FRAME).snapshot();
+        HistogramSnapshot lastSecond = frames.since(displayedFrames);
+        double fps = lastSecond.getCount() * 1e9 / (now - displayTime);
+        frameStatus = String.format("FPS: %.0f  p99: %.1f ms", fps, lastSecond.percentile(99) / 1e6);
+        displayedFrames = frames;
+        displayTime = now;
+    }
+
+    /**
+     * @return As métricas do loop do jogo.
+     */
+    public FrameMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -130,21 +288,97 @@ public class Game extends JPanel implements MouseMotionListener {
     }
 
     /**
-     * Método responsável por desenhar os componentes na tela.
+     * Desenha no buffer de fundo os polígonos já coletados e transformados e o texto de estado, e
+     * troca os buffers.
+     */
+    private void rasterize() {
+        Graphics2D g = backBuffer.createGraphics();
+        try {
+            renderer.raster(g);
+            metrics.record(FrameMetrics.Stage.RENDER,
+                    renderer.getCollectNanos() + renderer.getTransformNanos() + renderer.getRasterNanos());
+            metrics.setGauge(FrameMetrics.Gauge.POLYGONS_DRAWN, renderer.getVisiblePolygonCount());
+            metrics.setGauge(FrameMetrics.Gauge.BSP_NODES_VISITED, renderer.getVisitedNodeCount());
+
+            // Configura a fonte para melhor visibilidade
+            g.setFont(OVERLAY_FONT);
+            g.setColor(Color.WHITE);
+            g.drawString(frameStatus, 10, 30);
+
+            // Exibe a posição do jogador no frame desenhado
+            Vector3 pos = renderer.getCameraPosition();
+            g.drawString(String.format("Posição do Jogador: (%.2f, %.2f, %.2f)", pos.getX(), pos.getY(), pos.getZ()), 10, 50);
+        } finally {
+            g.dispose();
+        }
+
+        synchronized (bufferLock) {
+            BufferedImage rendered = backBuffer;
+            backBuffer = frontBuffer;
+            frontBuffer = rendered;
+        }
+    }
+
+    /**
+     * Desenha o buffer da frente diretamente no painel, sem esperar um repaint do Swing.
+     */
+    private void present() {
+        Graphics g = getGraphics();
+        if (g == null) {
+            return;
+        }
+        try {
+            synchronized (bufferLock) {
+                g.drawImage(frontBuffer, 0, 0, null);
+            }
+        } finally {
+            g.dispose();
+        }
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    /**
+     * Redesenha o último frame quando o Swing pede (janela exposta ou redimensionada).
      */
     @Override
     protected void paintComponent(Graphics g) {
+        synchronized (bufferLock) {
+            if (frontBuffer != null) {
+                g.drawImage(frontBuffer, 0, 0, null);
+                return;
+            }
+        }
         super.paintComponent(g);
-        renderer.render(g);
+    }
+
+    /**
+     * @return O grafo de tarefas do frame, com a duração de cada tarefa na última execução.
+     */
+    public JobGraph getFrameGraph() {
+        return frameGraph;
+    }
 
-        // Configura a fonte para melhor visibilidade
-        g.setFont(new Font("Arial", Font.BOLD, 14));
-        g.setColor(Color.WHITE);
-        g.drawString("FPS: " + currentFPS, 10, 30);
+    /**
+     * Para o loop do jogo, esperando o frame atual terminar, e fecha o endpoint de métricas. Deve ser
+     * chamado quando a janela é fechada.
+     */
+    public void stop() {
+        try {
+            gameLoop.stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (metricsServer != null) {
+            metricsServer.close();
+            metricsServer = null;
+        }
+    }
 
-        // Exibe a posição do jogador
-        Vector3 pos = player.getPosition();
-        g.drawString(String.format("Posição do Jogador: (%.2f, %.2f, %.2f)", pos.getX(), pos.getY(), pos.getZ()), 10, 50);
+    /**
+     * @return O loop do jogo, para alterar o ritmo dos frames.
+     */
+    public GameLoop getGameLoop() {
+        return gameLoop;
     }
 
     /**
@@ -159,8 +393,8 @@ public class Game extends JPanel implements MouseMotionListener {
         int deltaX = e.getX() - centerX;
         int deltaY = e.getY() - centerY;
 
-        // Remover a inversão dos deltas
-        player.rotate(deltaX, deltaY);
+        // Publicado na fila de entrada e somado no próximo passo da simulação
+        inputHandler.mouseMoved(deltaX, deltaY);
         recenterMouse();
     }
 
@@ -0,0 +1,168 @@
+package br.com.andre.engine;
+
+import java.awt.DisplayMode;
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread dedicada do loop do jogo, com o ritmo dos frames controlado por {@link System#nanoTime()}.
+ * <p>
+ * A espera até o próximo frame usa {@link LockSupport#parkNanos(long)} para a maior parte do tempo
+ * e termina em espera ativa: o atraso típico do park é medido continuamente e a espera ativa cobre
+ * essa margem, o que mantém os intervalos regulares mesmo em sistemas com temporizador grosseiro.
+ * Os prazos avançam um período fixo a cada frame, então um frame atrasado não desloca os
+ * seguintes; se o atraso passar de um período inteiro, o ritmo é reiniciado a partir de agora.
+ * <p>
+ * Uma exceção em um frame é reportada e o loop segue para o próximo, para que a thread não morra
+ * e a fila de entrada continue sendo drenada.
+ */
+public class GameLoop implements Runnable {
+    /**
+     * O modo de ritmo dos frames.
+     */
+    public enum Pacing {
+        /** Limita os frames à taxa configurada. */
+        CAPPED,
+        /** Limita os frames à taxa de atualização do monitor, como uma sincronia vertical. */
+        VSYNC,
+        /** Sem limite; cada frame começa assim que o anterior termina. */
+        UNCAPPED
+    }
+
+    private static final long MIN_SPIN_NANOS = 100_000L;
+    private static final long MAX_SPIN_NANOS = 4_000_000L;
+    private static final double DEFAULT_REFRESH_RATE = 60.0;
+
+    private final Runnable frame;
+    private volatile Pacing pacing;
+    private volatile long periodNanos;
+    private volatile boolean running;
+    private Thread thread;
+
+    // Estimativa (média móvel) de quanto o park dorme além do pedido
+    private long parkOvershoot = 200_000L;
+
+    /**
+     * @param frame      O trabalho de um frame (atualização, renderização e apresentação).
+     * @param pacing     O modo de ritmo.
+     * @param targetRate A taxa alvo em frames por segundo, usada no modo {@link Pacing#CAPPED}.
+     */
+    public GameLoop(Runnable frame, Pacing pacing, double targetRate) {
+        this.frame = frame;
+        setPacing(pacing, targetRate);
+    }
+
+    /**
+     * Altera o modo de ritmo; vale a partir do próximo frame.
+     *
+     * @param pacing     O modo de ritmo.
+     * @param targetRate A taxa alvo em frames por segundo, usada no modo {@link Pacing#CAPPED}.
+     */
+    public void setPacing(Pacing pacing, double targetRate) {
+        double rate = pacing == Pacing.VSYNC ? displayRefreshRate() : targetRate;
+        if (pacing != Pacing.UNCAPPED && rate <= 0) {
+            throw new IllegalArgumentException("A taxa alvo deve ser positiva.");
+        }
+        this.periodNanos = pacing == Pacing.UNCAPPED ? 0 : Math.round(1_000_000_000.0 / rate);
+        this.pacing = pacing;
+    }
+
+    public Pacing getPacing() {
+        return pacing;
+    }
+
+    /**
+     * @return O período alvo de um frame (em nanossegundos), ou 0 sem limite.
+     */
+    public long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "java3dview-game-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Para o loop e espera o frame atual terminar.
+     */
+    public void stop() throws InterruptedException {
+        Thread current;
+        synchronized (this) {
+            running = false;
+            current = thread;
+            thread = null;
+        }
+        if (current != null) {
+            LockSupport.unpark(current);
+            current.join();
+        }
+    }
+
+    @Override
+    public void run() {
+        long deadline = System.nanoTime();
+        while (running) {
+            try {
+                frame.run();
+            } catch (RuntimeException e) {
+                System.err.println("Falha no frame do loop do jogo:");
+                e.printStackTrace();
+            }
+
+            long period = periodNanos;
+            if (period == 0) {
+                deadline = System.nanoTime();
+                continue;
+            }
+            deadline += period;
+            long now = System.nanoTime();
+            if (now - deadline > period) {
+                // Atrasado mais de um frame: recomeça o ritmo em vez de tentar recuperar
+                deadline = now;
+                continue;
+            }
+            waitUntil(deadline);
+        }
+    }
+
+    /**
+     * Espera até o instante dado: dorme enquanto houver folga maior que a margem de espera ativa e
+     * gira no restante.
+     */
+    private void waitUntil(long deadline) {
+        long spin = Math.max(MIN_SPIN_NANOS, Math.min(MAX_SPIN_NANOS, parkOvershoot * 2));
+        while (running) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            if (remaining > spin) {
+                long request = remaining - spin;
+                long before = System.nanoTime();
+                LockSupport.parkNanos(request);
+                long overshoot = Math.max(0, System.nanoTime() - before - request);
+                parkOvershoot += (overshoot - parkOvershoot) / 8;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * @return A taxa de atualização do monitor principal, ou 60 Hz se desconhecida.
+     */
+    public static double displayRefreshRate() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return DEFAULT_REFRESH_RATE;
+        }
+        DisplayMode mode = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode();
+        int refreshRate = mode.getRefreshRate();
+        return refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE : refreshRate;
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.andre.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila circular sem travas de eventos de entrada com carimbo de tempo, para exatamente um produtor
+ * (a thread de eventos do Swing) e um consumidor (o passo da simulação).
+ * <p>
+ * Os eventos ficam em arrays paralelos de primitivos, sem alocação por evento. O produtor publica
+ * o novo fim da fila com escrita ordenada depois de preencher o slot, e o consumidor libera os
+ * slots do mesmo jeito depois de lê-los; cada lado guarda a última posição vista do outro para
+ * evitar leituras voláteis desnecessárias.
+ */
+class InputEventQueue {
+    static final int KEY_PRESSED = 1;
+    static final int KEY_RELEASED = 2;
+    static final int MOUSE_MOVED = 3;
+
+    /**
+     * Recebe os eventos drenados, na ordem de publicação.
+     */
+    @FunctionalInterface
+    interface Handler {
+        /**
+         * @param type  O tipo ({@link #KEY_PRESSED}, {@link #KEY_RELEASED} ou {@link #MOUSE_MOVED}).
+         * @param a     Os bits da tecla, ou o deslocamento horizontal do mouse.
+         * @param b     O deslocamento vertical do mouse (0 para teclas).
+         * @param nanos O instante da publicação, em {@link System#nanoTime()}.
+         */
+        void onEvent(int type, int a, int b, long nanos);
+    }
+
+    private final int mask;
+    private final int[] types;
+    private final int[] valuesA;
+    private final int[] valuesB;
+    private final long[] times;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long cachedHead; // Só o produtor usa
+    private long cachedTail; // Só o consumidor usa
+
+    /**
+     * @param capacity A capacidade, arredondada para a próxima potência de dois.
+     */
+    InputEventQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A capacidade da fila deve ser positiva.");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        size = Math.max(size, 1);
+        mask = size - 1;
+        types = new int[size];
+        valuesA = new int[size];
+        valuesB = new int[size];
+        times = new long[size];
+    }
+
+    /**
+     * Publica um evento. Só pode ser chamado pela thread produtora.
+     *
+     * @return false se a fila estiver cheia.
+     */
+    boolean offer(int type, int a, int b, long nanos) {
+        long t = tail.get();
+        if (t - cachedHead > mask) {
+            cachedHead = head.get();
+            if (t - cachedHead > mask) {
+                return false;
+            }
+        }
+        int index = (int) t & mask;
+        types[index] = type;
+        valuesA[index] = a;
+        valuesB[index] = b;
+        times[index] = nanos;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Entrega todos os eventos publicados até agora. Só pode ser chamado pela thread consumidora.
+     *
+     * @param handler O destino dos eventos.
+     * @return O número de eventos drenados.
+     */
+    int drain(Handler handler) {
+        long h = head.get();
+        if (h == cachedTail) {
+            cachedTail = tail.get();
+            if (h == cachedTail) {
+                return 0;
+            }
+        }
+        long end = cachedTail;
+        for (long i = h; i < end; i++) {
+            int index = (int) i & mask;
+            handler.onEvent(types[index], valuesA[index], valuesB[index], times[index]);
+        }
+        head.lazySet(end);
+        return (int) (end - h);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
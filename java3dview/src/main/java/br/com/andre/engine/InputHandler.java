@@ -1,47 +1,230 @@
 package br.com.andre.engine;
 
+import br.com.andre.metrics.FrameMetrics;
+
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 
 /**
- * InputHandler lida com as entradas do teclado.
+ * InputHandler lida com as entradas do teclado e do mouse.
+ * <p>
+ * A thread de eventos do Swing só publica eventos com carimbo de tempo em uma
+ * {@link InputEventQueue}; o passo da simulação os drena em {@link #beginTick()} e monta a entrada
+ * daquele passo, lida pelo {@link Player}. Uma tecla pressionada e solta entre dois passos ainda
+ * conta no passo seguinte, e os deslocamentos do mouse são somados por passo.
  */
 public class InputHandler implements KeyListener {
-    private boolean moveForward, moveBackward, moveLeft, moveRight, jump, running;
+    // Bits do estado das teclas, usados na gravação e reprodução da entrada
+    public static final int FORWARD = 1;
+    public static final int BACKWARD = 1 << 1;
+    public static final int LEFT = 1 << 2;
+    public static final int RIGHT = 1 << 3;
+    public static final int JUMP = 1 << 4;
+    public static final int RUNNING = 1 << 5;
+
+    private static final int QUEUE_CAPACITY = 4096;
+    // Tempo máximo que a thread do Swing espera por espaço na fila antes de acumular a tecla
+    private static final long MAX_PUBLISH_WAIT_NANOS = 2_000_000L;
+
+    private final InputEventQueue queue = new InputEventQueue(QUEUE_CAPACITY);
+    private final InputEventQueue.Handler drainHandler = this::onEvent;
+
+    // Estado do produtor: deslocamento do mouse e teclas ainda não publicados por falta de espaço na fila
+    private int unpublishedMouseX, unpublishedMouseY;
+    private int unpublishedPressed, unpublishedReleased;
 
-    public boolean isMoveForward() { return moveForward; }
-    public boolean isMoveBackward() { return moveBackward; }
-    public boolean isMoveLeft() { return moveLeft; }
-    public boolean isMoveRight() { return moveRight; }
-    public boolean isRunning() { return running; }
+    // Estado do consumidor (thread da simulação)
+    private int heldButtons;
+    private int pressedButtons;
+    private int accumulatedMouseX, accumulatedMouseY;
+    private long drainTime;
+    private FrameMetrics metrics;
+
+    // Entrada do passo atual
+    private int tickButtons;
+    private int tickMouseX, tickMouseY;
+    private boolean jumpPending;
+
+    public boolean isMoveForward() { return (tickButtons & FORWARD) != 0; }
+    public boolean isMoveBackward() { return (tickButtons & BACKWARD) != 0; }
+    public boolean isMoveLeft() { return (tickButtons & LEFT) != 0; }
+    public boolean isMoveRight() { return (tickButtons & RIGHT) != 0; }
+    public boolean isRunning() { return (tickButtons & RUNNING) != 0; }
 
     public boolean consumeJump() {
-        boolean temp = jump;
-        jump = false;
+        boolean temp = jumpPending;
+        jumpPending = false;
         return temp;
     }
 
+    /**
+     * Drena os eventos publicados e monta a entrada do passo: as teclas seguradas mais as
+     * pressionadas desde o passo anterior, e o deslocamento do mouse acumulado.
+     */
+    public void beginTick() {
+        drainTime = System.nanoTime();
+        queue.drain(drainHandler);
+        setTick(heldButtons | pressedButtons, accumulatedMouseX, accumulatedMouseY);
+        pressedButtons = 0;
+        accumulatedMouseX = 0;
+        accumulatedMouseY = 0;
+    }
+
+    /**
+     * Define diretamente a entrada do passo, como na reprodução de uma gravação.
+     *
+     * @param buttons O estado das teclas como bits ({@link #FORWARD}, {@link #JUMP}...).
+     * @param mouseX  O deslocamento horizontal do mouse no passo.
+     * @param mouseY  O deslocamento vertical do mouse no passo.
+     */
+    public void setTick(int buttons, int mouseX, int mouseY) {
+        tickButtons = buttons;
+        tickMouseX = mouseX;
+        tickMouseY = mouseY;
+        jumpPending = (buttons & JUMP) != 0;
+    }
+
+    /**
+     * @return O estado das teclas no passo atual como bits, no formato de {@link #setTick}.
+     */
+    public int getButtons() {
+        return tickButtons;
+    }
+
+    public int getMouseX() {
+        return tickMouseX;
+    }
+
+    public int getMouseY() {
+        return tickMouseY;
+    }
+
+    /**
+     * Define as métricas que recebem o atraso entre cada evento de tecla e o passo que o consome.
+     */
+    public void setMetrics(FrameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    private void onEvent(int type, int a, int b, long nanos) {
+        switch (type) {
+            case InputEventQueue.KEY_PRESSED -> {
+                // O salto é um evento: só vale no passo seguinte ao pressionamento
+                if (a != JUMP) {
+                    heldButtons |= a;
+                }
+                pressedButtons |= a;
+            }
+            case InputEventQueue.KEY_RELEASED -> heldButtons &= ~a;
+            case InputEventQueue.MOUSE_MOVED -> {
+                accumulatedMouseX += a;
+                accumulatedMouseY += b;
+            }
+            default -> throw new IllegalArgumentException("Tipo de evento desconhecido: " + type);
+        }
+        if (metrics != null && type != InputEventQueue.MOUSE_MOVED) {
+            metrics.record(FrameMetrics.Stage.INPUT, drainTime - nanos);
+        }
+    }
+
+    /**
+     * Publica um deslocamento do mouse. Se a fila estiver cheia, o deslocamento é somado ao
+     * próximo, sem se perder.
+     */
+    public void mouseMoved(int deltaX, int deltaY) {
+        unpublishedMouseX += deltaX;
+        unpublishedMouseY += deltaY;
+        publishPending(System.nanoTime());
+    }
+
+    private boolean publishMouse(long nanos) {
+        if (unpublishedMouseX == 0 && unpublishedMouseY == 0) {
+            return true;
+        }
+        if (!queue.offer(InputEventQueue.MOUSE_MOVED, unpublishedMouseX, unpublishedMouseY, nanos)) {
+            return false;
+        }
+        unpublishedMouseX = 0;
+        unpublishedMouseY = 0;
+        return true;
+    }
+
+    /**
+     * Publica um evento de tecla. Com a fila cheia, o produtor espera um pouco o consumidor liberar
+     * espaço; se ele não liberar (a simulação travou ou parou), a tecla é acumulada e publicada junto
+     * com o próximo evento, sem bloquear a thread do Swing.
+     */
+    private void publishKey(int type, int button) {
+        if (type == InputEventQueue.KEY_PRESSED) {
+            unpublishedPressed |= button;
+            unpublishedReleased &= ~button; // Soltar e apertar de novo equivale a continuar segurando
+        } else {
+            unpublishedReleased |= button;
+        }
+        long nanos = System.nanoTime();
+        while (!publishPending(nanos)) {
+            if (System.nanoTime() - nanos > MAX_PUBLISH_WAIT_NANOS) {
+                return;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Publica o deslocamento do mouse e as teclas pendentes. As teclas apertadas vão antes das
+     * soltas, para que um toque curto ainda conte no passo.
+     *
+     * @return true se não sobrou nada pendente.
+     */
+    private boolean publishPending(long nanos) {
+        if (!publishMouse(nanos)) {
+            return false;
+        }
+        while (unpublishedPressed != 0) {
+            int button = Integer.lowestOneBit(unpublishedPressed);
+            if (!queue.offer(InputEventQueue.KEY_PRESSED, button, 0, nanos)) {
+                return false;
+            }
+            unpublishedPressed &= ~button;
+        }
+        while (unpublishedReleased != 0) {
+            int button = Integer.lowestOneBit(unpublishedReleased);
+            if (!queue.offer(InputEventQueue.KEY_RELEASED, button, 0, nanos)) {
+                return false;
+            }
+            unpublishedReleased &= ~button;
+        }
+        return true;
+    }
+
+    private static int buttonFor(int keyCode) {
+        return switch (keyCode) {
+            case KeyEvent.VK_W -> FORWARD;
+            case KeyEvent.VK_S -> BACKWARD;
+            case KeyEvent.VK_A -> LEFT;
+            case KeyEvent.VK_D -> RIGHT;
+            case KeyEvent.VK_SPACE -> JUMP;
+            case KeyEvent.VK_SHIFT -> RUNNING;
+            default -> 0;
+        };
+    }
+
     @Override
     public void keyPressed(KeyEvent e) {
-        switch (e.getKeyCode()) {
-            case KeyEvent.VK_W -> moveForward = true;
-            case KeyEvent.VK_S -> moveBackward = true;
-            case KeyEvent.VK_A -> moveLeft = true;
-            case KeyEvent.VK_D -> moveRight = true;
-            case KeyEvent.VK_SPACE -> jump = true;
-            case KeyEvent.VK_SHIFT -> running = true;
-            case KeyEvent.VK_ESCAPE -> System.exit(0);
+        if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+            System.exit(0);
+        }
+        int button = buttonFor(e.getKeyCode());
+        if (button != 0) {
+            publishKey(InputEventQueue.KEY_PRESSED, button);
         }
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
-        switch (e.getKeyCode()) {
-            case KeyEvent.VK_W -> moveForward = false;
-            case KeyEvent.VK_S -> moveBackward = false;
-            case KeyEvent.VK_A -> moveLeft = false;
-            case KeyEvent.VK_D -> moveRight = false;
-            case KeyEvent.VK_SHIFT -> running = false;
+        int button = buttonFor(e.getKeyCode());
+        if (button != 0 && button != JUMP) {
+            publishKey(InputEventQueue.KEY_RELEASED, button);
         }
     }
 
@@ -49,12 +232,4 @@ public class InputHandler implements KeyListener {
     public void keyTyped(KeyEvent e) {
         // Não utilizado
     }
-
-    /**
-     * Método para atualizar o estado das teclas (se necessário).
-     * Pode ser utilizado se houver lógica adicional de atualização.
-     */
-    public void update() {
-        // Implementar se necessário
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,138 @@
+package br.com.andre.engine;
+
+import br.com.andre.graphic.Vector3;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Lê uma gravação do {@link InputRecorder}, um passo por vez.
+ */
+public class InputPlayback implements Closeable {
+    private final DataInputStream input;
+    private final String map;
+    private final double stepTime;
+    private final Vector3 startPosition;
+
+    private int buttons;
+    private int mouseX;
+    private int mouseY;
+    private boolean ended;
+    private boolean hasTrailer;
+    private long recordedTicks;
+    private long recordedStateHash;
+
+    public InputPlayback(Path file) throws IOException {
+        input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        if (input.readInt() != InputRecorder.MAGIC) {
+            input.close();
+            throw new IllegalArgumentException("O arquivo não é uma gravação de entrada: " + file);
+        }
+        int version = input.readInt();
+        if (version != InputRecorder.VERSION) {
+            input.close();
+            throw new IllegalArgumentException("Versão de gravação não suportada: " + version);
+        }
+        map = input.readUTF();
+        stepTime = input.readDouble();
+        startPosition = new Vector3(input.readDouble(), input.readDouble(), input.readDouble());
+    }
+
+    /**
+     * Avança para o próximo passo gravado.
+     *
+     * @return false no fim da gravação.
+     * @throws IOException Se a leitura falhar.
+     */
+    public boolean next() throws IOException {
+        if (ended) {
+            return false;
+        }
+        int header = input.read();
+        if (header < 0) {
+            // Gravação interrompida sem o trailer
+            ended = true;
+            return false;
+        }
+        if (header == InputRecorder.END_MARKER) {
+            recordedTicks = input.readLong();
+            recordedStateHash = input.readLong();
+            hasTrailer = true;
+            ended = true;
+            return false;
+        }
+        buttons = header & InputRecorder.BUTTON_MASK;
+        if ((header & InputRecorder.MOUSE_FLAG) != 0) {
+            mouseX = readVarInt();
+            mouseY = readVarInt();
+        } else {
+            mouseX = 0;
+            mouseY = 0;
+        }
+        return true;
+    }
+
+    public int getButtons() {
+        return buttons;
+    }
+
+    public int getMouseX() {
+        return mouseX;
+    }
+
+    public int getMouseY() {
+        return mouseY;
+    }
+
+    public String getMap() {
+        return map;
+    }
+
+    public double getStepTime() {
+        return stepTime;
+    }
+
+    public Vector3 getStartPosition() {
+        return startPosition;
+    }
+
+    /**
+     * @return true se a gravação terminou com o trailer de verificação (válido após o fim).
+     */
+    public boolean hasTrailer() {
+        return hasTrailer;
+    }
+
+    public long getRecordedTicks() {
+        return recordedTicks;
+    }
+
+    public long getRecordedStateHash() {
+        return recordedStateHash;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private int readVarInt() throws IOException {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = input.read();
+            if (b < 0) {
+                throw new EOFException("Gravação truncada.");
+            }
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (result >>> 1) ^ -(result & 1);
+            }
+        }
+        throw new IOException("Varint inválido na gravação.");
+    }
+}
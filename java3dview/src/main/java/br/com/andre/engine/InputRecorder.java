@@ -0,0 +1,109 @@
+package br.com.andre.engine;
+
+import br.com.andre.graphic.Vector3;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Grava a entrada do jogador, um registro por passo fixo da simulação, em um arquivo binário
+ * compacto que o {@link InputPlayback} reproduz.
+ * <p>
+ * Formato: cabeçalho com {@link #MAGIC}, {@link #VERSION}, o mapa, a duração do passo e a posição
+ * inicial do jogador. Cada passo ocupa um byte com os bits das teclas ({@link InputHandler#getButtons()})
+ * e, se o mouse se moveu, {@link #MOUSE_FLAG} seguido dos deslocamentos em varint zigzag. O arquivo
+ * termina com {@link #END_MARKER}, o número de passos e o hash do estado final da simulação, que a
+ * reprodução confere.
+ */
+public class InputRecorder implements Closeable {
+    static final int MAGIC = 0x4A334452; // "J3DR"
+    static final int VERSION = 1;
+    static final int BUTTON_MASK = 0x3F;
+    static final int MOUSE_FLAG = 0x40;
+    static final int END_MARKER = 0x80;
+
+    private final DataOutputStream output;
+    private long ticks;
+    private boolean finished;
+
+    /**
+     * @param file          O arquivo de saída.
+     * @param map           O mapa da sessão (recurso ou caminho do OBJ).
+     * @param stepTime      A duração do passo fixo (em segundos).
+     * @param startPosition A posição inicial do jogador.
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public InputRecorder(Path file, String map, double stepTime, Vector3 startPosition) throws IOException {
+        output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeUTF(map);
+        output.writeDouble(stepTime);
+        output.writeDouble(startPosition.getX());
+        output.writeDouble(startPosition.getY());
+        output.writeDouble(startPosition.getZ());
+    }
+
+    /**
+     * Grava a entrada de um passo.
+     *
+     * @param buttons O estado das teclas.
+     * @param mouseX  O deslocamento horizontal do mouse acumulado desde o passo anterior.
+     * @param mouseY  O deslocamento vertical do mouse acumulado desde o passo anterior.
+     * @throws IOException Se a escrita falhar.
+     */
+    public void record(int buttons, int mouseX, int mouseY) throws IOException {
+        boolean mouse = mouseX != 0 || mouseY != 0;
+        output.writeByte((buttons & BUTTON_MASK) | (mouse ? MOUSE_FLAG : 0));
+        if (mouse) {
+            writeVarInt(mouseX);
+            writeVarInt(mouseY);
+        }
+        ticks++;
+    }
+
+    /**
+     * Encerra a gravação com o hash do estado final e fecha o arquivo.
+     *
+     * @param stateHash O hash do estado da simulação após o último passo gravado.
+     * @throws IOException Se a escrita falhar.
+     */
+    public void finish(long stateHash) throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        output.writeByte(END_MARKER);
+        output.writeLong(ticks);
+        output.writeLong(stateHash);
+        output.close();
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Fecha o arquivo sem o trailer; a reprodução ainda funciona, mas sem conferir o estado final.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            finished = true;
+            output.close();
+        }
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        int zigzag = (value << 1) ^ (value >> 31);
+        while ((zigzag & ~0x7F) != 0) {
+            output.writeByte((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        output.writeByte(zigzag);
+    }
+}
@@ -1,17 +1,20 @@
 package br.com.andre.engine;
 
-import br.com.andre.collision.CollisionInfo;
-import br.com.andre.collision.CollisionListener;
+import br.com.andre.collision.ContactEvent;
+import br.com.andre.collision.ContactListener;
 import br.com.andre.collision.collider_object.SphereCollider;
 import br.com.andre.graphic.Vector3;
 import br.com.andre.physic.PhysicsBody;
 import br.com.andre.physic.RigidBody;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
-public class Player implements CollisionListener {
+public class Player implements ContactListener {
     private RigidBody rigidBody;
     private double moveForce;
-    private double jumpForce;
+    private double jumpSpeed;
     private double yaw;
     private double pitch;
     private double sensitivity;
@@ -21,7 +24,8 @@ public class Player implements CollisionListener {
     private Vector3 right;
     private Vector3 up;
 
-    private boolean grounded;
+    // Corpos em que o jogador está apoiado, mantidos pelos eventos de contato
+    private final Set<PhysicsBody> groundContacts = Collections.newSetFromMap(new IdentityHashMap<>());
 
     private InputHandler inputHandler; // Instância de InputHandler
 
@@ -32,9 +36,10 @@ public class Player implements CollisionListener {
         double radius = 0.5; // Raio do colisor do jogador
         SphereCollider collider = new SphereCollider(startPosition, radius);
         rigidBody = new RigidBody(startPosition, mass, collider);
+        rigidBody.setSleepAllowed(false); // O jogador é controlado diretamente e nunca adormece
 
         moveForce = 2000.0; // Força aplicada para movimentação
-        jumpForce = 500000.0; // Força aplicada para salto
+        jumpSpeed = 5.0; // Velocidade vertical do salto (m/s)
         yaw = -90;
         pitch = 0;
         sensitivity = 0.1;
@@ -42,8 +47,8 @@ public class Player implements CollisionListener {
 
         updateDirectionVectors();
 
-        // Adiciona o Player como CollisionListener do rigidBody
-        rigidBody.addCollisionListener(this);
+        // Adiciona o Player como ContactListener do rigidBody
+        rigidBody.addContactListener(this);
     }
 
     /**
@@ -52,9 +57,6 @@ public class Player implements CollisionListener {
      * @param deltaTime O tempo decorrido desde a última atualização (em segundos).
      */
     public void update(double deltaTime) {
-        // Resetar o estado de aterrissagem a cada frame
-        grounded = false;
-
         // Processa entrada do usuário e aplica forças
         Vector3 movementDirection = new Vector3(0, 0, 0);
 
@@ -78,8 +80,9 @@ public class Player implements CollisionListener {
         }
 
         // Salto
-        if (inputHandler.consumeJump() && grounded) {
-            rigidBody.applyForce(new Vector3(0, jumpForce, 0));
+        if (inputHandler.consumeJump() && isGrounded()) {
+            // Força que, aplicada durante um passo, produz a velocidade de salto
+            rigidBody.applyForce(new Vector3(0, rigidBody.getMass() * jumpSpeed / deltaTime, 0));
         }
 
         // Ajusta a força de movimentação para corrida
@@ -105,14 +108,36 @@ public class Player implements CollisionListener {
         updateDirectionVectors();
     }
 
+    /**
+     * Define a orientação do jogador diretamente, sem passar pelo mouse.
+     *
+     * @param yaw   O ângulo horizontal (em graus).
+     * @param pitch O ângulo vertical (em graus), limitado a ±89.
+     */
+    public void setOrientation(double yaw, double pitch) {
+        this.yaw = yaw;
+        this.pitch = Math.max(-89.0, Math.min(89.0, pitch));
+
+        updateDirectionVectors();
+    }
+
+    public double getYaw() {
+        return yaw;
+    }
+
+    public double getPitch() {
+        return pitch;
+    }
+
     private void updateDirectionVectors() {
-        // Calcula o vetor de direção
-        double radYaw = Math.toRadians(yaw);
-        double radPitch = Math.toRadians(pitch);
+        // Calcula o vetor de direção; StrictMath dá o mesmo resultado em qualquer JVM, o que mantém
+        // a reprodução de gravações de entrada idêntica bit a bit
+        double radYaw = StrictMath.toRadians(yaw);
+        double radPitch = StrictMath.toRadians(pitch);
 
-        double x = Math.cos(radYaw) * Math.cos(radPitch);
-        double y = Math.sin(radPitch);
-        double z = Math.sin(radYaw) * Math.cos(radPitch);
+        double x = StrictMath.cos(radYaw) * StrictMath.cos(radPitch);
+        double y = StrictMath.sin(radPitch);
+        double z = StrictMath.sin(radYaw) * StrictMath.cos(radPitch);
 
         direction = new Vector3(x, y, z).normalize();
         // Calcula os vetores right e up
@@ -124,6 +149,16 @@ public class Player implements CollisionListener {
         return rigidBody.getPosition();
     }
 
+    /**
+     * Obtém a posição interpolada entre os dois últimos passos da simulação.
+     *
+     * @param alpha A fração (0 a 1) entre o passo anterior e o atual.
+     * @return A posição usada pela câmera.
+     */
+    public Vector3 getInterpolatedPosition(double alpha) {
+        return rigidBody.getInterpolatedPosition(alpha);
+    }
+
     public Vector3 getDirection() {
         return direction;
     }
@@ -149,19 +184,24 @@ public class Player implements CollisionListener {
     }
 
     public boolean isGrounded() {
-        return grounded;
+        return !groundContacts.isEmpty();
     }
 
     /**
-     * Método chamado quando uma colisão ocorre.
+     * Método chamado após o passo da física para cada evento de contato do jogador.
      *
-     * @param collisionInfo Informações sobre a colisão.
-     * @param otherBody     O outro corpo envolvido na colisão.
+     * @param event O evento de contato.
      */
     @Override
-    public void onCollision(CollisionInfo collisionInfo, PhysicsBody otherBody) {
-        if (collisionInfo.getCollisionNormal().getY() > 0.7) { // Ajuste o limiar conforme necessário
-            grounded = true;
+    public void onContact(ContactEvent event) {
+        if (event.getOtherBody().isSensor()) {
+            return; // Volumes de gatilho não sustentam o jogador
+        }
+        // Um contato conta como chão enquanto a normal apontar para cima
+        if (event.getType() != ContactEvent.Type.END && event.getNormalY() > 0.7) { // Ajuste o limiar conforme necessário
+            groundContacts.add(event.getOtherBody());
+        } else {
+            groundContacts.remove(event.getOtherBody());
         }
     }
 }
\ No newline at end of file
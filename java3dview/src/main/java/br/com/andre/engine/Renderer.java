@@ -2,21 +2,59 @@ package br.com.andre.engine;
 
 import br.com.andre.bsp.BSPNode;
 import br.com.andre.graphic.PolygonGraphic;
+import br.com.andre.graphic.SpriteBuffer;
 import br.com.andre.graphic.Vector3;
+import br.com.andre.graphic.transform.VertexBuffer;
+import br.com.andre.graphic.transform.VertexTransformer;
+import br.com.andre.graphic.transform.VertexTransformers;
+import br.com.andre.graphic.transform.ViewTransform;
+import br.com.andre.metrics.RenderEvent;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static br.com.andre.util.CalcPolygon.calculatePolygonCenter;
 import static br.com.andre.util.CalcPolygon.calculatePolygonNormal;
 
 public class Renderer {
+    private static final double NEAR_PLANE_Z = 0.1;
+
     private final World world;
     private final Player player;
     private int screenWidth = 800;
     private int screenHeight = 600;
 
+    // Estado reutilizado entre frames pela transformação em lote
+    private final VertexTransformer vertexTransformer = VertexTransformers.create();
+    private final VertexBuffer vertexBuffer = new VertexBuffer();
+    private final ViewTransform viewTransform = new ViewTransform();
+    private final List<Color> visibleColors = new ArrayList<>();
+    private int[] xPoints = new int[8];
+    private int[] yPoints = new int[8];
+
+    private double interpolationAlpha = 1.0;
+
+    // Sprites das entidades, distribuídos pela BSP junto com os polígonos do mapa
+    private SpriteBuffer sprites;
+    private int[] spriteOrder = new int[0];
+    private long[] spriteKeys = new long[0];
+
+    // Câmera capturada do jogador; as etapas do frame usam só esta cópia
+    private Vector3 cameraPosition;
+    private Vector3 cameraRight;
+    private Vector3 cameraUp;
+    private Vector3 cameraDirection;
+    private double cameraFov;
+
+    // Duração (em nanossegundos) de cada etapa do último frame
+    private long collectNanos;
+    private long transformNanos;
+    private long rasterNanos;
+    private int visitedNodes;
+    private RenderEvent event;
+
     public Renderer(World world, Player player) {
         this.world = world;
         this.player = player;
@@ -27,46 +65,273 @@ public class Renderer {
         this.screenHeight = height;
     }
 
+    /**
+     * Define os sprites desenhados junto com o mapa. O buffer só é lido durante {@link #cull()}.
+     *
+     * @param sprites Os sprites, ou null para nenhum.
+     */
+    public void setSprites(SpriteBuffer sprites) {
+        this.sprites = sprites;
+    }
+
+    /**
+     * Define a fração entre os dois últimos passos da simulação usada para posicionar a câmera.
+     *
+     * @param interpolationAlpha A fração (0 a 1).
+     */
+    public void setInterpolationAlpha(double interpolationAlpha) {
+        this.interpolationAlpha = interpolationAlpha;
+    }
+
+    /**
+     * Renderiza um frame completo com a câmera atual do jogador.
+     */
     public void render(Graphics g) {
+        captureCamera();
+        cull();
+        transform();
+        raster(g);
+    }
+
+    /**
+     * Copia a posição (interpolada) e a orientação do jogador para a câmera das próximas etapas.
+     * Depois da cópia, {@link #cull()}, {@link #transform()} e {@link #raster(Graphics)} não leem
+     * mais o jogador e podem rodar enquanto a simulação avança.
+     */
+    public void captureCamera() {
+        cameraPosition = player.getInterpolatedPosition(interpolationAlpha);
+        cameraRight = player.getRight();
+        cameraUp = player.getUp();
+        cameraDirection = player.getDirection();
+        cameraFov = player.getFov();
+    }
+
+    /**
+     * Primeira etapa do frame: percorre a BSP, descarta as faces traseiras e coleta os vértices
+     * dos polígonos visíveis. Os sprites descem pela árvore junto com a câmera: em cada nó são
+     * separados pelo lado do plano em que estão, e os que chegam a uma região vazia são desenhados
+     * ali, do mais distante ao mais próximo, na ordem correta em relação às paredes.
+     */
+    public void cull() {
+        event = new RenderEvent();
+        event.begin();
+        long start = System.nanoTime();
+        visibleColors.clear();
+        vertexBuffer.clear();
+        visitedNodes = 0;
+        int spriteCount = sprites == null ? 0 : sprites.size();
+        if (spriteOrder.length < spriteCount) {
+            spriteOrder = new int[spriteCount];
+            spriteKeys = new long[spriteCount];
+        }
+        for (int i = 0; i < spriteCount; i++) {
+            spriteOrder[i] = i;
+        }
+        collectBSPNode(world.getBSPTree(), cameraPosition, 0, spriteCount);
+        collectNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Segunda etapa do frame: transforma em lote os vértices coletados para o espaço da tela.
+     */
+    public void transform() {
+        long start = System.nanoTime();
+        viewTransform.set(cameraPosition, cameraRight, cameraUp, cameraDirection,
+                cameraFov, screenWidth, screenHeight, NEAR_PLANE_Z);
+        vertexTransformer.transform(vertexBuffer, viewTransform);
+        transformNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Última etapa do frame: limpa a tela, recorta e desenha os polígonos.
+     */
+    public void raster(Graphics g) {
+        long start = System.nanoTime();
         g.setColor(Color.BLACK);
         g.fillRect(0, 0, screenWidth, screenHeight);
+        renderPolygons(g);
+        rasterNanos = System.nanoTime() - start;
+
+        if (event.shouldCommit()) {
+            event.setPolygonsDrawn(visibleColors.size());
+            event.setNodesVisited(visitedNodes);
+            event.setStages(collectNanos, transformNanos, rasterNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * @return A posição da câmera usada no frame atual.
+     */
+    public Vector3 getCameraPosition() {
+        return cameraPosition;
+    }
+
+    /**
+     * @return O tempo do último frame gasto percorrendo a BSP e descartando faces traseiras (em
+     * nanossegundos).
+     */
+    public long getCollectNanos() {
+        return collectNanos;
+    }
 
-        renderBSPNode(g, world.getBSPTree(), player.getPosition());
+    /**
+     * @return O tempo do último frame gasto na transformação de vértices em lote (em nanossegundos).
+     */
+    public long getTransformNanos() {
+        return transformNanos;
     }
 
-    private void renderBSPNode(Graphics g, BSPNode node, Vector3 cameraPosition) {
-        if (node == null) return;
+    /**
+     * @return O tempo do último frame gasto limpando a tela e no recorte e desenho dos polígonos (em
+     * nanossegundos).
+     */
+    public long getRasterNanos() {
+        return rasterNanos;
+    }
+
+    /**
+     * @return O número de polígonos (incluindo os sprites) que passaram pelo descarte de faces no
+     * último frame.
+     */
+    public int getVisiblePolygonCount() {
+        return visibleColors.size();
+    }
+
+    /**
+     * @return O número de nós da BSP percorridos no último frame.
+     */
+    public int getVisitedNodeCount() {
+        return visitedNodes;
+    }
+
+    private void collectBSPNode(BSPNode node, Vector3 cameraPosition, int spriteFrom, int spriteTo) {
+        if (node == null || node.getPartitionPolygon() == null) {
+            collectSprites(spriteFrom, spriteTo);
+            return;
+        }
 
         PolygonGraphic partitionPolygonGraphic = node.getPartitionPolygon();
-        if (partitionPolygonGraphic == null) return;
+        visitedNodes++;
 
         Vector3 normal = calculatePolygonNormal(partitionPolygonGraphic);
         Vector3 partitionCenter = calculatePolygonCenter(partitionPolygonGraphic);
         Vector3 toCamera = cameraPosition.subtract(partitionCenter);
 
         boolean inFront = normal.dot(toCamera) >= 0;
+        int spriteSplit = partitionSprites(spriteFrom, spriteTo, normal, partitionCenter);
 
         if (inFront) {
-            renderBSPNode(g, node.getBackNode(), cameraPosition);
-            renderPolygons(g, node.getPolygons());
-            renderBSPNode(g, node.getFrontNode(), cameraPosition);
+            collectBSPNode(node.getBackNode(), cameraPosition, spriteFrom, spriteSplit);
+            collectPolygons(node.getPolygons());
+            collectBSPNode(node.getFrontNode(), cameraPosition, spriteSplit, spriteTo);
         } else {
-            renderBSPNode(g, node.getFrontNode(), cameraPosition);
-            renderPolygons(g, node.getPolygons());
-            renderBSPNode(g, node.getBackNode(), cameraPosition);
+            collectBSPNode(node.getFrontNode(), cameraPosition, spriteSplit, spriteTo);
+            collectPolygons(node.getPolygons());
+            collectBSPNode(node.getBackNode(), cameraPosition, spriteFrom, spriteSplit);
         }
     }
 
-    private void renderPolygons(Graphics g, List<PolygonGraphic> polygonsToRender) {
-        for (PolygonGraphic polygonGraphic : polygonsToRender) {
+    /**
+     * Reordena {@code spriteOrder[from, to)} com os sprites atrás do plano primeiro.
+     *
+     * @return O índice do primeiro sprite na frente do plano.
+     */
+    private int partitionSprites(int from, int to, Vector3 normal, Vector3 point) {
+        double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+        double offset = normal.dot(point);
+        int split = from;
+        for (int i = from; i < to; i++) {
+            int sprite = spriteOrder[i];
+            if (nx * sprites.getX(sprite) + ny * sprites.getY(sprite) + nz * sprites.getZ(sprite) < offset) {
+                spriteOrder[i] = spriteOrder[split];
+                spriteOrder[split++] = sprite;
+            }
+        }
+        return split;
+    }
+
+    /**
+     * Coleta os sprites de uma região sem polígonos, do mais distante ao mais próximo da câmera.
+     */
+    private void collectSprites(int from, int to) {
+        if (from == to) return;
+
+        double cx = cameraPosition.getX(), cy = cameraPosition.getY(), cz = cameraPosition.getZ();
+        double dx = cameraDirection.getX(), dy = cameraDirection.getY(), dz = cameraDirection.getZ();
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int sprite = spriteOrder[i];
+            double vx = sprites.getX(sprite) - cx;
+            double vy = sprites.getY(sprite) - cy;
+            double vz = sprites.getZ(sprite) - cz;
+            if (vx * dx + vy * dy + vz * dz < -sprites.getSize(sprite)) continue; // Atrás da câmera
+
+            // Distância (como float, cujos bits crescem com o valor) nos bits altos e o sprite nos baixos
+            float distance = (float) (vx * vx + vy * vy + vz * vz);
+            spriteKeys[count++] = ((long) Float.floatToIntBits(distance) << 32) | sprite;
+        }
+        Arrays.sort(spriteKeys, 0, count);
+
+        double rx = cameraRight.getX(), ry = cameraRight.getY(), rz = cameraRight.getZ();
+        double ux = cameraUp.getX(), uy = cameraUp.getY(), uz = cameraUp.getZ();
+        for (int k = count - 1; k >= 0; k--) {
+            int sprite = (int) spriteKeys[k];
+            double x = sprites.getX(sprite), y = sprites.getY(sprite), z = sprites.getZ(sprite);
+            double size = sprites.getSize(sprite);
+
+            // Quadrado voltado para a câmera
+            visibleColors.add(sprites.getColor(sprite));
+            vertexBuffer.beginPolygon();
+            vertexBuffer.addVertex(x - (rx + ux) * size, y - (ry + uy) * size, z - (rz + uz) * size);
+            vertexBuffer.addVertex(x + (rx - ux) * size, y + (ry - uy) * size, z + (rz - uz) * size);
+            vertexBuffer.addVertex(x + (rx + ux) * size, y + (ry + uy) * size, z + (rz + uz) * size);
+            vertexBuffer.addVertex(x - (rx - ux) * size, y - (ry - uy) * size, z - (rz - uz) * size);
+        }
+    }
+
+    private void collectPolygons(List<PolygonGraphic> polygons) {
+        for (PolygonGraphic polygonGraphic : polygons) {
             if (!isPolygonVisible(polygonGraphic)) continue;
 
-            List<Vector3> transformedVertices = transformVertices(polygonGraphic);
-            List<Vector3> clippedVertices = clipPolygonAgainstNearPlane(transformedVertices);
+            visibleColors.add(polygonGraphic.getColor());
+            vertexBuffer.beginPolygon();
+            for (Vector3 vertex : polygonGraphic.getVertices()) {
+                vertexBuffer.addVertex(vertex);
+            }
+        }
+    }
 
-            if (clippedVertices.size() >= 3) {
-                List<Vector3> projectedVertices = projectVertices(clippedVertices);
-                drawPolygon(g, projectedVertices, polygonGraphic.getColor());
+    private void renderPolygons(Graphics g) {
+        for (int p = 0; p < visibleColors.size(); p++) {
+            int start = vertexBuffer.getPolygonStart(p);
+            int end = vertexBuffer.getPolygonEnd(p);
+
+            int outcodeAnd = ~0;
+            int outcodeOr = 0;
+            for (int i = start; i < end; i++) {
+                int outcode = vertexBuffer.getOutcode(i);
+                outcodeAnd &= outcode;
+                outcodeOr |= outcode;
+            }
+
+            // Todos os vértices fora do mesmo lado da tela (ou atrás do plano próximo)
+            if (outcodeAnd != 0) continue;
+
+            Color color = visibleColors.get(p);
+            if ((outcodeOr & VertexBuffer.OUT_NEAR) == 0) {
+                drawProjectedPolygon(g, start, end, color);
+            } else {
+                List<Vector3> viewVertices = new ArrayList<>(end - start);
+                for (int i = start; i < end; i++) {
+                    viewVertices.add(new Vector3(vertexBuffer.getViewX(i), vertexBuffer.getViewY(i), vertexBuffer.getViewZ(i)));
+                }
+                List<Vector3> clippedVertices = clipPolygonAgainstNearPlane(viewVertices);
+
+                if (clippedVertices.size() >= 3) {
+                    List<Vector3> projectedVertices = projectVertices(clippedVertices);
+                    drawPolygon(g, projectedVertices, color);
+                }
             }
         }
     }
@@ -74,28 +339,11 @@ public class Renderer {
     private boolean isPolygonVisible(PolygonGraphic polygonGraphic) {
         Vector3 normal = calculatePolygonNormal(polygonGraphic);
         Vector3 polygonCenter = calculatePolygonCenter(polygonGraphic);
-        Vector3 viewVector = polygonCenter.subtract(player.getPosition()).normalize();
+        Vector3 viewVector = polygonCenter.subtract(cameraPosition).normalize();
 
         return !polygonGraphic.isCullBackFace() || normal.dot(viewVector) >= 0;
     }
 
-    private List<Vector3> transformVertices(PolygonGraphic polygonGraphic) {
-        List<Vector3> transformedVertices = new ArrayList<>();
-        for (Vector3 vertex : polygonGraphic.getVertices()) {
-            transformedVertices.add(transformVertex(vertex));
-        }
-        return transformedVertices;
-    }
-
-    private Vector3 transformVertex(Vector3 vertex) {
-        Vector3 translated = vertex.subtract(player.getPosition());
-        return new Vector3(
-                translated.dot(player.getRight()),
-                translated.dot(player.getUp()),
-                translated.dot(player.getDirection())
-        );
-    }
-
     private List<Vector3> projectVertices(List<Vector3> vertices) {
         List<Vector3> projectedVertices = new ArrayList<>();
         for (Vector3 vertex : vertices) {
@@ -106,8 +354,7 @@ public class Renderer {
 
     private Vector3 projectVertex(Vector3 vertex) {
         double z = vertex.getZ() == 0 ? 0.0001 : vertex.getZ();
-        double fov = Math.toRadians(player.getFov());
-        double f = screenHeight / (2 * Math.tan(fov / 2));
+        double f = viewTransform.getFocalLength();
 
         double x = (vertex.getX() * f) / z + screenWidth / 2;
         double y = (-vertex.getY() * f) / z + screenHeight / 2;
@@ -115,6 +362,24 @@ public class Renderer {
         return new Vector3(x, y, z);
     }
 
+    private void drawProjectedPolygon(Graphics g, int start, int end, Color color) {
+        int count = end - start;
+        if (xPoints.length < count) {
+            xPoints = new int[count];
+            yPoints = new int[count];
+        }
+
+        for (int i = 0; i < count; i++) {
+            xPoints[i] = (int) vertexBuffer.getScreenX(start + i);
+            yPoints[i] = (int) vertexBuffer.getScreenY(start + i);
+        }
+
+        g.setColor(color);
+        g.fillPolygon(xPoints, yPoints, count);
+        g.setColor(Color.BLACK);
+        g.drawPolygon(xPoints, yPoints, count);
+    }
+
     private void drawPolygon(Graphics g, List<Vector3> projectedVertices, Color color) {
         int[] xPoints = new int[projectedVertices.size()];
         int[] yPoints = new int[projectedVertices.size()];
@@ -133,7 +398,7 @@ public class Renderer {
 
     private List<Vector3> clipPolygonAgainstNearPlane(List<Vector3> vertices) {
         List<Vector3> outputList = new ArrayList<>();
-        double nearPlaneZ = 0.1;
+        double nearPlaneZ = NEAR_PLANE_Z;
 
         if (vertices.isEmpty()) return outputList;
 
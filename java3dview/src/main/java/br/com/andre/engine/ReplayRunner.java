@@ -0,0 +1,102 @@
+package br.com.andre.engine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Reproduz sem janela uma gravação do {@link InputRecorder}: alimenta o {@link Player} e o
+ * {@link br.com.andre.physic.PhysicsEngine} com a entrada de cada passo, confere o hash do estado
+ * final com o da gravação e mede o tempo por passo, para usar sessões reais como testes de
+ * regressão e benchmarks.
+ * <p>
+ * Uso: {@code java -cp Java3DView.jar br.com.andre.engine.ReplayRunner <gravação> [--map OBJ]
+ * [--repeat N]}. O código de saída é 1 se alguma execução divergir da gravação.
+ */
+public class ReplayRunner {
+    private ReplayRunner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: ReplayRunner <gravação> [--map OBJ] [--repeat N]");
+            System.exit(1);
+        }
+        Path file = Path.of(args[0]);
+        String mapOverride = null;
+        int repeat = 1;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--map" -> mapOverride = args[i + 1];
+                case "--repeat" -> repeat = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+
+        World world;
+        try (InputPlayback playback = new InputPlayback(file)) {
+            world = loadWorld(mapOverride != null ? mapOverride : playback.getMap());
+        }
+
+        boolean diverged = false;
+        for (int run = 0; run < repeat; run++) {
+            diverged |= !replay(file, world, run);
+        }
+        if (diverged) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reproduz a gravação uma vez.
+     *
+     * @return false se o estado final divergir do gravado.
+     */
+    private static boolean replay(Path file, World world, int run) throws IOException {
+        try (InputPlayback playback = new InputPlayback(file)) {
+            InputHandler inputHandler = new InputHandler();
+            Simulation simulation = new Simulation(world, playback.getStartPosition(), inputHandler);
+            double stepTime = playback.getStepTime();
+
+            long[] tickNanos = new long[1024];
+            int ticks = 0;
+            long start = System.nanoTime();
+            while (playback.next()) {
+                long tickStart = System.nanoTime();
+                simulation.step(stepTime, playback.getButtons(), playback.getMouseX(), playback.getMouseY());
+                if (ticks == tickNanos.length) {
+                    tickNanos = Arrays.copyOf(tickNanos, ticks * 2);
+                }
+                tickNanos[ticks++] = System.nanoTime() - tickStart;
+            }
+            double totalMillis = (System.nanoTime() - start) / 1e6;
+
+            long hash = simulation.stateHash();
+            boolean matches = !playback.hasTrailer()
+                    || (playback.getRecordedTicks() == ticks && playback.getRecordedStateHash() == hash);
+            String verdict = !playback.hasTrailer() ? "sem verificação" : matches ? "idêntico" : "DIVERGENTE";
+
+            long[] sorted = Arrays.copyOf(tickNanos, ticks);
+            Arrays.sort(sorted);
+            System.out.printf(Locale.ROOT, "execução %d: %d passos em %.1f ms, passo p50 %.1f us, p99 %.1f us, máx %.1f us, estado %016x (%s)%n",
+                    run, ticks, totalMillis, percentile(sorted, 50) / 1e3, percentile(sorted, 99) / 1e3,
+                    ticks > 0 ? sorted[ticks - 1] / 1e3 : 0.0, hash, verdict);
+            return matches;
+        }
+    }
+
+    private static World loadWorld(String map) {
+        Path path = Path.of(map);
+        return Files.isRegularFile(path) ? new World(path) : new World(map);
+    }
+
+    private static long percentile(long[] sorted, double percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+}
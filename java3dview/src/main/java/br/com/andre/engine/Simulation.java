@@ -0,0 +1,210 @@
+package br.com.andre.engine;
+
+import br.com.andre.ecs.EntityWorld;
+import br.com.andre.ecs.LifetimeSystem;
+import br.com.andre.ecs.PhysicsSystem;
+import br.com.andre.graphic.Vector3;
+import br.com.andre.job.JobSystem;
+import br.com.andre.metrics.FrameMetrics;
+import br.com.andre.physic.PhysicsBody;
+import br.com.andre.physic.PhysicsEngine;
+import br.com.andre.physic.RigidBody;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * O estado simulado do jogo (mundo, jogador e física) e o passo fixo que o avança.
+ * <p>
+ * O jogo com janela e a reprodução sem janela ({@link ReplayRunner}) usam esta mesma classe, então
+ * a ordem das operações de um passo é idêntica nos dois. A entrada de cada passo (teclas e
+ * deslocamento do mouse acumulado) é montada pelo {@link InputHandler} no início do passo, o que a
+ * torna gravável.
+ * <p>
+ * Os objetos dinâmicos em quantidade (detritos, partículas) ficam no {@link EntityWorld}, em
+ * tabelas por arquétipo, e são avançados pelos sistemas depois da física do jogador.
+ */
+public class Simulation {
+    private final World world;
+    private final Player player;
+    private final PhysicsEngine physicsEngine;
+    private final InputHandler inputHandler;
+    private final EntityWorld entities = new EntityWorld();
+
+    private long tick;
+    private InputRecorder recorder;
+    private FrameMetrics metrics;
+
+    public Simulation(World world, Vector3 playerStartPosition, InputHandler inputHandler) {
+        this.world = world;
+        this.inputHandler = inputHandler;
+        player = new Player(playerStartPosition, inputHandler);
+
+        physicsEngine = new PhysicsEngine();
+        physicsEngine.addBody(player.getRigidBody());
+        for (PhysicsBody body : world.getStaticPhysicsBodies()) {
+            physicsEngine.addBody(body);
+        }
+        physicsEngine.getQueryService().addPolygons(world.getPolygonGraphics());
+
+        entities.addSystem(new PhysicsSystem(entities, physicsEngine.getQueryService(), physicsEngine.getGravity(), JobSystem.shared()));
+        entities.addSystem(new LifetimeSystem(entities));
+    }
+
+    /**
+     * Executa um passo fixo com a entrada publicada desde o passo anterior: drena os eventos do
+     * {@link InputHandler}, grava a entrada (se houver gravação) e avança o jogador e a física.
+     *
+     * @param stepTime A duração do passo (em segundos).
+     */
+    public synchronized void step(double stepTime) {
+        inputHandler.beginTick();
+        advance(stepTime);
+    }
+
+    /**
+     * Executa um passo fixo com uma entrada dada, como na reprodução de uma gravação.
+     *
+     * @param stepTime A duração do passo (em segundos).
+     * @param buttons  O estado das teclas como bits do {@link InputHandler}.
+     * @param mouseX   O deslocamento horizontal do mouse no passo.
+     * @param mouseY   O deslocamento vertical do mouse no passo.
+     */
+    public synchronized void step(double stepTime, int buttons, int mouseX, int mouseY) {
+        inputHandler.setTick(buttons, mouseX, mouseY);
+        advance(stepTime);
+    }
+
+    private void advance(double stepTime) {
+        int mouseX = inputHandler.getMouseX();
+        int mouseY = inputHandler.getMouseY();
+
+        if (recorder != null) {
+            try {
+                recorder.record(inputHandler.getButtons(), mouseX, mouseY);
+            } catch (IOException e) {
+                e.printStackTrace();
+                closeRecorder();
+            }
+        }
+
+        if (mouseX != 0 || mouseY != 0) {
+            player.rotate(mouseX, mouseY);
+        }
+        player.update(stepTime);
+        long physicsStart = System.nanoTime();
+        physicsEngine.update(stepTime);
+        entities.update(stepTime);
+        if (metrics != null) {
+            metrics.record(FrameMetrics.Stage.PHYSICS, System.nanoTime() - physicsStart);
+            metrics.setGauge(FrameMetrics.Gauge.BODIES, physicsEngine.getBodyStore().size());
+            metrics.setGauge(FrameMetrics.Gauge.CANDIDATE_PAIRS, physicsEngine.getCandidatePairCount());
+            metrics.setGauge(FrameMetrics.Gauge.CONTACT_PAIRS, physicsEngine.getContactCount());
+            metrics.setGauge(FrameMetrics.Gauge.ENTITIES, entities.size());
+        }
+        tick++;
+    }
+
+    /**
+     * Começa a gravar a entrada. A gravação precisa começar antes do primeiro passo, para que a
+     * reprodução parta do mesmo estado.
+     *
+     * @param file     O arquivo da gravação.
+     * @param map      O mapa da sessão, como passado ao {@link World}.
+     * @param stepTime A duração do passo fixo (em segundos).
+     * @throws IOException Se o arquivo não puder ser criado.
+     */
+    public synchronized void startRecording(Path file, String map, double stepTime) throws IOException {
+        if (tick != 0 || recorder != null) {
+            throw new IllegalStateException("A gravação deve começar antes do primeiro passo.");
+        }
+        recorder = new InputRecorder(file, map, stepTime, player.getPosition());
+    }
+
+    /**
+     * Encerra a gravação, registrando o hash do estado atual para a verificação da reprodução.
+     */
+    public synchronized void stopRecording() {
+        if (recorder == null) {
+            return;
+        }
+        try {
+            recorder.finish(stateHash());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        recorder = null;
+    }
+
+    private void closeRecorder() {
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        recorder = null;
+    }
+
+    /**
+     * Hash dos bits do estado do jogador (posição, velocidade e orientação) e do número de passos.
+     * Duas execuções com a mesma entrada devem produzir o mesmo valor.
+     *
+     * @return O hash do estado.
+     */
+    public synchronized long stateHash() {
+        RigidBody body = player.getRigidBody();
+        Vector3 position = body.getPosition();
+        Vector3 velocity = body.getVelocity();
+        long hash = tick;
+        hash = mix(hash, position.getX());
+        hash = mix(hash, position.getY());
+        hash = mix(hash, position.getZ());
+        hash = mix(hash, velocity.getX());
+        hash = mix(hash, velocity.getY());
+        hash = mix(hash, velocity.getZ());
+        hash = mix(hash, player.getYaw());
+        hash = mix(hash, player.getPitch());
+        return hash;
+    }
+
+    private static long mix(long hash, double value) {
+        return (hash ^ Double.doubleToLongBits(value)) * 0x100000001B3L;
+    }
+
+    /**
+     * Define as métricas que recebem a duração de cada passo da física e as contagens de corpos e
+     * pares.
+     *
+     * @param metrics As métricas, ou null para não medir.
+     */
+    public void setMetrics(FrameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public PhysicsEngine getPhysicsEngine() {
+        return physicsEngine;
+    }
+
+    /**
+     * @return As entidades da simulação.
+     */
+    public EntityWorld getEntities() {
+        return entities;
+    }
+
+    public InputHandler getInputHandler() {
+        return inputHandler;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+}
@@ -11,6 +11,7 @@ import br.com.andre.graphic.Vector3;
 import br.com.andre.physic.PhysicsBody;
 import br.com.andre.physic.StaticBody;
 
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -36,6 +37,24 @@ public class World {
         bspTree = BSPTreeBuilder.buildBSPTree(polygonGraphics);
     }
 
+    /**
+     * Cria o mundo a partir de um arquivo OBJ do sistema de arquivos.
+     *
+     * @param objFile O arquivo OBJ.
+     */
+    public World(Path objFile) {
+        polygonGraphics = new ArrayList<>();
+        materials = new HashMap<>();
+        collisionObjects = new ArrayList<>();
+
+        if (Objects.isNull(objFile)) {
+            throw new IllegalArgumentException("O arquivo do mapa não pode ser nulo.");
+        }
+
+        OBJLoader.loadOBJ(objFile, polygonGraphics, materials, collisionObjects);
+        bspTree = BSPTreeBuilder.buildBSPTree(polygonGraphics);
+    }
+
     public BSPNode getBSPTree() {
         return bspTree;
     }
@@ -0,0 +1,86 @@
+package br.com.andre.graphic;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sprites voltados para a câmera a desenhar no próximo frame, em arrays paralelos: centro,
+ * meia-largura e índice de cor em uma paleta.
+ * <p>
+ * É preenchido a partir das entidades e depois só lido pelo renderizador, que assim não acessa o
+ * estado da simulação enquanto ela avança. A paleta evita criar um {@link Color} por sprite.
+ */
+public class SpriteBuffer {
+    private final List<Color> palette = new ArrayList<>();
+    private double[] x = new double[64], y = new double[64], z = new double[64];
+    private double[] size = new double[64];
+    private int[] colors = new int[64];
+    private int count;
+
+    /**
+     * Acrescenta uma cor à paleta.
+     *
+     * @return O índice da cor, usado em {@link #add}.
+     */
+    public int addColor(Color color) {
+        palette.add(color);
+        return palette.size() - 1;
+    }
+
+    public int getPaletteSize() {
+        return palette.size();
+    }
+
+    /**
+     * Acrescenta um sprite.
+     *
+     * @param x     O centro no eixo X.
+     * @param y     O centro no eixo Y.
+     * @param z     O centro no eixo Z.
+     * @param size  A meia-largura do sprite.
+     * @param color O índice da cor na paleta.
+     * @return O índice do sprite.
+     */
+    public int add(double x, double y, double z, double size, int color) {
+        if (color < 0 || color >= palette.size()) {
+            throw new IllegalArgumentException("Cor " + color + " fora da paleta.");
+        }
+        if (count == this.x.length) {
+            int capacity = count * 2;
+            this.x = Arrays.copyOf(this.x, capacity);
+            this.y = Arrays.copyOf(this.y, capacity);
+            this.z = Arrays.copyOf(this.z, capacity);
+            this.size = Arrays.copyOf(this.size, capacity);
+            this.colors = Arrays.copyOf(this.colors, capacity);
+        }
+        int i = count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.z[i] = z;
+        this.size[i] = size;
+        this.colors[i] = color;
+        return i;
+    }
+
+    /**
+     * Remove todos os sprites, mantendo a paleta e a capacidade.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public double getX(int i) { return x[i]; }
+    public double getY(int i) { return y[i]; }
+    public double getZ(int i) { return z[i]; }
+    public double getSize(int i) { return size[i]; }
+
+    public Color getColor(int i) {
+        return palette.get(colors[i]);
+    }
+}
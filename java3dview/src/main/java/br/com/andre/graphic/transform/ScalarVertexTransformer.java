@@ -0,0 +1,48 @@
+package br.com.andre.graphic.transform;
+
+/**
+ * Implementação escalar da transformação em lote. É a implementação padrão e também trata as
+ * sobras dos laços SIMD.
+ */
+public class ScalarVertexTransformer implements VertexTransformer {
+
+    @Override
+    public void transform(VertexBuffer buffer, ViewTransform t) {
+        transformRange(buffer, t, 0, buffer.size());
+    }
+
+    static void transformRange(VertexBuffer b, ViewTransform t, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double dx = b.worldX[i] - t.eyeX;
+            double dy = b.worldY[i] - t.eyeY;
+            double dz = b.worldZ[i] - t.eyeZ;
+
+            double vx = dx * t.rightX + dy * t.rightY + dz * t.rightZ;
+            double vy = dx * t.upX + dy * t.upY + dz * t.upZ;
+            double vz = dx * t.forwardX + dy * t.forwardY + dz * t.forwardZ;
+
+            b.viewX[i] = vx;
+            b.viewY[i] = vy;
+            b.viewZ[i] = vz;
+
+            if (vz < t.nearPlaneZ) {
+                // A projeção não é válida atrás do plano próximo; o polígono será recortado
+                b.outcodes[i] = VertexBuffer.OUT_NEAR;
+                continue;
+            }
+
+            double scale = t.focalLength / vz;
+            double sx = vx * scale + t.halfWidth;
+            double sy = -vy * scale + t.halfHeight;
+            b.screenX[i] = sx;
+            b.screenY[i] = sy;
+
+            int code = 0;
+            if (sx < 0) code |= VertexBuffer.OUT_LEFT;
+            if (sx > t.screenWidth) code |= VertexBuffer.OUT_RIGHT;
+            if (sy < 0) code |= VertexBuffer.OUT_TOP;
+            if (sy > t.screenHeight) code |= VertexBuffer.OUT_BOTTOM;
+            b.outcodes[i] = code;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.andre.graphic.transform;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Transformação em lote usando a Vector API ({@code jdk.incubator.vector}).
+ * <p>
+ * Processa {@code SPECIES.length()} vértices por iteração (4 em AVX2, 8 em AVX-512) e delega
+ * a sobra do laço para a implementação escalar. Só deve ser carregada através de
+ * {@link VertexTransformers#create()}, que verifica a presença do módulo incubador.
+ * <p>
+ * Nas medições feitas até aqui (JDK 17, AVX2 e AVX-512) esta versão foi mais lenta que a escalar,
+ * que o JIT já vetoriza em parte; por isso só é usada quando pedida explicitamente. O
+ * {@code VertexTransformBenchmark} compara as duas.
+ */
+public class SimdVertexTransformer implements VertexTransformer {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    // Inteiros com o mesmo número de lanes, para converter os outcodes
+    private static final VectorSpecies<Integer> INT_SPECIES =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(SPECIES.vectorBitSize() / 2));
+
+    @Override
+    public void transform(VertexBuffer b, ViewTransform t) {
+        int size = b.size();
+        int upperBound = SPECIES.loopBound(size);
+
+        DoubleVector eyeX = DoubleVector.broadcast(SPECIES, t.eyeX);
+        DoubleVector eyeY = DoubleVector.broadcast(SPECIES, t.eyeY);
+        DoubleVector eyeZ = DoubleVector.broadcast(SPECIES, t.eyeZ);
+        DoubleVector focalLength = DoubleVector.broadcast(SPECIES, t.focalLength);
+        DoubleVector halfWidth = DoubleVector.broadcast(SPECIES, t.halfWidth);
+        DoubleVector halfHeight = DoubleVector.broadcast(SPECIES, t.halfHeight);
+        DoubleVector zero = DoubleVector.zero(SPECIES);
+        DoubleVector width = DoubleVector.broadcast(SPECIES, t.screenWidth);
+        DoubleVector height = DoubleVector.broadcast(SPECIES, t.screenHeight);
+        DoubleVector near = DoubleVector.broadcast(SPECIES, t.nearPlaneZ);
+
+        // Bits dos outcodes como doubles: somas de potências de dois distintas são exatas
+        DoubleVector outNear = DoubleVector.broadcast(SPECIES, VertexBuffer.OUT_NEAR);
+        DoubleVector outLeft = DoubleVector.broadcast(SPECIES, VertexBuffer.OUT_LEFT);
+        DoubleVector outRight = DoubleVector.broadcast(SPECIES, VertexBuffer.OUT_RIGHT);
+        DoubleVector outTop = DoubleVector.broadcast(SPECIES, VertexBuffer.OUT_TOP);
+        DoubleVector outBottom = DoubleVector.broadcast(SPECIES, VertexBuffer.OUT_BOTTOM);
+
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, b.worldX, i).sub(eyeX);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, b.worldY, i).sub(eyeY);
+            DoubleVector dz = DoubleVector.fromArray(SPECIES, b.worldZ, i).sub(eyeZ);
+
+            DoubleVector vx = dx.mul(t.rightX).add(dy.mul(t.rightY)).add(dz.mul(t.rightZ));
+            DoubleVector vy = dx.mul(t.upX).add(dy.mul(t.upY)).add(dz.mul(t.upZ));
+            DoubleVector vz = dx.mul(t.forwardX).add(dy.mul(t.forwardY)).add(dz.mul(t.forwardZ));
+
+            vx.intoArray(b.viewX, i);
+            vy.intoArray(b.viewY, i);
+            vz.intoArray(b.viewZ, i);
+
+            VectorMask<Double> behind = vz.compare(VectorOperators.LT, near);
+            // Evita divisão por zero nas lanes atrás do plano; o resultado delas é descartado
+            DoubleVector scale = focalLength.div(vz.blend(near, behind));
+            DoubleVector sx = vx.mul(scale).add(halfWidth);
+            DoubleVector sy = vy.neg().mul(scale).add(halfHeight);
+
+            sx.intoArray(b.screenX, i);
+            sy.intoArray(b.screenY, i);
+
+            DoubleVector code = zero.blend(outLeft, sx.compare(VectorOperators.LT, zero))
+                    .add(zero.blend(outRight, sx.compare(VectorOperators.GT, width)))
+                    .add(zero.blend(outTop, sy.compare(VectorOperators.LT, zero)))
+                    .add(zero.blend(outBottom, sy.compare(VectorOperators.GT, height)))
+                    .blend(outNear, behind);
+            ((IntVector) code.convertShape(VectorOperators.D2I, INT_SPECIES, 0)).intoArray(b.outcodes, i);
+        }
+
+        ScalarVertexTransformer.transformRange(b, t, i, size);
+    }
+}
@@ -0,0 +1,135 @@
+package br.com.andre.graphic.transform;
+
+import br.com.andre.graphic.Vector3;
+
+import java.util.Arrays;
+
+/**
+ * Buffer de vértices em estrutura de arrays (SoA) usado pela etapa de transformação em lote.
+ * <p>
+ * As coordenadas de mundo são gravadas em {@code worldX/Y/Z}; a transformação preenche as
+ * coordenadas de câmera ({@code viewX/Y/Z}), as coordenadas de tela ({@code screenX/Y}) e os
+ * outcodes de cada vértice. Os vértices de cada polígono ficam contíguos, delimitados por
+ * {@link #getPolygonStart(int)} e {@link #getPolygonEnd(int)}.
+ */
+public class VertexBuffer {
+    /** Vértice atrás do plano próximo (near plane). */
+    public static final int OUT_NEAR = 1;
+    /** Vértice à esquerda da tela. */
+    public static final int OUT_LEFT = 1 << 1;
+    /** Vértice à direita da tela. */
+    public static final int OUT_RIGHT = 1 << 2;
+    /** Vértice acima da tela. */
+    public static final int OUT_TOP = 1 << 3;
+    /** Vértice abaixo da tela. */
+    public static final int OUT_BOTTOM = 1 << 4;
+
+    double[] worldX, worldY, worldZ;
+    double[] viewX, viewY, viewZ;
+    double[] screenX, screenY;
+    int[] outcodes;
+    private int size;
+
+    private int[] polygonStarts;
+    private int polygonCount;
+
+    public VertexBuffer() {
+        this(256);
+    }
+
+    public VertexBuffer(int initialCapacity) {
+        allocate(Math.max(initialCapacity, 16));
+        polygonStarts = new int[64];
+    }
+
+    /**
+     * Esvazia o buffer mantendo a capacidade alocada.
+     */
+    public void clear() {
+        size = 0;
+        polygonCount = 0;
+    }
+
+    /**
+     * Inicia um novo polígono; os vértices adicionados em seguida pertencem a ele.
+     *
+     * @return O índice do polígono no buffer.
+     */
+    public int beginPolygon() {
+        if (polygonCount + 1 >= polygonStarts.length) {
+            polygonStarts = Arrays.copyOf(polygonStarts, polygonStarts.length * 2);
+        }
+        polygonStarts[polygonCount] = size;
+        return polygonCount++;
+    }
+
+    /**
+     * Adiciona um vértice em coordenadas de mundo ao polígono corrente.
+     *
+     * @param vertex O vértice a ser adicionado.
+     */
+    public void addVertex(Vector3 vertex) {
+        addVertex(vertex.getX(), vertex.getY(), vertex.getZ());
+    }
+
+    /**
+     * Adiciona um vértice em coordenadas de mundo ao polígono corrente.
+     */
+    public void addVertex(double x, double y, double z) {
+        if (size == worldX.length) {
+            grow();
+        }
+        worldX[size] = x;
+        worldY[size] = y;
+        worldZ[size] = z;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getPolygonCount() {
+        return polygonCount;
+    }
+
+    public int getPolygonStart(int polygon) {
+        return polygonStarts[polygon];
+    }
+
+    public int getPolygonEnd(int polygon) {
+        return polygon + 1 < polygonCount ? polygonStarts[polygon + 1] : size;
+    }
+
+    public double getViewX(int i) { return viewX[i]; }
+    public double getViewY(int i) { return viewY[i]; }
+    public double getViewZ(int i) { return viewZ[i]; }
+    public double getScreenX(int i) { return screenX[i]; }
+    public double getScreenY(int i) { return screenY[i]; }
+    public int getOutcode(int i) { return outcodes[i]; }
+
+    private void grow() {
+        int newCapacity = worldX.length * 2;
+        worldX = Arrays.copyOf(worldX, newCapacity);
+        worldY = Arrays.copyOf(worldY, newCapacity);
+        worldZ = Arrays.copyOf(worldZ, newCapacity);
+        viewX = new double[newCapacity];
+        viewY = new double[newCapacity];
+        viewZ = new double[newCapacity];
+        screenX = new double[newCapacity];
+        screenY = new double[newCapacity];
+        outcodes = new int[newCapacity];
+    }
+
+    private void allocate(int capacity) {
+        worldX = new double[capacity];
+        worldY = new double[capacity];
+        worldZ = new double[capacity];
+        viewX = new double[capacity];
+        viewY = new double[capacity];
+        viewZ = new double[capacity];
+        screenX = new double[capacity];
+        screenY = new double[capacity];
+        outcodes = new int[capacity];
+    }
+}
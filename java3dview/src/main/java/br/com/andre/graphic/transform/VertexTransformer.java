@@ -0,0 +1,15 @@
+package br.com.andre.graphic.transform;
+
+/**
+ * Etapa de transformação em lote: leva os vértices de um {@link VertexBuffer} do espaço de
+ * mundo para o espaço de câmera, projeta-os na tela e calcula seus outcodes.
+ */
+public interface VertexTransformer {
+    /**
+     * Transforma todos os vértices do buffer.
+     *
+     * @param buffer    O buffer com as coordenadas de mundo; recebe os resultados.
+     * @param transform Os parâmetros da câmera e da tela.
+     */
+    void transform(VertexBuffer buffer, ViewTransform transform);
+}
@@ -0,0 +1,37 @@
+package br.com.andre.graphic.transform;
+
+/**
+ * Fábrica que escolhe a implementação de {@link VertexTransformer} disponível em tempo de execução.
+ * <p>
+ * A versão escalar é a padrão. A versão SIMD só é usada quando pedida com
+ * {@code -Djava3dview.simd=true} e a JVM foi iniciada com {@code --add-modules jdk.incubator.vector}.
+ */
+public final class VertexTransformers {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String SIMD_IMPLEMENTATION = "br.com.andre.graphic.transform.SimdVertexTransformer";
+
+    private VertexTransformers() {
+    }
+
+    public static VertexTransformer create() {
+        if (isSimdEnabled()) {
+            try {
+                // Carregada por reflexão para não vincular as classes do módulo incubador sem necessidade
+                return (VertexTransformer) Class.forName(SIMD_IMPLEMENTATION).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Cai para a implementação escalar
+            }
+        }
+        return new ScalarVertexTransformer();
+    }
+
+    /**
+     * @return true se a versão SIMD foi pedida e o módulo incubador está presente.
+     */
+    public static boolean isSimdEnabled() {
+        if (!Boolean.getBoolean("java3dview.simd")) {
+            return false;
+        }
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.andre.graphic.transform;
+
+import br.com.andre.graphic.Vector3;
+
+/**
+ * Parâmetros da câmera usados na transformação em lote, decompostos em escalares
+ * para que possam ser difundidos nas lanes SIMD sem acessar objetos {@link Vector3}.
+ */
+public class ViewTransform {
+    double eyeX, eyeY, eyeZ;
+    double rightX, rightY, rightZ;
+    double upX, upY, upZ;
+    double forwardX, forwardY, forwardZ;
+    double focalLength;
+    double halfWidth, halfHeight;
+    double screenWidth, screenHeight;
+    double nearPlaneZ;
+
+    /**
+     * Atualiza a transformação para a câmera e a tela atuais.
+     *
+     * @param eye          Posição da câmera.
+     * @param right        Vetor right da câmera.
+     * @param up           Vetor up da câmera.
+     * @param forward      Vetor de direção da câmera.
+     * @param fovDegrees   Campo de visão vertical, em graus.
+     * @param screenWidth  Largura da tela.
+     * @param screenHeight Altura da tela.
+     * @param nearPlaneZ   Distância do plano próximo.
+     */
+    public void set(Vector3 eye, Vector3 right, Vector3 up, Vector3 forward,
+                    double fovDegrees, int screenWidth, int screenHeight, double nearPlaneZ) {
+        this.eyeX = eye.getX();
+        this.eyeY = eye.getY();
+        this.eyeZ = eye.getZ();
+        this.rightX = right.getX();
+        this.rightY = right.getY();
+        this.rightZ = right.getZ();
+        this.upX = up.getX();
+        this.upY = up.getY();
+        this.upZ = up.getZ();
+        this.forwardX = forward.getX();
+        this.forwardY = forward.getY();
+        this.forwardZ = forward.getZ();
+        this.focalLength = screenHeight / (2 * Math.tan(Math.toRadians(fovDegrees) / 2));
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.halfWidth = screenWidth / 2;
+        this.halfHeight = screenHeight / 2;
+        this.nearPlaneZ = nearPlaneZ;
+    }
+
+    public double getFocalLength() {
+        return focalLength;
+    }
+
+    public double getNearPlaneZ() {
+        return nearPlaneZ;
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.andre.job;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uma tarefa de um {@link JobGraph}: um trabalho e as tarefas que só podem começar depois dele.
+ * <p>
+ * Criada por {@link JobGraph#add(String, Runnable, Job...)}; as dependências são fixas, então o
+ * mesmo grafo pode ser executado a cada frame.
+ */
+public final class Job {
+    private final JobGraph graph;
+    private final String name;
+    private final Runnable work;
+    private final int dependencyCount;
+    private final List<Job> successors = new ArrayList<>();
+
+    // Dependências ainda não concluídas na execução atual do grafo
+    private final AtomicInteger remaining = new AtomicInteger();
+    private volatile long lastNanos;
+
+    Job(JobGraph graph, String name, Runnable work, int dependencyCount) {
+        this.graph = graph;
+        this.name = name;
+        this.work = work;
+        this.dependencyCount = dependencyCount;
+    }
+
+    /**
+     * Executa o trabalho e mede sua duração.
+     */
+    void execute() {
+        long start = System.nanoTime();
+        work.run();
+        lastNanos = System.nanoTime() - start;
+    }
+
+    void reset() {
+        remaining.set(dependencyCount);
+    }
+
+    /**
+     * Marca uma dependência como concluída.
+     *
+     * @return true se esta era a última e a tarefa pode começar.
+     */
+    boolean dependencyDone() {
+        return remaining.decrementAndGet() == 0;
+    }
+
+    void addSuccessor(Job successor) {
+        successors.add(successor);
+    }
+
+    List<Job> getSuccessors() {
+        return successors;
+    }
+
+    JobGraph getGraph() {
+        return graph;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return O número de tarefas das quais esta depende.
+     */
+    public int getDependencyCount() {
+        return dependencyCount;
+    }
+
+    /**
+     * @return A duração do trabalho na última execução do grafo (em nanossegundos).
+     */
+    public long getLastNanos() {
+        return lastNanos;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.andre.job;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Um grafo de tarefas com dependências explícitas, executado por um {@link JobSystem}.
+ * <p>
+ * Cada tarefa só pode depender de tarefas já adicionadas, então o grafo nunca tem ciclos e a ordem
+ * de inserção é sempre uma ordem válida de execução (a usada quando não há threads extras). Tarefas
+ * sem dependência entre si podem rodar ao mesmo tempo, então não devem escrever nos mesmos dados.
+ * O grafo é montado uma vez e executado quantas vezes for preciso, mas uma execução por vez.
+ */
+public class JobGraph {
+    private final List<Job> jobs = new ArrayList<>();
+    private final List<Job> readOnlyJobs = Collections.unmodifiableList(jobs);
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Adiciona uma tarefa ao grafo.
+     *
+     * @param name         O nome da tarefa, para diagnóstico.
+     * @param work         O trabalho.
+     * @param dependencies As tarefas que precisam terminar antes desta começar.
+     * @return A tarefa criada, para ser usada como dependência das próximas.
+     */
+    public Job add(String name, Runnable work, Job... dependencies) {
+        if (work == null) {
+            throw new IllegalArgumentException("O trabalho da tarefa não pode ser nulo.");
+        }
+        for (Job dependency : dependencies) {
+            if (dependency == null || dependency.getGraph() != this) {
+                throw new IllegalArgumentException("A dependência da tarefa '" + name + "' não pertence a este grafo.");
+            }
+        }
+
+        Job job = new Job(this, name, work, dependencies.length);
+        for (Job dependency : dependencies) {
+            dependency.addSuccessor(job);
+        }
+        jobs.add(job);
+        return job;
+    }
+
+    /**
+     * @return As tarefas na ordem em que foram adicionadas.
+     */
+    public List<Job> getJobs() {
+        return readOnlyJobs;
+    }
+
+    public int size() {
+        return jobs.size();
+    }
+
+    boolean begin() {
+        return running.compareAndSet(false, true);
+    }
+
+    void end() {
+        running.set(false);
+    }
+}
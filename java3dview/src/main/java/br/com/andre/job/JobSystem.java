@@ -0,0 +1,246 @@
+package br.com.andre.job;
+
+import java.util.List;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de threads com roubo de trabalho compartilhado pelos subsistemas do motor.
+ * <p>
+ * Executa grafos de tarefas ({@link JobGraph}), em que cada tarefa é enviada ao pool assim que
+ * suas dependências terminam, e laços paralelos em blocos ({@link #parallelFor}). Um laço chamado
+ * de dentro de uma tarefa roda no mesmo pool: a thread da tarefa executa blocos enquanto espera,
+ * e as threads livres roubam os restantes. Com 1 thread tudo roda na thread chamadora, na ordem de
+ * inserção do grafo.
+ */
+public class JobSystem {
+    /**
+     * Tarefa executada sobre um bloco de índices.
+     */
+    @FunctionalInterface
+    public interface RangeTask {
+        void run(int chunk, int from, int to);
+    }
+
+    private static JobSystem shared;
+
+    private final ForkJoinPool pool;
+    private final int threadCount;
+    private final boolean sharedInstance;
+
+    /**
+     * @param threads O número de threads; 1 executa tudo na thread chamadora.
+     */
+    public JobSystem(int threads) {
+        this(threads, false);
+    }
+
+    private JobSystem(int threads, boolean sharedInstance) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("O número de threads deve ser ao menos 1.");
+        }
+        this.threadCount = threads;
+        this.sharedInstance = sharedInstance;
+        this.pool = threads > 1 ? new ForkJoinPool(threads, JobSystem::newWorker, null, false) : null;
+    }
+
+    /**
+     * @return O sistema compartilhado do processo, com uma thread por processador. Não é encerrado
+     * por {@link #shutdown()}.
+     */
+    public static synchronized JobSystem shared() {
+        if (shared == null) {
+            shared = new JobSystem(Runtime.getRuntime().availableProcessors(), true);
+        }
+        return shared;
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("java3dview-job-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * @return O número de blocos em que {@code count} itens serão divididos.
+     */
+    public static int chunkCount(int count, int chunkSize) {
+        return (count + chunkSize - 1) / chunkSize;
+    }
+
+    /**
+     * Executa a tarefa sobre {@code [0, count)} em blocos de {@code chunkSize} itens e aguarda o término.
+     * <p>
+     * A divisão depende apenas do número de itens e do tamanho do bloco, nunca do número de
+     * threads, para que os resultados gravados por bloco possam ser combinados sempre na mesma ordem.
+     */
+    public void parallelFor(int count, int chunkSize, RangeTask task) {
+        int chunks = chunkCount(count, chunkSize);
+        if (pool == null || chunks <= 1) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                task.run(chunk, chunk * chunkSize, Math.min(count, (chunk + 1) * chunkSize));
+            }
+            return;
+        }
+        invoke(new RangeRoot(task, count, chunkSize, chunks));
+    }
+
+    /**
+     * Executa todas as tarefas do grafo respeitando as dependências e aguarda o término. Se uma
+     * tarefa falhar, as que dependem dela não rodam e a exceção é relançada aqui.
+     *
+     * @param graph O grafo.
+     */
+    public void run(JobGraph graph) {
+        if (!graph.begin()) {
+            throw new IllegalStateException("O grafo de tarefas já está em execução.");
+        }
+        try {
+            List<Job> jobs = graph.getJobs();
+            if (pool == null || jobs.size() <= 1) {
+                for (Job job : jobs) {
+                    job.execute();
+                }
+                return;
+            }
+            for (Job job : jobs) {
+                job.reset();
+            }
+            try {
+                invoke(new GraphRoot(jobs));
+            } catch (RuntimeException | Error e) {
+                // Tarefas independentes da que falhou ainda podem estar rodando
+                pool.awaitQuiescence(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        } finally {
+            graph.end();
+        }
+    }
+
+    private void invoke(ForkJoinTask<?> task) {
+        // De dentro do próprio pool a thread atual ajuda a executar, em vez de bloquear
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * Libera as threads do pool.
+     */
+    public void shutdown() {
+        if (pool != null && !sharedInstance) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Raiz de uma execução do grafo: completa quando todas as tarefas completarem.
+     */
+    @SuppressWarnings("serial")
+    private static final class GraphRoot extends CountedCompleter<Void> {
+        private final List<Job> jobs;
+
+        GraphRoot(List<Job> jobs) {
+            this.jobs = jobs;
+            setPendingCount(jobs.size() - 1);
+        }
+
+        @Override
+        public void compute() {
+            for (Job job : jobs) {
+                if (job.getDependencyCount() == 0) {
+                    new JobTask(this, job).fork();
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class JobTask extends CountedCompleter<Void> {
+        private final GraphRoot root;
+        private final Job job;
+
+        JobTask(GraphRoot root, Job job) {
+            super(root);
+            this.root = root;
+            this.job = job;
+        }
+
+        @Override
+        public void compute() {
+            job.execute();
+            // As sucessoras prontas vão para a fila desta thread; as threads livres as roubam
+            for (Job successor : job.getSuccessors()) {
+                if (successor.dependencyDone()) {
+                    new JobTask(root, successor).fork();
+                }
+            }
+            tryComplete();
+        }
+    }
+
+    /**
+     * Raiz de um laço paralelo: envia os blocos 1..n-1 ao pool e executa o bloco 0.
+     */
+    @SuppressWarnings("serial")
+    private static final class RangeRoot extends CountedCompleter<Void> {
+        private final RangeTask task;
+        private final int count;
+        private final int chunkSize;
+        private final int chunks;
+
+        RangeRoot(RangeTask task, int count, int chunkSize, int chunks) {
+            this.task = task;
+            this.count = count;
+            this.chunkSize = chunkSize;
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void compute() {
+            setPendingCount(chunks - 1);
+            for (int chunk = 1; chunk < chunks; chunk++) {
+                new RangeChunk(this, task, chunk, chunk * chunkSize, Math.min(count, (chunk + 1) * chunkSize)).fork();
+            }
+            task.run(0, 0, Math.min(count, chunkSize));
+            tryComplete();
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RangeChunk extends CountedCompleter<Void> {
+        private final RangeTask task;
+        private final int chunk;
+        private final int from;
+        private final int to;
+
+        RangeChunk(RangeRoot root, RangeTask task, int chunk, int from, int to) {
+            super(root);
+            this.task = task;
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public void compute() {
+            task.run(chunk, from, to);
+            tryComplete();
+        }
+    }
+}
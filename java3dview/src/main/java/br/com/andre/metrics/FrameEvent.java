@@ -0,0 +1,35 @@
+package br.com.andre.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento do JDK Flight Recorder para cada frame do jogo. A duração do evento cobre a atualização
+ * da simulação; o intervalo desde o frame anterior é o tempo de frame percebido.
+ */
+@Name("br.com.andre.Frame")
+@Label("Frame")
+@Category({"Java3DView"})
+@Description("Atualização de um frame do jogo")
+@StackTrace(false)
+public class FrameEvent extends Event {
+    @Label("Intervalo do frame")
+    @Timespan(Timespan.NANOSECONDS)
+    long frameInterval;
+
+    @Label("Passos fixos")
+    int steps;
+
+    public void setFrameInterval(long frameInterval) {
+        this.frameInterval = frameInterval;
+    }
+
+    public void setSteps(int steps) {
+        this.steps = steps;
+    }
+}
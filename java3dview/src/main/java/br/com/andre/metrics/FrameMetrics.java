@@ -0,0 +1,120 @@
+package br.com.andre.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramas das durações de cada etapa do loop do jogo e valores instantâneos (gauges) do motor.
+ * Os histogramas são cumulativos até {@link #snapshotAndReset()}; para medir um intervalo sem
+ * zerar, use {@link HistogramSnapshot#since(HistogramSnapshot)} entre duas cópias.
+ * <p>
+ * A thread do jogo só escreve em contadores atômicos, então a leitura de outra thread (como o
+ * {@link MetricsServer}) nunca a bloqueia.
+ */
+public class FrameMetrics {
+    /**
+     * As etapas medidas.
+     */
+    public enum Stage {
+        /** Intervalo entre dois frames consecutivos. */
+        FRAME,
+        /** Todos os passos fixos executados em um frame. */
+        UPDATE,
+        /** Um passo do {@code PhysicsEngine}. */
+        PHYSICS,
+        /** Um {@code Renderer.render}. */
+        RENDER,
+        /** Atraso entre um evento de tecla e o passo da simulação que o consome. */
+        INPUT
+    }
+
+    /**
+     * Valores publicados pelo motor a cada passo ou frame.
+     */
+    public enum Gauge {
+        /** Corpos rígidos no motor de física. */
+        BODIES,
+        /** Pares candidatos da broadphase no último passo. */
+        CANDIDATE_PAIRS,
+        /** Pares em contato no último passo. */
+        CONTACT_PAIRS,
+        /** Polígonos desenhados no último frame. */
+        POLYGONS_DRAWN,
+        /** Nós da BSP visitados no último frame. */
+        BSP_NODES_VISITED,
+        /** Entidades vivas no {@code EntityWorld} da simulação. */
+        ENTITIES
+    }
+
+    private final LogHistogram[] histograms = new LogHistogram[Stage.values().length];
+    private final AtomicLongArray gauges = new AtomicLongArray(Gauge.values().length);
+    private volatile long periodStart = System.nanoTime();
+
+    public FrameMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LogHistogram();
+        }
+    }
+
+    /**
+     * Registra a duração de uma etapa.
+     *
+     * @param stage A etapa.
+     * @param nanos A duração (em nanossegundos).
+     */
+    public void record(Stage stage, long nanos) {
+        histograms[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * Publica o valor atual de um gauge. A escrita é ordenada, mas não espera leitores.
+     *
+     * @param gauge O gauge.
+     * @param value O valor.
+     */
+    public void setGauge(Gauge gauge, long value) {
+        gauges.lazySet(gauge.ordinal(), value);
+    }
+
+    public long getGauge(Gauge gauge) {
+        return gauges.get(gauge.ordinal());
+    }
+
+    public LogHistogram getHistogram(Stage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    /**
+     * @return Uma cópia de todos os histogramas, sem zerar.
+     */
+    public MetricsSnapshot snapshot() {
+        Map<Stage, HistogramSnapshot> snapshots = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            snapshots.put(stage, histograms[stage.ordinal()].snapshot());
+        }
+        return new MetricsSnapshot(snapshots, copyGauges(), System.nanoTime() - periodStart);
+    }
+
+    /**
+     * @return Uma cópia de todos os histogramas; os dados são zerados e um novo período começa.
+     */
+    public MetricsSnapshot snapshotAndReset() {
+        Map<Stage, HistogramSnapshot> snapshots = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            snapshots.put(stage, histograms[stage.ordinal()].snapshotAndReset());
+        }
+        long now = System.nanoTime();
+        long period = now - periodStart;
+        periodStart = now;
+        return new MetricsSnapshot(snapshots, copyGauges(), period);
+    }
+
+    private long[] copyGauges() {
+        long[] copy = new long[gauges.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = gauges.get(i);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,106 @@
+package br.com.andre.metrics;
+
+/**
+ * Cópia imutável dos dados de um {@link LogHistogram}, com os percentis calculados sobre os buckets.
+ */
+public class HistogramSnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long sum, long min, long max) {
+        this.counts = counts;
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        this.count = total;
+        this.sum = sum;
+        this.min = total == 0 ? 0 : min;
+        this.max = total == 0 ? 0 : max;
+    }
+
+    /**
+     * Calcula a diferença em relação a uma cópia anterior do mesmo histograma cumulativo, isto é,
+     * as amostras registradas entre as duas. Os extremos do intervalo são estimados pelos buckets.
+     *
+     * @param earlier A cópia anterior.
+     * @return As amostras do intervalo.
+     */
+    public HistogramSnapshot since(HistogramSnapshot earlier) {
+        long[] delta = new long[counts.length];
+        int first = -1, last = -1;
+        for (int i = 0; i < counts.length; i++) {
+            delta[i] = counts[i] - earlier.counts[i];
+            if (delta[i] > 0) {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+            }
+        }
+        if (first < 0) {
+            return new HistogramSnapshot(delta, 0, 0, 0);
+        }
+        long deltaMin = Math.max(min, LogHistogram.bucketLowerBound(first));
+        long deltaMax = Math.min(max, LogHistogram.bucketUpperBound(last));
+        return new HistogramSnapshot(delta, sum - earlier.sum, deltaMin, deltaMax);
+    }
+
+    /**
+     * Percentil pelo posto mais próximo, retornando o limite superior do bucket (limitado ao
+     * máximo registrado).
+     *
+     * @param percent O percentil (0 a 100).
+     * @return O valor (em nanossegundos), ou 0 sem amostras.
+     */
+    public long percentile(double percent) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percent / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(max, LogHistogram.bucketUpperBound(i)));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * @return O número de amostras com valor até {@code value}, contando buckets inteiros (o limite
+     * é arredondado para o bucket que o contém).
+     */
+    public long countAtOrBelow(long value) {
+        int index = LogHistogram.bucketIndex(Math.max(0, value));
+        long total = 0;
+        for (int i = 0; i <= index; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+}
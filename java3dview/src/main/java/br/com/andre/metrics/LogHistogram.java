@@ -0,0 +1,91 @@
+package br.com.andre.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de durações (em nanossegundos) com buckets logarítmicos, sem travas.
+ * <p>
+ * Cada potência de dois é dividida em {@link #SUB_BUCKETS} buckets lineares, o que limita o erro
+ * relativo dos percentis a 1/8 (12,5%) com um array fixo de poucas centenas de contadores.
+ * {@link #record(long)} só faz incrementos atômicos e pode ser chamado de qualquer thread, sem
+ * alocar.
+ */
+public class LogHistogram {
+    static final int SUB_BUCKET_BITS = 3;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Registra uma amostra. Valores negativos contam como zero.
+     *
+     * @param value A duração (em nanossegundos).
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketIndex(value));
+        sum.addAndGet(value);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * @return Uma cópia dos dados acumulados.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new HistogramSnapshot(copy, sum.get(), min.get(), max.get());
+    }
+
+    /**
+     * Copia e zera os dados. Cada amostra entra em exatamente uma cópia; com gravações
+     * concorrentes, a soma e os extremos de uma amostra podem cair na cópia seguinte.
+     *
+     * @return Os dados acumulados até aqui.
+     */
+    public HistogramSnapshot snapshotAndReset() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.getAndSet(i, 0);
+        }
+        return new HistogramSnapshot(copy, sum.getAndSet(0), min.getAndSet(Long.MAX_VALUE), max.getAndSet(0));
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return O menor valor que cai no bucket.
+     */
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * @return O maior valor que cai no bucket.
+     */
+    static long bucketUpperBound(int index) {
+        return index == BUCKET_COUNT - 1 ? Long.MAX_VALUE : bucketLowerBound(index + 1) - 1;
+    }
+}
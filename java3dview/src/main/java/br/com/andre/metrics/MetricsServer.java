@@ -0,0 +1,218 @@
+package br.com.andre.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Endpoint HTTP local ({@code http://127.0.0.1:<porta>/metrics}) que expõe o {@link FrameMetrics}
+ * e o estado da JVM no formato de texto do Prometheus.
+ * <p>
+ * É opcional: só é iniciado com {@code -Djava3dview.metrics.port=<porta>} e só aceita conexões da
+ * própria máquina. As requisições são atendidas em uma thread própria que apenas lê contadores
+ * atômicos, então uma coleta nunca bloqueia o loop do jogo.
+ * <p>
+ * Os tempos são resumos (summary): os quantis cobrem as amostras desde a coleta anterior, enquanto
+ * {@code _sum} e {@code _count} são cumulativos. A alocação vem da soma por thread da JVM e pode
+ * perder o que foi alocado por threads já encerradas.
+ */
+public class MetricsServer implements Closeable {
+    public static final String PORT_PROPERTY = "java3dview.metrics.port";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final FrameMetrics metrics;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // Estado da thread do servidor
+    private final Map<FrameMetrics.Stage, HistogramSnapshot> previous = new EnumMap<>(FrameMetrics.Stage.class);
+    private Map<Long, Long> threadAllocatedBytes = new HashMap<>();
+    private Map<Long, Long> nextThreadAllocatedBytes = new HashMap<>();
+    private long allocatedBytes;
+
+    /**
+     * Inicia o servidor.
+     *
+     * @param metrics As métricas expostas.
+     * @param port    A porta local (0 escolhe uma porta livre).
+     * @throws IOException Se a porta não puder ser aberta.
+     */
+    public MetricsServer(FrameMetrics metrics, int port) throws IOException {
+        this.metrics = metrics;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", this::handle);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "java3dview-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        for (FrameMetrics.Stage stage : FrameMetrics.Stage.values()) {
+            previous.put(stage, metrics.getHistogram(stage).snapshot());
+        }
+        server.start();
+    }
+
+    /**
+     * Inicia o servidor se a propriedade {@value #PORT_PROPERTY} estiver definida.
+     *
+     * @param metrics As métricas expostas.
+     * @return O servidor, ou null se desabilitado ou se não puder ser iniciado.
+     */
+    public static MetricsServer startIfEnabled(FrameMetrics metrics) {
+        String port = System.getProperty(PORT_PROPERTY);
+        if (port == null || port.isEmpty()) {
+            return null;
+        }
+        try {
+            return new MetricsServer(metrics, Integer.parseInt(port));
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        }
+    }
+
+    /**
+     * Gera o texto de uma coleta.
+     */
+    String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        appendSummary(out, snapshot, FrameMetrics.Stage.FRAME, "java3dview_frame_interval_seconds", "Intervalo entre frames consecutivos.");
+        appendSummary(out, snapshot, FrameMetrics.Stage.UPDATE, "java3dview_update_seconds", "Tempo dos passos fixos de um frame.");
+        appendSummary(out, snapshot, FrameMetrics.Stage.PHYSICS, "java3dview_physics_step_seconds", "Tempo de um passo da física.");
+        appendSummary(out, snapshot, FrameMetrics.Stage.RENDER, "java3dview_render_seconds", "Tempo de renderização de um frame.");
+        appendSummary(out, snapshot, FrameMetrics.Stage.INPUT, "java3dview_input_latency_seconds", "Atraso entre um evento de tecla e o passo que o consome.");
+
+        appendGauge(out, "java3dview_bodies", "Corpos rígidos no motor de física.", snapshot.getGauge(FrameMetrics.Gauge.BODIES));
+        appendGauge(out, "java3dview_candidate_pairs", "Pares candidatos da broadphase no último passo.", snapshot.getGauge(FrameMetrics.Gauge.CANDIDATE_PAIRS));
+        appendGauge(out, "java3dview_contact_pairs", "Pares em contato no último passo.", snapshot.getGauge(FrameMetrics.Gauge.CONTACT_PAIRS));
+        appendGauge(out, "java3dview_polygons_drawn", "Polígonos desenhados no último frame.", snapshot.getGauge(FrameMetrics.Gauge.POLYGONS_DRAWN));
+        appendGauge(out, "java3dview_bsp_nodes_visited", "Nós da BSP visitados no último frame.", snapshot.getGauge(FrameMetrics.Gauge.BSP_NODES_VISITED));
+        appendGauge(out, "java3dview_entities", "Entidades vivas na simulação.", snapshot.getGauge(FrameMetrics.Gauge.ENTITIES));
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        appendGauge(out, "java3dview_jvm_heap_used_bytes", "Heap em uso.", heap.getUsed());
+        appendGauge(out, "java3dview_jvm_heap_committed_bytes", "Heap reservado pela JVM.", heap.getCommitted());
+        appendGauge(out, "java3dview_jvm_heap_max_bytes", "Tamanho máximo do heap.", heap.getMax());
+
+        if (updateAllocatedBytes()) {
+            out.append("# HELP java3dview_jvm_allocated_bytes_total Bytes alocados pelas threads.\n");
+            out.append("# TYPE java3dview_jvm_allocated_bytes_total counter\n");
+            out.append("java3dview_jvm_allocated_bytes_total ").append(allocatedBytes).append('\n');
+        }
+
+        out.append("# HELP java3dview_jvm_gc_collections_total Coletas de lixo por coletor.\n");
+        out.append("# TYPE java3dview_jvm_gc_collections_total counter\n");
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            out.append("java3dview_jvm_gc_collections_total{gc=\"").append(escape(collector.getName())).append("\"} ")
+                    .append(Math.max(0, collector.getCollectionCount())).append('\n');
+        }
+        out.append("# HELP java3dview_jvm_gc_seconds_total Tempo acumulado de coleta por coletor.\n");
+        out.append("# TYPE java3dview_jvm_gc_seconds_total counter\n");
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            out.append("java3dview_jvm_gc_seconds_total{gc=\"").append(escape(collector.getName())).append("\"} ")
+                    .append(Math.max(0, collector.getCollectionTime()) / 1000.0).append('\n');
+        }
+        return out.toString();
+    }
+
+    private void appendSummary(StringBuilder out, MetricsSnapshot snapshot, FrameMetrics.Stage stage, String name, String help) {
+        HistogramSnapshot total = snapshot.get(stage);
+        HistogramSnapshot window = total.since(previous.get(stage));
+        previous.put(stage, total);
+
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" summary\n");
+        for (double quantile : QUANTILES) {
+            out.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                    .append(window.percentile(quantile * 100) / NANOS_PER_SECOND).append('\n');
+        }
+        out.append(name).append("_sum ").append(total.getSum() / NANOS_PER_SECOND).append('\n');
+        out.append(name).append("_count ").append(total.getCount()).append('\n');
+    }
+
+    private static void appendGauge(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Soma ao contador de alocação o quanto cada thread viva alocou desde a coleta anterior. Threads
+     * que terminaram saem do mapa sem descontar o que já foi somado, então o contador só cresce; o
+     * que uma thread aloca entre a última coleta e o seu fim não é contado.
+     *
+     * @return false se a JVM não mede a alocação por thread.
+     */
+    private boolean updateAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean sunThreads) || !sunThreads.isThreadAllocatedMemoryEnabled()) {
+            return false;
+        }
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = sunThreads.getThreadAllocatedBytes(ids);
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] < 0) {
+                continue; // A thread terminou durante a consulta
+            }
+            long delta = bytes[i] - threadAllocatedBytes.getOrDefault(ids[i], 0L);
+            if (delta > 0) {
+                allocatedBytes += delta;
+            }
+            nextThreadAllocatedBytes.put(ids[i], bytes[i]);
+        }
+        // Troca os mapas: as threads que não aparecem mais ficam de fora
+        Map<Long, Long> swap = threadAllocatedBytes;
+        threadAllocatedBytes = nextThreadAllocatedBytes;
+        nextThreadAllocatedBytes = swap;
+        nextThreadAllocatedBytes.clear();
+        return true;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.andre.metrics;
+
+import java.util.Map;
+
+/**
+ * Cópia dos histogramas e gauges do {@link FrameMetrics} e da duração do período que os
+ * histogramas cobrem.
+ */
+public class MetricsSnapshot {
+    private final Map<FrameMetrics.Stage, HistogramSnapshot> histograms;
+    private final long[] gauges;
+    private final long periodNanos;
+
+    MetricsSnapshot(Map<FrameMetrics.Stage, HistogramSnapshot> histograms, long[] gauges, long periodNanos) {
+        this.histograms = histograms;
+        this.gauges = gauges;
+        this.periodNanos = periodNanos;
+    }
+
+    public HistogramSnapshot get(FrameMetrics.Stage stage) {
+        return histograms.get(stage);
+    }
+
+    public long getGauge(FrameMetrics.Gauge gauge) {
+        return gauges[gauge.ordinal()];
+    }
+
+    /**
+     * @return O tempo (em nanossegundos) desde a criação ou o último reset das métricas.
+     */
+    public long getPeriodNanos() {
+        return periodNanos;
+    }
+}
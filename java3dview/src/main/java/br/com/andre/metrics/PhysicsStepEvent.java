@@ -0,0 +1,39 @@
+package br.com.andre.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento do JDK Flight Recorder para cada passo do {@code PhysicsEngine}.
+ */
+@Name("br.com.andre.PhysicsStep")
+@Label("Passo da física")
+@Category({"Java3DView"})
+@Description("Um passo de integração, colisão e solver")
+@StackTrace(false)
+public class PhysicsStepEvent extends Event {
+    @Label("Corpos rígidos")
+    int bodies;
+
+    @Label("Pares candidatos")
+    int candidatePairs;
+
+    @Label("Pares em contato")
+    int contactPairs;
+
+    public void setBodies(int bodies) {
+        this.bodies = bodies;
+    }
+
+    public void setCandidatePairs(int candidatePairs) {
+        this.candidatePairs = candidatePairs;
+    }
+
+    public void setContactPairs(int contactPairs) {
+        this.contactPairs = contactPairs;
+    }
+}
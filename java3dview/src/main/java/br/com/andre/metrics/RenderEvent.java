@@ -0,0 +1,51 @@
+package br.com.andre.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento do JDK Flight Recorder para cada {@code Renderer.render}, com o tempo de cada etapa.
+ */
+@Name("br.com.andre.Render")
+@Label("Renderização")
+@Category({"Java3DView"})
+@Description("Renderização de um frame")
+@StackTrace(false)
+public class RenderEvent extends Event {
+    @Label("Polígonos desenhados")
+    int polygonsDrawn;
+
+    @Label("Nós da BSP visitados")
+    int nodesVisited;
+
+    @Label("Coleta na BSP")
+    @Timespan(Timespan.NANOSECONDS)
+    long collect;
+
+    @Label("Transformação")
+    @Timespan(Timespan.NANOSECONDS)
+    long transform;
+
+    @Label("Rasterização")
+    @Timespan(Timespan.NANOSECONDS)
+    long raster;
+
+    public void setPolygonsDrawn(int polygonsDrawn) {
+        this.polygonsDrawn = polygonsDrawn;
+    }
+
+    public void setNodesVisited(int nodesVisited) {
+        this.nodesVisited = nodesVisited;
+    }
+
+    public void setStages(long collect, long transform, long raster) {
+        this.collect = collect;
+        this.transform = transform;
+        this.raster = raster;
+    }
+}
@@ -0,0 +1,223 @@
+package br.com.andre.physic;
+
+import br.com.andre.collision.collider_object.SphereCollider;
+
+import java.util.Arrays;
+
+/**
+ * Armazenamento em estrutura de arrays (SoA) do estado dos corpos rígidos.
+ * <p>
+ * Posições, velocidades, forças acumuladas, massas inversas e raios ficam em arrays primitivos
+ * indexados pelo identificador do corpo; cada {@link RigidBody} é apenas um handle para um índice.
+ * A integração é um laço sobre os arrays, sem alocar objetos por corpo. A remoção move o último
+ * corpo para o índice liberado e atualiza o handle correspondente.
+ */
+public class BodyStore {
+    private static final double DAMPING = 0.98;
+
+    double[] positionX, positionY, positionZ;
+    double[] previousX, previousY, previousZ;
+    double[] velocityX, velocityY, velocityZ;
+    double[] forceX, forceY, forceZ;
+    double[] mass, inverseMass, radius;
+    double[] sleepTime;
+    boolean[] awake;
+    boolean[] sleepAllowed;
+    SphereCollider[] colliders;
+    RigidBody[] handles;
+    private int size;
+
+    public BodyStore() {
+        this(64);
+    }
+
+    public BodyStore(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * Reserva um índice para um corpo.
+     *
+     * @return O índice reservado.
+     */
+    int allocate(RigidBody handle, SphereCollider collider, double x, double y, double z, double bodyMass) {
+        if (size == positionX.length) {
+            grow(size * 2);
+        }
+        int index = size++;
+        positionX[index] = x;
+        positionY[index] = y;
+        positionZ[index] = z;
+        previousX[index] = x;
+        previousY[index] = y;
+        previousZ[index] = z;
+        velocityX[index] = 0;
+        velocityY[index] = 0;
+        velocityZ[index] = 0;
+        forceX[index] = 0;
+        forceY[index] = 0;
+        forceZ[index] = 0;
+        mass[index] = bodyMass;
+        inverseMass[index] = bodyMass > 0 ? 1.0 / bodyMass : 0.0;
+        radius[index] = collider.getRadius();
+        sleepTime[index] = 0;
+        awake[index] = true;
+        sleepAllowed[index] = true;
+        colliders[index] = collider;
+        handles[index] = handle;
+        return index;
+    }
+
+    /**
+     * Libera o índice de um corpo, movendo o último corpo para o seu lugar.
+     */
+    void release(int index) {
+        int last = --size;
+        if (index != last) {
+            copy(this, last, index);
+            handles[index].index = index;
+        }
+        colliders[last] = null;
+        handles[last] = null;
+    }
+
+    /**
+     * Copia todo o estado de um corpo para outro armazenamento.
+     */
+    static void copy(BodyStore from, int fromIndex, BodyStore to, int toIndex) {
+        to.positionX[toIndex] = from.positionX[fromIndex];
+        to.positionY[toIndex] = from.positionY[fromIndex];
+        to.positionZ[toIndex] = from.positionZ[fromIndex];
+        to.previousX[toIndex] = from.previousX[fromIndex];
+        to.previousY[toIndex] = from.previousY[fromIndex];
+        to.previousZ[toIndex] = from.previousZ[fromIndex];
+        to.velocityX[toIndex] = from.velocityX[fromIndex];
+        to.velocityY[toIndex] = from.velocityY[fromIndex];
+        to.velocityZ[toIndex] = from.velocityZ[fromIndex];
+        to.forceX[toIndex] = from.forceX[fromIndex];
+        to.forceY[toIndex] = from.forceY[fromIndex];
+        to.forceZ[toIndex] = from.forceZ[fromIndex];
+        to.mass[toIndex] = from.mass[fromIndex];
+        to.inverseMass[toIndex] = from.inverseMass[fromIndex];
+        to.radius[toIndex] = from.radius[fromIndex];
+        to.sleepTime[toIndex] = from.sleepTime[fromIndex];
+        to.awake[toIndex] = from.awake[fromIndex];
+        to.sleepAllowed[toIndex] = from.sleepAllowed[fromIndex];
+        to.colliders[toIndex] = from.colliders[fromIndex];
+        to.handles[toIndex] = from.handles[fromIndex];
+    }
+
+    private static void copy(BodyStore store, int fromIndex, int toIndex) {
+        copy(store, fromIndex, store, toIndex);
+    }
+
+    /**
+     * Integra os corpos acordados no intervalo {@code [from, to)} com Euler semi-implícito,
+     * aplicando a gravidade, o damping e atualizando os colisores.
+     *
+     * @param from      O primeiro índice.
+     * @param to        O índice final (exclusivo).
+     * @param deltaTime A duração do passo.
+     * @param gravityX  A gravidade no eixo X.
+     * @param gravityY  A gravidade no eixo Y.
+     * @param gravityZ  A gravidade no eixo Z.
+     */
+    public void integrate(int from, int to, double deltaTime, double gravityX, double gravityY, double gravityZ) {
+        for (int i = from; i < to; i++) {
+            if (!awake[i]) {
+                continue;
+            }
+            integrateBody(i, deltaTime, gravityX * mass[i], gravityY * mass[i], gravityZ * mass[i]);
+        }
+    }
+
+    /**
+     * Integra um único corpo, somando uma força extra às forças acumuladas.
+     */
+    void integrateBody(int i, double deltaTime, double extraForceX, double extraForceY, double extraForceZ) {
+        double invMass = inverseMass[i];
+
+        previousX[i] = positionX[i];
+        previousY[i] = positionY[i];
+        previousZ[i] = positionZ[i];
+
+        double vx = (velocityX[i] + (forceX[i] + extraForceX) * invMass * deltaTime) * DAMPING;
+        double vy = (velocityY[i] + (forceY[i] + extraForceY) * invMass * deltaTime) * DAMPING;
+        double vz = (velocityZ[i] + (forceZ[i] + extraForceZ) * invMass * deltaTime) * DAMPING;
+        velocityX[i] = vx;
+        velocityY[i] = vy;
+        velocityZ[i] = vz;
+
+        double x = positionX[i] + vx * deltaTime;
+        double y = positionY[i] + vy * deltaTime;
+        double z = positionZ[i] + vz * deltaTime;
+        positionX[i] = x;
+        positionY[i] = y;
+        positionZ[i] = z;
+        colliders[i].updatePosition(x, y, z);
+
+        forceX[i] = 0;
+        forceY[i] = 0;
+        forceZ[i] = 0;
+    }
+
+    /**
+     * @return O número de corpos armazenados.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return O corpo armazenado no índice.
+     */
+    public RigidBody getBody(int index) {
+        return handles[index];
+    }
+
+    private void grow(int capacity) {
+        positionX = Arrays.copyOf(positionX, capacity);
+        positionY = Arrays.copyOf(positionY, capacity);
+        positionZ = Arrays.copyOf(positionZ, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        previousZ = Arrays.copyOf(previousZ, capacity);
+        velocityX = Arrays.copyOf(velocityX, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        velocityZ = Arrays.copyOf(velocityZ, capacity);
+        forceX = Arrays.copyOf(forceX, capacity);
+        forceY = Arrays.copyOf(forceY, capacity);
+        forceZ = Arrays.copyOf(forceZ, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+        inverseMass = Arrays.copyOf(inverseMass, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        sleepTime = Arrays.copyOf(sleepTime, capacity);
+        awake = Arrays.copyOf(awake, capacity);
+        sleepAllowed = Arrays.copyOf(sleepAllowed, capacity);
+        colliders = Arrays.copyOf(colliders, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+    }
+
+    private void allocate(int capacity) {
+        positionX = new double[capacity];
+        positionY = new double[capacity];
+        positionZ = new double[capacity];
+        previousX = new double[capacity];
+        previousY = new double[capacity];
+        previousZ = new double[capacity];
+        velocityX = new double[capacity];
+        velocityY = new double[capacity];
+        velocityZ = new double[capacity];
+        forceX = new double[capacity];
+        forceY = new double[capacity];
+        forceZ = new double[capacity];
+        mass = new double[capacity];
+        inverseMass = new double[capacity];
+        radius = new double[capacity];
+        sleepTime = new double[capacity];
+        awake = new boolean[capacity];
+        sleepAllowed = new boolean[capacity];
+        colliders = new SphereCollider[capacity];
+        handles = new RigidBody[capacity];
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.andre.physic;
+
+import br.com.andre.collision.ContactManifold;
+
+import java.util.Arrays;
+
+/**
+ * Contatos encontrados pela narrowphase em um bloco de pares, gravados sem sincronização
+ * por uma única thread e lidos depois na fase serial de resolução.
+ * <p>
+ * As variedades são reaproveitadas entre passos: {@link #acquire()} devolve a próxima variedade
+ * livre e {@link #commit(int)} a mantém apenas quando houve contato.
+ */
+class ContactBuffer {
+    private int[] pairIndices = new int[16];
+    private ContactManifold[] manifolds = new ContactManifold[16];
+    private int size;
+
+    ContactBuffer() {
+        for (int i = 0; i < manifolds.length; i++) {
+            manifolds[i] = new ContactManifold();
+        }
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    ContactManifold acquire() {
+        if (size == manifolds.length) {
+            int oldLength = manifolds.length;
+            pairIndices = Arrays.copyOf(pairIndices, oldLength * 2);
+            manifolds = Arrays.copyOf(manifolds, oldLength * 2);
+            for (int i = oldLength; i < manifolds.length; i++) {
+                manifolds[i] = new ContactManifold();
+            }
+        }
+        return manifolds[size];
+    }
+
+    void commit(int pairIndex) {
+        pairIndices[size] = pairIndex;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getPairIndex(int i) {
+        return pairIndices[i];
+    }
+
+    ContactManifold getManifold(int i) {
+        return manifolds[i];
+    }
+}
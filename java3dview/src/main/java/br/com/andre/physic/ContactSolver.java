@@ -0,0 +1,460 @@
+package br.com.andre.physic;
+
+import br.com.andre.collision.ContactManifold;
+
+import java.util.Arrays;
+
+/**
+ * Solver de contatos por impulsos sequenciais.
+ * <p>
+ * Os contatos de um passo são acumulados com {@link #addContact} e resolvidos juntos em
+ * {@link #solve(double)}: as iterações de velocidade aplicam impulsos normais (com restituição) e de
+ * atrito em dois eixos tangentes, com impulsos acumulados e limitados; as iterações de posição
+ * corrigem a penetração restante. Os impulsos acumulados são gravados de volta nas variedades, e
+ * as variedades que chegam com impulsos do passo anterior são aplicadas antes das iterações
+ * (warm starting), o que faz pilhas em repouso convergirem em poucas iterações.
+ * <p>
+ * Os corpos rígidos deste motor não giram, então cada contato atua apenas na velocidade linear.
+ * Corpos estáticos e corpos que não são {@link RigidBody} entram com massa inversa zero.
+ */
+public class ContactSolver {
+    /**
+     * Estratégia para corrigir a penetração entre corpos.
+     */
+    public enum PositionCorrection {
+        /**
+         * Soma à velocidade alvo um termo proporcional à penetração. Simples, mas injeta energia.
+         */
+        BAUMGARTE,
+        /**
+         * Corrige as posições em iterações separadas, sem alterar as velocidades.
+         */
+        SPLIT_IMPULSE
+    }
+
+    private int velocityIterations = 8;
+    private int positionIterations = 3;
+    private double friction = 0.3;
+    private double restitution = 0.0;
+    private double restitutionThreshold = 1.0;
+    private double baumgarte = 0.2;
+    private double linearSlop = 0.005;
+    private double maxCorrection = 0.2;
+    private boolean warmStarting = true;
+    private PositionCorrection positionCorrection = PositionCorrection.SPLIT_IMPULSE;
+
+    // Dados por variedade
+    private int manifoldCount;
+    private ContactManifold[] manifolds = new ContactManifold[16];
+    private RigidBody[] bodiesA = new RigidBody[16];
+    private RigidBody[] bodiesB = new RigidBody[16];
+    private double[] inverseMassA = new double[16];
+    private double[] inverseMassB = new double[16];
+    private double[] normalX = new double[16], normalY = new double[16], normalZ = new double[16];
+    private double[] tangent1X = new double[16], tangent1Y = new double[16], tangent1Z = new double[16];
+    private double[] tangent2X = new double[16], tangent2Y = new double[16], tangent2Z = new double[16];
+    private double[] startAX = new double[16], startAY = new double[16], startAZ = new double[16];
+    private double[] startBX = new double[16], startBY = new double[16], startBZ = new double[16];
+    private double[] depth = new double[16];
+    private int[] firstPoint = new int[16];
+
+    // Dados por ponto de contato
+    private int pointCount;
+    private double[] normalImpulse = new double[64];
+    private double[] tangentImpulse1 = new double[64];
+    private double[] tangentImpulse2 = new double[64];
+    private double[] velocityBias = new double[64];
+
+    /**
+     * Adiciona o contato entre dois corpos ao passo atual.
+     *
+     * @param bodyA    O primeiro corpo.
+     * @param bodyB    O segundo corpo.
+     * @param manifold Os contatos, com a normal apontando de B para A. Recebe os impulsos ao final de {@link #solve}.
+     */
+    public void addContact(PhysicsBody bodyA, PhysicsBody bodyB, ContactManifold manifold) {
+        RigidBody rigidA = asDynamic(bodyA);
+        RigidBody rigidB = asDynamic(bodyB);
+        if ((rigidA == null && rigidB == null) || manifold.getPointCount() == 0) {
+            return;
+        }
+        double invA = rigidA != null ? rigidA.getInverseMass() : 0;
+        double invB = rigidB != null ? rigidB.getInverseMass() : 0;
+        if (invA + invB == 0) {
+            return;
+        }
+
+        ensureManifoldCapacity(manifoldCount + 1);
+        ensurePointCapacity(pointCount + manifold.getPointCount());
+        int m = manifoldCount++;
+        manifolds[m] = manifold;
+        bodiesA[m] = rigidA;
+        bodiesB[m] = rigidB;
+        inverseMassA[m] = invA;
+        inverseMassB[m] = invB;
+        firstPoint[m] = pointCount;
+        pointCount += manifold.getPointCount();
+    }
+
+    /**
+     * Resolve todos os contatos adicionados desde a última chamada e esvazia o solver.
+     *
+     * @param deltaTime O passo da simulação (em segundos).
+     */
+    public void solve(double deltaTime) {
+        prepare(deltaTime);
+        for (int iteration = 0; iteration < velocityIterations; iteration++) {
+            solveVelocities();
+        }
+        storeImpulses();
+        if (positionCorrection == PositionCorrection.SPLIT_IMPULSE) {
+            for (int iteration = 0; iteration < positionIterations; iteration++) {
+                if (solvePositions()) {
+                    break;
+                }
+            }
+        }
+        clear();
+    }
+
+    /**
+     * Descarta os contatos adicionados sem resolvê-los.
+     */
+    public void clear() {
+        Arrays.fill(manifolds, 0, manifoldCount, null);
+        Arrays.fill(bodiesA, 0, manifoldCount, null);
+        Arrays.fill(bodiesB, 0, manifoldCount, null);
+        manifoldCount = 0;
+        pointCount = 0;
+    }
+
+    private static RigidBody asDynamic(PhysicsBody body) {
+        return !body.isStatic() && body instanceof RigidBody ? (RigidBody) body : null;
+    }
+
+    /**
+     * Calcula a base tangente, os termos de restituição e aplica os impulsos do passo anterior.
+     */
+    private void prepare(double deltaTime) {
+        for (int m = 0; m < manifoldCount; m++) {
+            ContactManifold manifold = manifolds[m];
+            double nx = manifold.getNormalX(), ny = manifold.getNormalY(), nz = manifold.getNormalZ();
+            normalX[m] = nx;
+            normalY[m] = ny;
+            normalZ[m] = nz;
+
+            // Base tangente fixa em função da normal, para que os impulsos guardados continuem válidos
+            double t1x, t1y, t1z;
+            if (Math.abs(nx) >= 0.57735) {
+                double inv = 1.0 / Math.sqrt(nx * nx + ny * ny);
+                t1x = ny * inv;
+                t1y = -nx * inv;
+                t1z = 0;
+            } else {
+                double inv = 1.0 / Math.sqrt(ny * ny + nz * nz);
+                t1x = 0;
+                t1y = nz * inv;
+                t1z = -ny * inv;
+            }
+            tangent1X[m] = t1x;
+            tangent1Y[m] = t1y;
+            tangent1Z[m] = t1z;
+            tangent2X[m] = ny * t1z - nz * t1y;
+            tangent2Y[m] = nz * t1x - nx * t1z;
+            tangent2Z[m] = nx * t1y - ny * t1x;
+
+            RigidBody a = bodiesA[m], b = bodiesB[m];
+            if (a != null) {
+                startAX[m] = a.store.positionX[a.index];
+                startAY[m] = a.store.positionY[a.index];
+                startAZ[m] = a.store.positionZ[a.index];
+            }
+            if (b != null) {
+                startBX[m] = b.store.positionX[b.index];
+                startBY[m] = b.store.positionY[b.index];
+                startBZ[m] = b.store.positionZ[b.index];
+            }
+            depth[m] = manifold.getMaxDepth();
+
+            double approach = relativeVelocity(m, nx, ny, nz);
+            double bias = approach < -restitutionThreshold ? -restitution * approach : 0;
+            double correctionBias = 0;
+            if (positionCorrection == PositionCorrection.BAUMGARTE) {
+                correctionBias = baumgarte / deltaTime * Math.max(depth[m] - linearSlop, 0);
+            }
+
+            int first = firstPoint[m];
+            for (int p = 0; p < manifold.getPointCount(); p++) {
+                int c = first + p;
+                velocityBias[c] = Math.max(bias, correctionBias);
+                if (warmStarting) {
+                    normalImpulse[c] = manifold.getNormalImpulse(p);
+                    tangentImpulse1[c] = manifold.getTangentImpulse1(p);
+                    tangentImpulse2[c] = manifold.getTangentImpulse2(p);
+                    applyImpulse(m,
+                            nx * normalImpulse[c] + t1x * tangentImpulse1[c] + tangent2X[m] * tangentImpulse2[c],
+                            ny * normalImpulse[c] + t1y * tangentImpulse1[c] + tangent2Y[m] * tangentImpulse2[c],
+                            nz * normalImpulse[c] + t1z * tangentImpulse1[c] + tangent2Z[m] * tangentImpulse2[c]);
+                } else {
+                    normalImpulse[c] = 0;
+                    tangentImpulse1[c] = 0;
+                    tangentImpulse2[c] = 0;
+                }
+            }
+        }
+    }
+
+    private void solveVelocities() {
+        for (int m = 0; m < manifoldCount; m++) {
+            double effectiveMass = 1.0 / (inverseMassA[m] + inverseMassB[m]);
+            double nx = normalX[m], ny = normalY[m], nz = normalZ[m];
+            int first = firstPoint[m];
+            int last = first + manifolds[m].getPointCount();
+            for (int c = first; c < last; c++) {
+                // Atrito primeiro, limitado pelo impulso normal atual
+                double maxFriction = friction * normalImpulse[c];
+                double vt1 = relativeVelocity(m, tangent1X[m], tangent1Y[m], tangent1Z[m]);
+                double old1 = tangentImpulse1[c];
+                tangentImpulse1[c] = clamp(old1 - vt1 * effectiveMass, -maxFriction, maxFriction);
+                double d1 = tangentImpulse1[c] - old1;
+                applyImpulse(m, tangent1X[m] * d1, tangent1Y[m] * d1, tangent1Z[m] * d1);
+
+                double vt2 = relativeVelocity(m, tangent2X[m], tangent2Y[m], tangent2Z[m]);
+                double old2 = tangentImpulse2[c];
+                tangentImpulse2[c] = clamp(old2 - vt2 * effectiveMass, -maxFriction, maxFriction);
+                double d2 = tangentImpulse2[c] - old2;
+                applyImpulse(m, tangent2X[m] * d2, tangent2Y[m] * d2, tangent2Z[m] * d2);
+
+                // Impulso normal acumulado nunca puxa os corpos um contra o outro
+                double vn = relativeVelocity(m, nx, ny, nz);
+                double oldNormal = normalImpulse[c];
+                normalImpulse[c] = Math.max(oldNormal + (velocityBias[c] - vn) * effectiveMass, 0);
+                double dn = normalImpulse[c] - oldNormal;
+                applyImpulse(m, nx * dn, ny * dn, nz * dn);
+            }
+        }
+    }
+
+    /**
+     * Corrige a penetração deslocando os corpos ao longo da normal.
+     *
+     * @return true se todas as penetrações já estiverem dentro da tolerância.
+     */
+    private boolean solvePositions() {
+        double maxError = 0;
+        for (int m = 0; m < manifoldCount; m++) {
+            RigidBody a = bodiesA[m], b = bodiesB[m];
+            double dx = 0, dy = 0, dz = 0;
+            if (a != null) {
+                dx += a.store.positionX[a.index] - startAX[m];
+                dy += a.store.positionY[a.index] - startAY[m];
+                dz += a.store.positionZ[a.index] - startAZ[m];
+            }
+            if (b != null) {
+                dx -= b.store.positionX[b.index] - startBX[m];
+                dy -= b.store.positionY[b.index] - startBY[m];
+                dz -= b.store.positionZ[b.index] - startBZ[m];
+            }
+            double nx = normalX[m], ny = normalY[m], nz = normalZ[m];
+            double penetration = depth[m] - (dx * nx + dy * ny + dz * nz);
+            maxError = Math.max(maxError, penetration);
+
+            double correction = clamp(baumgarte * (penetration - linearSlop), 0, maxCorrection);
+            if (correction == 0) {
+                continue;
+            }
+            double lambda = correction / (inverseMassA[m] + inverseMassB[m]);
+            if (a != null) {
+                double s = lambda * inverseMassA[m];
+                a.translate(nx * s, ny * s, nz * s);
+            }
+            if (b != null) {
+                double s = -lambda * inverseMassB[m];
+                b.translate(nx * s, ny * s, nz * s);
+            }
+        }
+        return maxError <= 3 * linearSlop;
+    }
+
+    private void storeImpulses() {
+        for (int m = 0; m < manifoldCount; m++) {
+            ContactManifold manifold = manifolds[m];
+            int first = firstPoint[m];
+            for (int p = 0; p < manifold.getPointCount(); p++) {
+                manifold.setNormalImpulse(p, normalImpulse[first + p]);
+                manifold.setTangentImpulse1(p, tangentImpulse1[first + p]);
+                manifold.setTangentImpulse2(p, tangentImpulse2[first + p]);
+            }
+        }
+    }
+
+    /**
+     * Velocidade de A relativa a B projetada na direção dada.
+     */
+    private double relativeVelocity(int m, double dirX, double dirY, double dirZ) {
+        double v = 0;
+        RigidBody a = bodiesA[m], b = bodiesB[m];
+        if (a != null) {
+            BodyStore s = a.store;
+            int i = a.index;
+            v += s.velocityX[i] * dirX + s.velocityY[i] * dirY + s.velocityZ[i] * dirZ;
+        }
+        if (b != null) {
+            BodyStore s = b.store;
+            int i = b.index;
+            v -= s.velocityX[i] * dirX + s.velocityY[i] * dirY + s.velocityZ[i] * dirZ;
+        }
+        return v;
+    }
+
+    /**
+     * Aplica o impulso em A e o impulso oposto em B.
+     */
+    private void applyImpulse(int m, double px, double py, double pz) {
+        RigidBody a = bodiesA[m], b = bodiesB[m];
+        if (a != null) {
+            double inv = inverseMassA[m];
+            BodyStore s = a.store;
+            int i = a.index;
+            s.velocityX[i] += px * inv;
+            s.velocityY[i] += py * inv;
+            s.velocityZ[i] += pz * inv;
+        }
+        if (b != null) {
+            double inv = inverseMassB[m];
+            BodyStore s = b.store;
+            int i = b.index;
+            s.velocityX[i] -= px * inv;
+            s.velocityY[i] -= py * inv;
+            s.velocityZ[i] -= pz * inv;
+        }
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(value, max));
+    }
+
+    private void ensureManifoldCapacity(int capacity) {
+        if (capacity <= manifolds.length) {
+            return;
+        }
+        int n = Math.max(capacity, manifolds.length * 2);
+        manifolds = Arrays.copyOf(manifolds, n);
+        bodiesA = Arrays.copyOf(bodiesA, n);
+        bodiesB = Arrays.copyOf(bodiesB, n);
+        inverseMassA = Arrays.copyOf(inverseMassA, n);
+        inverseMassB = Arrays.copyOf(inverseMassB, n);
+        normalX = Arrays.copyOf(normalX, n);
+        normalY = Arrays.copyOf(normalY, n);
+        normalZ = Arrays.copyOf(normalZ, n);
+        tangent1X = Arrays.copyOf(tangent1X, n);
+        tangent1Y = Arrays.copyOf(tangent1Y, n);
+        tangent1Z = Arrays.copyOf(tangent1Z, n);
+        tangent2X = Arrays.copyOf(tangent2X, n);
+        tangent2Y = Arrays.copyOf(tangent2Y, n);
+        tangent2Z = Arrays.copyOf(tangent2Z, n);
+        startAX = Arrays.copyOf(startAX, n);
+        startAY = Arrays.copyOf(startAY, n);
+        startAZ = Arrays.copyOf(startAZ, n);
+        startBX = Arrays.copyOf(startBX, n);
+        startBY = Arrays.copyOf(startBY, n);
+        startBZ = Arrays.copyOf(startBZ, n);
+        depth = Arrays.copyOf(depth, n);
+        firstPoint = Arrays.copyOf(firstPoint, n);
+    }
+
+    private void ensurePointCapacity(int capacity) {
+        if (capacity <= normalImpulse.length) {
+            return;
+        }
+        int n = Math.max(capacity, normalImpulse.length * 2);
+        normalImpulse = Arrays.copyOf(normalImpulse, n);
+        tangentImpulse1 = Arrays.copyOf(tangentImpulse1, n);
+        tangentImpulse2 = Arrays.copyOf(tangentImpulse2, n);
+        velocityBias = Arrays.copyOf(velocityBias, n);
+    }
+
+    /**
+     * Define o número de iterações do solver.
+     *
+     * @param velocityIterations O número de iterações de velocidade.
+     * @param positionIterations O número de iterações de posição (usadas com {@link PositionCorrection#SPLIT_IMPULSE}).
+     */
+    public void setIterations(int velocityIterations, int positionIterations) {
+        if (velocityIterations < 1 || positionIterations < 0) {
+            throw new IllegalArgumentException("São necessárias ao menos 1 iteração de velocidade e 0 de posição.");
+        }
+        this.velocityIterations = velocityIterations;
+        this.positionIterations = positionIterations;
+    }
+
+    public int getVelocityIterations() {
+        return velocityIterations;
+    }
+
+    public int getPositionIterations() {
+        return positionIterations;
+    }
+
+    public double getFriction() {
+        return friction;
+    }
+
+    /**
+     * @param friction O coeficiente de atrito de Coulomb entre os corpos.
+     */
+    public void setFriction(double friction) {
+        if (friction < 0) {
+            throw new IllegalArgumentException("O coeficiente de atrito não pode ser negativo.");
+        }
+        this.friction = friction;
+    }
+
+    public double getRestitution() {
+        return restitution;
+    }
+
+    /**
+     * Define o coeficiente de restituição e a velocidade mínima de aproximação para que ele se aplique.
+     * Abaixo do limiar o contato é inelástico, o que evita que corpos em repouso trepidem.
+     *
+     * @param restitution A restituição (0 para sem rebote, 1 para rebote perfeito).
+     * @param threshold   A velocidade de aproximação mínima (m/s).
+     */
+    public void setRestitution(double restitution, double threshold) {
+        if (restitution < 0 || restitution > 1) {
+            throw new IllegalArgumentException("A restituição deve estar entre 0 e 1.");
+        }
+        this.restitution = restitution;
+        this.restitutionThreshold = threshold;
+    }
+
+    public PositionCorrection getPositionCorrection() {
+        return positionCorrection;
+    }
+
+    /**
+     * Define a estratégia de correção de penetração.
+     *
+     * @param positionCorrection A estratégia.
+     * @param factor             A fração da penetração corrigida por passo (ou por iteração de posição).
+     */
+    public void setPositionCorrection(PositionCorrection positionCorrection, double factor) {
+        if (factor <= 0 || factor > 1) {
+            throw new IllegalArgumentException("O fator de correção deve estar entre 0 e 1.");
+        }
+        this.positionCorrection = positionCorrection;
+        this.baumgarte = factor;
+    }
+
+    public boolean isWarmStarting() {
+        return warmStarting;
+    }
+
+    /**
+     * @param warmStarting true para iniciar o solver com os impulsos do passo anterior.
+     */
+    public void setWarmStarting(boolean warmStarting) {
+        this.warmStarting = warmStarting;
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.andre.physic;
+
+/**
+ * Grupo de corpos dinâmicos conectados por contatos que adormeceram juntos.
+ * Acordar qualquer um deles acorda a ilha inteira.
+ */
+class Island {
+    private final RigidBody[] bodies;
+
+    Island(RigidBody[] bodies) {
+        this.bodies = bodies;
+    }
+
+    void wake() {
+        for (RigidBody body : bodies) {
+            body.wakeFromIsland();
+        }
+    }
+
+    int size() {
+        return bodies.length;
+    }
+}
@@ -0,0 +1,177 @@
+package br.com.andre.physic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Detecta as ilhas de simulação sobre o grafo de contatos entre corpos dinâmicos e decide quais
+ * adormecem. Uma ilha só adormece quando todos os seus corpos estão em repouso há tempo suficiente;
+ * corpos estáticos não conectam ilhas.
+ */
+class IslandManager {
+    private final List<RigidBody> awakeBodies = new ArrayList<>();
+    private int[] unionParent = new int[16];
+    private double[] islandSleepTime = new double[16];
+    private int[] islandOfRoot = new int[16];
+    // Membros das ilhas que adormecem, agrupados por ilha: os da ilha k ficam entre
+    // islandStart[k] e islandStart[k + 1]
+    private int[] islandStart = new int[17];
+    private int[] islandMembers = new int[16];
+    private int[] contactA = new int[16];
+    private int[] contactB = new int[16];
+    private int contactCount;
+
+    /**
+     * Registra os corpos acordados no início da detecção de contatos do passo.
+     */
+    void begin(List<PhysicsBody> dynamicBodies) {
+        for (RigidBody body : awakeBodies) {
+            body.islandIndex = -1;
+        }
+        awakeBodies.clear();
+        contactCount = 0;
+        for (PhysicsBody body : dynamicBodies) {
+            if (body instanceof RigidBody && ((RigidBody) body).isAwake()) {
+                RigidBody rigidBody = (RigidBody) body;
+                rigidBody.islandIndex = awakeBodies.size();
+                awakeBodies.add(rigidBody);
+            }
+        }
+    }
+
+    /**
+     * Registra um contato entre dois corpos dinâmicos acordados. Um corpo acordado por este contato
+     * ainda não tem índice no passo e é incluído agora, para que fique na mesma ilha do outro.
+     */
+    void addContact(RigidBody bodyA, RigidBody bodyB) {
+        if (!bodyA.isAwake() || !bodyB.isAwake()) {
+            return;
+        }
+        addAwakened(bodyA);
+        addAwakened(bodyB);
+        if (contactCount == contactA.length) {
+            contactA = Arrays.copyOf(contactA, contactCount * 2);
+            contactB = Arrays.copyOf(contactB, contactCount * 2);
+        }
+        contactA[contactCount] = bodyA.islandIndex;
+        contactB[contactCount] = bodyB.islandIndex;
+        contactCount++;
+    }
+
+    private void addAwakened(RigidBody body) {
+        if (body.islandIndex < 0) {
+            body.islandIndex = awakeBodies.size();
+            awakeBodies.add(body);
+        }
+    }
+
+    /**
+     * Atualiza os tempos de repouso, agrupa os corpos em ilhas e adormece as ilhas em repouso.
+     *
+     * @param deltaTime         A duração do passo.
+     * @param linearTolerance   A velocidade abaixo da qual um corpo é considerado em repouso.
+     * @param timeToSleep       O tempo em repouso necessário para adormecer.
+     * @return O número de corpos adormecidos neste passo.
+     */
+    int solve(double deltaTime, double linearTolerance, double timeToSleep) {
+        int count = awakeBodies.size();
+        if (count == 0) {
+            return 0;
+        }
+
+        double toleranceSquared = linearTolerance * linearTolerance;
+        for (RigidBody body : awakeBodies) {
+            body.updateSleepTime(deltaTime, toleranceSquared);
+        }
+
+        if (unionParent.length < count) {
+            int capacity = Math.max(count, unionParent.length * 2);
+            unionParent = new int[capacity];
+            islandSleepTime = new double[capacity];
+            islandOfRoot = new int[capacity];
+            islandStart = new int[capacity + 1];
+            islandMembers = new int[capacity];
+        }
+        for (int i = 0; i < count; i++) {
+            unionParent[i] = i;
+        }
+        for (int c = 0; c < contactCount; c++) {
+            union(contactA[c], contactB[c]);
+        }
+
+        // Menor tempo em repouso de cada ilha, indexado pela raiz
+        Arrays.fill(islandSleepTime, 0, count, Double.MAX_VALUE);
+        for (int i = 0; i < count; i++) {
+            int root = find(i);
+            islandSleepTime[root] = Math.min(islandSleepTime[root], awakeBodies.get(i).getSleepTime());
+        }
+
+        // Numera as ilhas que adormecem e conta os seus membros
+        int islandCount = 0;
+        Arrays.fill(islandOfRoot, 0, count, -1);
+        for (int i = 0; i < count; i++) {
+            int root = find(i);
+            if (islandSleepTime[root] < timeToSleep) {
+                continue;
+            }
+            if (islandOfRoot[root] < 0) {
+                islandOfRoot[root] = islandCount;
+                islandStart[++islandCount] = 0;
+            }
+            islandStart[islandOfRoot[root] + 1]++;
+        }
+        if (islandCount == 0) {
+            return 0;
+        }
+
+        // Agrupa os membros por ilha, mantendo a ordem dos corpos
+        islandStart[0] = 0;
+        for (int k = 0; k < islandCount; k++) {
+            islandStart[k + 1] += islandStart[k];
+        }
+        for (int i = 0; i < count; i++) {
+            int root = find(i);
+            if (islandSleepTime[root] >= timeToSleep) {
+                int k = islandOfRoot[root];
+                islandMembers[islandStart[k]++] = i;
+            }
+        }
+        // O agrupamento avançou cada início até o fim da ilha; o início da ilha k é o fim da k - 1
+        int slept = 0;
+        for (int k = 0; k < islandCount; k++) {
+            int start = k == 0 ? 0 : islandStart[k - 1];
+            RigidBody[] members = new RigidBody[islandStart[k] - start];
+            for (int m = 0; m < members.length; m++) {
+                members[m] = awakeBodies.get(islandMembers[start + m]);
+            }
+            Island island = new Island(members);
+            for (RigidBody body : members) {
+                body.sleep(island);
+            }
+            slept += members.length;
+        }
+        return slept;
+    }
+
+    private int find(int i) {
+        while (unionParent[i] != i) {
+            unionParent[i] = unionParent[unionParent[i]];
+            i = unionParent[i];
+        }
+        return i;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA != rootB) {
+            // A menor raiz vence para que o resultado não dependa da ordem dos contatos
+            if (rootA < rootB) {
+                unionParent[rootB] = rootA;
+            } else {
+                unionParent[rootA] = rootB;
+            }
+        }
+    }
+}
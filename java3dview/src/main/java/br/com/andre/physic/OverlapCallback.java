@@ -0,0 +1,17 @@
+package br.com.andre.physic;
+
+import br.com.andre.graphic.PolygonGraphic;
+
+/**
+ * Recebe os objetos encontrados por uma consulta de sobreposição do {@link QueryService}.
+ */
+@FunctionalInterface
+public interface OverlapCallback {
+    /**
+     * Chamado para cada objeto que sobrepõe a forma consultada.
+     *
+     * @param body    O corpo encontrado, ou null se for um polígono.
+     * @param polygon O polígono encontrado, ou null se for um corpo.
+     */
+    void onOverlap(PhysicsBody body, PolygonGraphic polygon);
+}
@@ -4,15 +4,154 @@ import br.com.andre.collision.Collider;
 import br.com.andre.collision.CollisionListener;
 import br.com.andre.graphic.Vector3;
 import br.com.andre.collision.CollisionInfo;
+import br.com.andre.collision.ContactEvent;
+import br.com.andre.collision.ContactListener;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Classe abstrata que representa um corpo físico no sistema de física.
  */
 public abstract class PhysicsBody {
+    /**
+     * Categoria padrão dos corpos: o primeiro bit.
+     */
+    public static final int DEFAULT_CATEGORY = 1;
+    /**
+     * Máscara que aceita colisões com todas as categorias.
+     */
+    public static final int ALL_CATEGORIES = 0xFFFFFFFF;
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private final int id = NEXT_ID.getAndIncrement();
     private List<CollisionListener> collisionListeners = new ArrayList<>();
+    private final List<ContactListener> contactListeners = new ArrayList<>();
+    private final List<Set<ContactEvent.Type>> contactListenerTypes = new ArrayList<>();
+
+    // Filtro de colisão: dois corpos só interagem se a categoria de cada um estiver na máscara do outro
+    private int collisionCategory = DEFAULT_CATEGORY;
+    private int collisionMask = ALL_CATEGORIES;
+    private boolean sensor;
+
+    /**
+     * Obtém o identificador único do corpo, usado como chave de pares persistentes.
+     *
+     * @return O identificador do corpo.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Define as camadas de colisão do corpo.
+     *
+     * @param category Os bits das categorias a que o corpo pertence.
+     * @param mask     Os bits das categorias com que o corpo colide.
+     */
+    public void setCollisionFilter(int category, int mask) {
+        this.collisionCategory = category;
+        this.collisionMask = mask;
+    }
+
+    public int getCollisionCategory() {
+        return collisionCategory;
+    }
+
+    public int getCollisionMask() {
+        return collisionMask;
+    }
+
+    /**
+     * Verifica se dois corpos devem ser testados entre si, segundo suas categorias e máscaras.
+     *
+     * @param bodyA O primeiro corpo.
+     * @param bodyB O segundo corpo.
+     * @return true se cada corpo aceitar a categoria do outro.
+     */
+    public static boolean shouldCollide(PhysicsBody bodyA, PhysicsBody bodyB) {
+        return (bodyA.collisionCategory & bodyB.collisionMask) != 0
+                && (bodyB.collisionCategory & bodyA.collisionMask) != 0;
+    }
+
+    /**
+     * Verifica se o corpo é um sensor, isto é, se apenas reporta sobreposições sem ser resolvido.
+     *
+     * @return true se o corpo for um sensor.
+     */
+    public boolean isSensor() {
+        return sensor;
+    }
+
+    /**
+     * Define se o corpo é um sensor. Sensores notificam seus listeners e os dos corpos que os
+     * sobrepõem, mas não empurram nem são empurrados, e não mantêm corpos acordados.
+     *
+     * @param sensor true para tornar o corpo um sensor.
+     */
+    public void setSensor(boolean sensor) {
+        this.sensor = sensor;
+    }
+
+    /**
+     * Verifica se há listeners registrados, permitindo que o motor só monte os eventos
+     * quando alguém vai recebê-los.
+     *
+     * @return true se houver ao menos um listener de colisão ou de contato.
+     */
+    public boolean hasCollisionListeners() {
+        return !collisionListeners.isEmpty() || !contactListeners.isEmpty();
+    }
+
+    /**
+     * Adiciona um ContactListener que recebe apenas os tipos de evento indicados.
+     *
+     * @param listener O listener.
+     * @param types    Os tipos de evento assinados.
+     */
+    public void addContactListener(ContactListener listener, Set<ContactEvent.Type> types) {
+        contactListeners.add(listener);
+        contactListenerTypes.add(EnumSet.copyOf(types));
+    }
+
+    /**
+     * Adiciona um ContactListener que recebe todos os tipos de evento.
+     *
+     * @param listener O listener.
+     */
+    public void addContactListener(ContactListener listener) {
+        addContactListener(listener, EnumSet.allOf(ContactEvent.Type.class));
+    }
+
+    /**
+     * Entrega um evento de contato aos listeners que assinam o seu tipo. Os CollisionListeners
+     * recebem os eventos de início e de continuidade, isto é, a cada passo em que há contato.
+     *
+     * @param event O evento, do ponto de vista deste corpo.
+     */
+    public void notifyContact(ContactEvent event) {
+        for (int i = 0; i < contactListeners.size(); i++) {
+            if (contactListenerTypes.get(i).contains(event.getType())) {
+                contactListeners.get(i).onContact(event);
+            }
+        }
+        if (!collisionListeners.isEmpty() && event.getType() != ContactEvent.Type.END) {
+            notifyCollision(event.toCollisionInfo(), event.getOtherBody());
+        }
+    }
+
+    /**
+     * Verifica se o corpo está sendo simulado. Corpos que podem adormecer sobrescrevem este método.
+     *
+     * @return true se o corpo estiver acordado.
+     */
+    public boolean isAwake() {
+        return true;
+    }
 
     /**
      * Adiciona um CollisionListener ao corpo.
@@ -1,11 +1,26 @@
 package br.com.andre.physic;
 
-import br.com.andre.collision.Collider;
-import br.com.andre.collision.CollisionInfo;
+import br.com.andre.collision.BoundingBox;
+import br.com.andre.collision.ContactCache;
+import br.com.andre.collision.ContactEvent;
+import br.com.andre.collision.ContactEventBuffer;
+import br.com.andre.collision.ContactListener;
+import br.com.andre.collision.ContactManifold;
+import br.com.andre.collision.SweepHit;
+import br.com.andre.collision.broadphase.Broadphase;
+import br.com.andre.collision.broadphase.DynamicTreeBroadphase;
+import br.com.andre.collision.broadphase.PairCallback;
+import br.com.andre.collision.broadphase.SpatialHashGrid;
 import br.com.andre.graphic.Vector3;
+import br.com.andre.job.JobSystem;
+import br.com.andre.metrics.PhysicsStepEvent;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Classe responsável por gerenciar a física no jogo, incluindo a aplicação de forças, atualização de corpos e detecção de colisões.
@@ -13,10 +28,156 @@ import java.util.List;
 public class PhysicsEngine {
     private List<PhysicsBody> bodies;
     private Vector3 gravity;
+    private Broadphase broadphase;
+    private SpatialHashGrid staticGrid;
+    private final List<PhysicsBody> dynamicBodies = new ArrayList<>();
+    private final BodyStore bodyStore = new BodyStore();
+    private final PairCallback pairCollector = this::collectPair;
+
+    // Repouso: corpos abaixo da velocidade limite por tempo suficiente adormecem em ilhas
+    private final IslandManager islandManager = new IslandManager();
+    private double sleepLinearTolerance = 0.05;
+    private double timeToSleep = 0.5;
+
+    // Estado reutilizado na consulta dos corpos estáticos
+    private final BoundingBox queryBounds = new BoundingBox();
+    private PhysicsBody queryBody;
+    private final Consumer<PhysicsBody> staticPairCollector = staticBody -> collectPair(queryBody, staticBody);
+
+    // Colisão contínua: corpos que se deslocam mais que o próprio raio em um passo são varridos contra os estáticos
+    private static final double CONTINUOUS_SKIN = 1e-3;
+    private boolean continuousCollision = true;
+    private final SweepHit sweepHit = new SweepHit();
+    private RigidBody sweepBody;
+    private double sweepStartX, sweepStartY, sweepStartZ;
+    private double sweepX, sweepY, sweepZ;
+    private double sweepTime;
+    private double sweepNormalX, sweepNormalY, sweepNormalZ;
+    private final Consumer<PhysicsBody> sweepCollector = this::sweepAgainst;
+
+    // Passo paralelo: integração e narrowphase em blocos, resolução serial na ordem dos pares
+    private static final int INTEGRATION_CHUNK_SIZE = 256;
+    private static final int NARROWPHASE_CHUNK_SIZE = 128;
+    private JobSystem jobSystem;
+    private boolean ownsJobSystem;
+    private PhysicsBody[] pairA = new PhysicsBody[64];
+    private PhysicsBody[] pairB = new PhysicsBody[64];
+    private int pairCount;
+    private ContactBuffer[] contactBuffers = new ContactBuffer[0];
+
+    // Consultas espaciais (raios, varreduras e sobreposições) sobre os corpos do motor
+    private final QueryService queryService = new QueryService(this);
+
+    // Contatos persistentes entre passos, com os impulsos acumulados de cada par
+    private final ContactCache contactCache = new ContactCache();
+    private final ContactSolver contactSolver = new ContactSolver();
+
+    // Eventos de contato do passo, despachados em lote ao final de update
+    private final ContactEventBuffer contactEvents = new ContactEventBuffer();
+    private final List<ContactListener> contactListeners = new ArrayList<>();
+    private final List<Set<ContactEvent.Type>> contactListenerTypes = new ArrayList<>();
+    private final ContactCache.EndListener endCollector = (bodyA, bodyB, manifold) ->
+            contactEvents.add(ContactEvent.Type.END, bodyA, bodyB, manifold, !contactListeners.isEmpty());
 
     public PhysicsEngine() {
+        this(new DynamicTreeBroadphase(), new SpatialHashGrid(4.0));
+    }
+
+    /**
+     * Cria o motor de física com estruturas espaciais específicas.
+     *
+     * @param broadphase A broadphase dos corpos dinâmicos.
+     * @param staticGrid A grade dos corpos estáticos.
+     */
+    public PhysicsEngine(Broadphase broadphase, SpatialHashGrid staticGrid) {
         bodies = new ArrayList<>();
         gravity = new Vector3(0, -9.81, 0); // Gravidade apontando para baixo
+        this.broadphase = broadphase;
+        this.staticGrid = staticGrid;
+        this.jobSystem = JobSystem.shared();
+    }
+
+    /**
+     * Define quantas threads o passo da física usa, em um pool próprio. Com 1 thread tudo roda na
+     * thread chamadora. O resultado da simulação é o mesmo para qualquer número de threads.
+     *
+     * @param threads O número de threads.
+     */
+    public void setThreadCount(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("O número de threads deve ser ao menos 1.");
+        }
+        setJobSystem(new JobSystem(threads));
+        ownsJobSystem = true;
+    }
+
+    /**
+     * Define o sistema de tarefas em que o passo da física divide seu trabalho. Por padrão é o
+     * {@link JobSystem#shared() compartilhado}, o mesmo do loop do jogo.
+     *
+     * @param jobSystem O sistema de tarefas.
+     */
+    public void setJobSystem(JobSystem jobSystem) {
+        if (jobSystem == null) {
+            throw new IllegalArgumentException("O sistema de tarefas não pode ser nulo.");
+        }
+        shutdown();
+        this.jobSystem = jobSystem;
+        ownsJobSystem = false;
+    }
+
+    /**
+     * Libera as threads criadas por {@link #setThreadCount(int)}; um sistema de tarefas recebido de
+     * fora não é encerrado.
+     */
+    public void shutdown() {
+        if (ownsJobSystem) {
+            jobSystem.shutdown();
+        }
+    }
+
+    /**
+     * @return A aceleração da gravidade aplicada aos corpos dinâmicos.
+     */
+    public Vector3 getGravity() {
+        return gravity;
+    }
+
+    public Broadphase getBroadphase() {
+        return broadphase;
+    }
+
+    /**
+     * @return O armazenamento em arrays dos corpos rígidos do motor.
+     */
+    public BodyStore getBodyStore() {
+        return bodyStore;
+    }
+
+    /**
+     * @return O solver de contatos, para configurar iterações, atrito e restituição.
+     */
+    public ContactSolver getContactSolver() {
+        return contactSolver;
+    }
+
+    /**
+     * @return O serviço de consultas espaciais sobre os corpos do motor.
+     */
+    public QueryService getQueryService() {
+        return queryService;
+    }
+
+    List<PhysicsBody> getDynamicBodies() {
+        return dynamicBodies;
+    }
+
+    JobSystem getJobSystem() {
+        return jobSystem;
+    }
+
+    public SpatialHashGrid getStaticGrid() {
+        return staticGrid;
     }
 
     /**
@@ -26,6 +187,16 @@ public class PhysicsEngine {
      */
     public void addBody(PhysicsBody body) {
         bodies.add(body);
+        if (body.isStatic()) {
+            staticGrid.add(body);
+            queryService.addStaticBody(body);
+        } else {
+            if (body instanceof RigidBody) {
+                ((RigidBody) body).moveTo(bodyStore);
+            }
+            dynamicBodies.add(body);
+            broadphase.add(body);
+        }
     }
 
     /**
@@ -35,6 +206,20 @@ public class PhysicsEngine {
      */
     public void removeBody(PhysicsBody body) {
         bodies.remove(body);
+        if (body.isStatic()) {
+            staticGrid.remove(body);
+            queryService.removeStaticBody(body);
+            // Corpos apoiados no corpo removido precisam voltar a ser simulados
+            wakeAll();
+        } else {
+            if (body instanceof RigidBody) {
+                ((RigidBody) body).wakeUp();
+                // O corpo continua utilizável fora do motor, com um armazenamento próprio
+                ((RigidBody) body).moveTo(new BodyStore(1));
+            }
+            dynamicBodies.remove(body);
+            broadphase.remove(body);
+        }
     }
 
     /**
@@ -43,96 +228,301 @@ public class PhysicsEngine {
      * @param deltaTime O tempo decorrido desde a última atualização (em segundos).
      */
     public void update(double deltaTime) {
-        // Aplica gravidade
-        for (PhysicsBody body : bodies) {
-            if (!body.isStatic()) {
+        PhysicsStepEvent event = new PhysicsStepEvent();
+        event.begin();
+
+        // Integra os corpos rígidos em blocos paralelos sobre os arrays do BodyStore
+        double gravityX = gravity.getX(), gravityY = gravity.getY(), gravityZ = gravity.getZ();
+        jobSystem.parallelFor(bodyStore.size(), INTEGRATION_CHUNK_SIZE, (chunk, from, to) ->
+                bodyStore.integrate(from, to, deltaTime, gravityX, gravityY, gravityZ));
+
+        // Outros tipos de corpos dinâmicos são integrados individualmente
+        for (PhysicsBody body : dynamicBodies) {
+            if (!(body instanceof RigidBody)) {
                 body.applyForce(gravity.multiply(body.getMass()));
+                body.update(deltaTime);
             }
         }
 
-        // Atualiza todos os corpos
-        for (PhysicsBody body : bodies) {
-            body.update(deltaTime);
+        // Impede que corpos rápidos atravessem a geometria estática fina
+        if (continuousCollision) {
+            solveContinuousCollisions();
         }
 
         // Resolve colisões
-        handleCollisions();
+        islandManager.begin(dynamicBodies);
+        handleCollisions(deltaTime);
+
+        // Adormece as ilhas que estão em repouso
+        islandManager.solve(deltaTime, sleepLinearTolerance, timeToSleep);
+
+        // Os listeners só rodam depois que o passo terminou
+        contactEvents.dispatch(contactListeners, contactListenerTypes);
+
+        if (event.shouldCommit()) {
+            event.setBodies(bodyStore.size());
+            event.setCandidatePairs(pairCount);
+            event.setContactPairs(contactCache.size());
+            event.commit();
+        }
     }
 
     /**
-     * Detecta e resolve colisões entre os corpos.
+     * Adiciona um listener que recebe os eventos de contato de todos os pares, após cada passo.
+     *
+     * @param listener O listener.
+     * @param types    Os tipos de evento assinados.
      */
-    private void handleCollisions() {
-        for (int i = 0; i < bodies.size(); i++) {
-            PhysicsBody bodyA = bodies.get(i);
-            Collider colliderA = bodyA.getCollider();
+    public void addContactListener(ContactListener listener, Set<ContactEvent.Type> types) {
+        contactListeners.add(listener);
+        contactListenerTypes.add(EnumSet.copyOf(types));
+    }
 
-            for (int j = i + 1; j < bodies.size(); j++) {
-                PhysicsBody bodyB = bodies.get(j);
-                Collider colliderB = bodyB.getCollider();
+    /**
+     * Ativa ou desativa a colisão contínua para corpos rápidos.
+     *
+     * @param continuousCollision true para varrer os corpos que se deslocam mais que o raio por passo.
+     */
+    public void setContinuousCollision(boolean continuousCollision) {
+        this.continuousCollision = continuousCollision;
+    }
+
+    public boolean isContinuousCollision() {
+        return continuousCollision;
+    }
+
+    /**
+     * Varre do início ao fim do passo os corpos cujo deslocamento excede o raio e, se atingirem um
+     * corpo estático, os recua até o instante do impacto e remove a velocidade contra a superfície.
+     * Corpos mais lentos não podem atravessar nada que a detecção discreta não veja, e não pagam o teste.
+     */
+    private void solveContinuousCollisions() {
+        for (int i = 0; i < bodyStore.size(); i++) {
+            if (!bodyStore.awake[i]) {
+                continue;
+            }
+            double dx = bodyStore.positionX[i] - bodyStore.previousX[i];
+            double dy = bodyStore.positionY[i] - bodyStore.previousY[i];
+            double dz = bodyStore.positionZ[i] - bodyStore.previousZ[i];
+            double radius = bodyStore.radius[i];
+            if (dx * dx + dy * dy + dz * dz <= radius * radius || bodyStore.getBody(i).isSensor()) {
+                continue;
+            }
 
-                CollisionInfo collisionInfo = colliderA.checkCollision(colliderB);
+            sweepBody = bodyStore.getBody(i);
+            sweepStartX = bodyStore.previousX[i];
+            sweepStartY = bodyStore.previousY[i];
+            sweepStartZ = bodyStore.previousZ[i];
+            sweepX = dx;
+            sweepY = dy;
+            sweepZ = dz;
+            sweepTime = Double.MAX_VALUE;
+            queryBounds.set(
+                    Math.min(sweepStartX, sweepStartX + dx) - radius,
+                    Math.min(sweepStartY, sweepStartY + dy) - radius,
+                    Math.min(sweepStartZ, sweepStartZ + dz) - radius,
+                    Math.max(sweepStartX, sweepStartX + dx) + radius,
+                    Math.max(sweepStartY, sweepStartY + dy) + radius,
+                    Math.max(sweepStartZ, sweepStartZ + dz) + radius);
+            staticGrid.query(queryBounds, sweepCollector);
 
-                if (collisionInfo.hasCollision()) {
-                    resolveCollision(bodyA, bodyB, collisionInfo);
+            if (sweepTime <= 1) {
+                double t = sweepTime;
+                sweepBody.translate(
+                        sweepStartX + dx * t + sweepNormalX * CONTINUOUS_SKIN - bodyStore.positionX[i],
+                        sweepStartY + dy * t + sweepNormalY * CONTINUOUS_SKIN - bodyStore.positionY[i],
+                        sweepStartZ + dz * t + sweepNormalZ * CONTINUOUS_SKIN - bodyStore.positionZ[i]);
+                double velocityAlongNormal = bodyStore.velocityX[i] * sweepNormalX
+                        + bodyStore.velocityY[i] * sweepNormalY + bodyStore.velocityZ[i] * sweepNormalZ;
+                if (velocityAlongNormal < 0) {
+                    bodyStore.velocityX[i] -= sweepNormalX * velocityAlongNormal;
+                    bodyStore.velocityY[i] -= sweepNormalY * velocityAlongNormal;
+                    bodyStore.velocityZ[i] -= sweepNormalZ * velocityAlongNormal;
                 }
             }
         }
+        sweepBody = null;
     }
 
     /**
-     * Resolve a colisão entre dois corpos físicos.
-     *
-     * @param bodyA         O primeiro corpo envolvido na colisão.
-     * @param bodyB         O segundo corpo envolvido na colisão.
-     * @param collisionInfo Informações sobre a colisão.
-     */
-    private void resolveCollision(PhysicsBody bodyA, PhysicsBody bodyB, CollisionInfo collisionInfo) {
-        RigidBody dynamicBody;
-        PhysicsBody otherBody;
-
-        if (bodyA.isStatic() && bodyB.isStatic()) {
-            return; // Dois corpos estáticos não precisam de resolução
-        } else if (!bodyA.isStatic() && bodyB.isStatic()) {
-            dynamicBody = (RigidBody) bodyA;
-            otherBody = bodyB;
-        } else if (bodyA.isStatic() && !bodyB.isStatic()) {
-            dynamicBody = (RigidBody) bodyB;
-            otherBody = bodyA;
-            // Inverte a normal da colisão para o corpo dinâmico
-            collisionInfo = new CollisionInfo(
-                    collisionInfo.hasCollision(),
-                    collisionInfo.getCollisionNormal().multiply(-1),
-                    collisionInfo.getPenetrationDepth().multiply(-1)
-            );
-        } else {
-            // Implementar colisões entre dois corpos dinâmicos se necessário
-            // Atualmente, não tratamos colisões entre dois RigidBodies
+     * Varre o corpo atual contra um corpo estático, guardando o impacto mais cedo.
+     */
+    private void sweepAgainst(PhysicsBody staticBody) {
+        if (staticBody.isSensor() || !PhysicsBody.shouldCollide(sweepBody, staticBody)) {
             return;
         }
+        boolean hit = staticBody.getCollider().sweepSphere(sweepStartX, sweepStartY, sweepStartZ,
+                sweepBody.getRadius(), sweepX, sweepY, sweepZ, sweepHit);
+        if (hit && sweepHit.getTime() < sweepTime) {
+            sweepTime = sweepHit.getTime();
+            sweepNormalX = sweepHit.getNormalX();
+            sweepNormalY = sweepHit.getNormalY();
+            sweepNormalZ = sweepHit.getNormalZ();
+        }
+    }
 
-        // Separar o corpo dinâmico
-        Vector3 penetration = collisionInfo.getPenetrationDepth();
-        dynamicBody.setPosition(dynamicBody.getPosition().add(penetration));
+    /**
+     * Acorda todos os corpos dinâmicos.
+     */
+    public void wakeAll() {
+        for (PhysicsBody body : dynamicBodies) {
+            if (body instanceof RigidBody) {
+                ((RigidBody) body).wakeUp();
+            }
+        }
+    }
 
-        // Ajustar velocidade
-        Vector3 velocity = dynamicBody.getVelocity();
-        Vector3 normal = collisionInfo.getCollisionNormal();
-        double velocityAlongNormal = velocity.dot(normal);
+    /**
+     * Define os limiares de repouso.
+     *
+     * @param linearTolerance A velocidade (m/s) abaixo da qual um corpo é considerado em repouso.
+     * @param timeToSleep     O tempo em repouso (s) necessário para que a ilha adormeça.
+     */
+    public void setSleepThresholds(double linearTolerance, double timeToSleep) {
+        this.sleepLinearTolerance = linearTolerance;
+        this.timeToSleep = timeToSleep;
+    }
 
-        if (velocityAlongNormal < 0) {
-            // Coeficiente de restituição (0 para sem rebote)
-            double restitution = 0.0;
+    private static boolean isAwake(PhysicsBody body) {
+        return !(body instanceof RigidBody) || ((RigidBody) body).isAwake();
+    }
 
-            // Calcula o impulso
-            double impulseMagnitude = -(1 + restitution) * velocityAlongNormal;
-            impulseMagnitude /= dynamicBody.getInverseMass();
+    /**
+     * Detecta e resolve colisões entre os corpos.
+     * <p>
+     * A broadphase emite os pares entre corpos dinâmicos e cada corpo dinâmico consulta apenas as
+     * células da grade estática que seus limites sobrepõem. A narrowphase roda em paralelo sobre
+     * blocos de pares, cada bloco gravando em seu próprio buffer de contatos; o solver recebe os
+     * contatos na ordem dos blocos, o que mantém o resultado determinístico.
+     */
+    private void handleCollisions(double deltaTime) {
+        pairCount = 0;
+        broadphase.update();
+        broadphase.findPairs(pairCollector);
 
-            Vector3 impulse = normal.multiply(impulseMagnitude);
-            dynamicBody.setVelocity(dynamicBody.getVelocity().add(impulse.multiply(dynamicBody.getInverseMass())));
+        for (PhysicsBody body : dynamicBodies) {
+            if (!isAwake(body)) {
+                continue;
+            }
+            body.getCollider().computeBounds(queryBounds);
+            queryBody = body;
+            staticGrid.query(queryBounds, staticPairCollector);
+        }
+        queryBody = null;
+
+        int chunks = JobSystem.chunkCount(pairCount, NARROWPHASE_CHUNK_SIZE);
+        ensureContactBuffers(chunks);
+        jobSystem.parallelFor(pairCount, NARROWPHASE_CHUNK_SIZE, (chunk, from, to) -> {
+            ContactBuffer buffer = contactBuffers[chunk];
+            buffer.clear();
+            for (int i = from; i < to; i++) {
+                ContactManifold manifold = buffer.acquire();
+                // O GJK começa pelo eixo de separação do passo anterior (leitura apenas no cache)
+                contactCache.loadSimplexCache(pairA[i], pairB[i], manifold.getSimplexCache());
+                if (pairA[i].getCollider().collide(pairB[i].getCollider(), manifold)) {
+                    buffer.commit(i);
+                }
+            }
+        });
+
+        contactCache.beginStep();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            ContactBuffer buffer = contactBuffers[chunk];
+            for (int c = 0; c < buffer.size(); c++) {
+                int pair = buffer.getPairIndex(c);
+                onContact(pairA[pair], pairB[pair], buffer.getManifold(c));
+            }
         }
 
-        // Notificar sobre a colisão
-        dynamicBody.notifyCollision(collisionInfo, otherBody);
+        contactSolver.solve(deltaTime);
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            ContactBuffer buffer = contactBuffers[chunk];
+            for (int c = 0; c < buffer.size(); c++) {
+                int pair = buffer.getPairIndex(c);
+                afterContact(pairA[pair], pairB[pair], buffer.getManifold(c));
+            }
+            buffer.clear();
+        }
+        contactCache.endStep(endCollector);
+        Arrays.fill(pairA, 0, pairCount, null);
+        Arrays.fill(pairB, 0, pairCount, null);
+    }
+
+    /**
+     * Registra um par candidato para a narrowphase.
+     *
+     * @param bodyA O primeiro corpo do par.
+     * @param bodyB O segundo corpo do par.
+     */
+    private void collectPair(PhysicsBody bodyA, PhysicsBody bodyB) {
+        boolean awakeA = !bodyA.isStatic() && isAwake(bodyA);
+        boolean awakeB = !bodyB.isStatic() && isAwake(bodyB);
+        if (!awakeA && !awakeB) {
+            return; // Corpos adormecidos não são testados entre si nem contra estáticos
+        }
+        if (!PhysicsBody.shouldCollide(bodyA, bodyB)) {
+            return; // Camadas que não interagem nunca chegam à narrowphase
+        }
+
+        if (pairCount == pairA.length) {
+            pairA = Arrays.copyOf(pairA, pairCount * 2);
+            pairB = Arrays.copyOf(pairB, pairCount * 2);
+        }
+        pairA[pairCount] = bodyA;
+        pairB[pairCount] = bodyB;
+        pairCount++;
+    }
+
+    /**
+     * Trata um contato encontrado pela narrowphase, na fase serial.
+     */
+    private void onContact(PhysicsBody bodyA, PhysicsBody bodyB, ContactManifold manifold) {
+        // O cache diz se o contato começou agora ou continua do passo anterior
+        boolean persisted = contactCache.update(bodyA, bodyB, manifold);
+        contactEvents.add(persisted ? ContactEvent.Type.PERSIST : ContactEvent.Type.BEGIN,
+                bodyA, bodyB, manifold, !contactListeners.isEmpty());
+        if (bodyA.isSensor() || bodyB.isSensor()) {
+            return; // Sensores apenas reportam a sobreposição
+        }
+        if (bodyA instanceof RigidBody && bodyB instanceof RigidBody) {
+            // O contato com um corpo acordado acorda a ilha do outro
+            ((RigidBody) bodyA).wakeUp();
+            ((RigidBody) bodyB).wakeUp();
+            islandManager.addContact((RigidBody) bodyA, (RigidBody) bodyB);
+        }
+        contactSolver.addContact(bodyA, bodyB, manifold);
+    }
+
+    /**
+     * Guarda os impulsos resolvidos para o warm starting do próximo passo.
+     */
+    private void afterContact(PhysicsBody bodyA, PhysicsBody bodyB, ContactManifold manifold) {
+        contactCache.store(bodyA, bodyB, manifold);
+    }
+
+    /**
+     * @return O número de pares em contato no último passo.
+     */
+    public int getContactCount() {
+        return contactCache.size();
+    }
+
+    /**
+     * @return O número de pares candidatos da broadphase testados na narrowphase no último passo.
+     */
+    public int getCandidatePairCount() {
+        return pairCount;
+    }
+
+    private void ensureContactBuffers(int chunks) {
+        if (contactBuffers.length >= chunks) {
+            return;
+        }
+        int oldLength = contactBuffers.length;
+        contactBuffers = Arrays.copyOf(contactBuffers, Math.max(chunks, oldLength * 2));
+        for (int i = oldLength; i < contactBuffers.length; i++) {
+            contactBuffers[i] = new ContactBuffer();
+        }
     }
-}
\ No newline at end of file
+}
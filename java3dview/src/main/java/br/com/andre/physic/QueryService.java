@@ -0,0 +1,352 @@
+package br.com.andre.physic;
+
+import br.com.andre.collision.BoundingBox;
+import br.com.andre.collision.Collider;
+import br.com.andre.collision.SweepHit;
+import br.com.andre.collision.broadphase.DynamicAABBTree;
+import br.com.andre.collision.broadphase.DynamicTreeBroadphase;
+import br.com.andre.collision.broadphase.TreeRayCastCallback;
+import br.com.andre.collision.collider_object.PolygonCollider;
+import br.com.andre.graphic.PolygonGraphic;
+import br.com.andre.graphic.Vector3;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Consultas espaciais sobre o mundo: lançamento de raios e de esferas e sobreposições com esferas
+ * e caixas, contra a geometria estática e os corpos dinâmicos do {@link PhysicsEngine}.
+ * <p>
+ * Os corpos estáticos e os polígonos do mapa ficam em uma {@link DynamicAABBTree} própria; os corpos
+ * dinâmicos são consultados na árvore da broadphase quando ela é uma {@link DynamicTreeBroadphase}.
+ * Sensores são ignorados e os polígonos pertencem à categoria {@link PhysicsBody#DEFAULT_CATEGORY}.
+ * <p>
+ * As consultas não podem rodar junto com {@link PhysicsEngine#update(double)}, mas podem ser feitas
+ * por várias threads ao mesmo tempo: o estado de cada consulta fica na thread que a faz. Lotes de
+ * raios ({@link #raycast(RaycastBatch)}) são resolvidos em paralelo pelas threads do motor.
+ */
+public class QueryService {
+    private static final int RAY_CHUNK_SIZE = 64;
+
+    private final PhysicsEngine engine;
+    private final DynamicAABBTree<StaticShape> staticTree = new DynamicAABBTree<>(0);
+    private final Map<PhysicsBody, Integer> staticProxies = new IdentityHashMap<>();
+    private final BoundingBox bounds = new BoundingBox();
+    // Estado de uma consulta de raio, um por thread
+    private final ThreadLocal<RayQuery> queries = ThreadLocal.withInitial(RayQuery::new);
+
+    /**
+     * Objeto estático indexado: um corpo ou um polígono do mapa.
+     */
+    private static final class StaticShape {
+        final Collider collider;
+        final PhysicsBody body;
+        final PolygonGraphic polygon;
+
+        StaticShape(Collider collider, PhysicsBody body, PolygonGraphic polygon) {
+            this.collider = collider;
+            this.body = body;
+            this.polygon = polygon;
+        }
+    }
+
+    QueryService(PhysicsEngine engine) {
+        this.engine = engine;
+    }
+
+    void addStaticBody(PhysicsBody body) {
+        body.getCollider().computeBounds(bounds);
+        staticProxies.put(body, staticTree.createProxy(bounds, new StaticShape(body.getCollider(), body, null)));
+    }
+
+    void removeStaticBody(PhysicsBody body) {
+        Integer proxy = staticProxies.remove(body);
+        if (proxy != null) {
+            staticTree.destroyProxy(proxy);
+        }
+    }
+
+    /**
+     * Indexa os polígonos da geometria do mapa para as consultas. Polígonos com menos de 3 vértices
+     * são ignorados; os demais são tratados como convexos.
+     *
+     * @param polygons Os polígonos.
+     */
+    public void addPolygons(List<PolygonGraphic> polygons) {
+        for (PolygonGraphic polygon : polygons) {
+            if (polygon.getVertices().size() < 3) {
+                continue;
+            }
+            PolygonCollider collider = new PolygonCollider(polygon.getVertices());
+            collider.computeBounds(bounds);
+            staticTree.createProxy(bounds, new StaticShape(collider, null, polygon));
+        }
+    }
+
+    /**
+     * Lança um raio e encontra o primeiro objeto atingido.
+     *
+     * @param origin      A origem do raio.
+     * @param direction   A direção do raio (não precisa ser normalizada).
+     * @param maxDistance O alcance do raio.
+     * @param out         Recebe o impacto mais próximo.
+     * @return true se o raio atingiu algo.
+     */
+    public boolean raycast(Vector3 origin, Vector3 direction, double maxDistance, RaycastHit out) {
+        return raycast(origin, direction, maxDistance, PhysicsBody.ALL_CATEGORIES, out);
+    }
+
+    /**
+     * Lança um raio e encontra o primeiro objeto atingido entre as categorias indicadas.
+     *
+     * @param origin      A origem do raio.
+     * @param direction   A direção do raio (não precisa ser normalizada).
+     * @param maxDistance O alcance do raio.
+     * @param mask        As categorias que o raio pode atingir.
+     * @param out         Recebe o impacto mais próximo.
+     * @return true se o raio atingiu algo.
+     */
+    public boolean raycast(Vector3 origin, Vector3 direction, double maxDistance, int mask, RaycastHit out) {
+        return cast(origin, 0, direction, maxDistance, mask, out);
+    }
+
+    /**
+     * Varre uma esfera e encontra o primeiro objeto atingido. Objetos que a esfera já toca na
+     * origem são reportados com distância zero.
+     *
+     * @param origin      O centro inicial da esfera.
+     * @param radius      O raio da esfera.
+     * @param direction   A direção da varredura (não precisa ser normalizada).
+     * @param maxDistance A distância máxima percorrida pelo centro.
+     * @param mask        As categorias que a esfera pode atingir.
+     * @param out         Recebe o impacto mais próximo.
+     * @return true se a esfera atingiu algo.
+     */
+    public boolean sphereCast(Vector3 origin, double radius, Vector3 direction, double maxDistance, int mask, RaycastHit out) {
+        if (radius <= 0) {
+            throw new IllegalArgumentException("O raio da esfera deve ser positivo.");
+        }
+        return cast(origin, radius, direction, maxDistance, mask, out);
+    }
+
+    /**
+     * Resolve todos os raios de um lote, em paralelo. O resultado de cada raio é o mesmo de
+     * {@link #raycast(Vector3, Vector3, double, int, RaycastHit)}.
+     *
+     * @param batch O lote de raios, que recebe os resultados.
+     */
+    public void raycast(RaycastBatch batch) {
+        engine.getJobSystem().parallelFor(batch.size(), RAY_CHUNK_SIZE, (chunk, from, to) -> {
+            RayQuery rayQuery = queries.get();
+            for (int ray = from; ray < to; ray++) {
+                double maxDistance = batch.getMaxDistance(ray);
+                rayQuery.begin(batch.getOriginX(ray), batch.getOriginY(ray), batch.getOriginZ(ray),
+                        batch.getDirectionX(ray) * maxDistance, batch.getDirectionY(ray) * maxDistance,
+                        batch.getDirectionZ(ray) * maxDistance, 0, batch.getMask(ray));
+                rayQuery.run();
+                if (rayQuery.hitFound) {
+                    batch.setResult(ray, rayQuery.fraction * maxDistance, rayQuery.normalX, rayQuery.normalY,
+                            rayQuery.normalZ, rayQuery.hitBody, rayQuery.hitPolygon);
+                } else {
+                    batch.setResult(ray, -1, 0, 0, 0, null, null);
+                }
+                rayQuery.clearHit();
+            }
+        });
+    }
+
+    /**
+     * Encontra os objetos que tocam uma esfera.
+     *
+     * @param center   O centro da esfera.
+     * @param radius   O raio da esfera.
+     * @param mask     As categorias consultadas.
+     * @param callback Recebe cada objeto encontrado.
+     * @return O número de objetos encontrados.
+     */
+    public int overlapSphere(Vector3 center, double radius, int mask, OverlapCallback callback) {
+        double cx = center.getX(), cy = center.getY(), cz = center.getZ();
+        int[] count = {0};
+        staticTree.querySphere(cx, cy, cz, radius, proxy -> {
+            StaticShape shape = staticTree.getUserData(proxy);
+            if (accepts(shape.body, mask) && shape.collider.overlapsSphere(cx, cy, cz, radius)) {
+                count[0]++;
+                callback.onOverlap(shape.body, shape.polygon);
+            }
+            return true;
+        });
+        forEachDynamicNear(cx - radius, cy - radius, cz - radius, cx + radius, cy + radius, cz + radius, body -> {
+            if (accepts(body, mask) && body.getCollider().overlapsSphere(cx, cy, cz, radius)) {
+                count[0]++;
+                callback.onOverlap(body, null);
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Encontra os objetos que tocam uma caixa alinhada aos eixos.
+     *
+     * @param box      A caixa.
+     * @param mask     As categorias consultadas.
+     * @param callback Recebe cada objeto encontrado.
+     * @return O número de objetos encontrados.
+     */
+    public int overlapBox(BoundingBox box, int mask, OverlapCallback callback) {
+        int[] count = {0};
+        staticTree.query(box, proxy -> {
+            StaticShape shape = staticTree.getUserData(proxy);
+            if (accepts(shape.body, mask) && shape.collider.overlapsBox(box)) {
+                count[0]++;
+                callback.onOverlap(shape.body, shape.polygon);
+            }
+            return true;
+        });
+        forEachDynamicNear(box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ(), body -> {
+            if (accepts(body, mask) && body.getCollider().overlapsBox(box)) {
+                count[0]++;
+                callback.onOverlap(body, null);
+            }
+        });
+        return count[0];
+    }
+
+    private boolean cast(Vector3 origin, double radius, Vector3 direction, double maxDistance, int mask, RaycastHit out) {
+        double length = direction.length();
+        if (length == 0) {
+            throw new IllegalArgumentException("A direção do raio não pode ser nula.");
+        }
+        double scale = maxDistance / length;
+        RayQuery query = queries.get();
+        query.begin(origin.getX(), origin.getY(), origin.getZ(),
+                direction.getX() * scale, direction.getY() * scale, direction.getZ() * scale, radius, mask);
+        query.run();
+        boolean hit = query.hitFound;
+        if (hit) {
+            double t = query.fraction;
+            out.set(t * maxDistance,
+                    query.ox + query.dx * t, query.oy + query.dy * t, query.oz + query.dz * t,
+                    query.normalX, query.normalY, query.normalZ, query.hitBody, query.hitPolygon);
+        }
+        query.clearHit();
+        return hit;
+    }
+
+    private void forEachDynamicNear(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                                    Consumer<PhysicsBody> visitor) {
+        if (engine.getBroadphase() instanceof DynamicTreeBroadphase) {
+            DynamicAABBTree<PhysicsBody> tree = ((DynamicTreeBroadphase) engine.getBroadphase()).getTree();
+            tree.query(minX, minY, minZ, maxX, maxY, maxZ, proxy -> {
+                visitor.accept(tree.getUserData(proxy));
+                return true;
+            });
+        } else {
+            for (PhysicsBody body : engine.getDynamicBodies()) {
+                visitor.accept(body);
+            }
+        }
+    }
+
+    private static boolean accepts(PhysicsBody body, int mask) {
+        if (body == null) {
+            return (PhysicsBody.DEFAULT_CATEGORY & mask) != 0; // Polígono do mapa
+        }
+        return !body.isSensor() && (body.getCollisionCategory() & mask) != 0;
+    }
+
+    /**
+     * Estado de um lançamento: cada thread de um lote usa a sua instância, e o callback das árvores
+     * encurta o raio a cada impacto mais próximo.
+     */
+    private final class RayQuery implements TreeRayCastCallback {
+        private final SweepHit sweepHit = new SweepHit();
+        private DynamicAABBTree<?> tree;
+
+        double ox, oy, oz, dx, dy, dz;
+        double radius;
+        int mask;
+
+        boolean hitFound;
+        double fraction;
+        double normalX, normalY, normalZ;
+        PhysicsBody hitBody;
+        PolygonGraphic hitPolygon;
+
+        void begin(double ox, double oy, double oz, double dx, double dy, double dz, double radius, int mask) {
+            this.ox = ox;
+            this.oy = oy;
+            this.oz = oz;
+            this.dx = dx;
+            this.dy = dy;
+            this.dz = dz;
+            this.radius = radius;
+            this.mask = mask;
+            hitFound = false;
+            fraction = 1;
+        }
+
+        void run() {
+            tree = staticTree;
+            staticTree.raycast(ox, oy, oz, dx, dy, dz, radius, 1, this);
+            if (fraction > 0) {
+                if (engine.getBroadphase() instanceof DynamicTreeBroadphase) {
+                    DynamicAABBTree<PhysicsBody> dynamicTree = ((DynamicTreeBroadphase) engine.getBroadphase()).getTree();
+                    tree = dynamicTree;
+                    dynamicTree.raycast(ox, oy, oz, dx, dy, dz, radius, fraction, this);
+                } else {
+                    for (PhysicsBody body : engine.getDynamicBodies()) {
+                        test(body.getCollider(), body, null);
+                    }
+                }
+            }
+            tree = null;
+        }
+
+        void clearHit() {
+            hitBody = null;
+            hitPolygon = null;
+        }
+
+        @Override
+        public double onProxy(int proxyId, double maxFraction) {
+            Object data = tree.getUserData(proxyId);
+            if (data instanceof StaticShape) {
+                StaticShape shape = (StaticShape) data;
+                test(shape.collider, shape.body, shape.polygon);
+            } else {
+                PhysicsBody body = (PhysicsBody) data;
+                test(body.getCollider(), body, null);
+            }
+            return fraction;
+        }
+
+        private void test(Collider collider, PhysicsBody body, PolygonGraphic polygon) {
+            if (!accepts(body, mask)) {
+                return;
+            }
+            if (radius == 0) {
+                if (collider.raycast(ox, oy, oz, dx, dy, dz, fraction, sweepHit) && sweepHit.getTime() < fraction) {
+                    record(sweepHit.getTime(), sweepHit.getNormalX(), sweepHit.getNormalY(), sweepHit.getNormalZ(), body, polygon);
+                }
+            } else if (collider.overlapsSphere(ox, oy, oz, radius)) {
+                // Já sobreposto na origem: impacto imediato, com a normal oposta à varredura
+                double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                record(0, -dx / length, -dy / length, -dz / length, body, polygon);
+            } else if (collider.sweepSphere(ox, oy, oz, radius, dx, dy, dz, sweepHit) && sweepHit.getTime() < fraction) {
+                record(sweepHit.getTime(), sweepHit.getNormalX(), sweepHit.getNormalY(), sweepHit.getNormalZ(), body, polygon);
+            }
+        }
+
+        private void record(double time, double nx, double ny, double nz, PhysicsBody body, PolygonGraphic polygon) {
+            hitFound = true;
+            fraction = time;
+            normalX = nx;
+            normalY = ny;
+            normalZ = nz;
+            hitBody = body;
+            hitPolygon = polygon;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.andre.physic;
+
+import br.com.andre.graphic.PolygonGraphic;
+import br.com.andre.graphic.Vector3;
+
+import java.util.Arrays;
+
+/**
+ * Lote de raios resolvidos de uma vez por {@link QueryService#raycast(RaycastBatch)}, em paralelo.
+ * <p>
+ * Os raios e os resultados ficam em arrays paralelos; o lote é reaproveitado entre quadros com
+ * {@link #clear()}, sem alocações depois que atinge a capacidade necessária.
+ */
+public class RaycastBatch {
+    private double[] originX = new double[64], originY = new double[64], originZ = new double[64];
+    private double[] directionX = new double[64], directionY = new double[64], directionZ = new double[64];
+    private double[] maxDistance = new double[64];
+    private int[] mask = new int[64];
+    private int size;
+
+    private double[] hitDistance = new double[64];
+    private double[] normalX = new double[64], normalY = new double[64], normalZ = new double[64];
+    private PhysicsBody[] bodies = new PhysicsBody[64];
+    private PolygonGraphic[] polygons = new PolygonGraphic[64];
+
+    /**
+     * Adiciona um raio que testa todas as categorias.
+     *
+     * @return O índice do raio no lote.
+     */
+    public int add(Vector3 origin, Vector3 direction, double maxDistance) {
+        return add(origin.getX(), origin.getY(), origin.getZ(),
+                direction.getX(), direction.getY(), direction.getZ(), maxDistance, PhysicsBody.ALL_CATEGORIES);
+    }
+
+    /**
+     * Adiciona um raio ao lote.
+     *
+     * @param ox          A origem no eixo X.
+     * @param oy          A origem no eixo Y.
+     * @param oz          A origem no eixo Z.
+     * @param dx          A direção no eixo X (é normalizada).
+     * @param dy          A direção no eixo Y.
+     * @param dz          A direção no eixo Z.
+     * @param maxDistance O alcance do raio.
+     * @param mask        As categorias de corpos que o raio pode atingir.
+     * @return O índice do raio no lote.
+     */
+    public int add(double ox, double oy, double oz, double dx, double dy, double dz, double maxDistance, int mask) {
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (length == 0) {
+            throw new IllegalArgumentException("A direção do raio não pode ser nula.");
+        }
+        if (size == originX.length) {
+            grow(size * 2);
+        }
+        int i = size++;
+        originX[i] = ox;
+        originY[i] = oy;
+        originZ[i] = oz;
+        directionX[i] = dx / length;
+        directionY[i] = dy / length;
+        directionZ[i] = dz / length;
+        this.maxDistance[i] = maxDistance;
+        this.mask[i] = mask;
+        hitDistance[i] = -1;
+        return i;
+    }
+
+    /**
+     * Remove todos os raios, mantendo a capacidade.
+     */
+    public void clear() {
+        Arrays.fill(bodies, 0, size, null);
+        Arrays.fill(polygons, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true se o raio atingiu algo na última resolução.
+     */
+    public boolean hasHit(int ray) {
+        return hitDistance[ray] >= 0;
+    }
+
+    /**
+     * @return A distância até o impacto, ou -1 se o raio não atingiu nada.
+     */
+    public double getDistance(int ray) {
+        return hitDistance[ray];
+    }
+
+    public double getNormalX(int ray) { return normalX[ray]; }
+    public double getNormalY(int ray) { return normalY[ray]; }
+    public double getNormalZ(int ray) { return normalZ[ray]; }
+    public PhysicsBody getBody(int ray) { return bodies[ray]; }
+    public PolygonGraphic getPolygon(int ray) { return polygons[ray]; }
+
+    double getOriginX(int ray) { return originX[ray]; }
+    double getOriginY(int ray) { return originY[ray]; }
+    double getOriginZ(int ray) { return originZ[ray]; }
+    double getDirectionX(int ray) { return directionX[ray]; }
+    double getDirectionY(int ray) { return directionY[ray]; }
+    double getDirectionZ(int ray) { return directionZ[ray]; }
+    double getMaxDistance(int ray) { return maxDistance[ray]; }
+    int getMask(int ray) { return mask[ray]; }
+
+    void setResult(int ray, double distance, double nx, double ny, double nz, PhysicsBody body, PolygonGraphic polygon) {
+        hitDistance[ray] = distance;
+        normalX[ray] = nx;
+        normalY[ray] = ny;
+        normalZ[ray] = nz;
+        bodies[ray] = body;
+        polygons[ray] = polygon;
+    }
+
+    private void grow(int capacity) {
+        originX = Arrays.copyOf(originX, capacity);
+        originY = Arrays.copyOf(originY, capacity);
+        originZ = Arrays.copyOf(originZ, capacity);
+        directionX = Arrays.copyOf(directionX, capacity);
+        directionY = Arrays.copyOf(directionY, capacity);
+        directionZ = Arrays.copyOf(directionZ, capacity);
+        maxDistance = Arrays.copyOf(maxDistance, capacity);
+        mask = Arrays.copyOf(mask, capacity);
+        hitDistance = Arrays.copyOf(hitDistance, capacity);
+        normalX = Arrays.copyOf(normalX, capacity);
+        normalY = Arrays.copyOf(normalY, capacity);
+        normalZ = Arrays.copyOf(normalZ, capacity);
+        bodies = Arrays.copyOf(bodies, capacity);
+        polygons = Arrays.copyOf(polygons, capacity);
+    }
+}
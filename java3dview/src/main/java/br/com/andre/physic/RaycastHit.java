@@ -0,0 +1,69 @@
+package br.com.andre.physic;
+
+import br.com.andre.graphic.PolygonGraphic;
+import br.com.andre.graphic.Vector3;
+
+/**
+ * Resultado reutilizável de um lançamento de raio ou de esfera pelo {@link QueryService}.
+ * <p>
+ * O objeto atingido é um corpo físico ou um polígono da geometria estática; o outro campo fica nulo.
+ */
+public class RaycastHit {
+    private double distance;
+    private double pointX, pointY, pointZ;
+    private double normalX, normalY, normalZ;
+    private PhysicsBody body;
+    private PolygonGraphic polygon;
+
+    void set(double distance, double pointX, double pointY, double pointZ,
+             double normalX, double normalY, double normalZ, PhysicsBody body, PolygonGraphic polygon) {
+        this.distance = distance;
+        this.pointX = pointX;
+        this.pointY = pointY;
+        this.pointZ = pointZ;
+        this.normalX = normalX;
+        this.normalY = normalY;
+        this.normalZ = normalZ;
+        this.body = body;
+        this.polygon = polygon;
+    }
+
+    /**
+     * @return A distância percorrida pelo raio (ou pelo centro da esfera) até o impacto.
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return A posição do raio (ou do centro da esfera) no instante do impacto.
+     */
+    public Vector3 getPoint() {
+        return new Vector3(pointX, pointY, pointZ);
+    }
+
+    public Vector3 getNormal() {
+        return new Vector3(normalX, normalY, normalZ);
+    }
+
+    public double getPointX() { return pointX; }
+    public double getPointY() { return pointY; }
+    public double getPointZ() { return pointZ; }
+    public double getNormalX() { return normalX; }
+    public double getNormalY() { return normalY; }
+    public double getNormalZ() { return normalZ; }
+
+    /**
+     * @return O corpo atingido, ou null se o impacto foi em um polígono.
+     */
+    public PhysicsBody getBody() {
+        return body;
+    }
+
+    /**
+     * @return O polígono atingido, ou null se o impacto foi em um corpo.
+     */
+    public PolygonGraphic getPolygon() {
+        return polygon;
+    }
+}
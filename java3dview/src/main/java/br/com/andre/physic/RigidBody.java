@@ -6,22 +6,55 @@ import br.com.andre.graphic.Vector3;
 
 /**
  * Representa um corpo rígido no sistema de física.
+ * <p>
+ * O estado do corpo fica em um {@link BodyStore}; esta classe é um handle para o índice do corpo
+ * nele. Um corpo criado sem armazenamento recebe um próprio e é transferido para o armazenamento
+ * do {@link PhysicsEngine} quando adicionado a ele.
  */
 public class RigidBody extends PhysicsBody {
-    private Vector3 velocity;
-    private Vector3 position;
-    private double mass;
-    private double inverseMass;
     private SphereCollider collider;
-    private Vector3 forceAccum;
+    BodyStore store;
+    int index;
+
+    // Ilha com a qual o corpo adormeceu; acordar o corpo acorda a ilha inteira
+    private Island island;
+    int islandIndex = -1;
 
     public RigidBody(Vector3 startPosition, double mass, SphereCollider collider) {
-        this.position = startPosition;
-        this.mass = mass;
-        this.inverseMass = mass > 0 ? 1.0 / mass : 0.0;
+        this(new BodyStore(1), startPosition, mass, collider);
+    }
+
+    /**
+     * Cria o corpo diretamente em um armazenamento existente, evitando a transferência posterior.
+     *
+     * @param store         O armazenamento do corpo.
+     * @param startPosition A posição inicial.
+     * @param mass          A massa.
+     * @param collider      O colisor esférico.
+     */
+    public RigidBody(BodyStore store, Vector3 startPosition, double mass, SphereCollider collider) {
         this.collider = collider;
-        this.velocity = new Vector3(0, 0, 0);
-        this.forceAccum = new Vector3(0, 0, 0);
+        this.store = store;
+        this.index = store.allocate(this, collider, startPosition.getX(), startPosition.getY(), startPosition.getZ(), mass);
+        collider.updatePosition(startPosition.getX(), startPosition.getY(), startPosition.getZ());
+    }
+
+    /**
+     * Transfere o estado do corpo para outro armazenamento.
+     *
+     * @param target O novo armazenamento.
+     */
+    void moveTo(BodyStore target) {
+        if (target == store) {
+            return;
+        }
+        BodyStore source = store;
+        int sourceIndex = index;
+        int targetIndex = target.allocate(this, collider, 0, 0, 0, 0);
+        BodyStore.copy(source, sourceIndex, target, targetIndex);
+        source.release(sourceIndex);
+        store = target;
+        index = targetIndex;
     }
 
     /**
@@ -30,29 +63,133 @@ public class RigidBody extends PhysicsBody {
      * @param force A força a ser aplicada.
      */
     public void applyForce(Vector3 force) {
-        forceAccum = forceAccum.add(force);
+        if (!store.awake[index] && force.lengthSquared() > 0) {
+            wakeUp();
+        }
+        store.forceX[index] += force.getX();
+        store.forceY[index] += force.getY();
+        store.forceZ[index] += force.getZ();
     }
 
     @Override
     public void update(double deltaTime) {
-        // Calcula a aceleração
-        Vector3 acceleration = forceAccum.multiply(inverseMass);
+        store.integrateBody(index, deltaTime, 0, 0, 0);
+    }
+
+    /**
+     * Verifica se o corpo está acordado, isto é, se participa da integração.
+     *
+     * @return true se o corpo estiver acordado.
+     */
+    @Override
+    public boolean isAwake() {
+        return store.awake[index];
+    }
+
+    /**
+     * Acorda o corpo e todos os corpos da ilha com a qual ele adormeceu.
+     */
+    public void wakeUp() {
+        if (store.awake[index]) {
+            return;
+        }
+        if (island != null) {
+            island.wake();
+        } else {
+            wakeFromIsland();
+        }
+    }
+
+    public boolean isSleepAllowed() {
+        return store.sleepAllowed[index];
+    }
+
+    /**
+     * Define se o corpo pode adormecer. Corpos controlados diretamente (como o jogador) não devem adormecer.
+     *
+     * @param sleepAllowed true para permitir que o corpo adormeça.
+     */
+    public void setSleepAllowed(boolean sleepAllowed) {
+        store.sleepAllowed[index] = sleepAllowed;
+        if (!sleepAllowed) {
+            wakeUp();
+            store.sleepTime[index] = 0;
+        }
+    }
 
-        // Atualiza a velocidade
-        velocity = velocity.add(acceleration.multiply(deltaTime));
+    /**
+     * @return Há quanto tempo (em segundos) o corpo está abaixo do limiar de velocidade de repouso.
+     */
+    public double getSleepTime() {
+        return store.sleepTime[index];
+    }
 
-        // Aplica damping
-        double damping = 0.98; // Ajuste conforme necessário
-        velocity = velocity.multiply(damping);
+    /**
+     * Acumula o tempo em repouso se a velocidade estiver abaixo do limiar.
+     */
+    void updateSleepTime(double deltaTime, double linearToleranceSquared) {
+        double vx = store.velocityX[index], vy = store.velocityY[index], vz = store.velocityZ[index];
+        if (!store.sleepAllowed[index] || vx * vx + vy * vy + vz * vz > linearToleranceSquared) {
+            store.sleepTime[index] = 0;
+        } else {
+            store.sleepTime[index] += deltaTime;
+        }
+    }
+
+    void sleep(Island island) {
+        this.island = island;
+        int i = index;
+        store.awake[i] = false;
+        store.velocityX[i] = 0;
+        store.velocityY[i] = 0;
+        store.velocityZ[i] = 0;
+        store.forceX[i] = 0;
+        store.forceY[i] = 0;
+        store.forceZ[i] = 0;
+        store.previousX[i] = store.positionX[i];
+        store.previousY[i] = store.positionY[i];
+        store.previousZ[i] = store.positionZ[i];
+    }
+
+    void wakeFromIsland() {
+        island = null;
+        store.awake[index] = true;
+        store.sleepTime[index] = 0;
+    }
 
-        // Atualiza a posição
-        position = position.add(velocity.multiply(deltaTime));
+    /**
+     * Guarda a posição atual como estado anterior, antes de um passo da simulação.
+     */
+    public void storePreviousState() {
+        store.previousX[index] = store.positionX[index];
+        store.previousY[index] = store.positionY[index];
+        store.previousZ[index] = store.positionZ[index];
+    }
 
-        // Atualiza o colisor
-        collider.updatePosition(position);
+    /**
+     * Interpola a posição entre o passo anterior e o atual, para a renderização.
+     *
+     * @param alpha A fração (0 a 1) entre o estado anterior e o atual.
+     * @return A posição interpolada.
+     */
+    public Vector3 getInterpolatedPosition(double alpha) {
+        int i = index;
+        return new Vector3(
+                store.previousX[i] + (store.positionX[i] - store.previousX[i]) * alpha,
+                store.previousY[i] + (store.positionY[i] - store.previousY[i]) * alpha,
+                store.previousZ[i] + (store.positionZ[i] - store.previousZ[i]) * alpha
+        );
+    }
 
-        // Limpa as forças acumuladas
-        forceAccum = new Vector3(0, 0, 0);
+    /**
+     * Desloca o corpo e seu colisor sem alocar vetores.
+     */
+    void translate(double dx, double dy, double dz) {
+        int i = index;
+        store.positionX[i] += dx;
+        store.positionY[i] += dy;
+        store.positionZ[i] += dz;
+        collider.updatePosition(store.positionX[i], store.positionY[i], store.positionZ[i]);
     }
 
     @Override
@@ -67,32 +204,43 @@ public class RigidBody extends PhysicsBody {
 
     @Override
     public Vector3 getVelocity() {
-        return velocity;
+        return new Vector3(store.velocityX[index], store.velocityY[index], store.velocityZ[index]);
     }
 
     @Override
     public void setVelocity(Vector3 velocity) {
-        this.velocity = velocity;
+        store.velocityX[index] = velocity.getX();
+        store.velocityY[index] = velocity.getY();
+        store.velocityZ[index] = velocity.getZ();
     }
 
     @Override
     public Vector3 getPosition() {
-        return position;
+        return new Vector3(store.positionX[index], store.positionY[index], store.positionZ[index]);
     }
 
     @Override
     public void setPosition(Vector3 position) {
-        this.position = position;
-        collider.updatePosition(position);
+        store.positionX[index] = position.getX();
+        store.positionY[index] = position.getY();
+        store.positionZ[index] = position.getZ();
+        collider.updatePosition(position.getX(), position.getY(), position.getZ());
     }
 
     @Override
     public double getMass() {
-        return mass;
+        return store.mass[index];
     }
 
     @Override
     public double getInverseMass() {
-        return inverseMass;
+        return store.inverseMass[index];
+    }
+
+    /**
+     * @return O raio do colisor esférico do corpo.
+     */
+    public double getRadius() {
+        return store.radius[index];
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,375 @@
+package br.com.andre.tools;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Gera labirintos grandes em OBJ e MTL para testes de escala do carregador, da BSP, do renderizador
+ * e da colisão.
+ * <p>
+ * O labirinto é criado linha a linha pelo algoritmo de Eller, que só precisa do estado da linha
+ * atual: a saída é escrita em fluxo e a memória usada é proporcional ao número de colunas, não ao
+ * tamanho do mapa. O resultado depende apenas da semente e dos parâmetros. Cada célula tem um piso
+ * e as paredes são caixas com cinco faces (sem a de baixo), nos grupos {@code Floor} e {@code Wall}
+ * que o {@link br.com.andre.graphic.OBJLoader} reconhece. As faces seguem a orientação que o
+ * {@code Renderer} considera frontal, então o descarte de faces traseiras pode ficar ligado.
+ * <p>
+ * Uso: {@code java -cp Java3DView.jar br.com.andre.tools.MazeGenerator <arquivo.obj> <colunas>
+ * <linhas> [--seed N] [--cell TAMANHO] [--height ALTURA] [--variation FRAÇÃO] [--thickness ESPESSURA]}
+ */
+public class MazeGenerator {
+    private static final int FLOOR_REGION_SIZE = 8;
+    // Faces da caixa de uma parede, pelos cantos (x + 2y + 4z): -X, +X, -Z, +Z e topo
+    private static final int[][] BOX_FACES = {
+            {0, 2, 6, 4},
+            {1, 5, 7, 3},
+            {0, 1, 3, 2},
+            {4, 6, 7, 5},
+            {2, 3, 7, 6}
+    };
+
+    private final int columns;
+    private final int rows;
+    private final long seed;
+    private double cellSize = 2.0;
+    private double wallHeight = 2.0;
+    private double heightVariation = 0.25;
+    private double wallThickness = 0.2;
+
+    // Estado da escrita
+    private Writer writer;
+    private final StringBuilder line = new StringBuilder(128);
+    private long vertexCount;
+    private long polygonCount;
+    private String currentGroup;
+    private String currentMaterial;
+
+    /**
+     * @param columns O número de células no eixo X.
+     * @param rows    O número de células no eixo Z.
+     * @param seed    A semente; a mesma semente gera sempre o mesmo arquivo.
+     */
+    public MazeGenerator(int columns, int rows, long seed) {
+        if (columns < 1 || rows < 1) {
+            throw new IllegalArgumentException("O labirinto precisa de ao menos uma coluna e uma linha.");
+        }
+        this.columns = columns;
+        this.rows = rows;
+        this.seed = seed;
+    }
+
+    public void setCellSize(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("O tamanho da célula deve ser positivo.");
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Define a altura das paredes. Cada parede recebe uma altura sorteada em
+     * {@code height * (1 ± variation)}; paredes acima da base usam um material próprio.
+     *
+     * @param height    A altura base.
+     * @param variation A variação relativa (0 a 1).
+     */
+    public void setWallHeight(double height, double variation) {
+        if (height <= 0 || variation < 0 || variation >= 1) {
+            throw new IllegalArgumentException("A altura deve ser positiva e a variação estar em [0, 1).");
+        }
+        this.wallHeight = height;
+        this.heightVariation = variation;
+    }
+
+    public void setWallThickness(double wallThickness) {
+        if (wallThickness <= 0 || wallThickness >= cellSize) {
+            throw new IllegalArgumentException("A espessura da parede deve ser positiva e menor que a célula.");
+        }
+        this.wallThickness = wallThickness;
+    }
+
+    /**
+     * Gera o labirinto. O arquivo MTL é escrito ao lado do OBJ, com o mesmo nome base.
+     *
+     * @param objFile O arquivo OBJ de saída.
+     * @return O número de polígonos escritos.
+     * @throws IOException Se a escrita falhar.
+     */
+    public long generate(Path objFile) throws IOException {
+        String baseName = objFile.getFileName().toString().replaceFirst("\\.obj$", "");
+        Path mtlFile = objFile.resolveSibling(baseName + ".mtl");
+        writeMaterials(mtlFile);
+
+        vertexCount = 0;
+        polygonCount = 0;
+        currentGroup = null;
+        currentMaterial = null;
+        try (BufferedWriter output = Files.newBufferedWriter(objFile, StandardCharsets.UTF_8)) {
+            writer = output;
+            writer.write("# Labirinto " + columns + "x" + rows + " gerado com a semente " + seed + "\n");
+            writer.write("mtllib " + mtlFile.getFileName() + "\n");
+            writeMaze();
+        } finally {
+            writer = null;
+        }
+        return polygonCount;
+    }
+
+    /**
+     * Algoritmo de Eller: cada célula da linha pertence a um conjunto; células vizinhas de
+     * conjuntos diferentes são unidas ao acaso (removendo a parede entre elas) e cada conjunto
+     * desce para a próxima linha por ao menos uma célula. Na última linha todos os conjuntos são
+     * unidos, o que garante um labirinto perfeito (um único caminho entre duas células).
+     */
+    private void writeMaze() throws IOException {
+        Random random = new Random(seed);
+        // Alturas em um gerador separado: mudar a altura não muda o traçado
+        Random heights = new Random(seed ^ 0x5DEECE66DL);
+
+        int[] set = new int[columns];
+        int[] parent = new int[columns * 2];
+        int[] remap = new int[columns * 2];
+        int[] lastCell = new int[columns * 2];
+        boolean[] hasDown = new boolean[columns * 2];
+        boolean[] eastWall = new boolean[columns];
+        boolean[] down = new boolean[columns];
+        Arrays.fill(set, -1);
+
+        // Linha de vértices do piso em z = 0 e parede da borda norte
+        long floorLine = writeFloorLine(0);
+        for (int c = 0; c < columns; c++) {
+            writeWall(c * cellSize, (c + 1) * cellSize, 0, 0, heights);
+        }
+
+        for (int r = 0; r < rows; r++) {
+            boolean lastRow = r == rows - 1;
+
+            // Renumera os conjuntos da linha em 0..colunas-1; células sem conexão de cima ganham um novo
+            Arrays.fill(remap, -1);
+            int nextSet = 0;
+            for (int c = 0; c < columns; c++) {
+                int old = set[c] < 0 ? -1 : find(parent, set[c]);
+                if (old < 0) {
+                    set[c] = nextSet++;
+                } else {
+                    if (remap[old] < 0) {
+                        remap[old] = nextSet++;
+                    }
+                    set[c] = remap[old];
+                }
+            }
+            for (int i = 0; i < nextSet; i++) {
+                parent[i] = i;
+                hasDown[i] = false;
+            }
+
+            // Uniões horizontais
+            for (int c = 0; c < columns - 1; c++) {
+                int a = find(parent, set[c]);
+                int b = find(parent, set[c + 1]);
+                boolean join = a != b && (lastRow || random.nextBoolean());
+                if (join) {
+                    parent[b] = a;
+                }
+                eastWall[c] = !join;
+            }
+            eastWall[columns - 1] = true;
+
+            // Conexões verticais: ao menos uma por conjunto
+            if (!lastRow) {
+                for (int c = 0; c < columns; c++) {
+                    int root = find(parent, set[c]);
+                    down[c] = random.nextBoolean();
+                    hasDown[root] |= down[c];
+                    lastCell[root] = c;
+                }
+                for (int c = 0; c < columns; c++) {
+                    int root = find(parent, set[c]);
+                    if (!hasDown[root]) {
+                        down[lastCell[root]] = true;
+                        hasDown[root] = true;
+                    }
+                }
+            } else {
+                Arrays.fill(down, false);
+            }
+
+            long nextFloorLine = writeFloorLine(r + 1);
+            writeFloorRow(r, floorLine, nextFloorLine);
+            floorLine = nextFloorLine;
+
+            double z0 = r * cellSize, z1 = (r + 1) * cellSize;
+            writeWall(0, 0, z0, z1, heights);
+            for (int c = 0; c < columns; c++) {
+                if (eastWall[c]) {
+                    writeWall((c + 1) * cellSize, (c + 1) * cellSize, z0, z1, heights);
+                }
+                if (!down[c]) {
+                    writeWall(c * cellSize, (c + 1) * cellSize, z1, z1, heights);
+                }
+            }
+
+            for (int c = 0; c < columns; c++) {
+                set[c] = down[c] ? find(parent, set[c]) + columns : -1;
+            }
+            // Os conjuntos que descem são identificados por raiz + colunas até a renumeração
+            for (int c = 0; c < columns; c++) {
+                if (set[c] >= 0) {
+                    parent[set[c]] = set[c];
+                }
+            }
+        }
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    /**
+     * Escreve os vértices de uma linha da grade do piso.
+     *
+     * @return O índice OBJ (base 1) do primeiro vértice da linha.
+     */
+    private long writeFloorLine(int row) throws IOException {
+        setGroup("Floor");
+        long first = vertexCount + 1;
+        double z = row * cellSize;
+        for (int c = 0; c <= columns; c++) {
+            writeVertex(c * cellSize, 0, z);
+        }
+        return first;
+    }
+
+    private void writeFloorRow(int row, long line0, long line1) throws IOException {
+        setGroup("Floor");
+        for (int c = 0; c < columns; c++) {
+            boolean alternate = ((c / FLOOR_REGION_SIZE) + (row / FLOOR_REGION_SIZE)) % 2 == 1;
+            setMaterial(alternate ? "FloorMaterialAlt" : "FloorMaterial");
+            writeFace(line0 + c, line0 + c + 1, line1 + c + 1, line1 + c);
+        }
+    }
+
+    /**
+     * Escreve uma parede como caixa ao longo do segmento (x0, z0)-(x1, z1), alinhado a um eixo. As
+     * pontas avançam meia espessura para fechar os cantos.
+     */
+    private void writeWall(double x0, double x1, double z0, double z1, Random heights) throws IOException {
+        double half = wallThickness * 0.5;
+        double height = wallHeight * (1 + heightVariation * (heights.nextDouble() * 2 - 1));
+        setGroup("Wall");
+        setMaterial(height > wallHeight ? "WallMaterialTall" : "WallMaterial");
+
+        long first = vertexCount + 1;
+        double minX = x0 - half, maxX = x1 + half, minZ = z0 - half, maxZ = z1 + half;
+        for (int corner = 0; corner < 8; corner++) {
+            writeVertex((corner & 1) == 0 ? minX : maxX, (corner & 2) == 0 ? 0 : height, (corner & 4) == 0 ? minZ : maxZ);
+        }
+        for (int[] face : BOX_FACES) {
+            writeFace(first + face[0], first + face[1], first + face[2], first + face[3]);
+        }
+    }
+
+    private void setGroup(String group) throws IOException {
+        if (!group.equals(currentGroup)) {
+            writer.write("g " + group + "\n");
+            currentGroup = group;
+            currentMaterial = null;
+        }
+    }
+
+    private void setMaterial(String material) throws IOException {
+        if (!material.equals(currentMaterial)) {
+            writer.write("usemtl " + material + "\n");
+            currentMaterial = material;
+        }
+    }
+
+    private void writeVertex(double x, double y, double z) throws IOException {
+        line.setLength(0);
+        line.append("v ");
+        appendCoordinate(x);
+        line.append(' ');
+        appendCoordinate(y);
+        line.append(' ');
+        appendCoordinate(z);
+        line.append('\n');
+        writer.append(line);
+        vertexCount++;
+    }
+
+    private void writeFace(long a, long b, long c, long d) throws IOException {
+        line.setLength(0);
+        line.append("f ").append(a).append(' ').append(b).append(' ').append(c).append(' ').append(d).append('\n');
+        writer.append(line);
+        polygonCount++;
+    }
+
+    /**
+     * Escreve a coordenada com três casas decimais fixas, sem notação científica e sem o custo de
+     * {@link String#format}.
+     */
+    private void appendCoordinate(double value) {
+        long scaled = Math.round(value * 1000);
+        if (scaled < 0) {
+            line.append('-');
+            scaled = -scaled;
+        }
+        line.append(scaled / 1000).append('.');
+        long fraction = scaled % 1000;
+        if (fraction < 100) {
+            line.append('0');
+        }
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+
+    private static void writeMaterials(Path mtlFile) throws IOException {
+        Files.writeString(mtlFile, "# Materiais do labirinto gerado\n\n"
+                + "newmtl FloorMaterial\nKd 0.7 0.7 0.7\nillum 2\n\n"
+                + "newmtl FloorMaterialAlt\nKd 0.55 0.5 0.45\nillum 2\n\n"
+                + "newmtl WallMaterial\nKd 0.2 0.2 0.8\nillum 2\n\n"
+                + "newmtl WallMaterialTall\nKd 0.6 0.2 0.2\nillum 2\n", StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Uso: MazeGenerator <arquivo.obj> <colunas> <linhas> [--seed N] [--cell TAMANHO]"
+                    + " [--height ALTURA] [--variation FRAÇÃO] [--thickness ESPESSURA]");
+            System.exit(1);
+        }
+        Path objFile = Path.of(args[0]);
+        int columns = Integer.parseInt(args[1]);
+        int rows = Integer.parseInt(args[2]);
+        long seed = 42;
+        double cell = 2.0, height = 2.0, variation = 0.25, thickness = 0.2;
+        for (int i = 3; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--cell" -> cell = Double.parseDouble(args[i + 1]);
+                case "--height" -> height = Double.parseDouble(args[i + 1]);
+                case "--variation" -> variation = Double.parseDouble(args[i + 1]);
+                case "--thickness" -> thickness = Double.parseDouble(args[i + 1]);
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+        }
+
+        MazeGenerator generator = new MazeGenerator(columns, rows, seed);
+        generator.setCellSize(cell);
+        generator.setWallHeight(height, variation);
+        generator.setWallThickness(thickness);
+        long start = System.nanoTime();
+        long polygons = generator.generate(objFile);
+        System.out.printf("%d polígonos escritos em %s (%.1f s)%n", polygons, objFile, (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.andre.util;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de chaves {@code long} para valores {@code int} com endereçamento aberto.
+ * <p>
+ * Evita o boxing de {@code HashMap<Long, Integer>} nas estruturas espaciais que são
+ * consultadas a cada passo da simulação.
+ */
+public class LongIntHashMap {
+    private static final double LOAD_FACTOR = 0.6;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Obtém o valor associado à chave.
+     *
+     * @param key          A chave.
+     * @param defaultValue O valor retornado quando a chave não existe.
+     * @return O valor associado ou {@code defaultValue}.
+     */
+    public int get(long key, int defaultValue) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Associa o valor à chave, substituindo o valor anterior se existir.
+     *
+     * @param key   A chave.
+     * @param value O valor.
+     */
+    public void put(long key, int value) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    public boolean containsKey(long key) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Remove a chave do mapa, reposicionando as entradas seguintes da sequência de sondagem.
+     *
+     * @param key A chave.
+     * @return true se a chave existia.
+     */
+    public boolean remove(long key) {
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                shiftBack(slot);
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private void shiftBack(int hole) {
+        // Remoção sem marcadores: puxa para o buraco as entradas que o ultrapassaram na sondagem
+        int slot = (hole + 1) & mask;
+        while (used[slot]) {
+            int home = hash(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                hole = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[hole] = false;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(newCapacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(long key) {
+        // Finalizador do MurmurHash3 para espalhar chaves de células vizinhas
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}